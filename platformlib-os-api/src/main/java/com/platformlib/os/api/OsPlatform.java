@@ -1,13 +1,22 @@
 package com.platformlib.os.api;
 
+import com.platformlib.os.api.osi.AsyncOsInterface;
+import com.platformlib.os.api.osi.BlockingAsyncOsInterface;
 import com.platformlib.os.api.osi.OsInterface;
 import com.platformlib.os.api.enums.OperationSystem;
 import com.platformlib.os.api.enums.OsFamily;
+import com.platformlib.os.api.exception.OperationSystemException;
+import com.platformlib.process.api.ProcessInstance;
 import com.platformlib.process.builder.ProcessBuilder;
+import com.platformlib.process.configurator.ProcessOutputConfigurator;
 
 import java.io.Closeable;
 import java.nio.file.FileSystem;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 /**
  * Operation system interface.
@@ -52,6 +61,17 @@ public interface OsPlatform extends Closeable {
      */
     <T extends OsInterface> T getTypedOsInterface(Class<T> clazz);
 
+    /**
+     * Get asynchronous Operating System Interface.
+     * The {@link OsInterface} methods are blocking adapters over the asynchronous ones.
+     * By default {@link #getOsInterface()} is returned if it's asynchronous, otherwise its blocking calls are run by {@link BlockingAsyncOsInterface}.
+     * @return Returns asynchronous OSI
+     */
+    default AsyncOsInterface getAsyncOsInterface() {
+        final OsInterface osInterface = getOsInterface();
+        return osInterface instanceof AsyncOsInterface ? (AsyncOsInterface) osInterface : new BlockingAsyncOsInterface(osInterface);
+    }
+
     /**
      * Get environment variable value.
      * @param osEnvVariable environment variable name
@@ -59,6 +79,41 @@ public interface OsPlatform extends Closeable {
      */
     Optional<String> getEnvVariable(String osEnvVariable);
 
+    /**
+     * Get environment variables snapshot.
+     * The snapshot is captured by one OS call on the first access and reused until {@link #refreshEnvironment()}.
+     * By default the environment is read by env command or Windows set command on every call, there is no snapshot.
+     * @return Returns immutable map of environment variables, variable names are case insensitive on Windows
+     */
+    default Map<String, String> getEnvironment() {
+        final boolean windows = OsFamily.WINDOWS == getOsFamily();
+        final ProcessInstance processInstance = newProcessBuilder().processInstance(ProcessOutputConfigurator::unlimited).build().execute(windows ? "set" : "env").toCompletableFuture().join();
+        if (processInstance.getExitCode() != 0) {
+            throw new OperationSystemException("Fail to read environment variables, exit code " + processInstance.getExitCode());
+        }
+        final Map<String, String> environment = windows ? new TreeMap<>(String.CASE_INSENSITIVE_ORDER) : new HashMap<>();
+        String name = null;
+        for (final String line : processInstance.getStdOut()) {
+            final int separatorIndex = line.indexOf('=', 1);
+            if (separatorIndex > 0) {
+                name = line.substring(0, separatorIndex);
+                environment.put(name, line.substring(separatorIndex + 1));
+            } else if (name != null) {
+                //A line without '=' continues multi-line value of the previous variable
+                environment.put(name, environment.get(name) + '\n' + line);
+            }
+        }
+        return Collections.unmodifiableMap(environment);
+    }
+
+    /**
+     * Drop environment variables snapshot, so the next access captures it again.
+     * By default there is no snapshot, so nothing is done.
+     */
+    default void refreshEnvironment() {
+        //Nothing to refresh
+    }
+
     /**
      * Release all resources.
      */
@@ -0,0 +1,24 @@
+package com.platformlib.os.api.dto;
+
+/**
+ * OS command execution result.
+ */
+public interface OsCommandResult {
+    /**
+     * Get command exit code.
+     * @return Returns exit code
+     */
+    int getExitCode();
+
+    /**
+     * Get command stdout.
+     * @return Returns stdout lines joined by new line
+     */
+    String getStdOut();
+
+    /**
+     * Get command stderr.
+     * @return Returns stderr lines joined by new line
+     */
+    String getStdErr();
+}
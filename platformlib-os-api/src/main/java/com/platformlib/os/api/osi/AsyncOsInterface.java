@@ -0,0 +1,105 @@
+package com.platformlib.os.api.osi;
+
+import com.platformlib.os.api.exception.UnsupportedOperationSystemException;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+
+/**
+ * Asynchronous Operating System Interface.
+ * The methods don't block the calling thread for OS calls: the stages are composed of asynchronous process executions,
+ * the file system based steps are run by the platform executor.
+ */
+public interface AsyncOsInterface {
+
+    /**
+     * Get OS version.
+     * @return Returns stage of OS version
+     */
+    CompletionStage<OsVersion> getOsVersionAsync();
+
+    /**
+     * List OS processes.
+     * @return Returns stage of OS processes collection
+     */
+    CompletionStage<Collection<OsProcess>> getOsProcessesAsync();
+
+    /**
+     * List OS processes which match the query.
+     * By default the processes are filtered on the client side by {@link OsProcessQuery#matches(OsProcess)}, implementations should override it to filter them on the OS side.
+     * @param query OS process query
+     * @return Returns stage of matching OS processes collection
+     */
+    default CompletionStage<Collection<OsProcess>> getOsProcessesAsync(OsProcessQuery query) {
+        return getOsProcessesAsync().thenApply(osProcesses -> osProcesses.stream().filter(query::matches).collect(Collectors.toList()));
+    }
+
+    /**
+     * Enumerate OS processes without collecting them, the enumeration stops once the visitor returns false.
+     * The visitor is called by the thread which parses the processes, the failure of the visitor fails the returned stage.
+     * By default the processes of {@link #getOsProcessesAsync()} are visited, implementations should override it to deliver every process as soon as it's parsed.
+     * @param visitor OS process visitor
+     * @return Returns stage which is completed when the enumeration is over
+     */
+    default CompletionStage<Void> visitOsProcessesAsync(OsProcessVisitor visitor) {
+        return getOsProcessesAsync().thenAccept(osProcesses -> {
+            for (final OsProcess osProcess : osProcesses) {
+                if (!visitor.visit(osProcess)) {
+                    return;
+                }
+            }
+        });
+    }
+
+    /**
+     * Get OS processes tree snapshot.
+     * @return Returns stage of processes parent/child relations index
+     */
+    CompletionStage<OsProcessTree> getOsProcessTreeAsync();
+
+    /**
+     * Get host-wide CPU, memory and load snapshot.
+     * @return Returns stage of system metrics, by default it's completed with {@link UnsupportedOperationSystemException}
+     * @see OsInterface#getSystemMetrics()
+     */
+    default CompletionStage<SystemMetrics> getSystemMetricsAsync() {
+        final CompletableFuture<SystemMetrics> unsupported = new CompletableFuture<>();
+        unsupported.completeExceptionally(new UnsupportedOperationSystemException("System metrics are not supported by " + getClass().getName()));
+        return unsupported;
+    }
+
+    /**
+     * Kill OS process.
+     * @param pid to kill
+     * @return Returns stage of exit code of platform dependent kill command
+     */
+    CompletionStage<Integer> killAsync(int pid);
+
+    /**
+     * Terminate OS processes by the policy.
+     * @param rootPids process ids to terminate
+     * @param policy termination policy
+     * @return Returns stage of outcome of every process and termination duration, by default it's completed with {@link UnsupportedOperationSystemException}
+     * @see OsInterface#terminate(Collection, OsProcessTerminationPolicy)
+     */
+    default CompletionStage<OsProcessTermination> terminateAsync(Collection<Integer> rootPids, OsProcessTerminationPolicy policy) {
+        final CompletableFuture<OsProcessTermination> unsupported = new CompletableFuture<>();
+        unsupported.completeExceptionally(new UnsupportedOperationSystemException("OS process termination is not supported by " + getClass().getName()));
+        return unsupported;
+    }
+
+    /**
+     * Retrieve disk space usage.
+     * @param file file which filesystem disk space info should be retrieved
+     * @return Returns stage of disk space usage
+     */
+    CompletionStage<DiskSpaceInfo> getDiskSpaceInfoAsync(String file);
+
+    /**
+     * Get current user.
+     * @return Returns stage of current user
+     */
+    CompletionStage<OsUser> getCurrentUserAsync();
+}
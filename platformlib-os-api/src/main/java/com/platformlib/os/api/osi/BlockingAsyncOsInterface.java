@@ -0,0 +1,108 @@
+package com.platformlib.os.api.osi;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link AsyncOsInterface} adapter of blocking {@link OsInterface}.
+ * Every call of the blocking OS interface is run by the executor, so the calling thread is not blocked.
+ */
+public final class BlockingAsyncOsInterface implements AsyncOsInterface {
+    private final OsInterface osInterface;
+    private final Executor executor;
+
+    /**
+     * Create adapter which runs the calls by the shared pool of daemon threads.
+     * @param osInterface blocking OS interface
+     */
+    public BlockingAsyncOsInterface(final OsInterface osInterface) {
+        this(osInterface, DefaultExecutorHolder.EXECUTOR);
+    }
+
+    /**
+     * Create adapter.
+     * @param osInterface blocking OS interface
+     * @param executor executor of the blocking calls
+     */
+    public BlockingAsyncOsInterface(final OsInterface osInterface, final Executor executor) {
+        this.osInterface = osInterface;
+        this.executor = executor;
+    }
+
+    /**
+     * Get adapted OS interface.
+     * @return Returns blocking OS interface
+     */
+    public OsInterface getOsInterface() {
+        return osInterface;
+    }
+
+    @Override
+    public CompletionStage<OsVersion> getOsVersionAsync() {
+        return CompletableFuture.supplyAsync(osInterface::getOsVersion, executor);
+    }
+
+    @Override
+    public CompletionStage<Collection<OsProcess>> getOsProcessesAsync() {
+        return CompletableFuture.supplyAsync(osInterface::getOsProcesses, executor);
+    }
+
+    @Override
+    public CompletionStage<Collection<OsProcess>> getOsProcessesAsync(final OsProcessQuery query) {
+        return CompletableFuture.supplyAsync(() -> osInterface.getOsProcesses(query), executor);
+    }
+
+    @Override
+    public CompletionStage<Void> visitOsProcessesAsync(final OsProcessVisitor visitor) {
+        return CompletableFuture.runAsync(() -> osInterface.visitOsProcesses(visitor), executor);
+    }
+
+    @Override
+    public CompletionStage<OsProcessTree> getOsProcessTreeAsync() {
+        return CompletableFuture.supplyAsync(osInterface::getOsProcessTree, executor);
+    }
+
+    @Override
+    public CompletionStage<SystemMetrics> getSystemMetricsAsync() {
+        return CompletableFuture.supplyAsync(osInterface::getSystemMetrics, executor);
+    }
+
+    @Override
+    public CompletionStage<Integer> killAsync(final int pid) {
+        return CompletableFuture.supplyAsync(() -> osInterface.kill(pid), executor);
+    }
+
+    @Override
+    public CompletionStage<OsProcessTermination> terminateAsync(final Collection<Integer> rootPids, final OsProcessTerminationPolicy policy) {
+        return CompletableFuture.supplyAsync(() -> osInterface.terminate(rootPids, policy), executor);
+    }
+
+    @Override
+    public CompletionStage<DiskSpaceInfo> getDiskSpaceInfoAsync(final String file) {
+        return CompletableFuture.supplyAsync(() -> osInterface.getDiskSpaceInfo(file), executor);
+    }
+
+    @Override
+    public CompletionStage<OsUser> getCurrentUserAsync() {
+        return CompletableFuture.supplyAsync(osInterface::getCurrentUser, executor);
+    }
+
+    @Override
+    public String toString() {
+        return "BlockingAsyncOsInterface{" + osInterface + '}';
+    }
+
+    private static final class DefaultExecutorHolder {
+        private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+        private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "os-interface-async-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -1,6 +1,12 @@
 package com.platformlib.os.api.osi;
 
+import com.platformlib.os.api.exception.UnsupportedOperationSystemException;
+
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Platform dependent Operating System Interface.
@@ -19,6 +25,81 @@ public interface OsInterface {
      */
     Collection<OsProcess> getOsProcesses();
 
+    /**
+     * Enumerate OS processes without collecting them, the enumeration stops once the visitor returns false.
+     * By default the processes of {@link #getOsProcesses()} are visited, implementations should override it to deliver every process as soon as it's parsed.
+     * @param visitor OS process visitor
+     */
+    default void visitOsProcesses(OsProcessVisitor visitor) {
+        for (final OsProcess osProcess : getOsProcesses()) {
+            if (!visitor.visit(osProcess)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * List OS processes which match the query.
+     * By default the processes are filtered on the client side by {@link OsProcessQuery#matches(OsProcess)}, implementations should override it to filter them on the OS side.
+     * @param query OS process query
+     * @return Returns collection of matching OS processes
+     */
+    default Collection<OsProcess> getOsProcesses(OsProcessQuery query) {
+        final List<OsProcess> osProcesses = new ArrayList<>();
+        visitOsProcesses(osProcess -> !query.matches(osProcess) || osProcesses.add(osProcess));
+        return osProcesses;
+    }
+
+    /**
+     * Start watching OS processes.
+     * The processes which are running when the method returns are the baseline, only processes which are started or exited later are reported to the listener.
+     * @param pollInterval delay between polls
+     * @param listener listener of process start and exit events
+     * @return Returns running watcher, it should be closed when it's no longer needed
+     */
+    default OsProcessWatcher watchOsProcesses(Duration pollInterval, OsProcessListener listener) {
+        throw new UnsupportedOperationSystemException("OS process watching is not supported by " + getClass().getName());
+    }
+
+    /**
+     * Wait for exit of OS process which doesn't have to be a child of the current process.
+     * The waits of a platform share one poller which checks all waited processes on every poll.
+     * @param pid process id
+     * @return Returns stage which is completed when the process is not found running, it fails if the processes can't be checked
+     */
+    default CompletionStage<Void> waitForExit(int pid) {
+        throw new UnsupportedOperationSystemException("Waiting for OS process exit is not supported by " + getClass().getName());
+    }
+
+    /**
+     * Terminate OS processes by the policy.
+     * The process tree is snapshotted once, every phase sends the signal to all processes by one OS call and every check of the running processes is one OS call.
+     * @param rootPids process ids to terminate
+     * @param policy termination policy
+     * @return Returns outcome of every process and termination duration
+     */
+    default OsProcessTermination terminate(Collection<Integer> rootPids, OsProcessTerminationPolicy policy) {
+        throw new UnsupportedOperationSystemException("OS process termination is not supported by " + getClass().getName());
+    }
+
+    /**
+     * Get OS processes tree snapshot.
+     * By default the tree is built of pid/ppid pairs of {@link #getOsProcesses()}.
+     * @return Returns processes parent/child relations index
+     */
+    default OsProcessTree getOsProcessTree() {
+        return new OsProcessTreeSnapshot(getOsProcesses());
+    }
+
+    /**
+     * Get host-wide CPU, memory and load snapshot.
+     * The CPU percentages are computed from the CPU time counters of this and the previous call of the OS interface.
+     * @return Returns system metrics
+     */
+    default SystemMetrics getSystemMetrics() {
+        throw new UnsupportedOperationSystemException("System metrics are not supported by " + getClass().getName());
+    }
+
     /**
      * Kill OS process.
      * @param pid to kill
@@ -23,4 +23,12 @@ public interface OsProcess {
      * @return Returns process id
      */
     int getProcessId();
+
+    /**
+     * Get command name.
+     * @return Returns executable name without path and arguments if available
+     */
+    default Optional<String> getCommandName() {
+        return Optional.empty();
+    }
 }
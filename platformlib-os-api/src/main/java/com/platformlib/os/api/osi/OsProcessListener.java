@@ -0,0 +1,28 @@
+package com.platformlib.os.api.osi;
+
+/**
+ * Listener of OS process start and exit events which are detected by {@link OsProcessWatcher}.
+ * The events are delivered by the watcher thread one by one, the exits of a poll are delivered before the starts.
+ */
+public interface OsProcessListener {
+    /**
+     * Process has been started since the previous poll.
+     * @param pid process id
+     * @param startTimeMillis process start time in milliseconds since the epoch, -1 if the OS doesn't report it
+     */
+    void onProcessStarted(int pid, long startTimeMillis);
+
+    /**
+     * Process has exited since the previous poll.
+     * @param pid process id
+     * @param startTimeMillis start time of the exited process in milliseconds since the epoch, -1 if the OS doesn't report it
+     */
+    void onProcessExited(int pid, long startTimeMillis);
+
+    /**
+     * The poll has failed, the watcher keeps the previous snapshot and tries again on the next poll.
+     * @param exception poll failure
+     */
+    default void onPollFailure(RuntimeException exception) {
+    }
+}
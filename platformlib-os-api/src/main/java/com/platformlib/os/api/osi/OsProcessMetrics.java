@@ -0,0 +1,106 @@
+package com.platformlib.os.api.osi;
+
+import java.time.Instant;
+
+/**
+ * Snapshot of OS processes resource usage.
+ * The metrics are stored column-wise, the process is addressed by its index in the snapshot, so tens of thousands of processes are kept compact.
+ * The metric which is not reported by the OS is -1, the unknown state is '?'.
+ */
+public interface OsProcessMetrics {
+    /**
+     * Get snapshot time.
+     * @return Returns time when the snapshot has been taken
+     */
+    Instant getTime();
+
+    /**
+     * Get number of processes in the snapshot.
+     * @return Returns number of processes
+     */
+    int size();
+
+    /**
+     * Find the process in the snapshot.
+     * @param pid process id
+     * @return Returns index of the process, -1 if the process is not in the snapshot
+     */
+    int indexOf(int pid);
+
+    /**
+     * Get process id.
+     * @param index process index
+     * @return Returns process id
+     */
+    int getProcessId(int index);
+
+    /**
+     * Get parent process id.
+     * @param index process index
+     * @return Returns parent process id, -1 if unknown
+     */
+    int getParentProcessId(int index);
+
+    /**
+     * Get process state as it's reported by the OS, for example 'R' for running and 'S' for sleeping.
+     * @param index process index
+     * @return Returns state character, '?' if unknown
+     */
+    char getState(int index);
+
+    /**
+     * Get number of threads.
+     * @param index process index
+     * @return Returns thread count, -1 if unknown
+     */
+    int getThreadCount(int index);
+
+    /**
+     * Get CPU time spent in user mode.
+     * @param index process index
+     * @return Returns user CPU time in milliseconds, -1 if unknown
+     */
+    long getUserCpuTimeMillis(int index);
+
+    /**
+     * Get CPU time spent in kernel mode.
+     * @param index process index
+     * @return Returns system CPU time in milliseconds, -1 if unknown
+     */
+    long getSystemCpuTimeMillis(int index);
+
+    /**
+     * Get total CPU time.
+     * @param index process index
+     * @return Returns user and system CPU time in milliseconds
+     */
+    long getCpuTimeMillis(int index);
+
+    /**
+     * Get resident set size.
+     * @param index process index
+     * @return Returns resident memory in bytes, -1 if unknown
+     */
+    long getResidentSetSize(int index);
+
+    /**
+     * Get virtual memory size.
+     * @param index process index
+     * @return Returns virtual memory in bytes, -1 if unknown
+     */
+    long getVirtualSize(int index);
+
+    /**
+     * Get process start time.
+     * @param index process index
+     * @return Returns start time in milliseconds since the epoch, -1 if unknown
+     */
+    long getStartTimeMillis(int index);
+
+    /**
+     * Get command line.
+     * @param index process index
+     * @return Returns command line with arguments separated by space, empty for kernel threads
+     */
+    String getCommandLine(int index);
+}
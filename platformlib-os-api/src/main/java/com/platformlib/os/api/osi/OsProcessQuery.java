@@ -0,0 +1,100 @@
+package com.platformlib.os.api.osi;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Query of OS processes by owner, command name and parent process, the set criteria are combined by AND.
+ * The OS interfaces translate the query to filtering on the OS side, so only the matching processes are transferred and parsed.
+ */
+public final class OsProcessQuery {
+    private static final OsProcessQuery ALL = new OsProcessQuery(null, null, null);
+
+    private final String username;
+    private final String commandName;
+    private final Integer parentProcessId;
+
+    private OsProcessQuery(final String username, final String commandName, final Integer parentProcessId) {
+        this.username = username;
+        this.commandName = commandName;
+        this.parentProcessId = parentProcessId;
+    }
+
+    /**
+     * Get query of all processes.
+     * @return Returns query without criteria
+     */
+    public static OsProcessQuery all() {
+        return ALL;
+    }
+
+    /**
+     * Get query of the processes owned by the user.
+     * @param username process owner name
+     * @return Returns query with owner criterion added
+     */
+    public OsProcessQuery withUsername(final String username) {
+        return new OsProcessQuery(Objects.requireNonNull(username), commandName, parentProcessId);
+    }
+
+    /**
+     * Get query of the processes with the command name.
+     * The name is compared with the executable name as it's known by OS, for example Linux truncates it to 15 characters and Windows names contain .exe extension.
+     * The name is matched exactly, patterns are not supported because the OS side filters don't share a pattern syntax, so the pattern matching is done by filtering {@link OsInterface#getOsProcesses()} result.
+     * @param commandName exact command name
+     * @return Returns query with command name criterion added
+     */
+    public OsProcessQuery withCommandName(final String commandName) {
+        return new OsProcessQuery(username, Objects.requireNonNull(commandName), parentProcessId);
+    }
+
+    /**
+     * Get query of the child processes of the parent.
+     * @param parentProcessId parent process id
+     * @return Returns query with parent criterion added
+     */
+    public OsProcessQuery withParentProcessId(final int parentProcessId) {
+        return new OsProcessQuery(username, commandName, parentProcessId);
+    }
+
+    /**
+     * Get process owner criterion.
+     * @return Returns owner name if set
+     */
+    public Optional<String> getUsername() {
+        return Optional.ofNullable(username);
+    }
+
+    /**
+     * Get command name criterion.
+     * @return Returns command name if set
+     */
+    public Optional<String> getCommandName() {
+        return Optional.ofNullable(commandName);
+    }
+
+    /**
+     * Get parent process criterion.
+     * @return Returns parent process id if set
+     */
+    public Optional<Integer> getParentProcessId() {
+        return Optional.ofNullable(parentProcessId);
+    }
+
+    /**
+     * Check whether the process matches the query, it's used for filtering on the client side.
+     * The process without command name doesn't match the command name criterion.
+     * @param osProcess OS process
+     * @return Returns true if the process matches all set criteria
+     */
+    public boolean matches(final OsProcess osProcess) {
+        return (username == null || username.equals(osProcess.getUsername()))
+                && (commandName == null || osProcess.getCommandName().filter(commandName::equals).isPresent())
+                && (parentProcessId == null || osProcess.getParentProcessId().filter(parentProcessId::equals).isPresent());
+    }
+
+    @Override
+    public String toString() {
+        return "OsProcessQuery{username='" + username + "', commandName='" + commandName + "', parentProcessId=" + parentProcessId + '}';
+    }
+}
@@ -0,0 +1,51 @@
+package com.platformlib.os.api.osi;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of OS processes termination.
+ */
+public interface OsProcessTermination {
+    /**
+     * Outcome of process termination.
+     */
+    enum Outcome {
+        /**
+         * The process was not running when the process tree snapshot was taken.
+         */
+        NOT_FOUND,
+        /**
+         * The process exited within the grace period.
+         */
+        TERMINATED,
+        /**
+         * The process exited after it was killed.
+         */
+        KILLED,
+        /**
+         * The process is still running, it ignored the signals, the signals were not permitted or the policy doesn't kill survivors.
+         */
+        SURVIVED
+    }
+
+    /**
+     * Get outcomes of all processes.
+     * @return Returns outcome by process id, the root processes come first, then their descendants
+     */
+    Map<Integer, Outcome> getOutcomes();
+
+    /**
+     * Get processes with the outcome.
+     * @param outcome termination outcome
+     * @return Returns process ids in the order of {@link #getOutcomes()}
+     */
+    List<Integer> getProcessIds(Outcome outcome);
+
+    /**
+     * Get time from the process tree snapshot till the last check of the running processes.
+     * @return Returns termination duration
+     */
+    Duration getDuration();
+}
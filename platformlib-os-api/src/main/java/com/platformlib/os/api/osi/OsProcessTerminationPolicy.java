@@ -0,0 +1,113 @@
+package com.platformlib.os.api.osi;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Policy of OS processes termination.
+ * The processes are asked to terminate gracefully, the ones which are still running after the grace period are killed.
+ * The zero grace period kills the processes at once.
+ */
+public final class OsProcessTerminationPolicy {
+    private static final Duration DEFAULT_POLL_INTERVAL = Duration.ofMillis(100);
+    private static final OsProcessTerminationPolicy IMMEDIATE = new OsProcessTerminationPolicy(Duration.ZERO, DEFAULT_POLL_INTERVAL, true, true);
+
+    private final Duration gracePeriod;
+    private final Duration pollInterval;
+    private final boolean descendants;
+    private final boolean killSurvivors;
+
+    private OsProcessTerminationPolicy(final Duration gracePeriod, final Duration pollInterval, final boolean descendants, final boolean killSurvivors) {
+        this.gracePeriod = gracePeriod;
+        this.pollInterval = pollInterval;
+        this.descendants = descendants;
+        this.killSurvivors = killSurvivors;
+    }
+
+    /**
+     * Get policy which asks the processes to terminate (SIGTERM, taskkill without /F) and kills the survivors after the grace period.
+     * @param gracePeriod time to wait for the processes exit before they are killed
+     * @return Returns graceful termination policy of process trees
+     */
+    public static OsProcessTerminationPolicy graceful(final Duration gracePeriod) {
+        if (gracePeriod.isNegative()) {
+            throw new IllegalArgumentException("The grace period should not be negative");
+        }
+        return new OsProcessTerminationPolicy(gracePeriod, DEFAULT_POLL_INTERVAL, true, true);
+    }
+
+    /**
+     * Get policy which kills the processes at once (SIGKILL, taskkill /F).
+     * @return Returns immediate termination policy of process trees
+     */
+    public static OsProcessTerminationPolicy immediate() {
+        return IMMEDIATE;
+    }
+
+    /**
+     * Get policy which terminates the descendants of the root processes or only the root processes.
+     * @param descendants true to terminate the descendants which are found by the process tree snapshot
+     * @return Returns policy with descendants option set
+     */
+    public OsProcessTerminationPolicy withDescendants(final boolean descendants) {
+        return new OsProcessTerminationPolicy(gracePeriod, pollInterval, descendants, killSurvivors);
+    }
+
+    /**
+     * Get policy which kills the survivors of the grace period or leaves them running.
+     * @param killSurvivors true to kill the processes which are running after the grace period
+     * @return Returns policy with kill survivors option set
+     */
+    public OsProcessTerminationPolicy withKillSurvivors(final boolean killSurvivors) {
+        return new OsProcessTerminationPolicy(gracePeriod, pollInterval, descendants, killSurvivors);
+    }
+
+    /**
+     * Get policy with another interval of the running processes checks.
+     * @param pollInterval delay between checks, every check is one OS call for all processes
+     * @return Returns policy with poll interval set
+     */
+    public OsProcessTerminationPolicy withPollInterval(final Duration pollInterval) {
+        if (pollInterval.isNegative() || pollInterval.isZero()) {
+            throw new IllegalArgumentException("The poll interval should be positive");
+        }
+        return new OsProcessTerminationPolicy(gracePeriod, Objects.requireNonNull(pollInterval), descendants, killSurvivors);
+    }
+
+    /**
+     * Get time to wait for the processes exit before they are killed.
+     * @return Returns grace period, zero if the processes are killed at once
+     */
+    public Duration getGracePeriod() {
+        return gracePeriod;
+    }
+
+    /**
+     * Get delay between checks of the running processes.
+     * @return Returns poll interval
+     */
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    /**
+     * Check if the descendants of the root processes are terminated.
+     * @return Returns true if the descendants are terminated
+     */
+    public boolean isDescendants() {
+        return descendants;
+    }
+
+    /**
+     * Check if the survivors of the grace period are killed.
+     * @return Returns true if the survivors are killed
+     */
+    public boolean isKillSurvivors() {
+        return killSurvivors;
+    }
+
+    @Override
+    public String toString() {
+        return "OsProcessTerminationPolicy{gracePeriod=" + gracePeriod + ", pollInterval=" + pollInterval + ", descendants=" + descendants + ", killSurvivors=" + killSurvivors + '}';
+    }
+}
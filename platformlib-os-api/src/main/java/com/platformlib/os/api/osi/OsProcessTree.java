@@ -0,0 +1,27 @@
+package com.platformlib.os.api.osi;
+
+/**
+ * Snapshot of OS processes parent/child relations.
+ * The snapshot is immutable so it could be used for many lookups.
+ */
+public interface OsProcessTree {
+    /**
+     * Get number of processes in the snapshot.
+     * @return Returns number of processes
+     */
+    int size();
+
+    /**
+     * Check if the process is in the snapshot.
+     * @param pid process id
+     * @return Returns true if the process has been running at the snapshot time, false otherwise
+     */
+    boolean contains(int pid);
+
+    /**
+     * Get all descendants of the process.
+     * @param pid process id
+     * @return Returns process ids of children, grandchildren and so on ordered by level (breadth first), empty array if the process has no children or is unknown
+     */
+    int[] descendantsOf(int pid);
+}
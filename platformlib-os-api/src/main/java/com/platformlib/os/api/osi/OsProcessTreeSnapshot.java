@@ -0,0 +1,56 @@
+package com.platformlib.os.api.osi;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link OsProcessTree} of OS processes pid/ppid pairs which is built by {@link OsInterface#getOsProcessTree()} default implementation.
+ */
+final class OsProcessTreeSnapshot implements OsProcessTree {
+    private final Set<Integer> pids = new HashSet<>();
+    private final Map<Integer, List<Integer>> children = new HashMap<>();
+
+    OsProcessTreeSnapshot(final Collection<OsProcess> osProcesses) {
+        for (final OsProcess osProcess : osProcesses) {
+            final int pid = osProcess.getProcessId();
+            pids.add(pid);
+            osProcess.getParentProcessId()
+                    .filter(ppid -> ppid != pid)
+                    .ifPresent(ppid -> children.computeIfAbsent(ppid, key -> new ArrayList<>()).add(pid));
+        }
+        children.keySet().retainAll(pids);
+    }
+
+    @Override
+    public int size() {
+        return pids.size();
+    }
+
+    @Override
+    public boolean contains(final int pid) {
+        return pids.contains(pid);
+    }
+
+    @Override
+    public int[] descendantsOf(final int pid) {
+        //Every process has one parent only, the visited set protects against pid reuse cycles
+        final Set<Integer> visited = new HashSet<>();
+        visited.add(pid);
+        final List<Integer> descendants = new ArrayList<>(children.getOrDefault(pid, Collections.emptyList()));
+        visited.addAll(descendants);
+        for (int head = 0; head < descendants.size(); head++) {
+            for (final Integer child : children.getOrDefault(descendants.get(head), Collections.emptyList())) {
+                if (visited.add(child)) {
+                    descendants.add(child);
+                }
+            }
+        }
+        return descendants.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
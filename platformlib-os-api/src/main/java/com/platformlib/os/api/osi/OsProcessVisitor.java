@@ -0,0 +1,14 @@
+package com.platformlib.os.api.osi;
+
+/**
+ * Visitor of OS processes which are delivered one by one while the OS is enumerated.
+ */
+@FunctionalInterface
+public interface OsProcessVisitor {
+    /**
+     * Visit OS process.
+     * @param osProcess OS process
+     * @return Returns true to continue enumeration, false to stop it
+     */
+    boolean visit(OsProcess osProcess);
+}
@@ -0,0 +1,34 @@
+package com.platformlib.os.api.osi;
+
+import java.io.Closeable;
+import java.time.Duration;
+
+/**
+ * Watcher which polls OS processes and notifies {@link OsProcessListener} about started and exited ones.
+ * The watcher is started by {@link OsInterface#watchOsProcesses(Duration, OsProcessListener)} and polls till it's closed.
+ */
+public interface OsProcessWatcher extends Closeable {
+    /**
+     * Get delay between polls.
+     * @return Returns poll interval
+     */
+    Duration getPollInterval();
+
+    /**
+     * Get number of processes found by the last successful poll.
+     * @return Returns process count
+     */
+    int getProcessCount();
+
+    /**
+     * Get number of completed polls, including the initial one.
+     * @return Returns poll count
+     */
+    long getPollCount();
+
+    /**
+     * Stop polling.
+     */
+    @Override
+    void close();
+}
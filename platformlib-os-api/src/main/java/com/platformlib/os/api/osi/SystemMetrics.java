@@ -0,0 +1,131 @@
+package com.platformlib.os.api.osi;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Snapshot of host-wide resource usage: CPU, memory and load.
+ * The CPU percentages are of all CPUs over the interval since the previous snapshot of the same OS interface, the first snapshot covers the time since boot.
+ * The metric which is not reported by the OS is -1.
+ */
+public interface SystemMetrics {
+    /**
+     * Get snapshot time.
+     * @return Returns time when the snapshot has been taken
+     */
+    Instant getTime();
+
+    /**
+     * Get interval which the CPU percentages are computed over.
+     * @return Returns time since the previous snapshot or since boot for the first one
+     */
+    Duration getCpuInterval();
+
+    /**
+     * Get number of online CPUs.
+     * @return Returns CPU count
+     */
+    int getCpuCount();
+
+    /**
+     * Get share of CPU time spent in user mode including niced processes.
+     * @return Returns percentage from 0 to 100, -1 if no CPU time has elapsed since the previous snapshot
+     */
+    double getUserCpuPercent();
+
+    /**
+     * Get share of CPU time spent in kernel mode including interrupts handling.
+     * @return Returns percentage from 0 to 100, -1 if no CPU time has elapsed since the previous snapshot
+     */
+    double getSystemCpuPercent();
+
+    /**
+     * Get share of CPU time spent idle while there were pending disk I/O requests.
+     * @return Returns percentage from 0 to 100, -1 if no CPU time has elapsed since the previous snapshot
+     */
+    double getIoWaitCpuPercent();
+
+    /**
+     * Get share of CPU time stolen by the hypervisor for other virtual machines.
+     * @return Returns percentage from 0 to 100, -1 if no CPU time has elapsed since the previous snapshot
+     */
+    double getStealCpuPercent();
+
+    /**
+     * Get share of CPU time spent idle without pending disk I/O requests.
+     * @return Returns percentage from 0 to 100, -1 if no CPU time has elapsed since the previous snapshot
+     */
+    double getIdleCpuPercent();
+
+    /**
+     * Get share of CPU time spent not idle, it's 100 minus idle and I/O wait percentages.
+     * @return Returns percentage from 0 to 100, -1 if no CPU time has elapsed since the previous snapshot
+     */
+    double getCpuUsagePercent();
+
+    /**
+     * Get total usable memory.
+     * @return Returns memory size in bytes
+     */
+    long getTotalMemory();
+
+    /**
+     * Get memory which is not used at all.
+     * @return Returns memory size in bytes
+     */
+    long getFreeMemory();
+
+    /**
+     * Get memory which is available for starting new applications without swapping, it includes reclaimable caches.
+     * @return Returns memory size in bytes, -1 if unknown
+     */
+    long getAvailableMemory();
+
+    /**
+     * Get memory used by the page cache.
+     * @return Returns memory size in bytes, -1 if unknown
+     */
+    long getCachedMemory();
+
+    /**
+     * Get total swap space.
+     * @return Returns swap size in bytes, -1 if unknown
+     */
+    long getTotalSwap();
+
+    /**
+     * Get unused swap space.
+     * @return Returns swap size in bytes, -1 if unknown
+     */
+    long getFreeSwap();
+
+    /**
+     * Get load average over the last minute.
+     * @return Returns average number of runnable and uninterruptible tasks
+     */
+    double getLoadAverage1();
+
+    /**
+     * Get load average over the last 5 minutes.
+     * @return Returns average number of runnable and uninterruptible tasks
+     */
+    double getLoadAverage5();
+
+    /**
+     * Get load average over the last 15 minutes.
+     * @return Returns average number of runnable and uninterruptible tasks
+     */
+    double getLoadAverage15();
+
+    /**
+     * Get number of currently runnable tasks.
+     * @return Returns runnable task count, -1 if unknown
+     */
+    int getRunnableTaskCount();
+
+    /**
+     * Get number of tasks (processes and threads) which exist on the host.
+     * @return Returns task count, -1 if unknown
+     */
+    int getTaskCount();
+}
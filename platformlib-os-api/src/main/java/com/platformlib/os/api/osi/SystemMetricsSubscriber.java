@@ -0,0 +1,29 @@
+package com.platformlib.os.api.osi;
+
+import java.time.Duration;
+
+/**
+ * Subscriber of {@link SystemMetrics} stream.
+ * The notifications are delivered by the stream delivery thread one by one, the snapshots are delivered only while the subscriber has demand, see {@link SystemMetricsSubscription#request(long)}.
+ */
+public interface SystemMetricsSubscriber {
+    /**
+     * Snapshot has arrived. The CPU percentages cover the interval since the previously delivered snapshot.
+     * @param systemMetrics system metrics
+     */
+    void onNext(SystemMetrics systemMetrics);
+
+    /**
+     * No snapshot has arrived for the stall timeout, the stream is restarted and keeps delivering the snapshots once they arrive.
+     * @param silence time since the last received snapshot or the stream start
+     */
+    default void onStall(Duration silence) {
+    }
+
+    /**
+     * The stream has failed and is closed, no notification follows.
+     * @param exception stream failure
+     */
+    default void onError(RuntimeException exception) {
+    }
+}
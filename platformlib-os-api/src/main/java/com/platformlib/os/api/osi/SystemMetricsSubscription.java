@@ -0,0 +1,47 @@
+package com.platformlib.os.api.osi;
+
+import java.io.Closeable;
+import java.time.Duration;
+
+/**
+ * Subscription of {@link SystemMetricsSubscriber} to the stream of {@link SystemMetrics} which are sampled at a fixed interval.
+ * The snapshot which arrives while the subscriber has no demand or is still handling the previous one is skipped, so a slow subscriber gets the latest snapshots instead of a backlog.
+ */
+public interface SystemMetricsSubscription extends Closeable {
+    /**
+     * Get interval between snapshots.
+     * @return Returns sampling interval
+     */
+    Duration getInterval();
+
+    /**
+     * Add demand of the subscriber.
+     * @param count number of snapshots to deliver in addition to the current demand, {@link Long#MAX_VALUE} for unbounded demand
+     * @throws IllegalArgumentException if the count is not positive
+     */
+    void request(long count);
+
+    /**
+     * Get number of snapshots which are received from the host.
+     * @return Returns received snapshot count
+     */
+    long getReceivedCount();
+
+    /**
+     * Get number of snapshots which are delivered to the subscriber.
+     * @return Returns delivered snapshot count
+     */
+    long getDeliveredCount();
+
+    /**
+     * Get number of times the stream has been restarted after stall or end of stream.
+     * @return Returns restart count
+     */
+    int getRestartCount();
+
+    /**
+     * Stop the stream, no notification follows the already delivered ones.
+     */
+    @Override
+    void close();
+}
@@ -1,6 +1,8 @@
 package com.platformlib.os.api.osi.posix;
 
+import com.platformlib.os.api.exception.UnsupportedOperationSystemException;
 import com.platformlib.os.api.osi.OsInterface;
+import com.platformlib.os.api.osi.OsProcessMetrics;
 
 /**
  * Posix OS interface.
@@ -8,4 +10,12 @@ import com.platformlib.os.api.osi.OsInterface;
 public interface PosixOsInterface extends OsInterface {
     @Override
     PosixOsUser getCurrentUser();
+
+    /**
+     * Get resource usage snapshot of all OS processes.
+     * @return Returns processes metrics
+     */
+    default OsProcessMetrics getOsProcessMetrics() {
+        throw new UnsupportedOperationSystemException("OS process metrics are not supported by " + getClass().getName());
+    }
 }
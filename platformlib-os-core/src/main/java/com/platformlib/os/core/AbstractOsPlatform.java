@@ -1,17 +1,24 @@
 package com.platformlib.os.core;
 
 import com.platformlib.os.api.OsPlatform;
+import com.platformlib.os.api.dto.OsCommandResult;
 import com.platformlib.os.api.exception.OperationSystemException;
 import com.platformlib.os.api.exception.UnsupportedOperationSystemException;
+import com.platformlib.os.api.osi.AsyncOsInterface;
+import com.platformlib.os.api.osi.DiskSpaceInfo;
 import com.platformlib.os.api.osi.OsInterface;
+import com.platformlib.os.api.osi.OsUser;
+import com.platformlib.os.api.osi.OsVersion;
 import com.platformlib.os.api.enums.OperationSystem;
 import com.platformlib.os.api.enums.OsFamily;
 import com.platformlib.os.core.osi.AixOsInterfaceImpl;
 import com.platformlib.os.core.osi.LinuxOsInterfaceImpl;
 import com.platformlib.os.core.osi.MacOsInterfaceImpl;
 import com.platformlib.os.core.osi.WindowsOsInterfaceImpl;
+import com.platformlib.os.core.osi.cache.CachingOsInterface;
+import com.platformlib.os.core.osi.cache.OsInterfaceCacheConfiguration;
+import com.platformlib.os.core.util.OsCommandBatch;
 import com.platformlib.os.core.util.OsUtilities;
-import com.platformlib.process.api.ProcessInstance;
 import com.platformlib.process.configurator.ProcessOutputConfigurator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,12 +35,26 @@ import java.nio.file.spi.FileSystemProvider;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class AbstractOsPlatform implements OsPlatform {
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractOsPlatform.class);
     private OsInterface osInterface;
+    private volatile OsVersion knownOsVersion;
+    private volatile OsUser knownCurrentUser;
+    private volatile Map<String, String> environment;
+    private volatile Executor asyncExecutor;
 
     private synchronized OsInterface getInternalOsInterface() {
         if (osInterface == null) {
@@ -49,10 +70,23 @@ public abstract class AbstractOsPlatform implements OsPlatform {
             } else {
                 osInterface = new LinuxOsInterfaceImpl(this);
             }
+            final Optional<OsInterfaceCacheConfiguration> cacheConfiguration = getOsInterfaceCacheConfiguration();
+            if (cacheConfiguration.isPresent()) {
+                osInterface = CachingOsInterface.of(osInterface, cacheConfiguration.get());
+            }
         }
         return osInterface;
     }
 
+    /**
+     * Get OS interface cache configuration.
+     * The cache is enabled by com.platformlib.os.osi-cache property, platforms could override the method to enable it explicitly.
+     * @return Returns cache configuration if {@link #getOsInterface()} should be memoized by {@link CachingOsInterface}, {@link Optional#empty()} otherwise
+     */
+    protected Optional<OsInterfaceCacheConfiguration> getOsInterfaceCacheConfiguration() {
+        return OsInterfaceCacheConfiguration.isEnabledByDefault() ? Optional.of(new OsInterfaceCacheConfiguration()) : Optional.empty();
+    }
+
     @Override
     public OsInterface getOsInterface() {
         return getInternalOsInterface();
@@ -66,18 +100,137 @@ public abstract class AbstractOsPlatform implements OsPlatform {
         if (clazz.isAssignableFrom(osInterfaceClass)) {
             return (T) osInterfaceInstance;
         }
+        //Typed access to the OS specific implementation bypasses the cache
+        if (osInterfaceInstance instanceof CachingOsInterface && clazz.isInstance(((CachingOsInterface) osInterfaceInstance).getOsInterface())) {
+            return (T) ((CachingOsInterface) osInterfaceInstance).getOsInterface();
+        }
         throw new OperationSystemException("Is not typed " + clazz + " [" + osInterfaceClass + "]");
     }
 
+    @Override
+    public AsyncOsInterface getAsyncOsInterface() {
+        final OsInterface osInterfaceInstance = getOsInterface();
+        if (osInterfaceInstance instanceof AsyncOsInterface) {
+            return (AsyncOsInterface) osInterfaceInstance;
+        }
+        throw new OperationSystemException("Is not asynchronous OS interface [" + osInterfaceInstance.getClass() + "]");
+    }
+
+    /**
+     * Get executor of blocking steps of asynchronous OS calls such as file system access.
+     * The shared pool of daemon threads is used by default.
+     * @return Returns executor
+     */
+    public Executor getAsyncExecutor() {
+        final Executor executor = asyncExecutor;
+        return executor == null ? DefaultAsyncExecutorHolder.EXECUTOR : executor;
+    }
+
+    /**
+     * Set executor of blocking steps of asynchronous OS calls.
+     * @param asyncExecutor executor, null to use the default one
+     */
+    public void setAsyncExecutor(final Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The value is taken from {@link #getEnvironment()} snapshot.
+     */
     @Override
     public Optional<String> getEnvVariable(final String osEnvVariable) {
-        final String nixArgument = "${" + osEnvVariable + "}";
-        final String winArgument = "%" + osEnvVariable + "%";
-        final String result = osCommand("echo", nixArgument + " " + winArgument).replace(nixArgument, "").replace(winArgument, "").trim();
-        if (result.isEmpty()) {
-            return Optional.empty();
+        return Optional.ofNullable(getEnvironment().get(osEnvVariable));
+    }
+
+    @Override
+    public Map<String, String> getEnvironment() {
+        Map<String, String> environmentSnapshot = environment;
+        if (environmentSnapshot == null) {
+            synchronized (this) {
+                environmentSnapshot = environment;
+                if (environmentSnapshot == null) {
+                    environmentSnapshot = readEnvironment();
+                    environment = environmentSnapshot;
+                }
+            }
+        }
+        return environmentSnapshot;
+    }
+
+    @Override
+    public void refreshEnvironment() {
+        environment = null;
+    }
+
+    /**
+     * Read all environment variables by one OS call.
+     * Windows variables are read by set command, POSIX variables are read by env -0 command or env command if -0 option is not supported.
+     * @return Returns immutable map of environment variables
+     */
+    protected Map<String, String> readEnvironment() {
+        if (OsFamily.WINDOWS == getOsFamily()) {
+            return OsUtilities.parseEnvironment(osCommand("set"), true);
         }
-        return Optional.of(result);
+        try {
+            return OsUtilities.parseNullSeparatedEnvironment(osCommand("env", "-0"));
+        } catch (final OperationSystemException operationSystemException) {
+            LOGGER.debug("The env -0 command is not supported, parse env output", operationSystemException);
+            return OsUtilities.parseEnvironment(osCommand("env"), false);
+        }
+    }
+
+    /**
+     * Get OS version which is already known by the platform, for example collected by platform probe.
+     * OS interfaces use the known version instead of running commands.
+     * @return Returns known OS version if any, {@link Optional#empty()} otherwise
+     */
+    public Optional<OsVersion> getKnownOsVersion() {
+        return Optional.ofNullable(knownOsVersion);
+    }
+
+    /**
+     * Set OS version which is known by the platform.
+     * @param osVersion OS version
+     */
+    protected void setKnownOsVersion(final OsVersion osVersion) {
+        this.knownOsVersion = osVersion;
+    }
+
+    /**
+     * Get current user which is already known by the platform, for example collected by platform probe.
+     * @return Returns known current user if any, {@link Optional#empty()} otherwise
+     */
+    public Optional<OsUser> getKnownCurrentUser() {
+        return Optional.ofNullable(knownCurrentUser);
+    }
+
+    /**
+     * Set current user which is known by the platform.
+     * @param currentUser current user
+     */
+    protected void setKnownCurrentUser(final OsUser currentUser) {
+        this.knownCurrentUser = currentUser;
+    }
+
+    /**
+     * Get disk space usage via file system API without running OS commands.
+     * OS interfaces fall back to platform dependent commands if the information is not available.
+     * @param file file which filesystem disk space info should be retrieved
+     * @return Returns disk space usage if the platform file system provides it, {@link Optional#empty()} otherwise
+     */
+    public Optional<DiskSpaceInfo> getFileSystemDiskSpaceInfo(final String file) {
+        return Optional.empty();
+    }
+
+    /**
+     * Get disk space usage via file system API without running OS commands asynchronously.
+     * The {@link #getFileSystemDiskSpaceInfo(String)} is called by the {@link #getAsyncExecutor()} by default.
+     * @param file file which filesystem disk space info should be retrieved
+     * @return Returns stage of disk space usage if the platform file system provides it, {@link Optional#empty()} otherwise
+     */
+    public CompletionStage<Optional<DiskSpaceInfo>> getFileSystemDiskSpaceInfoAsync(final String file) {
+        return CompletableFuture.supplyAsync(() -> getFileSystemDiskSpaceInfo(file), getAsyncExecutor());
     }
 
     /**
@@ -88,25 +241,85 @@ public abstract class AbstractOsPlatform implements OsPlatform {
      *
      */
     public String osCommand(final String... commandAndArguments) {
+        return OsUtilities.join(osCommandAsync(commandAndArguments));
+    }
+
+    /**
+     * Run command asynchronously.
+     * @param commandAndArguments command and arguments
+     * @return Returns stage of stdout of the executed command, the stage is completed with {@link OperationSystemException} if command exit code is not equal to zero
+     */
+    public CompletionStage<String> osCommandAsync(final String... commandAndArguments) {
         final Collection<Object> cla = new ArrayList<>();
         cla.add(OsUtilities.getOsCommand(commandAndArguments[0]));
         cla.addAll(Arrays.asList(commandAndArguments).subList(1, commandAndArguments.length));
-        final ProcessInstance processInstance = newProcessBuilder()
+        return newProcessBuilder()
                 .processInstance(ProcessOutputConfigurator::unlimited)
                 .logger(configuration -> configuration.logger(LOGGER))
                 .build()
                 .execute(cla.toArray())
-                .toCompletableFuture()
-                .join();
-        if (processInstance.getExitCode() != 0) {
-            LOGGER.error("The command execution failed {} because of exit code {}", commandAndArguments, processInstance.getExitCode());
-            if (!LOGGER.isDebugEnabled()) {
-                LOGGER.error("stdOut: {}", String.join("\n", processInstance.getStdOut()));
-                LOGGER.error("stdErr: {}", String.join("\n", processInstance.getStdErr()));
-            }
-            throw new OperationSystemException("Fail to execute command " + Arrays.toString(commandAndArguments));
+                .thenApply(processInstance -> {
+                    if (processInstance.getExitCode() != 0) {
+                        LOGGER.error("The command execution failed {} because of exit code {}", commandAndArguments, processInstance.getExitCode());
+                        if (!LOGGER.isDebugEnabled()) {
+                            LOGGER.error("stdOut: {}", String.join("\n", processInstance.getStdOut()));
+                            LOGGER.error("stdErr: {}", String.join("\n", processInstance.getStdErr()));
+                        }
+                        throw new OperationSystemException("Fail to execute command " + Arrays.toString(commandAndArguments));
+                    }
+                    return String.join("\n", processInstance.getStdOut());
+                });
+    }
+
+    /**
+     * Run several commands in one process invocation, sh -c on POSIX and cmd /c on Windows.
+     * Unlike {@link #osCommand(String...)} every argument is quoted, so it's passed to the command as is. The commands are run one by one with closed stdin.
+     * @param commands commands, every command is a command and its arguments
+     * @return Returns results in the same order as commands, failed commands are reported by exit code
+     * @throws OperationSystemException if the batch could not be executed
+     */
+    public List<OsCommandResult> osCommands(final List<List<String>> commands) {
+        return OsUtilities.join(osCommandsAsync(commands));
+    }
+
+    /**
+     * Run several commands in one process invocation asynchronously, see {@link #osCommands(List)}.
+     * @param commands commands, every command is a command and its arguments
+     * @return Returns stage of results in the same order as commands, the stage is completed with {@link OperationSystemException} if the batch could not be executed
+     */
+    public CompletionStage<List<OsCommandResult>> osCommandsAsync(final List<List<String>> commands) {
+        if (commands.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
         }
-        return String.join("\n", processInstance.getStdOut());
+        final boolean windows = OsFamily.WINDOWS == getOsFamily();
+        final OsCommandBatch osCommandBatch = new OsCommandBatch("__platformlib_os_" + UUID.randomUUID().toString().replace("-", "") + "__", windows);
+        final String script = osCommandBatch.toScript(commands);
+        return newProcessBuilder()
+                .processInstance(ProcessOutputConfigurator::unlimited)
+                .logger(configuration -> configuration.logger(LOGGER))
+                .rawExecution()
+                .build()
+                .execute(windows ? new Object[]{"cmd", "/c", script} : new Object[]{"/bin/sh", "-c", script})
+                .thenApply(processInstance -> {
+                    try {
+                        return osCommandBatch.parse(commands.size(), processInstance.getStdOut(), processInstance.getStdErr());
+                    } catch (final OperationSystemException operationSystemException) {
+                        LOGGER.error("The batch execution failed {} with exit code {}", commands, processInstance.getExitCode());
+                        throw operationSystemException;
+                    }
+                });
+    }
+
+    /**
+     * Lazy holder of the default executor of blocking steps of asynchronous OS calls.
+     */
+    private static final class DefaultAsyncExecutorHolder {
+        private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+        private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "os-platform-async-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     /**
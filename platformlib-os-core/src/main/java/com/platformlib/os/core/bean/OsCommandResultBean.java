@@ -0,0 +1,39 @@
+package com.platformlib.os.core.bean;
+
+import com.platformlib.os.api.dto.OsCommandResult;
+
+public class OsCommandResultBean implements OsCommandResult {
+    private final int exitCode;
+    private final String stdOut;
+    private final String stdErr;
+
+    public OsCommandResultBean(final int exitCode, final String stdOut, final String stdErr) {
+        this.exitCode = exitCode;
+        this.stdOut = stdOut;
+        this.stdErr = stdErr;
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    @Override
+    public String getStdOut() {
+        return stdOut;
+    }
+
+    @Override
+    public String getStdErr() {
+        return stdErr;
+    }
+
+    @Override
+    public String toString() {
+        return "OsCommandResultBean{" +
+                "exitCode=" + exitCode +
+                ", stdOut='" + stdOut + '\'' +
+                ", stdErr='" + stdErr + '\'' +
+                '}';
+    }
+}
@@ -8,11 +8,17 @@ public class OsProcessBean implements OsProcess {
     private final String username;
     private final Integer parentPid;
     private final int pid;
+    private final String commandName;
 
     public OsProcessBean(final String username, int pid, final Integer parentPid) {
+        this(username, pid, parentPid, null);
+    }
+
+    public OsProcessBean(final String username, final int pid, final Integer parentPid, final String commandName) {
         this.username = username;
         this.parentPid = parentPid;
         this.pid = pid;
+        this.commandName = commandName;
     }
 
     @Override
@@ -30,12 +36,18 @@ public class OsProcessBean implements OsProcess {
         return pid;
     }
 
+    @Override
+    public Optional<String> getCommandName() {
+        return Optional.ofNullable(commandName);
+    }
+
     @Override
     public String toString() {
         return "OsProcessBean{" +
                 "username='" + username + '\'' +
                 ", parentPid=" + parentPid +
                 ", pid=" + pid +
+                ", commandName='" + commandName + '\'' +
                 '}';
     }
 }
@@ -0,0 +1,39 @@
+package com.platformlib.os.core.bean;
+
+import com.platformlib.os.api.osi.OsProcessTermination;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class OsProcessTerminationBean implements OsProcessTermination {
+    private final Map<Integer, Outcome> outcomes;
+    private final Duration duration;
+
+    public OsProcessTerminationBean(final Map<Integer, Outcome> outcomes, final Duration duration) {
+        this.outcomes = Collections.unmodifiableMap(outcomes);
+        this.duration = duration;
+    }
+
+    @Override
+    public Map<Integer, Outcome> getOutcomes() {
+        return outcomes;
+    }
+
+    @Override
+    public List<Integer> getProcessIds(final Outcome outcome) {
+        return outcomes.entrySet().stream().filter(entry -> entry.getValue() == outcome).map(Map.Entry::getKey).collect(Collectors.toList());
+    }
+
+    @Override
+    public Duration getDuration() {
+        return duration;
+    }
+
+    @Override
+    public String toString() {
+        return "OsProcessTermination{outcomes=" + outcomes + ", duration=" + duration + '}';
+    }
+}
@@ -0,0 +1,271 @@
+package com.platformlib.os.core.bean;
+
+import com.platformlib.os.api.osi.SystemMetrics;
+
+import java.time.Duration;
+import java.time.Instant;
+
+public final class SystemMetricsBean implements SystemMetrics {
+    private static final double HUNDRED_PERCENT = 100;
+
+    private final Instant time;
+    private final Duration cpuInterval;
+    private final int cpuCount;
+    private final double userCpuPercent;
+    private final double systemCpuPercent;
+    private final double ioWaitCpuPercent;
+    private final double stealCpuPercent;
+    private final double idleCpuPercent;
+    private final long totalMemory;
+    private final long freeMemory;
+    private final long availableMemory;
+    private final long cachedMemory;
+    private final long totalSwap;
+    private final long freeSwap;
+    private final double loadAverage1;
+    private final double loadAverage5;
+    private final double loadAverage15;
+    private final int runnableTaskCount;
+    private final int taskCount;
+
+    private SystemMetricsBean(final Builder builder) {
+        this.time = builder.time;
+        this.cpuInterval = builder.cpuInterval;
+        this.cpuCount = builder.cpuCount;
+        this.userCpuPercent = builder.userCpuPercent;
+        this.systemCpuPercent = builder.systemCpuPercent;
+        this.ioWaitCpuPercent = builder.ioWaitCpuPercent;
+        this.stealCpuPercent = builder.stealCpuPercent;
+        this.idleCpuPercent = builder.idleCpuPercent;
+        this.totalMemory = builder.totalMemory;
+        this.freeMemory = builder.freeMemory;
+        this.availableMemory = builder.availableMemory;
+        this.cachedMemory = builder.cachedMemory;
+        this.totalSwap = builder.totalSwap;
+        this.freeSwap = builder.freeSwap;
+        this.loadAverage1 = builder.loadAverage1;
+        this.loadAverage5 = builder.loadAverage5;
+        this.loadAverage15 = builder.loadAverage15;
+        this.runnableTaskCount = builder.runnableTaskCount;
+        this.taskCount = builder.taskCount;
+    }
+
+    /**
+     * Create builder of the snapshot, the metrics which are not set are unknown.
+     * @param time snapshot time
+     * @return Returns builder
+     */
+    public static Builder builder(final Instant time) {
+        return new Builder(time);
+    }
+
+    @Override
+    public Instant getTime() {
+        return time;
+    }
+
+    @Override
+    public Duration getCpuInterval() {
+        return cpuInterval;
+    }
+
+    @Override
+    public int getCpuCount() {
+        return cpuCount;
+    }
+
+    @Override
+    public double getUserCpuPercent() {
+        return userCpuPercent;
+    }
+
+    @Override
+    public double getSystemCpuPercent() {
+        return systemCpuPercent;
+    }
+
+    @Override
+    public double getIoWaitCpuPercent() {
+        return ioWaitCpuPercent;
+    }
+
+    @Override
+    public double getStealCpuPercent() {
+        return stealCpuPercent;
+    }
+
+    @Override
+    public double getIdleCpuPercent() {
+        return idleCpuPercent;
+    }
+
+    @Override
+    public double getCpuUsagePercent() {
+        return idleCpuPercent < 0 ? -1 : HUNDRED_PERCENT - idleCpuPercent - Math.max(ioWaitCpuPercent, 0);
+    }
+
+    @Override
+    public long getTotalMemory() {
+        return totalMemory;
+    }
+
+    @Override
+    public long getFreeMemory() {
+        return freeMemory;
+    }
+
+    @Override
+    public long getAvailableMemory() {
+        return availableMemory;
+    }
+
+    @Override
+    public long getCachedMemory() {
+        return cachedMemory;
+    }
+
+    @Override
+    public long getTotalSwap() {
+        return totalSwap;
+    }
+
+    @Override
+    public long getFreeSwap() {
+        return freeSwap;
+    }
+
+    @Override
+    public double getLoadAverage1() {
+        return loadAverage1;
+    }
+
+    @Override
+    public double getLoadAverage5() {
+        return loadAverage5;
+    }
+
+    @Override
+    public double getLoadAverage15() {
+        return loadAverage15;
+    }
+
+    @Override
+    public int getRunnableTaskCount() {
+        return runnableTaskCount;
+    }
+
+    @Override
+    public int getTaskCount() {
+        return taskCount;
+    }
+
+    @Override
+    public String toString() {
+        return "SystemMetrics{time=" + time + ", cpuInterval=" + cpuInterval + ", cpuCount=" + cpuCount + ", cpuUsage=" + getCpuUsagePercent() + "%, user=" + userCpuPercent
+                + "%, system=" + systemCpuPercent + "%, ioWait=" + ioWaitCpuPercent + "%, steal=" + stealCpuPercent + "%, idle=" + idleCpuPercent
+                + "%, totalMemory=" + totalMemory + ", freeMemory=" + freeMemory + ", availableMemory=" + availableMemory + ", cachedMemory=" + cachedMemory
+                + ", totalSwap=" + totalSwap + ", freeSwap=" + freeSwap + ", loadAverage=" + loadAverage1 + ' ' + loadAverage5 + ' ' + loadAverage15
+                + ", tasks=" + runnableTaskCount + '/' + taskCount + '}';
+    }
+
+    /**
+     * Builder of {@link SystemMetricsBean}, the metrics are set by groups as they're read from the OS.
+     */
+    public static final class Builder {
+        private final Instant time;
+        private Duration cpuInterval = Duration.ZERO;
+        private int cpuCount = -1;
+        private double userCpuPercent = -1;
+        private double systemCpuPercent = -1;
+        private double ioWaitCpuPercent = -1;
+        private double stealCpuPercent = -1;
+        private double idleCpuPercent = -1;
+        private long totalMemory = -1;
+        private long freeMemory = -1;
+        private long availableMemory = -1;
+        private long cachedMemory = -1;
+        private long totalSwap = -1;
+        private long freeSwap = -1;
+        private double loadAverage1 = -1;
+        private double loadAverage5 = -1;
+        private double loadAverage15 = -1;
+        private int runnableTaskCount = -1;
+        private int taskCount = -1;
+
+        private Builder(final Instant time) {
+            this.time = time;
+        }
+
+        /**
+         * Set CPU usage.
+         * @param cpuCount number of online CPUs
+         * @param interval interval which the percentages are computed over
+         * @param user user mode percentage
+         * @param system kernel mode percentage
+         * @param ioWait I/O wait percentage
+         * @param steal stolen time percentage
+         * @param idle idle percentage
+         * @return Returns this builder
+         */
+        public Builder cpu(final int cpuCount, final Duration interval, final double user, final double system, final double ioWait, final double steal, final double idle) {
+            this.cpuCount = cpuCount;
+            this.cpuInterval = interval;
+            this.userCpuPercent = user;
+            this.systemCpuPercent = system;
+            this.ioWaitCpuPercent = ioWait;
+            this.stealCpuPercent = steal;
+            this.idleCpuPercent = idle;
+            return this;
+        }
+
+        /**
+         * Set memory usage.
+         * @param total total memory in bytes
+         * @param free free memory in bytes
+         * @param available available memory in bytes
+         * @param cached page cache in bytes
+         * @return Returns this builder
+         */
+        public Builder memory(final long total, final long free, final long available, final long cached) {
+            this.totalMemory = total;
+            this.freeMemory = free;
+            this.availableMemory = available;
+            this.cachedMemory = cached;
+            return this;
+        }
+
+        /**
+         * Set swap usage.
+         * @param total total swap in bytes
+         * @param free free swap in bytes
+         * @return Returns this builder
+         */
+        public Builder swap(final long total, final long free) {
+            this.totalSwap = total;
+            this.freeSwap = free;
+            return this;
+        }
+
+        /**
+         * Set load.
+         * @param average1 load average over 1 minute
+         * @param average5 load average over 5 minutes
+         * @param average15 load average over 15 minutes
+         * @param runnable number of runnable tasks
+         * @param tasks number of tasks
+         * @return Returns this builder
+         */
+        public Builder load(final double average1, final double average5, final double average15, final int runnable, final int tasks) {
+            this.loadAverage1 = average1;
+            this.loadAverage5 = average5;
+            this.loadAverage15 = average15;
+            this.runnableTaskCount = runnable;
+            this.taskCount = tasks;
+            return this;
+        }
+
+        public SystemMetricsBean build() {
+            return new SystemMetricsBean(this);
+        }
+    }
+}
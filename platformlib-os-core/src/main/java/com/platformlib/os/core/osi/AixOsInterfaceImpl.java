@@ -4,6 +4,9 @@ import com.platformlib.os.api.osi.OsVersion;
 import com.platformlib.os.core.AbstractOsPlatform;
 import com.platformlib.os.core.bean.OsVersionBean;
 import com.platformlib.os.core.util.OsUtilities;
+import com.platformlib.process.api.ProcessInstance;
+
+import java.util.concurrent.CompletionStage;
 
 public class AixOsInterfaceImpl extends PosixOsInterfaceImpl {
 
@@ -12,20 +15,32 @@ public class AixOsInterfaceImpl extends PosixOsInterfaceImpl {
     }
 
     @Override
-    public final OsVersion getOsVersion() {
-        final String osLevelContent = getOsPlatform().osCommand("oslevel");
+    protected OsVersion readOsVersion() {
+        return OsUtilities.join(readOsVersionAsync());
+    }
+
+    @Override
+    protected CompletionStage<OsVersion> readOsVersionAsync() {
+        return getOsPlatform().osCommandAsync("oslevel").thenApply(AixOsInterfaceImpl::parseOsVersion);
+    }
+
+    /**
+     * Parse oslevel output.
+     * @param osLevelContent oslevel command output
+     * @return Returns OS version
+     */
+    public static OsVersion parseOsVersion(final String osLevelContent) {
         final String[] aixVersionParts = OsUtilities.filterVersionDigits(osLevelContent).split("\\.");
         return new OsVersionBean(OsUtilities.parseVersionDigits(aixVersionParts[0]).orElse(-1), aixVersionParts.length > 1 ? OsUtilities.parseVersionDigits(aixVersionParts[1]).orElse(null) : null);
     }
 
     @Override
-    public int kill(final int pid) {
+    public CompletionStage<Integer> killAsync(final int pid) {
         return getOsPlatform()
                 .newProcessBuilder()
                 .rawExecution()
                 .build()
                 .execute("/bin/sh", "-c", "ps -ao pid -T " + pid + " | grep -v PID | xargs " + OsUtilities.getOsCommand("kill") + " -9")
-                .toCompletableFuture()
-                .join().getExitCode();
+                .thenApply(ProcessInstance::getExitCode);
     }
 }
@@ -1,38 +1,79 @@
 package com.platformlib.os.core.osi;
 
+import com.platformlib.os.api.dto.OsCommandResult;
 import com.platformlib.os.api.exception.OperationSystemException;
+import com.platformlib.os.api.osi.OsProcess;
+import com.platformlib.os.api.osi.OsProcessListener;
+import com.platformlib.os.api.osi.OsProcessMetrics;
+import com.platformlib.os.api.osi.OsProcessWatcher;
+import com.platformlib.os.api.osi.OsProcessQuery;
+import com.platformlib.os.api.osi.OsProcessTree;
+import com.platformlib.os.api.osi.OsProcessVisitor;
+import com.platformlib.os.api.osi.OsUser;
 import com.platformlib.os.api.osi.OsVersion;
+import com.platformlib.os.api.osi.SystemMetrics;
+import com.platformlib.os.api.osi.posix.PosixOsUser;
 import com.platformlib.os.core.AbstractOsPlatform;
+import com.platformlib.os.core.bean.OsProcessBean;
 import com.platformlib.os.core.bean.OsVersionBean;
+import com.platformlib.os.core.bean.PosixGroupBean;
+import com.platformlib.os.core.bean.PosixOsUserBean;
+import com.platformlib.os.core.bean.PosixUserBean;
 import com.platformlib.os.core.util.OsUtilities;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.Charset;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.stream.Collectors;
 
 public class LinuxOsInterfaceImpl extends PosixOsInterfaceImpl {
     private static final Logger LOGGER = LoggerFactory.getLogger(PosixOsInterfaceImpl.class);
-    private static final int PID_INDEX = 0;
-    private static final int PPID_INDEX = 1;
+    private static final int DECIMAL_RADIX = 10;
+    private static final String PROC_DIRECTORY = "/proc";
+    private static final String PASSWD_FILE = "/etc/passwd";
+    private static final String GROUP_FILE = "/etc/group";
+    private static final String PROC_FS_PROPERTY = "procfs";
+    private static final long DEFAULT_PAGE_SIZE = 4096;
+    private static final long DEFAULT_CLOCK_TICKS = 100;
+    private static final int EFFECTIVE_ID_COLUMN = 1;
+    private final IdNameIndex userNameIndex = new IdNameIndex();
+    private final IdNameIndex groupNameIndex = new IdNameIndex();
+    private volatile long[] pageSizeAndClockTicks;
+    private final Object procFsAliveReaderLock = new Object();
+    private ProcFsMetricsReader procFsAliveReader;
+    private final Object systemMetricsParserLock = new Object();
+    private ProcFsSystemMetricsParser systemMetricsParser;
 
     public LinuxOsInterfaceImpl(final AbstractOsPlatform osPlatform) {
         super(osPlatform);
     }
 
     @Override
-    public final OsVersion getOsVersion() {
+    protected OsVersion readOsVersion() {
         try {
             final String[] releaseFiles = {"/etc/os-release", "/etc/system-release", "/etc/redhat-release"};
-            String[] linuxVersionParts = null;
             for (final String releaseFile : releaseFiles) {
                 final Path releaseFilePath = getOsPlatform().getFileSystem().getPath(releaseFile);
                 if (Files.isRegularFile(releaseFilePath)) {
@@ -46,55 +87,445 @@ public class LinuxOsInterfaceImpl extends PosixOsInterfaceImpl {
                         }
                     }
                     LOGGER.trace("Release file content is {}", lines);
-                    final String osVersionToParse;
-                    if (lines.stream().anyMatch(line -> line.matches("VERSION_ID=.*"))) {
-                        osVersionToParse = lines.stream().filter(line -> line.matches("VERSION_ID=.*")).findAny().orElseThrow(() -> new IllegalStateException("Fail to get line to parse version: " + lines));
-                    } else {
-                        osVersionToParse = lines.stream().collect(Collectors.joining());
-                    }
-                    linuxVersionParts = OsUtilities.filterVersionDigits(osVersionToParse).split("\\.");
-                    break;
+                    return parseOsVersion(lines);
                 }
             }
-            if (linuxVersionParts == null) {
-                return new OsVersionBean(-1, null);
-            } else {
-                return new OsVersionBean(OsUtilities.parseVersionDigits(linuxVersionParts[0]).orElse(-1), linuxVersionParts.length > 1 ? OsUtilities.parseVersionDigits(linuxVersionParts[1]).orElse(null) : null);
+            return new OsVersionBean(-1, null);
+        } catch (final IOException ioException) {
+            throw new OperationSystemException(ioException);
+        }
+    }
+
+    /**
+     * Parse release file content.
+     * @param lines /etc/os-release, /etc/system-release or /etc/redhat-release file lines
+     * @return Returns OS version
+     */
+    public static OsVersion parseOsVersion(final List<String> lines) {
+        final String osVersionToParse;
+        if (lines.stream().anyMatch(line -> line.matches("VERSION_ID=.*"))) {
+            osVersionToParse = lines.stream().filter(line -> line.matches("VERSION_ID=.*")).findAny().orElseThrow(() -> new IllegalStateException("Fail to get line to parse version: " + lines));
+        } else {
+            osVersionToParse = lines.stream().collect(Collectors.joining());
+        }
+        final String[] linuxVersionParts = OsUtilities.filterVersionDigits(osVersionToParse).split("\\.");
+        return new OsVersionBean(OsUtilities.parseVersionDigits(linuxVersionParts[0]).orElse(-1), linuxVersionParts.length > 1 ? OsUtilities.parseVersionDigits(linuxVersionParts[1]).orElse(null) : null);
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * The processes are read from /proc/[pid]/status files without forking ps command if procfs is enabled, see {@link #isProcFsEnabled()}.
+     */
+    @Override
+    public Collection<OsProcess> getOsProcesses() {
+        return isProcFsEnabled() ? readProcFsProcesses() : OsUtilities.join(super.getOsProcessesAsync());
+    }
+
+    /**
+     * {@inheritDoc}
+     * The procfs files are read by the platform executor if procfs is enabled, see {@link #isProcFsEnabled()}.
+     */
+    @Override
+    public CompletionStage<Collection<OsProcess>> getOsProcessesAsync() {
+        return isProcFsEnabled() ? supplyAsync(this::readProcFsProcesses) : super.getOsProcessesAsync();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The processes are read from /proc/[pid]/status files one by one if procfs is enabled, so the rest of /proc is not read once the visitor stops the enumeration.
+     */
+    @Override
+    public void visitOsProcesses(final OsProcessVisitor visitor) {
+        if (isProcFsEnabled()) {
+            visitProcFsProcesses(visitor);
+        } else {
+            super.visitOsProcesses(visitor);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The procfs files are read by the platform executor if procfs is enabled, see {@link #isProcFsEnabled()}.
+     */
+    @Override
+    public CompletionStage<Void> visitOsProcessesAsync(final OsProcessVisitor visitor) {
+        return isProcFsEnabled() ? supplyAsync(() -> {
+            visitProcFsProcesses(visitor);
+            return null;
+        }) : super.visitOsProcessesAsync(visitor);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The processes are filtered while /proc/[pid]/status files are read if procfs is enabled, see {@link #isProcFsEnabled()}.
+     */
+    @Override
+    public Collection<OsProcess> getOsProcesses(final OsProcessQuery query) {
+        return isProcFsEnabled() ? readProcFsProcesses(query) : super.getOsProcesses(query);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The procfs files are read by the platform executor if procfs is enabled, see {@link #isProcFsEnabled()}.
+     */
+    @Override
+    public CompletionStage<Collection<OsProcess>> getOsProcessesAsync(final OsProcessQuery query) {
+        return isProcFsEnabled() ? supplyAsync(() -> readProcFsProcesses(query)) : super.getOsProcessesAsync(query);
+    }
+
+    private Collection<OsProcess> readProcFsProcesses(final OsProcessQuery query) {
+        final List<OsProcess> processes = new ArrayList<>();
+        visitProcFsProcesses(osProcess -> !query.matches(osProcess) || processes.add(osProcess));
+        return Collections.unmodifiableCollection(processes);
+    }
+
+    private Collection<OsProcess> readProcFsProcesses() {
+        final List<OsProcess> processes = new ArrayList<>();
+        visitProcFsProcesses(processes::add);
+        return Collections.unmodifiableCollection(processes);
+    }
+
+    private void visitProcFsProcesses(final OsProcessVisitor visitor) {
+        final FileSystem fileSystem = getOsPlatform().getFileSystem();
+        visitProcFsProcesses(fileSystem.getPath(PROC_DIRECTORY), userNameIndex.get(fileSystem.getPath(PASSWD_FILE)), visitor);
+    }
+
+    /**
+     * Enumerate processes of procfs.
+     * The process is owned by the effective uid as it's reported by ps, the process which has gone during the enumeration is skipped.
+     * @param procDirectory procfs directory
+     * @param usernames user names by uid
+     * @param visitor OS process visitor
+     */
+    static void visitProcFsProcesses(final Path procDirectory, final Map<Integer, String> usernames, final OsProcessVisitor visitor) {
+        try (DirectoryStream<Path> procEntries = Files.newDirectoryStream(procDirectory)) {
+            for (final Path procEntry : procEntries) {
+                final String procEntryName = procEntry.getFileName().toString();
+                if (!isDigits(procEntryName)) {
+                    continue;
+                }
+                final String status;
+                try {
+                    status = readProcFile(procEntry.resolve("status"));
+                } catch (final IOException ioException) {
+                    //The read of the process which exits fails with NoSuchFileException or with ESRCH IOException
+                    LOGGER.trace("The process {} has gone", procEntryName, ioException);
+                    continue;
+                }
+                final int uid = parseStatusField(status, "Uid:", EFFECTIVE_ID_COLUMN);
+                final String username = usernames.get(uid);
+                if (!visitor.visit(new OsProcessBean(username == null ? String.valueOf(uid) : username, Integer.parseInt(procEntryName), parseStatusField(status, "PPid:"), parseStatusText(status, "Name:")))) {
+                    return;
+                }
             }
         } catch (final IOException ioException) {
             throw new OperationSystemException(ioException);
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * The uid and gid are read from /proc/self/status and resolved to names by cached /etc/passwd and /etc/group indexes if procfs is enabled, see {@link #isProcFsEnabled()}.
+     * The id command is used if the user or group name is not found in the files, for example for LDAP users.
+     */
+    @Override
+    public PosixOsUser getCurrentUser() {
+        if (!getOsPlatform().getKnownCurrentUser().isPresent() && isProcFsEnabled()) {
+            final Optional<PosixOsUser> procFsCurrentUser = readProcFsCurrentUser();
+            if (procFsCurrentUser.isPresent()) {
+                return procFsCurrentUser.get();
+            }
+        }
+        return (PosixOsUser) OsUtilities.join(super.getCurrentUserAsync());
+    }
 
+    /**
+     * {@inheritDoc}
+     * The procfs and passwd files are read by the platform executor if procfs is enabled, see {@link #getCurrentUser()}.
+     */
     @Override
-    public int kill(final int pid) {
-        //There is no simple common way to kill process and it's subprocesses (the ptree could not be installed). Killing by pgid may affect another started processes.
-        final List<String> psOutput = new ArrayList<>();
-        //TODO Check exit code
-        getOsPlatform().newProcessBuilder().rawExecution().stdOutConsumer(psOutput::add).build().execute("ps", "-ea", "-o", "pid,ppid").toCompletableFuture().join();
-        final int[][] processes = new int[psOutput.size() - 1][2];
-        for (int i = 1; i < psOutput.size(); i++) { //Skip first line (HEAD PID/PPID)
-            final String[] parts = psOutput.get(i).trim().split("\\s+");
-            processes[i - 1][PID_INDEX] = Integer.parseInt(parts[0]); //PID
-            processes[i - 1][PPID_INDEX] = Integer.parseInt(parts[1]); //PPID
+    public CompletionStage<OsUser> getCurrentUserAsync() {
+        if (getOsPlatform().getKnownCurrentUser().isPresent() || !isProcFsEnabled()) {
+            return super.getCurrentUserAsync();
+        }
+        return supplyAsync(this::readProcFsCurrentUser)
+                .thenCompose(procFsCurrentUser -> procFsCurrentUser.<CompletionStage<OsUser>>map(CompletableFuture::completedFuture).orElseGet(super::getCurrentUserAsync));
+    }
+
+    private Optional<PosixOsUser> readProcFsCurrentUser() {
+        final FileSystem fileSystem = getOsPlatform().getFileSystem();
+        try {
+            final String status = readProcFile(fileSystem.getPath(PROC_DIRECTORY, "self", "status"));
+            final int uid = parseStatusField(status, "Uid:");
+            final int gid = parseStatusField(status, "Gid:");
+            final String username = userNameIndex.get(fileSystem.getPath(PASSWD_FILE)).get(uid);
+            final String groupName = groupNameIndex.get(fileSystem.getPath(GROUP_FILE)).get(gid);
+            if (username != null && groupName != null) {
+                return Optional.of(new PosixOsUserBean(new PosixUserBean(uid, username), new PosixGroupBean(gid, groupName)));
+            }
+            LOGGER.debug("The uid {} or gid {} is not found in {} or {}, use id command", uid, gid, PASSWD_FILE, GROUP_FILE);
+        } catch (final IOException | OperationSystemException exception) {
+            LOGGER.debug("Fail to resolve current user from procfs, use id command", exception);
         }
-        final List<Integer> processesToKill = new ArrayList<>();
-        processesToKill.add(pid);
-        findProcessToKill(pid, processes, processesToKill);
-        final List<String> killCommandAndArguments = new ArrayList<>();
-        killCommandAndArguments.add(OsUtilities.getOsCommand("kill"));
-        killCommandAndArguments.add("-9");
-        killCommandAndArguments.addAll(processesToKill.stream().map(String::valueOf).collect(Collectors.toList()));
-        return getOsPlatform().newProcessBuilder().rawExecution().build().execute(killCommandAndArguments.toArray()).toCompletableFuture().join().getExitCode();
+        return Optional.empty();
+    }
+
+    /**
+     * Check if OS information should be read from procfs instead of running commands.
+     * By default procfs is used for the local file system only because of a file per process reading, it could be overridden by com.platformlib.os.procfs property.
+     * @return Returns true if procfs is enabled and /proc is available, false otherwise
+     */
+    protected boolean isProcFsEnabled() {
+        final FileSystem fileSystem = getOsPlatform().getFileSystem();
+        final boolean procFsEnabled = OsUtilities.getOsProperty(PROC_FS_PROPERTY).map(Boolean::parseBoolean).orElse(fileSystem.provider() == FileSystems.getDefault().provider());
+        return procFsEnabled && Files.isDirectory(fileSystem.getPath(PROC_DIRECTORY, "self"));
     }
 
-    private static void findProcessToKill(final int ppid, final int[][] processes, List<Integer> processesToKill) {
-        for (int[] process: processes) {
-            if (process[PPID_INDEX] == ppid) {
-                processesToKill.add(process[PID_INDEX]);
-                findProcessToKill(process[PID_INDEX], processes, processesToKill);
+    private static boolean isDigits(final String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
             }
         }
+        return true;
+    }
+
+    private static String readProcFile(final Path procFile) throws IOException {
+        //The procfs files have zero size so read them till the end of stream
+        try (InputStream is = Files.newInputStream(procFile, StandardOpenOption.READ)) {
+            return new String(OsUtilities.readInputStream(is), Charset.defaultCharset());
+        }
+    }
+
+    /**
+     * Parse text field of /proc/[pid]/status file.
+     * @param status status file content
+     * @param field field name with colon
+     * @return Returns field value without surrounding whitespaces
+     */
+    static String parseStatusText(final String status, final String field) {
+        int index = status.startsWith(field) ? 0 : status.indexOf('\n' + field);
+        if (index == -1) {
+            throw new OperationSystemException("No " + field + " field in process status");
+        }
+        index = status.charAt(index) == '\n' ? index + field.length() + 1 : field.length();
+        final int endIndex = status.indexOf('\n', index);
+        return (endIndex == -1 ? status.substring(index) : status.substring(index, endIndex)).trim();
+    }
+
+    /**
+     * Parse first numeric value of /proc/[pid]/status field.
+     * @param status status file content
+     * @param field field name with colon, for example "PPid:"
+     * @return Returns parsed value
+     */
+    static int parseStatusField(final String status, final String field) {
+        return parseStatusField(status, field, 0);
+    }
+
+    /**
+     * Parse numeric value of /proc/[pid]/status field.
+     * @param status status file content
+     * @param field field name with colon, for example "Uid:"
+     * @param column zero based index of the value, for example 1 for effective uid of "Uid:" field which lists real, effective, saved and filesystem uids
+     * @return Returns parsed value
+     */
+    static int parseStatusField(final String status, final String field, final int column) {
+        int index = status.startsWith(field) ? 0 : status.indexOf('\n' + field);
+        if (index == -1) {
+            throw new OperationSystemException("No " + field + " field in process status");
+        }
+        index = status.charAt(index) == '\n' ? index + field.length() + 1 : field.length();
+        for (int skipped = 0; skipped < column; skipped++) {
+            while (index < status.length() && Character.isWhitespace(status.charAt(index)) && status.charAt(index) != '\n') {
+                index++;
+            }
+            while (index < status.length() && Character.isDigit(status.charAt(index))) {
+                index++;
+            }
+        }
+        while (index < status.length() && Character.isWhitespace(status.charAt(index))) {
+            index++;
+        }
+        int value = 0;
+        while (index < status.length() && Character.isDigit(status.charAt(index))) {
+            value = value * DECIMAL_RADIX + status.charAt(index) - '0';
+            index++;
+        }
+        return value;
+    }
+
+    /**
+     * Read id to name mapping from passwd or group file.
+     * @param idNamesFile /etc/passwd or /etc/group file
+     * @return Returns id to name map, the first name is taken if several names have the same id
+     */
+    static Map<Integer, String> readIdNames(final Path idNamesFile) {
+        final Map<Integer, String> idNames = new HashMap<>();
+        if (!Files.isRegularFile(idNamesFile)) {
+            LOGGER.debug("The {} file doesn't exist", idNamesFile);
+            return idNames;
+        }
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(Files.newInputStream(idNamesFile, StandardOpenOption.READ), Charset.defaultCharset()))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                final String[] parts = line.split(":", 4);
+                if (parts.length < 3 || line.startsWith("#") || !isDigits(parts[2])) {
+                    continue;
+                }
+                idNames.putIfAbsent(Integer.parseInt(parts[2]), parts[0]);
+            }
+        } catch (final IOException ioException) {
+            throw new OperationSystemException(ioException);
+        }
+        return idNames;
+    }
+
+    /**
+     * Cached id to name index of passwd or group file. The index is re-read if the file modification time is changed.
+     */
+    private static final class IdNameIndex {
+        private FileTime modificationTime;
+        private Map<Integer, String> idNames = Collections.emptyMap();
+
+        synchronized Map<Integer, String> get(final Path idNamesFile) {
+            final FileTime currentModificationTime;
+            try {
+                currentModificationTime = Files.getLastModifiedTime(idNamesFile);
+            } catch (final IOException ioException) {
+                LOGGER.debug("Fail to get {} modification time", idNamesFile, ioException);
+                return Collections.emptyMap();
+            }
+            if (!currentModificationTime.equals(modificationTime)) {
+                idNames = Collections.unmodifiableMap(readIdNames(idNamesFile));
+                modificationTime = currentModificationTime;
+            }
+            return idNames;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Every poll lists /proc entries if procfs is enabled, see {@link #isProcFsEnabled()}, only the stat files of the new processes are read.
+     */
+    @Override
+    public OsProcessWatcher watchOsProcesses(final Duration pollInterval, final OsProcessListener listener) {
+        if (!isProcFsEnabled()) {
+            return super.watchOsProcesses(pollInterval, listener);
+        }
+        final ProcFsMetricsReader procFsMetricsReader = new ProcFsMetricsReader(getOsPlatform().getFileSystem(), getPageSizeAndClockTicks()[0], getPageSizeAndClockTicks()[1]);
+        return new PollingOsProcessWatcher(pollInterval, listener, 0, procFsMetricsReader::sampleStartTimes);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The waited processes are checked by their /proc/[pid]/stat files if procfs is enabled, see {@link #isProcFsEnabled()}, the zombie processes are considered exited.
+     */
+    @Override
+    void sampleAliveProcesses(final int[] pids, final int count, final PidStartTimeMap aliveProcesses) {
+        if (!isProcFsEnabled()) {
+            super.sampleAliveProcesses(pids, count, aliveProcesses);
+            return;
+        }
+        synchronized (procFsAliveReaderLock) {
+            if (procFsAliveReader == null) {
+                procFsAliveReader = new ProcFsMetricsReader(getOsPlatform().getFileSystem(), getPageSizeAndClockTicks()[0], getPageSizeAndClockTicks()[1]);
+            }
+            procFsAliveReader.sampleAlive(pids, count, aliveProcesses);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The metrics are read from /proc/[pid]/stat and /proc/[pid]/cmdline files without forking ps command if procfs is enabled, see {@link #isProcFsEnabled()}.
+     */
+    @Override
+    public OsProcessMetrics getOsProcessMetrics() {
+        return isProcFsEnabled() ? readProcFsMetrics() : OsUtilities.join(super.getOsProcessMetricsAsync());
+    }
+
+    /**
+     * {@inheritDoc}
+     * The procfs files are read by the platform executor if procfs is enabled, see {@link #isProcFsEnabled()}.
+     */
+    @Override
+    public CompletionStage<OsProcessMetrics> getOsProcessMetricsAsync() {
+        return isProcFsEnabled() ? supplyAsync(this::readProcFsMetrics) : super.getOsProcessMetricsAsync();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The metrics are read from /proc/stat, /proc/meminfo and /proc/loadavg files by the platform file system, so they're read via SFTP on remote platforms.
+     * The files are read regardless of {@link #isProcFsEnabled()} because it's three files per call, not a file per process.
+     */
+    @Override
+    public SystemMetrics getSystemMetrics() {
+        synchronized (systemMetricsParserLock) {
+            if (systemMetricsParser == null) {
+                systemMetricsParser = new ProcFsSystemMetricsParser();
+            }
+            return systemMetricsParser.read(getOsPlatform().getFileSystem().getPath(PROC_DIRECTORY));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The procfs files are read by the platform executor.
+     */
+    @Override
+    public CompletionStage<SystemMetrics> getSystemMetricsAsync() {
+        return supplyAsync(this::getSystemMetrics);
+    }
+
+    @Override
+    protected String[] getPsExtendedMetricsKeywords() {
+        return new String[]{"s", "nlwp", null};
+    }
+
+    private OsProcessMetrics readProcFsMetrics() {
+        final long[] pageSizeAndClockTicks = getPageSizeAndClockTicks();
+        return new ProcFsMetricsReader(getOsPlatform().getFileSystem(), pageSizeAndClockTicks[0], pageSizeAndClockTicks[1]).read();
+    }
+
+    /**
+     * Get memory page size and clock ticks per second by getconf, the values are read once.
+     * The common Linux values are used if getconf fails.
+     * @return Returns page size and clock ticks
+     */
+    private long[] getPageSizeAndClockTicks() {
+        long[] values = pageSizeAndClockTicks;
+        if (values == null) {
+            values = new long[]{DEFAULT_PAGE_SIZE, DEFAULT_CLOCK_TICKS};
+            try {
+                final List<OsCommandResult> results = getOsPlatform().osCommands(Arrays.asList(Arrays.asList("getconf", "PAGESIZE"), Arrays.asList("getconf", "CLK_TCK")));
+                for (int i = 0; i < values.length; i++) {
+                    if (results.get(i).getExitCode() == 0) {
+                        values[i] = Long.parseLong(results.get(i).getStdOut().trim());
+                    }
+                }
+            } catch (final RuntimeException runtimeException) {
+                LOGGER.warn("Fail to get page size and clock ticks by getconf, {} are used", Arrays.toString(values), runtimeException);
+            }
+            pageSizeAndClockTicks = values;
+        }
+        return values;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The tree is built from procfs if it's enabled, see {@link #isProcFsEnabled()}.
+     */
+    @Override
+    public OsProcessTree getOsProcessTree() {
+        return isProcFsEnabled() ? ProcessTreeIndex.of(readProcFsProcesses()) : OsUtilities.join(super.getOsProcessTreeAsync());
+    }
+
+    @Override
+    public CompletionStage<OsProcessTree> getOsProcessTreeAsync() {
+        return isProcFsEnabled() ? supplyAsync(() -> ProcessTreeIndex.of(readProcFsProcesses())) : super.getOsProcessTreeAsync();
     }
 }
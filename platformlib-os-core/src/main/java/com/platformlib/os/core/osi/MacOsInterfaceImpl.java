@@ -7,6 +7,8 @@ import com.platformlib.os.core.util.OsUtilities;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletionStage;
+
 public class MacOsInterfaceImpl extends PosixOsInterfaceImpl {
     private static final Logger LOGGER = LoggerFactory.getLogger(MacOsInterfaceImpl.class);
 
@@ -15,14 +17,31 @@ public class MacOsInterfaceImpl extends PosixOsInterfaceImpl {
     }
 
     @Override
-    public final OsVersion getOsVersion() {
-        final String swVersCommandOutput = getOsPlatform().osCommand("sw_vers", "-productVersion");
+    protected OsVersion readOsVersion() {
+        return OsUtilities.join(readOsVersionAsync());
+    }
+
+    @Override
+    protected CompletionStage<OsVersion> readOsVersionAsync() {
+        return getOsPlatform().osCommandAsync("sw_vers", "-productVersion").thenApply(MacOsInterfaceImpl::parseOsVersion);
+    }
+
+    /**
+     * Parse sw_vers -productVersion output.
+     * @param swVersCommandOutput sw_vers command output
+     * @return Returns OS version
+     */
+    public static OsVersion parseOsVersion(final String swVersCommandOutput) {
         final String[] macVersionParts = OsUtilities.filterVersionDigits(swVersCommandOutput).split("\\.");
         return new OsVersionBean(OsUtilities.parseVersionDigits(macVersionParts[0]).orElse(-1), macVersionParts.length > 1 ? OsUtilities.parseVersionDigits(macVersionParts[1]).orElse(null) : null);
     }
 
+    /**
+     * {@inheritDoc}
+     * The macOS ps doesn't report thread count.
+     */
     @Override
-    public int kill(final int pid) {
-        throw new IllegalStateException("not implemented");
+    protected String[] getPsExtendedMetricsKeywords() {
+        return new String[]{"state", null, "utime"};
     }
 }
@@ -0,0 +1,108 @@
+package com.platformlib.os.core.osi;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing map of process id to process start time, the entries are stored in primitive arrays, so no object is created per entry.
+ * The slots are exposed to iterate the map without iterator, a free slot has negative process id.
+ */
+final class PidStartTimeMap {
+    static final long MISSING = Long.MIN_VALUE;
+    private static final int FREE = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+    private static final int HASH_SHIFT = 16;
+
+    private int[] pids;
+    private long[] startTimes;
+    private int size;
+
+    PidStartTimeMap() {
+        pids = new int[INITIAL_CAPACITY];
+        startTimes = new long[INITIAL_CAPACITY];
+        Arrays.fill(pids, FREE);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return pids.length;
+    }
+
+    /**
+     * Get process id of the slot.
+     * @param slot slot index, less than {@link #capacity()}
+     * @return Returns process id, negative for a free slot
+     */
+    int pidAt(final int slot) {
+        return pids[slot];
+    }
+
+    long startTimeAt(final int slot) {
+        return startTimes[slot];
+    }
+
+    void setStartTimeAt(final int slot, final long startTime) {
+        startTimes[slot] = startTime;
+    }
+
+    /**
+     * Get start time of the process.
+     * @param pid process id
+     * @return Returns start time, {@link #MISSING} if the process is not in the map
+     */
+    long get(final int pid) {
+        final int slot = slotOf(pid);
+        return pids[slot] == FREE ? MISSING : startTimes[slot];
+    }
+
+    void put(final int pid, final long startTime) {
+        int slot = slotOf(pid);
+        if (pids[slot] == FREE) {
+            if ((size + 1) * 2 > pids.length) {
+                grow();
+                slot = slotOf(pid);
+            }
+            pids[slot] = pid;
+            size++;
+        }
+        startTimes[slot] = startTime;
+    }
+
+    void clear() {
+        if (size > 0) {
+            Arrays.fill(pids, FREE);
+            size = 0;
+        }
+    }
+
+    /**
+     * Find the slot of the process or the free slot where it should be put, the map is never full.
+     */
+    private int slotOf(final int pid) {
+        final int mask = pids.length - 1;
+        final int hash = pid * HASH_MULTIPLIER;
+        int slot = (hash ^ hash >>> HASH_SHIFT) & mask;
+        while (pids[slot] != FREE && pids[slot] != pid) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        final int[] oldPids = pids;
+        final long[] oldStartTimes = startTimes;
+        pids = new int[oldPids.length * 2];
+        startTimes = new long[oldPids.length * 2];
+        Arrays.fill(pids, FREE);
+        for (int slot = 0; slot < oldPids.length; slot++) {
+            if (oldPids[slot] != FREE) {
+                final int newSlot = slotOf(oldPids[slot]);
+                pids[newSlot] = oldPids[slot];
+                startTimes[newSlot] = oldStartTimes[slot];
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.platformlib.os.core.osi;
+
+import com.platformlib.os.api.osi.OsProcessListener;
+import com.platformlib.os.api.osi.OsProcessWatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link OsProcessWatcher} which compares the sample of process start times with the previous one on every poll.
+ * The samples are kept in two {@link PidStartTimeMap} which are swapped after the poll, so the steady state polls don't allocate the snapshots.
+ * The known process is considered restarted if its sampled start time is later than the known one by more than the start time tolerance, it covers the OS which report the start time imprecisely.
+ */
+final class PollingOsProcessWatcher implements OsProcessWatcher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PollingOsProcessWatcher.class);
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final Duration pollInterval;
+    private final OsProcessListener listener;
+    private final long startTimeToleranceMillis;
+    private final Sampler sampler;
+    private final ScheduledExecutorService pollExecutor;
+    private PidStartTimeMap knownProcesses = new PidStartTimeMap();
+    private PidStartTimeMap sampledProcesses = new PidStartTimeMap();
+    private volatile int processCount;
+    private final AtomicLong pollCount = new AtomicLong();
+
+    /**
+     * Sampler of running processes start times.
+     */
+    @FunctionalInterface
+    interface Sampler {
+        /**
+         * Put start times of all running processes to the sample.
+         * @param knownProcesses processes of the previous sample, the sampler could reuse their start times instead of reading them again
+         * @param sample empty sample to fill
+         */
+        void sample(PidStartTimeMap knownProcesses, PidStartTimeMap sample);
+    }
+
+    /**
+     * Take the baseline sample and start polling.
+     * @param pollInterval delay between polls
+     * @param listener listener of process events
+     * @param startTimeToleranceMillis maximum difference of start times of the same process in two samples
+     * @param sampler sampler of running processes
+     * @throws com.platformlib.os.api.exception.OperationSystemException if the baseline sample fails
+     */
+    PollingOsProcessWatcher(final Duration pollInterval, final OsProcessListener listener, final long startTimeToleranceMillis, final Sampler sampler) {
+        if (pollInterval.isNegative() || pollInterval.isZero()) {
+            throw new IllegalArgumentException("The poll interval should be positive");
+        }
+        this.pollInterval = pollInterval;
+        this.listener = listener;
+        this.startTimeToleranceMillis = startTimeToleranceMillis;
+        this.sampler = sampler;
+        sampler.sample(sampledProcesses, knownProcesses);
+        this.processCount = knownProcesses.size();
+        this.pollCount.incrementAndGet();
+        this.pollExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "os-process-watcher-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        pollExecutor.scheduleWithFixedDelay(this::poll, pollInterval.toNanos(), pollInterval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    @Override
+    public int getProcessCount() {
+        return processCount;
+    }
+
+    @Override
+    public long getPollCount() {
+        return pollCount.get();
+    }
+
+    @Override
+    public void close() {
+        pollExecutor.shutdownNow();
+    }
+
+    /**
+     * Sample processes and notify the listener about the difference with the known ones.
+     * The poll is run by the single watcher thread, so the samples are not guarded.
+     */
+    void poll() {
+        sampledProcesses.clear();
+        try {
+            sampler.sample(knownProcesses, sampledProcesses);
+        } catch (final RuntimeException runtimeException) {
+            LOGGER.debug("The OS processes poll failed", runtimeException);
+            try {
+                listener.onPollFailure(runtimeException);
+            } catch (final RuntimeException listenerException) {
+                LOGGER.warn("The OS process listener failed on poll failure", listenerException);
+            }
+            return;
+        }
+        for (int slot = 0; slot < knownProcesses.capacity(); slot++) {
+            final int pid = knownProcesses.pidAt(slot);
+            if (pid >= 0 && isAnotherProcess(knownProcesses.startTimeAt(slot), sampledProcesses.get(pid))) {
+                notifyExited(pid, knownProcesses.startTimeAt(slot));
+            }
+        }
+        for (int slot = 0; slot < sampledProcesses.capacity(); slot++) {
+            final int pid = sampledProcesses.pidAt(slot);
+            if (pid >= 0) {
+                final long knownStartTime = knownProcesses.get(pid);
+                if (isAnotherProcess(knownStartTime, sampledProcesses.startTimeAt(slot))) {
+                    notifyStarted(pid, sampledProcesses.startTimeAt(slot));
+                } else {
+                    //The known start time is kept, so the imprecise start times don't drift
+                    sampledProcesses.setStartTimeAt(slot, knownStartTime);
+                }
+            }
+        }
+        final PidStartTimeMap previousProcesses = knownProcesses;
+        knownProcesses = sampledProcesses;
+        sampledProcesses = previousProcesses;
+        processCount = knownProcesses.size();
+        pollCount.incrementAndGet();
+    }
+
+    private boolean isAnotherProcess(final long knownStartTime, final long sampledStartTime) {
+        return knownStartTime == PidStartTimeMap.MISSING || sampledStartTime == PidStartTimeMap.MISSING || sampledStartTime > knownStartTime + startTimeToleranceMillis;
+    }
+
+    private void notifyStarted(final int pid, final long startTimeMillis) {
+        try {
+            listener.onProcessStarted(pid, startTimeMillis);
+        } catch (final RuntimeException runtimeException) {
+            LOGGER.warn("The OS process listener failed on start of process {}", pid, runtimeException);
+        }
+    }
+
+    private void notifyExited(final int pid, final long startTimeMillis) {
+        try {
+            listener.onProcessExited(pid, startTimeMillis);
+        } catch (final RuntimeException runtimeException) {
+            LOGGER.warn("The OS process listener failed on exit of process {}", pid, runtimeException);
+        }
+    }
+}
@@ -2,8 +2,19 @@ package com.platformlib.os.core.osi;
 
 import com.platformlib.os.api.dto.IdNamePair;
 import com.platformlib.os.api.exception.OperationSystemException;
+import com.platformlib.os.api.osi.AsyncOsInterface;
 import com.platformlib.os.api.osi.DiskSpaceInfo;
 import com.platformlib.os.api.osi.OsProcess;
+import com.platformlib.os.api.osi.OsProcessListener;
+import com.platformlib.os.api.osi.OsProcessMetrics;
+import com.platformlib.os.api.osi.OsProcessQuery;
+import com.platformlib.os.api.osi.OsProcessTermination;
+import com.platformlib.os.api.osi.OsProcessTerminationPolicy;
+import com.platformlib.os.api.osi.OsProcessTree;
+import com.platformlib.os.api.osi.OsProcessVisitor;
+import com.platformlib.os.api.osi.OsProcessWatcher;
+import com.platformlib.os.api.osi.OsUser;
+import com.platformlib.os.api.osi.OsVersion;
 import com.platformlib.os.api.enums.OperationSystem;
 import com.platformlib.os.api.osi.posix.PosixOsInterface;
 import com.platformlib.os.api.osi.posix.PosixOsUser;
@@ -14,29 +25,92 @@ import com.platformlib.os.core.bean.OsProcessBean;
 import com.platformlib.os.core.bean.PosixGroupBean;
 import com.platformlib.os.core.bean.PosixOsUserBean;
 import com.platformlib.os.core.bean.PosixUserBean;
+import com.platformlib.os.core.util.OsCommandBatch;
+import com.platformlib.os.core.util.OsUtilities;
+import com.platformlib.process.api.ProcessInstance;
+import com.platformlib.process.builder.ProcessBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
 
-public abstract class PosixOsInterfaceImpl implements PosixOsInterface {
+/**
+ * POSIX OS interface, the blocking methods wait for the asynchronous ones.
+ */
+public abstract class PosixOsInterfaceImpl implements PosixOsInterface, AsyncOsInterface {
     private static final Logger LOGGER = LoggerFactory.getLogger(PosixOsInterfaceImpl.class);
     private final AbstractOsPlatform osPlatform;
+    private final ProcessExitPoller processExitPoller = new ProcessExitPoller(this::sampleAliveProcesses);
+    private PsAliveSampler psAliveSampler;
+    private final ProcessTreeTerminator processTreeTerminator = new ProcessTreeTerminator(
+            (pids, count) -> signal("-TERM", pids, count), (pids, count) -> signal("-KILL", pids, count), this::sampleAliveProcesses);
 
     private static final int KB_MULTIPLIER = 1024;
     private static final int SOLARIS_POSIX_DF_COMMAND_COMPATIBILITY = 11;
+    private static final Pattern PS_HEADER_PATTERN = Pattern.compile("PID\\s+PPID\\s+USER");
+    private static final String PS_QUERY_COLUMNS = "pid,ppid,user,comm";
+    private static final Pattern PS_QUERY_HEADER_PATTERN = Pattern.compile("PID\\s+PPID\\s+USER\\s+(COMMAND|COMM|CMD)");
 
     public PosixOsInterfaceImpl(final AbstractOsPlatform osPlatform) {
         this.osPlatform = osPlatform;
     }
 
+    @Override
+    public OsVersion getOsVersion() {
+        return OsUtilities.join(getOsVersionAsync());
+    }
+
+    /**
+     * {@inheritDoc}
+     * Returns the version known by the platform if any, reads OS specific version information otherwise.
+     */
+    @Override
+    public CompletionStage<OsVersion> getOsVersionAsync() {
+        return getOsPlatform().getKnownOsVersion().<CompletionStage<OsVersion>>map(CompletableFuture::completedFuture).orElseGet(this::readOsVersionAsync);
+    }
+
+    /**
+     * Read OS version.
+     * @return Returns OS version
+     */
+    protected abstract OsVersion readOsVersion();
+
+    /**
+     * Read OS version asynchronously.
+     * By default {@link #readOsVersion()} is run by the platform executor, command based implementations should override it.
+     * @return Returns stage of OS version
+     */
+    protected CompletionStage<OsVersion> readOsVersionAsync() {
+        return supplyAsync(this::readOsVersion);
+    }
+
     @Override
     public PosixOsUser getCurrentUser() {
-        final String idCommandOutput = getOsPlatform().osCommand("id");
+        return (PosixOsUser) OsUtilities.join(getCurrentUserAsync());
+    }
+
+    @Override
+    public CompletionStage<OsUser> getCurrentUserAsync() {
+        return getOsPlatform().getKnownCurrentUser().filter(PosixOsUser.class::isInstance).<CompletionStage<OsUser>>map(CompletableFuture::completedFuture)
+                .orElseGet(() -> getOsPlatform().osCommandAsync("id").thenApply(PosixOsInterfaceImpl::parseCurrentUser));
+    }
+
+    /**
+     * Parse id command output.
+     * @param idCommandOutput id command output
+     * @return Returns current user
+     */
+    public static PosixOsUser parseCurrentUser(final String idCommandOutput) {
         final IdNamePair user = parseIdAndName("uid=", idCommandOutput);
         final IdNamePair group = parseIdAndName("gid=", idCommandOutput);
         return new PosixOsUserBean(new PosixUserBean(user.getId(), user.getName()), new PosixGroupBean(group.getId(), group.getName()));
@@ -61,70 +135,346 @@ public abstract class PosixOsInterfaceImpl implements PosixOsInterface {
 
     @Override
     public Collection<OsProcess> getOsProcesses() {
-        final List<OsProcessBean> processes = new ArrayList<>();
+        return OsUtilities.join(getOsProcessesAsync());
+    }
+
+    @Override
+    public CompletionStage<Collection<OsProcess>> getOsProcessesAsync() {
+        final List<OsProcess> processes = new ArrayList<>();
+        return visitPsProcessesAsync(processes::add).thenApply(done -> Collections.unmodifiableCollection(processes));
+    }
+
+    @Override
+    public void visitOsProcesses(final OsProcessVisitor visitor) {
+        OsUtilities.join(visitOsProcessesAsync(visitor));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Every ps output line is delivered as soon as it's read, the rest of the output is skipped once the visitor stops the enumeration.
+     */
+    @Override
+    public CompletionStage<Void> visitOsProcessesAsync(final OsProcessVisitor visitor) {
+        return visitPsProcessesAsync(visitor);
+    }
+
+    private CompletionStage<Void> visitPsProcessesAsync(final OsProcessVisitor visitor) {
+        final ProcessOutputVisitor psOutputVisitor = new ProcessOutputVisitor("ps", PS_HEADER_PATTERN, PosixOsInterfaceImpl::parsePsLine, visitor);
+        final List<String> stdErr = new ArrayList<>();
+        return osPlatform
+                .newProcessBuilder()
+                .stdErrConsumer(stdErr::add)
+                .stdOutConsumer(psOutputVisitor)
+                .build()
+                .execute("ps", "-Ao", "pid,ppid,user")
+                .thenAccept(processInstance -> psOutputVisitor.complete(processInstance.getExitCode(), stdErr));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The query is run on the OS side, see {@link #getOsProcessesAsync(OsProcessQuery)}.
+     */
+    @Override
+    public Collection<OsProcess> getOsProcesses(final OsProcessQuery query) {
+        return OsUtilities.join(getOsProcessesAsync(query));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The owner only query is run by ps -u. The other queries select the processes by pgrep which is followed by ps -p in one sh invocation, so pgrep is required.
+     * The command name is matched exactly by pgrep -x, the returned processes have command name.
+     * The ps exit code 1 without stderr means no process is selected, for example the user has no processes or the matched processes have exited before ps is run.
+     */
+    @Override
+    public CompletionStage<Collection<OsProcess>> getOsProcessesAsync(final OsProcessQuery query) {
+        final List<OsProcess> processes = new ArrayList<>();
+        final ProcessOutputVisitor psOutputVisitor = new ProcessOutputVisitor("ps", PS_QUERY_HEADER_PATTERN, PosixOsInterfaceImpl::parsePsQueryLine, processes::add);
+        final List<String> stdErr = new ArrayList<>();
+        final ProcessBuilder processBuilder = osPlatform.newProcessBuilder().stdErrConsumer(stdErr::add).stdOutConsumer(psOutputVisitor);
+        final CompletionStage<ProcessInstance> execution;
+        if (query.getCommandName().isPresent() || query.getParentProcessId().isPresent()) {
+            final StringBuilder pgrepCommandLine = new StringBuilder("pgrep -d,");
+            query.getUsername().ifPresent(username -> pgrepCommandLine.append(" -u ").append(OsCommandBatch.quote(username, false)));
+            query.getParentProcessId().ifPresent(parentProcessId -> pgrepCommandLine.append(" -P ").append(parentProcessId));
+            query.getCommandName().ifPresent(commandName -> pgrepCommandLine.append(" -x ").append(OsCommandBatch.quote(escapeExtendedRegex(commandName), false)));
+            //The pgrep exit code 1 means no process is matched
+            execution = processBuilder.rawExecution().build().execute("/bin/sh", "-c", "pids=$(" + pgrepCommandLine + "); case $? in 0) exec ps -o " + PS_QUERY_COLUMNS + " -p \"$pids\";; 1) exit 0;; *) exit 2;; esac");
+        } else if (query.getUsername().isPresent()) {
+            execution = processBuilder.build().execute("ps", "-o", PS_QUERY_COLUMNS, "-u", query.getUsername().get());
+        } else {
+            execution = processBuilder.build().execute("ps", "-Ao", PS_QUERY_COLUMNS);
+        }
+        return execution.thenApply(processInstance -> {
+            final int exitCode = processInstance.getExitCode();
+            psOutputVisitor.complete(exitCode == 1 && stdErr.isEmpty() ? 0 : exitCode, stdErr);
+            return Collections.unmodifiableCollection(processes);
+        });
+    }
+
+    private static String escapeExtendedRegex(final String value) {
+        final StringBuilder escapedValue = new StringBuilder(value.length());
+        for (final char c : value.toCharArray()) {
+            if ("\\.[]()*+?{}|^$".indexOf(c) >= 0) {
+                escapedValue.append('\\');
+            }
+            escapedValue.append(c);
+        }
+        return escapedValue.toString();
+    }
+
+    /**
+     * Parse ps line of pid, ppid, user and comm columns.
+     * The comm column is the full executable path on macOS, so the path is stripped.
+     */
+    private static OsProcess parsePsQueryLine(final String line) {
+        final String[] psParts = line.trim().split("\\s+", 4);
+        if (psParts.length != 4) {
+            throw new OperationSystemException("Fail to parse ps stdout: " + line);
+        }
+        final String commandName = psParts[3].startsWith("/") ? psParts[3].substring(psParts[3].lastIndexOf('/') + 1) : psParts[3];
+        return new OsProcessBean(psParts[2], Integer.parseInt(psParts[0]), "-".equals(psParts[1]) ? null : Integer.parseInt(psParts[1]), commandName);
+    }
+
+    private static OsProcess parsePsLine(final String line) {
+        final String[] psParts = line.trim().split("\\s+", 3);
+        try {
+            return new OsProcessBean(psParts.length > 2 ? psParts[2] : null, Integer.parseInt(psParts[0]), psParts.length < 2 || "-".equals(psParts[1]) ? null : Integer.parseInt(psParts[1]));
+        } catch (final RuntimeException runtimeException) {
+            LOGGER.error("Fail to create process entry for {} parsed from '{}'", psParts, line);
+            throw runtimeException;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Every poll runs ps with pid and elapsed time columns.
+     */
+    @Override
+    public OsProcessWatcher watchOsProcesses(final Duration pollInterval, final OsProcessListener listener) {
+        return new PollingOsProcessWatcher(pollInterval, listener, PsStartTimeSampler.START_TIME_TOLERANCE_MILLIS, new PsStartTimeSampler(osPlatform));
+    }
+
+    @Override
+    public OsProcessMetrics getOsProcessMetrics() {
+        return OsUtilities.join(getOsProcessMetricsAsync());
+    }
+
+    /**
+     * Get resource usage snapshot of all OS processes asynchronously.
+     * The snapshot is taken by one wide ps call, every line is added to the snapshot as soon as it's read.
+     * @return Returns stage of processes metrics
+     */
+    public CompletionStage<OsProcessMetrics> getOsProcessMetricsAsync() {
+        final PsMetricsParser psMetricsParser = new PsMetricsParser(getPsExtendedMetricsKeywords(), Instant.now());
+        final List<String> stdErr = new ArrayList<>();
+        return osPlatform
+                .newProcessBuilder()
+                .stdErrConsumer(stdErr::add)
+                .stdOutConsumer(psMetricsParser)
+                .build()
+                .execute(psMetricsParser.getCommand().toArray())
+                .thenApply(processInstance -> {
+                    if (processInstance.getExitCode() != 0) {
+                        stdErr.forEach(line -> LOGGER.error("The ps stderr: {}", line));
+                    }
+                    return psMetricsParser.build(processInstance.getExitCode());
+                });
+    }
+
+    /**
+     * Get ps keywords of state, thread count and user CPU time columns which are not defined by POSIX.
+     * @return Returns keywords in that order, null for the column which is not supported by the OS ps
+     */
+    protected String[] getPsExtendedMetricsKeywords() {
+        return new String[3];
+    }
+
+    /**
+     * {@inheritDoc}
+     * The waits share one poller which runs one ps call per poll.
+     */
+    @Override
+    public CompletionStage<Void> waitForExit(final int pid) {
+        return processExitPoller.waitForExit(pid);
+    }
+
+    /**
+     * Sample the waited processes which are running, it's called by the exit poller thread.
+     * @param pids waited process ids
+     * @param count number of waited process ids in the array
+     * @param aliveProcesses empty sample to fill
+     */
+    void sampleAliveProcesses(final int[] pids, final int count, final PidStartTimeMap aliveProcesses) {
+        final PsAliveSampler sampler;
+        synchronized (this) {
+            if (psAliveSampler == null) {
+                psAliveSampler = new PsAliveSampler(osPlatform, getPsExtendedMetricsKeywords()[0]);
+            }
+            sampler = psAliveSampler;
+        }
+        sampler.sample(pids, count, aliveProcesses);
+    }
+
+    @Override
+    public OsProcessTree getOsProcessTree() {
+        return OsUtilities.join(getOsProcessTreeAsync());
+    }
+
+    @Override
+    public CompletionStage<OsProcessTree> getOsProcessTreeAsync() {
         final List<String> stdOut = new ArrayList<>();
         final List<String> stdErr = new ArrayList<>();
-        final int exitCode = osPlatform
+        return osPlatform
                 .newProcessBuilder()
                 .stdErrConsumer(stdErr::add)
                 .stdOutConsumer(stdOut::add)
                 .build()
-                .execute("ps", "-Ao", "pid,ppid,user")
-                .toCompletableFuture()
-                .join().getExitCode();
+                .execute("ps", "-Ao", "pid,ppid")
+                .thenApply(processInstance -> parsePsTreeOutput(processInstance.getExitCode(), stdOut, stdErr));
+    }
+
+    private static OsProcessTree parsePsTreeOutput(final int exitCode, final List<String> stdOut, final List<String> stdErr) {
         if (exitCode != 0) {
             LOGGER.error("The ps exit status is not zero [{}]", exitCode);
             stdOut.forEach(line -> LOGGER.error("The ps stdout: {}", line));
             stdErr.forEach(line -> LOGGER.error("The ps stderr: {}", line));
-            throw new RuntimeException("Fail to run ps command");
+            throw new OperationSystemException("Fail to run ps command");
         }
-        if (stdOut.isEmpty()) {
-            LOGGER.debug("The ps command output is empty");
-            return Collections.emptyList();
-        }
-        if (!stdOut.get(0).matches("\\s*PID\\s+PPID\\s+USER")) {
-            LOGGER.error("Non standard ps header: {}", stdOut.get(0));
-            stdErr.forEach(line -> LOGGER.error("The ps stderr: {}", line));
-            throw new RuntimeException("Fail to run ps command");
-        }
-        stdOut.remove(0);
-        stdOut.forEach(line -> {
-            final String[] psParts = line.trim().split("\\s+", 3);
-            try {
-                processes.add(new OsProcessBean(psParts.length > 2 ? psParts[2] : null, Integer.parseInt(psParts[0]), psParts.length < 2 || "-".equals(psParts[1]) ? null : Integer.parseInt(psParts[1])));
-            } catch (final Exception exception) {
-                LOGGER.error("Fail to create process entry for {} parsed from '{}'", psParts, line);
-                throw exception;
+        //Skip first line (HEAD PID/PPID)
+        final int size = Math.max(stdOut.size() - 1, 0);
+        final int[] pids = new int[size];
+        final int[] ppids = new int[size];
+        for (int i = 0; i < size; i++) {
+            final String[] parts = stdOut.get(i + 1).trim().split("\\s+");
+            if (parts.length != 2) {
+                LOGGER.error("Fail to parse ps output line '{}'", stdOut.get(i + 1));
+                throw new OperationSystemException("Fail to parse ps output");
             }
+            pids[i] = Integer.parseInt(parts[0]);
+            ppids[i] = "-".equals(parts[1]) ? pids[i] : Integer.parseInt(parts[1]);
+        }
+        return ProcessTreeIndex.of(pids, ppids);
+    }
+
+    @Override
+    public int kill(final int pid) {
+        return OsUtilities.join(killAsync(pid));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The process and its descendants of one process tree snapshot are killed by one kill -9 call.
+     */
+    @Override
+    public CompletionStage<Integer> killAsync(final int pid) {
+        //There is no simple common way to kill process and it's subprocesses (the ptree could not be installed). Killing by pgid may affect another started processes.
+        return getOsProcessTreeAsync().thenCompose(osProcessTree -> {
+            final int[] descendants = osProcessTree.descendantsOf(pid);
+            final int[] pids = new int[descendants.length + 1];
+            pids[0] = pid;
+            System.arraycopy(descendants, 0, pids, 1, descendants.length);
+            return signalAsync("-9", pids, pids.length);
         });
-        return Collections.unmodifiableCollection(processes);
+    }
+
+    /**
+     * Send the signal to the processes by one kill call.
+     * @param signal kill signal option
+     * @param pids process ids
+     * @param count number of process ids in the array
+     * @return Returns stage of kill exit code
+     */
+    private CompletionStage<Integer> signalAsync(final String signal, final int[] pids, final int count) {
+        final List<String> killCommandAndArguments = new ArrayList<>(count + 2);
+        killCommandAndArguments.add(OsUtilities.getOsCommand("kill"));
+        killCommandAndArguments.add(signal);
+        for (int i = 0; i < count; i++) {
+            killCommandAndArguments.add(String.valueOf(pids[i]));
+        }
+        return osPlatform.newProcessBuilder().rawExecution().build().execute(killCommandAndArguments.toArray()).thenApply(ProcessInstance::getExitCode);
+    }
+
+    private void signal(final String signal, final int[] pids, final int count) {
+        final int exitCode = OsUtilities.join(signalAsync(signal, pids, count));
+        if (exitCode != 0) {
+            //Some processes could have gone or could be not permitted to signal, the following checks tell the outcome
+            LOGGER.debug("The kill {} exit code is {}", signal, exitCode);
+        }
+    }
+
+    @Override
+    public OsProcessTermination terminate(final Collection<Integer> rootPids, final OsProcessTerminationPolicy policy) {
+        return OsUtilities.join(terminateAsync(rootPids, policy));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The processes are asked to terminate by kill -TERM and the survivors are killed by kill -KILL, the running processes are checked as {@link #waitForExit(int)} does.
+     * The grace period is waited by the platform executor.
+     */
+    @Override
+    public CompletionStage<OsProcessTermination> terminateAsync(final Collection<Integer> rootPids, final OsProcessTerminationPolicy policy) {
+        final List<Integer> roots = new ArrayList<>(rootPids);
+        return getOsProcessTreeAsync().thenCompose(osProcessTree -> supplyAsync(() -> processTreeTerminator.terminate(osProcessTree, roots, policy)));
     }
 
     protected AbstractOsPlatform getOsPlatform() {
         return osPlatform;
     }
 
-    //TODO Use FileStore after supporting in sshd library
+    /**
+     * Run blocking step of asynchronous call by the platform executor.
+     * @param supplier blocking step
+     * @param <T> result type
+     * @return Returns stage of the step result
+     */
+    protected <T> CompletionStage<T> supplyAsync(final Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, osPlatform.getAsyncExecutor());
+    }
+
     @Override
     public DiskSpaceInfo getDiskSpaceInfo(final String file) {
+        return OsUtilities.join(getDiskSpaceInfoAsync(file));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The file system API is asked first, the df command is run if the file system doesn't provide disk space info.
+     */
+    @Override
+    public CompletionStage<DiskSpaceInfo> getDiskSpaceInfoAsync(final String file) {
+        return osPlatform.getFileSystemDiskSpaceInfoAsync(file)
+                .thenCompose(diskSpaceInfo -> diskSpaceInfo.<CompletionStage<DiskSpaceInfo>>map(CompletableFuture::completedFuture).orElseGet(() -> getDfDiskSpaceInfoAsync(file)));
+    }
+
+    private CompletionStage<DiskSpaceInfo> getDfDiskSpaceInfoAsync(final String file) {
+        if (OperationSystem.SOLARIS != osPlatform.getOsSystem()) {
+            return getDfDiskSpaceInfoAsync(file, true);
+        }
+        return getOsVersionAsync().thenCompose(osVersion -> getDfDiskSpaceInfoAsync(file, osVersion.getMajor() >= SOLARIS_POSIX_DF_COMMAND_COMPATIBILITY));
+    }
+
+    private CompletionStage<DiskSpaceInfo> getDfDiskSpaceInfoAsync(final String file, final boolean posixOutputFormat) {
         final List<String> stdOut = new ArrayList<>();
         final List<String> stdErr = new ArrayList<>();
 
         final Collection<Object> dfCommand = new ArrayList<>();
         dfCommand.add("df");
         dfCommand.add("-k");
-        if (OperationSystem.SOLARIS != osPlatform.getOsSystem() || getOsVersion().getMajor() >= SOLARIS_POSIX_DF_COMMAND_COMPATIBILITY) {
+        if (posixOutputFormat) {
             dfCommand.add("-P");
         }
         dfCommand.add(file);
-        final int exitCode = osPlatform
+        return osPlatform
                 .newProcessBuilder()
                 .stdErrConsumer(stdErr::add)
                 .stdOutConsumer(stdOut::add)
                 .build()
-                .execute(dfCommand.toArray()).toCompletableFuture()
-                .join()
-                .getExitCode();
+                .execute(dfCommand.toArray())
+                .thenApply(processInstance -> parseDfOutput(processInstance.getExitCode(), stdOut, stdErr));
+    }
+
+    private static DiskSpaceInfo parseDfOutput(final int exitCode, final List<String> stdOut, final List<String> stdErr) {
         if (exitCode != 0) {
             LOGGER.error("The df exit status is not zero [{}]", exitCode);
             stdOut.forEach(line -> LOGGER.error("The df stdout: {}", line));
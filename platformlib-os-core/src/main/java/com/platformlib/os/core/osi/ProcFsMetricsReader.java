@@ -0,0 +1,283 @@
+package com.platformlib.os.core.osi;
+
+import com.platformlib.os.api.exception.OperationSystemException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Reader of {@link ProcessMetricsTable} from /proc/[pid]/stat and /proc/[pid]/cmdline files.
+ * The files are read to reused buffers and the stat fields are parsed in place, so no object is created per field.
+ * The rss and vsize stat fields give the memory usage, so /proc/[pid]/statm is not read.
+ */
+final class ProcFsMetricsReader {
+    private static final int STAT_STATE_FIELD = 3;
+    private static final int STAT_PPID_FIELD = 4;
+    private static final int STAT_UTIME_FIELD = 14;
+    private static final int STAT_STIME_FIELD = 15;
+    private static final int STAT_NUM_THREADS_FIELD = 20;
+    private static final int STAT_STARTTIME_FIELD = 22;
+    private static final int STAT_VSIZE_FIELD = 23;
+    private static final int STAT_RSS_FIELD = 24;
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+    private static final long MILLIS_PER_SECOND = 1000;
+    private static final int DECIMAL_RADIX = 10;
+    private static final int MAX_PID_DIGITS = 9;
+
+    private final FileSystem fileSystem;
+    private final long pageSize;
+    private final long clockTicks;
+    private final long[] statFields = new long[STAT_RSS_FIELD + 1];
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+    private long bootTimeMillis = -1;
+
+    /**
+     * Default constructor.
+     * @param fileSystem file system of OS platform
+     * @param pageSize memory page size in bytes
+     * @param clockTicks clock ticks per second of the stat times
+     */
+    ProcFsMetricsReader(final FileSystem fileSystem, final long pageSize, final long clockTicks) {
+        this.fileSystem = fileSystem;
+        this.pageSize = pageSize;
+        this.clockTicks = clockTicks;
+    }
+
+    /**
+     * Read metrics of all processes.
+     * @return Returns processes metrics
+     */
+    ProcessMetricsTable read() {
+        final ProcessMetricsTable.Builder builder = ProcessMetricsTable.builder(Instant.now());
+        try {
+            final long bootTimeMillis = readBootTimeMillis();
+            try (DirectoryStream<Path> procEntries = Files.newDirectoryStream(fileSystem.getPath("/proc"))) {
+                for (final Path procEntry : procEntries) {
+                    final String procEntryName = procEntry.getFileName().toString();
+                    if (!procEntryName.isEmpty() && procEntryName.chars().allMatch(Character::isDigit)) {
+                        readProcess(builder, Integer.parseInt(procEntryName), procEntry, bootTimeMillis);
+                    }
+                }
+            }
+        } catch (final IOException ioException) {
+            throw new OperationSystemException(ioException);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Sample start times of all processes for {@link PollingOsProcessWatcher}.
+     * Only the /proc entries which are not known are read, the known processes keep their start times.
+     * The process id reuse between two samples requires the process ids to wrap around, it's not detected.
+     * @param knownProcesses processes of the previous sample
+     * @param sample empty sample to fill
+     */
+    void sampleStartTimes(final PidStartTimeMap knownProcesses, final PidStartTimeMap sample) {
+        try {
+            if (bootTimeMillis == -1) {
+                bootTimeMillis = readBootTimeMillis();
+            }
+            try (DirectoryStream<Path> procEntries = Files.newDirectoryStream(fileSystem.getPath("/proc"))) {
+                for (final Path procEntry : procEntries) {
+                    final int pid = parsePid(procEntry.getFileName().toString());
+                    if (pid < 0) {
+                        continue;
+                    }
+                    final long knownStartTime = knownProcesses.get(pid);
+                    if (knownStartTime != PidStartTimeMap.MISSING) {
+                        sample.put(pid, knownStartTime);
+                    } else {
+                        readStartTime(sample, pid, procEntry);
+                    }
+                }
+            }
+        } catch (final IOException ioException) {
+            throw new OperationSystemException(ioException);
+        }
+    }
+
+    /**
+     * Sample the waited processes which are running for {@link ProcessExitPoller}.
+     * The zombie and dead processes are considered exited, the process which stat is not parsable is considered running.
+     * @param pids waited process ids
+     * @param count number of waited process ids in the array
+     * @param aliveProcesses empty sample to fill
+     */
+    void sampleAlive(final int[] pids, final int count, final PidStartTimeMap aliveProcesses) {
+        final Path proc = fileSystem.getPath("/proc");
+        for (int i = 0; i < count; i++) {
+            try {
+                if (!parseStat(readFile(proc.resolve(Integer.toString(pids[i])).resolve("stat")))
+                        || statFields[STAT_STATE_FIELD] != 'Z' && statFields[STAT_STATE_FIELD] != 'X') {
+                    aliveProcesses.put(pids[i], -1);
+                }
+            } catch (final IOException ioException) {
+                //The process has gone, the read fails with NoSuchFileException or with ESRCH IOException
+            }
+        }
+    }
+
+    private void readStartTime(final PidStartTimeMap sample, final int pid, final Path procEntry) {
+        try {
+            if (parseStat(readFile(procEntry.resolve("stat")))) {
+                sample.put(pid, bootTimeMillis + statFields[STAT_STARTTIME_FIELD] * MILLIS_PER_SECOND / clockTicks);
+            }
+        } catch (final IOException ioException) {
+            //The process has gone, the read fails with NoSuchFileException or with ESRCH IOException
+        }
+    }
+
+    private static int parsePid(final String procEntryName) {
+        if (procEntryName.isEmpty() || procEntryName.length() > MAX_PID_DIGITS) {
+            return -1;
+        }
+        int pid = 0;
+        for (int i = 0; i < procEntryName.length(); i++) {
+            final char character = procEntryName.charAt(i);
+            if (character < '0' || character > '9') {
+                return -1;
+            }
+            pid = pid * DECIMAL_RADIX + character - '0';
+        }
+        return pid;
+    }
+
+    private void readProcess(final ProcessMetricsTable.Builder builder, final int pid, final Path procEntry, final long bootTimeMillis) {
+        final int commandLineLength;
+        try {
+            if (!parseStat(readFile(procEntry.resolve("stat")))) {
+                return;
+            }
+            commandLineLength = readFile(procEntry.resolve("cmdline"));
+        } catch (final IOException ioException) {
+            //The process has gone, the read fails with NoSuchFileException or with ESRCH IOException
+            return;
+        }
+        final long userCpuTime = statFields[STAT_UTIME_FIELD] * MILLIS_PER_SECOND / clockTicks;
+        final long systemCpuTime = statFields[STAT_STIME_FIELD] * MILLIS_PER_SECOND / clockTicks;
+        builder.addProcess(pid, (int) statFields[STAT_PPID_FIELD])
+                .state((char) statFields[STAT_STATE_FIELD], (int) statFields[STAT_NUM_THREADS_FIELD])
+                .cpuTime(userCpuTime, systemCpuTime, userCpuTime + systemCpuTime)
+                .memory(statFields[STAT_RSS_FIELD] * pageSize, statFields[STAT_VSIZE_FIELD])
+                .start(bootTimeMillis + statFields[STAT_STARTTIME_FIELD] * MILLIS_PER_SECOND / clockTicks, toCommandLine(commandLineLength));
+    }
+
+    /**
+     * Parse the buffer with stat file content to the stat fields.
+     * The command name field could contain spaces and parentheses, so the fields are parsed after the last closing parenthesis.
+     * @param length content length
+     * @return Returns true if the fields are parsed, false if the content is truncated
+     */
+    boolean parseStat(final int length) {
+        int position = length - 1;
+        while (position >= 0 && buffer[position] != ')') {
+            position--;
+        }
+        if (position < 0 || position + 2 >= length) {
+            return false;
+        }
+        position += 2;
+        statFields[STAT_STATE_FIELD] = buffer[position];
+        position++;
+        for (int field = STAT_STATE_FIELD + 1; field <= STAT_RSS_FIELD; field++) {
+            while (position < length && buffer[position] == ' ') {
+                position++;
+            }
+            if (position == length) {
+                return false;
+            }
+            final boolean negative = buffer[position] == '-';
+            if (negative) {
+                position++;
+            }
+            long value = 0;
+            while (position < length && buffer[position] >= '0' && buffer[position] <= '9') {
+                value = value * DECIMAL_RADIX + buffer[position] - '0';
+                position++;
+            }
+            statFields[field] = negative ? -value : value;
+        }
+        return true;
+    }
+
+    long getStatField(final int field) {
+        return statFields[field];
+    }
+
+    /**
+     * Convert the buffer with cmdline file content to command line, the arguments are separated by NUL characters.
+     * @param length content length
+     * @return Returns the arguments separated by space
+     */
+    String toCommandLine(final int length) {
+        int end = length;
+        while (end > 0 && buffer[end - 1] == 0) {
+            end--;
+        }
+        if (end == 0) {
+            return "";
+        }
+        for (int i = 0; i < end; i++) {
+            if (buffer[i] == 0) {
+                buffer[i] = ' ';
+            }
+        }
+        return new String(buffer, 0, end, Charset.defaultCharset());
+    }
+
+    private long readBootTimeMillis() throws IOException {
+        final int length = readFile(fileSystem.getPath("/proc/stat"));
+        final byte[] btime = "\nbtime ".getBytes(Charset.defaultCharset());
+        for (int i = 0; i + btime.length <= length; i++) {
+            if (matches(i, btime)) {
+                long value = 0;
+                for (int position = i + btime.length; position < length && buffer[position] >= '0' && buffer[position] <= '9'; position++) {
+                    value = value * DECIMAL_RADIX + buffer[position] - '0';
+                }
+                return value * MILLIS_PER_SECOND;
+            }
+        }
+        throw new OperationSystemException("No btime in /proc/stat");
+    }
+
+    private boolean matches(final int offset, final byte[] bytes) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (buffer[offset + i] != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Read the file to the buffer, the buffer grows if the file doesn't fit.
+     * @param file file to read
+     * @return Returns content length
+     */
+    private int readFile(final Path file) throws IOException {
+        //The procfs files are opened with read only flag as the other procfs reads because of SFTP file systems
+        try (InputStream inputStream = Files.newInputStream(file, StandardOpenOption.READ)) {
+            return readFully(inputStream);
+        }
+    }
+
+    int readFully(final InputStream inputStream) throws IOException {
+        int length = 0;
+        int read;
+        while ((read = inputStream.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+        }
+        return length;
+    }
+}
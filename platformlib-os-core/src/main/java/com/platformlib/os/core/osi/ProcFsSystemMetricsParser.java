@@ -0,0 +1,289 @@
+package com.platformlib.os.core.osi;
+
+import com.platformlib.os.api.exception.OperationSystemException;
+import com.platformlib.os.api.osi.SystemMetrics;
+import com.platformlib.os.core.bean.SystemMetricsBean;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Parser of {@link SystemMetrics} from /proc/loadavg content followed by /proc/stat and /proc/meminfo lines.
+ * The content is read to a reused buffer and parsed in place by bytes, only the snapshot is created per parse.
+ * Only the lines of the parsed fields are required, so the content could be the files themselves or a frame which is filtered on the host.
+ * The aggregate CPU time counters of the previous parse are kept, so the CPU percentages are deltas between consecutive snapshots, the first one covers the time since boot.
+ * The parser is not thread safe.
+ */
+public final class ProcFsSystemMetricsParser {
+    private static final int USER = 0;
+    private static final int NICE = 1;
+    private static final int SYSTEM = 2;
+    private static final int IDLE = 3;
+    private static final int IOWAIT = 4;
+    private static final int IRQ = 5;
+    private static final int SOFTIRQ = 6;
+    private static final int STEAL = 7;
+    private static final int CPU_FIELDS = 8;
+    private static final int MEM_TOTAL = 0;
+    private static final int MEM_FREE = 1;
+    private static final int MEM_AVAILABLE = 2;
+    private static final int CACHED = 3;
+    private static final int SWAP_TOTAL = 4;
+    private static final int SWAP_FREE = 5;
+    private static final byte[][] MEMINFO_KEYS = {bytes("MemTotal:"), bytes("MemFree:"), bytes("MemAvailable:"), bytes("Cached:"), bytes("SwapTotal:"), bytes("SwapFree:")};
+    private static final byte[] CPU = bytes("cpu");
+    private static final byte[] BTIME = bytes("btime ");
+    private static final byte[] UPTIME = bytes("uptime ");
+    private static final byte[] KILOBYTES = bytes(" kB");
+    private static final int LOAD_AVERAGES = 3;
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+    private static final long MILLIS_PER_SECOND = 1000;
+    private static final long BYTES_PER_KILOBYTE = 1024;
+    private static final double HUNDRED_PERCENT = 100;
+    private static final int DECIMAL_RADIX = 10;
+
+    private final long[] cpuTicks = new long[CPU_FIELDS];
+    private final long[] previousCpuTicks = new long[CPU_FIELDS];
+    private final long[] cpuTickDeltas = new long[CPU_FIELDS];
+    private final long[] memInfo = new long[MEMINFO_KEYS.length];
+    private final double[] loadAverages = new double[LOAD_AVERAGES];
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+    private int position;
+    private int cpuCount;
+    private long bootTimeMillis;
+    private long uptimeMillis;
+    private int runnableTaskCount;
+    private int taskCount;
+    private Instant previousTime;
+
+    /**
+     * Read /proc/loadavg, /proc/stat and /proc/meminfo files as one content and parse it.
+     * @param procDirectory /proc directory of OS platform file system
+     * @return Returns system metrics
+     */
+    SystemMetrics read(final Path procDirectory) {
+        //The procfs files have zero size and are opened with read only flag because of SFTP file systems
+        try (InputStream loadAvg = Files.newInputStream(procDirectory.resolve("loadavg"), StandardOpenOption.READ);
+             InputStream stat = Files.newInputStream(procDirectory.resolve("stat"), StandardOpenOption.READ);
+             InputStream memInfoFile = Files.newInputStream(procDirectory.resolve("meminfo"), StandardOpenOption.READ)) {
+            return parse(new SequenceInputStream(loadAvg, new SequenceInputStream(stat, memInfoFile)), Instant.now());
+        } catch (final IOException ioException) {
+            throw new OperationSystemException(ioException);
+        }
+    }
+
+    /**
+     * Parse the content till the end of stream and make it the baseline of the next parse.
+     * The baseline is kept if no CPU time has elapsed since the previous parse, so the next parse covers the longer interval.
+     * @param content /proc/loadavg line followed by the cpu, cpuN and btime lines of /proc/stat and the lines of /proc/meminfo, optionally with "uptime seconds" line
+     * @param time snapshot time, null to take it from the host as boot time plus uptime
+     * @return Returns system metrics
+     * @throws IOException if the content could not be read
+     * @throws OperationSystemException if the content doesn't have the required lines
+     */
+    public SystemMetrics parse(final InputStream content, final Instant time) throws IOException {
+        final int length = readFully(content);
+        parseLoadAvg(length);
+        parseStat(length);
+        parseMemInfo(length);
+        final Instant snapshotTime;
+        if (time != null) {
+            snapshotTime = time;
+        } else {
+            snapshotTime = uptimeMillis == -1 ? Instant.now() : Instant.ofEpochMilli(bootTimeMillis + uptimeMillis);
+        }
+        if (previousTime == null) {
+            previousTime = Instant.ofEpochMilli(bootTimeMillis);
+        }
+        long total = 0;
+        for (int i = 0; i < CPU_FIELDS; i++) {
+            //The iowait counter could go backwards, the delta of every counter is kept non-negative
+            cpuTickDeltas[i] = Math.max(cpuTicks[i] - previousCpuTicks[i], 0);
+            total += cpuTickDeltas[i];
+        }
+        final SystemMetricsBean.Builder builder = SystemMetricsBean.builder(snapshotTime)
+                .memory(memInfo[MEM_TOTAL], memInfo[MEM_FREE], memInfo[MEM_AVAILABLE], memInfo[CACHED])
+                .swap(memInfo[SWAP_TOTAL], memInfo[SWAP_FREE])
+                .load(loadAverages[0], loadAverages[1], loadAverages[2], runnableTaskCount, taskCount);
+        final Duration interval = Duration.between(previousTime, snapshotTime);
+        if (total == 0) {
+            return builder.cpu(cpuCount, interval, -1, -1, -1, -1, -1).build();
+        }
+        builder.cpu(cpuCount, interval, percent(cpuTickDeltas[USER] + cpuTickDeltas[NICE], total),
+                percent(cpuTickDeltas[SYSTEM] + cpuTickDeltas[IRQ] + cpuTickDeltas[SOFTIRQ], total),
+                percent(cpuTickDeltas[IOWAIT], total), percent(cpuTickDeltas[STEAL], total), percent(cpuTickDeltas[IDLE], total));
+        System.arraycopy(cpuTicks, 0, previousCpuTicks, 0, CPU_FIELDS);
+        previousTime = snapshotTime;
+        return builder.build();
+    }
+
+    private static double percent(final long ticks, final long total) {
+        return ticks * HUNDRED_PERCENT / total;
+    }
+
+    /**
+     * Parse the cpu line, the number of cpuN lines, btime and uptime.
+     * The guest times are included in the user times, so they're not parsed.
+     * @param length content length
+     */
+    private void parseStat(final int length) {
+        Arrays.fill(cpuTicks, 0);
+        cpuCount = 0;
+        bootTimeMillis = 0;
+        uptimeMillis = -1;
+        boolean cpuParsed = false;
+        for (position = 0; position < length; position = nextLine(length)) {
+            if (matches(CPU, length)) {
+                if (position + CPU.length < length && buffer[position + CPU.length] == ' ') {
+                    position += CPU.length;
+                    for (int i = 0; i < CPU_FIELDS && skipSpaces(length); i++) {
+                        cpuTicks[i] = parseLong(length);
+                    }
+                    cpuParsed = true;
+                } else {
+                    cpuCount++;
+                }
+            } else if (matches(BTIME, length)) {
+                position += BTIME.length;
+                bootTimeMillis = parseLong(length) * MILLIS_PER_SECOND;
+            } else if (matches(UPTIME, length)) {
+                position += UPTIME.length;
+                uptimeMillis = (long) (parseDecimal(length) * MILLIS_PER_SECOND);
+            }
+        }
+        if (!cpuParsed) {
+            throw new OperationSystemException("No cpu line in /proc/stat content");
+        }
+    }
+
+    /**
+     * Parse /proc/meminfo lines, the fields which are absent are -1.
+     * @param length content length
+     */
+    private void parseMemInfo(final int length) {
+        Arrays.fill(memInfo, -1);
+        for (position = 0; position < length; position = nextLine(length)) {
+            for (int key = 0; key < MEMINFO_KEYS.length; key++) {
+                if (matches(MEMINFO_KEYS[key], length)) {
+                    position += MEMINFO_KEYS[key].length;
+                    skipSpaces(length);
+                    final long value = parseLong(length);
+                    memInfo[key] = matches(KILOBYTES, length) ? value * BYTES_PER_KILOBYTE : value;
+                    break;
+                }
+            }
+        }
+        if (memInfo[MEM_TOTAL] == -1) {
+            throw new OperationSystemException("No MemTotal field in /proc/meminfo content");
+        }
+    }
+
+    /**
+     * Parse the first line of /proc/loadavg content, for example "0.52 0.58 0.59 2/1234 56789".
+     * @param length content length
+     */
+    private void parseLoadAvg(final int length) {
+        position = 0;
+        for (int i = 0; i < LOAD_AVERAGES; i++) {
+            if (!skipSpaces(length)) {
+                throw new OperationSystemException("Unexpected /proc/loadavg content");
+            }
+            loadAverages[i] = parseDecimal(length);
+        }
+        runnableTaskCount = -1;
+        taskCount = -1;
+        if (skipSpaces(length)) {
+            final long runnable = parseLong(length);
+            if (position < length && buffer[position] == '/') {
+                position++;
+                runnableTaskCount = (int) runnable;
+                taskCount = (int) parseLong(length);
+            }
+        }
+    }
+
+    private boolean matches(final byte[] bytes, final int length) {
+        if (position + bytes.length > length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (buffer[position + i] != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int nextLine(final int length) {
+        int next = position;
+        while (next < length && buffer[next] != '\n') {
+            next++;
+        }
+        return next + 1;
+    }
+
+    /**
+     * Move the position to the next non-space character of the line.
+     * @return Returns true if the line has more characters
+     */
+    private boolean skipSpaces(final int length) {
+        while (position < length && buffer[position] == ' ') {
+            position++;
+        }
+        return position < length && buffer[position] != '\n';
+    }
+
+    private long parseLong(final int length) {
+        long value = 0;
+        while (position < length && buffer[position] >= '0' && buffer[position] <= '9') {
+            value = value * DECIMAL_RADIX + buffer[position] - '0';
+            position++;
+        }
+        return value;
+    }
+
+    private double parseDecimal(final int length) {
+        final long integer = parseLong(length);
+        if (position == length || buffer[position] != '.') {
+            return integer;
+        }
+        position++;
+        long fraction = 0;
+        long scale = 1;
+        while (position < length && buffer[position] >= '0' && buffer[position] <= '9') {
+            fraction = fraction * DECIMAL_RADIX + buffer[position] - '0';
+            scale *= DECIMAL_RADIX;
+            position++;
+        }
+        return integer + (double) fraction / scale;
+    }
+
+    /**
+     * Read the content to the buffer, the buffer grows if the content doesn't fit.
+     * @param content content to read till the end of stream
+     * @return Returns content length
+     */
+    private int readFully(final InputStream content) throws IOException {
+        int length = 0;
+        int read;
+        while ((read = content.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+        }
+        return length;
+    }
+
+    private static byte[] bytes(final String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,147 @@
+package com.platformlib.os.core.osi;
+
+import com.platformlib.os.api.exception.OperationSystemException;
+import com.platformlib.os.core.util.OsUtilities;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Poller of OS processes exit which serves all waits of one OS interface.
+ * Every poll checks all waited processes by one {@link AliveSampler} call, the waits of the same process share one future.
+ * The poller thread is started by the first wait and stopped when no process is waited.
+ * The waits fail if the polls fail several times in a row.
+ */
+final class ProcessExitPoller {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProcessExitPoller.class);
+    private static final Duration DEFAULT_POLL_INTERVAL = Duration.ofMillis(500);
+    private static final int MAX_CONSECUTIVE_FAILURES = 3;
+    private static final int INITIAL_PIDS_CAPACITY = 64;
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final Duration pollInterval;
+    private final AliveSampler aliveSampler;
+    private final Map<Integer, CompletableFuture<Void>> waits = new HashMap<>();
+    private final PidStartTimeMap aliveProcesses = new PidStartTimeMap();
+    private int[] waitedPids = new int[INITIAL_PIDS_CAPACITY];
+    private ScheduledExecutorService pollExecutor;
+    private int consecutiveFailures;
+
+    /**
+     * Sampler of running processes among the waited ones.
+     */
+    @FunctionalInterface
+    interface AliveSampler {
+        /**
+         * Put the waited processes which are running to the sample.
+         * @param pids waited process ids
+         * @param count number of waited process ids in the array
+         * @param aliveProcesses empty sample to fill, the start time could be -1
+         */
+        void sample(int[] pids, int count, PidStartTimeMap aliveProcesses);
+    }
+
+    /**
+     * Create poller with interval of com.platformlib.os.exit-wait.poll-interval property.
+     * @param aliveSampler sampler of running processes
+     */
+    ProcessExitPoller(final AliveSampler aliveSampler) {
+        this(OsUtilities.getOsProperty("exit-wait.poll-interval").map(Duration::parse).orElse(DEFAULT_POLL_INTERVAL), aliveSampler);
+    }
+
+    ProcessExitPoller(final Duration pollInterval, final AliveSampler aliveSampler) {
+        this.pollInterval = pollInterval;
+        this.aliveSampler = aliveSampler;
+    }
+
+    /**
+     * Wait for process exit.
+     * @param pid process id
+     * @return Returns stage which is completed by the poll which doesn't find the process
+     */
+    synchronized CompletionStage<Void> waitForExit(final int pid) {
+        final CompletableFuture<Void> exit = waits.computeIfAbsent(pid, key -> new CompletableFuture<>());
+        if (pollExecutor == null) {
+            pollExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "process-exit-poller-" + THREAD_COUNTER.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            pollExecutor.scheduleWithFixedDelay(this::poll, 0, pollInterval.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        return exit.thenApply(Function.identity());
+    }
+
+    /**
+     * Get number of waited processes.
+     * @return Returns waited process count
+     */
+    synchronized int getWaitedCount() {
+        return waits.size();
+    }
+
+    /**
+     * Check the waited processes and complete the waits of the exited ones.
+     * The poll is run by the single poller thread, so the sample and the pids buffer are not guarded.
+     */
+    void poll() {
+        final int count;
+        synchronized (this) {
+            if (waitedPids.length < waits.size()) {
+                waitedPids = new int[Math.max(waits.size(), waitedPids.length * 2)];
+            }
+            int index = 0;
+            for (final Integer pid : waits.keySet()) {
+                waitedPids[index++] = pid;
+            }
+            count = index;
+        }
+        aliveProcesses.clear();
+        final List<CompletableFuture<Void>> completedWaits = new ArrayList<>();
+        RuntimeException failure = null;
+        try {
+            if (count > 0) {
+                aliveSampler.sample(waitedPids, count, aliveProcesses);
+            }
+            consecutiveFailures = 0;
+        } catch (final RuntimeException runtimeException) {
+            LOGGER.debug("The process exit poll failed", runtimeException);
+            if (++consecutiveFailures < MAX_CONSECUTIVE_FAILURES) {
+                return;
+            }
+            LOGGER.warn("The process exit poll failed {} times in a row, the waits are failed", consecutiveFailures, runtimeException);
+            failure = runtimeException;
+            consecutiveFailures = 0;
+        }
+        synchronized (this) {
+            for (int index = 0; index < count; index++) {
+                if (failure != null || aliveProcesses.get(waitedPids[index]) == PidStartTimeMap.MISSING) {
+                    completedWaits.add(waits.remove(waitedPids[index]));
+                }
+            }
+            if (waits.isEmpty() && pollExecutor != null) {
+                pollExecutor.shutdown();
+                pollExecutor = null;
+            }
+        }
+        for (final CompletableFuture<Void> completedWait : completedWaits) {
+            if (failure == null) {
+                completedWait.complete(null);
+            } else {
+                completedWait.completeExceptionally(failure instanceof OperationSystemException ? failure : new OperationSystemException(failure));
+            }
+        }
+    }
+}
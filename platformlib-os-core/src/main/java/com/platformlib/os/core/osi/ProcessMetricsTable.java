@@ -0,0 +1,253 @@
+package com.platformlib.os.core.osi;
+
+import com.platformlib.os.api.osi.OsProcessMetrics;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Primitive arrays based {@link OsProcessMetrics} implementation, every metric is a column.
+ * The pid lookup is done by {@link ProcessTreeIndex}.
+ */
+public final class ProcessMetricsTable implements OsProcessMetrics {
+    private final Instant time;
+    private final int[] pids;
+    private final int[] ppids;
+    private final char[] states;
+    private final int[] threadCounts;
+    private final long[] userCpuTimes;
+    private final long[] systemCpuTimes;
+    private final long[] cpuTimes;
+    private final long[] residentSetSizes;
+    private final long[] virtualSizes;
+    private final long[] startTimes;
+    private final String[] commandLines;
+    private final ProcessTreeIndex processTreeIndex;
+
+    private ProcessMetricsTable(final Builder builder) {
+        final int size = builder.size;
+        this.time = builder.time;
+        this.pids = Arrays.copyOf(builder.pids, size);
+        this.ppids = Arrays.copyOf(builder.ppids, size);
+        this.states = Arrays.copyOf(builder.states, size);
+        this.threadCounts = Arrays.copyOf(builder.threadCounts, size);
+        this.userCpuTimes = Arrays.copyOf(builder.userCpuTimes, size);
+        this.systemCpuTimes = Arrays.copyOf(builder.systemCpuTimes, size);
+        this.cpuTimes = Arrays.copyOf(builder.cpuTimes, size);
+        this.residentSetSizes = Arrays.copyOf(builder.residentSetSizes, size);
+        this.virtualSizes = Arrays.copyOf(builder.virtualSizes, size);
+        this.startTimes = Arrays.copyOf(builder.startTimes, size);
+        this.commandLines = Arrays.copyOf(builder.commandLines, size);
+        this.processTreeIndex = ProcessTreeIndex.of(pids, ppids);
+    }
+
+    /**
+     * Create builder of the snapshot.
+     * @param time snapshot time
+     * @return Returns builder
+     */
+    public static Builder builder(final Instant time) {
+        return new Builder(time);
+    }
+
+    @Override
+    public Instant getTime() {
+        return time;
+    }
+
+    @Override
+    public int size() {
+        return pids.length;
+    }
+
+    @Override
+    public int indexOf(final int pid) {
+        return processTreeIndex.indexOf(pid);
+    }
+
+    @Override
+    public int getProcessId(final int index) {
+        return pids[index];
+    }
+
+    @Override
+    public int getParentProcessId(final int index) {
+        return ppids[index];
+    }
+
+    @Override
+    public char getState(final int index) {
+        return states[index];
+    }
+
+    @Override
+    public int getThreadCount(final int index) {
+        return threadCounts[index];
+    }
+
+    @Override
+    public long getUserCpuTimeMillis(final int index) {
+        return userCpuTimes[index];
+    }
+
+    @Override
+    public long getSystemCpuTimeMillis(final int index) {
+        return systemCpuTimes[index];
+    }
+
+    @Override
+    public long getCpuTimeMillis(final int index) {
+        return cpuTimes[index];
+    }
+
+    @Override
+    public long getResidentSetSize(final int index) {
+        return residentSetSizes[index];
+    }
+
+    @Override
+    public long getVirtualSize(final int index) {
+        return virtualSizes[index];
+    }
+
+    @Override
+    public long getStartTimeMillis(final int index) {
+        return startTimes[index];
+    }
+
+    @Override
+    public String getCommandLine(final int index) {
+        return commandLines[index];
+    }
+
+    /**
+     * Get the processes tree of the snapshot.
+     * @return Returns processes parent/child relations index
+     */
+    public ProcessTreeIndex getProcessTree() {
+        return processTreeIndex;
+    }
+
+    @Override
+    public String toString() {
+        return "ProcessMetricsTable{time=" + time + ", size=" + pids.length + '}';
+    }
+
+    /**
+     * Builder of the snapshot, the columns grow as the rows are added.
+     */
+    public static final class Builder {
+        private static final int INITIAL_CAPACITY = 256;
+        private final Instant time;
+        private int size;
+        private int[] pids = new int[INITIAL_CAPACITY];
+        private int[] ppids = new int[INITIAL_CAPACITY];
+        private char[] states = new char[INITIAL_CAPACITY];
+        private int[] threadCounts = new int[INITIAL_CAPACITY];
+        private long[] userCpuTimes = new long[INITIAL_CAPACITY];
+        private long[] systemCpuTimes = new long[INITIAL_CAPACITY];
+        private long[] cpuTimes = new long[INITIAL_CAPACITY];
+        private long[] residentSetSizes = new long[INITIAL_CAPACITY];
+        private long[] virtualSizes = new long[INITIAL_CAPACITY];
+        private long[] startTimes = new long[INITIAL_CAPACITY];
+        private String[] commandLines = new String[INITIAL_CAPACITY];
+
+        private Builder(final Instant time) {
+            this.time = time;
+        }
+
+        /**
+         * Start a new process row, the metrics of the row are unknown till they are set.
+         * @param pid process id
+         * @param ppid parent process id, -1 if unknown
+         * @return Returns this builder
+         */
+        public Builder addProcess(final int pid, final int ppid) {
+            if (size == pids.length) {
+                final int capacity = size * 2;
+                pids = Arrays.copyOf(pids, capacity);
+                ppids = Arrays.copyOf(ppids, capacity);
+                states = Arrays.copyOf(states, capacity);
+                threadCounts = Arrays.copyOf(threadCounts, capacity);
+                userCpuTimes = Arrays.copyOf(userCpuTimes, capacity);
+                systemCpuTimes = Arrays.copyOf(systemCpuTimes, capacity);
+                cpuTimes = Arrays.copyOf(cpuTimes, capacity);
+                residentSetSizes = Arrays.copyOf(residentSetSizes, capacity);
+                virtualSizes = Arrays.copyOf(virtualSizes, capacity);
+                startTimes = Arrays.copyOf(startTimes, capacity);
+                commandLines = Arrays.copyOf(commandLines, capacity);
+            }
+            pids[size] = pid;
+            ppids[size] = ppid;
+            states[size] = '?';
+            threadCounts[size] = -1;
+            userCpuTimes[size] = -1;
+            systemCpuTimes[size] = -1;
+            cpuTimes[size] = -1;
+            residentSetSizes[size] = -1;
+            virtualSizes[size] = -1;
+            startTimes[size] = -1;
+            commandLines[size] = "";
+            size++;
+            return this;
+        }
+
+        /**
+         * Set state and thread count of the current row.
+         * @param state process state
+         * @param threadCount thread count, -1 if unknown
+         * @return Returns this builder
+         */
+        public Builder state(final char state, final int threadCount) {
+            states[size - 1] = state;
+            threadCounts[size - 1] = threadCount;
+            return this;
+        }
+
+        /**
+         * Set CPU times of the current row.
+         * @param userCpuTimeMillis user CPU time, -1 if unknown
+         * @param systemCpuTimeMillis system CPU time, -1 if unknown
+         * @param cpuTimeMillis total CPU time
+         * @return Returns this builder
+         */
+        public Builder cpuTime(final long userCpuTimeMillis, final long systemCpuTimeMillis, final long cpuTimeMillis) {
+            userCpuTimes[size - 1] = userCpuTimeMillis;
+            systemCpuTimes[size - 1] = systemCpuTimeMillis;
+            cpuTimes[size - 1] = cpuTimeMillis;
+            return this;
+        }
+
+        /**
+         * Set memory usage of the current row.
+         * @param residentSetSize resident memory in bytes
+         * @param virtualSize virtual memory in bytes
+         * @return Returns this builder
+         */
+        public Builder memory(final long residentSetSize, final long virtualSize) {
+            residentSetSizes[size - 1] = residentSetSize;
+            virtualSizes[size - 1] = virtualSize;
+            return this;
+        }
+
+        /**
+         * Set start time and command line of the current row.
+         * @param startTimeMillis start time in milliseconds since the epoch, -1 if unknown
+         * @param commandLine command line
+         * @return Returns this builder
+         */
+        public Builder start(final long startTimeMillis, final String commandLine) {
+            startTimes[size - 1] = startTimeMillis;
+            commandLines[size - 1] = commandLine;
+            return this;
+        }
+
+        /**
+         * Build the snapshot, the columns are trimmed to the number of rows.
+         * @return Returns built snapshot
+         */
+        public ProcessMetricsTable build() {
+            return new ProcessMetricsTable(this);
+        }
+    }
+}
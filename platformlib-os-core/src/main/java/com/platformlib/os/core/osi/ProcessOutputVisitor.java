@@ -0,0 +1,84 @@
+package com.platformlib.os.core.osi;
+
+import com.platformlib.os.api.exception.OperationSystemException;
+import com.platformlib.os.api.osi.OsProcess;
+import com.platformlib.os.api.osi.OsProcessVisitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Stdout consumer of process listing command which parses every line to OS process and delivers it to the visitor, so the output is not collected.
+ * The blank lines are skipped, the first non-blank line is the header.
+ * The lines after the visitor has stopped the enumeration or a line has failed are skipped, the failure is thrown by {@link #complete(int, List)}.
+ */
+final class ProcessOutputVisitor implements Consumer<String> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProcessOutputVisitor.class);
+    private final String command;
+    private final Pattern headerPattern;
+    private final Function<String, OsProcess> lineParser;
+    private final OsProcessVisitor visitor;
+    private boolean headerParsed;
+    private boolean stopped;
+    private RuntimeException failure;
+
+    /**
+     * Default constructor.
+     * @param command command name for logging
+     * @param headerPattern pattern of the trimmed header line
+     * @param lineParser parser of the process line
+     * @param visitor OS process visitor
+     */
+    ProcessOutputVisitor(final String command, final Pattern headerPattern, final Function<String, OsProcess> lineParser, final OsProcessVisitor visitor) {
+        this.command = command;
+        this.headerPattern = headerPattern;
+        this.lineParser = lineParser;
+        this.visitor = visitor;
+    }
+
+    @Override
+    public synchronized void accept(final String line) {
+        if (stopped || line.trim().isEmpty()) {
+            return;
+        }
+        try {
+            if (headerParsed) {
+                stopped = !visitor.visit(lineParser.apply(line));
+            } else if (headerPattern.matcher(line.trim()).matches()) {
+                headerParsed = true;
+            } else {
+                LOGGER.error("Non standard {} header: {}", command, line);
+                throw new OperationSystemException("Fail to run " + command + " command");
+            }
+        } catch (final RuntimeException runtimeException) {
+            stopped = true;
+            failure = runtimeException;
+        }
+    }
+
+    /**
+     * Complete the enumeration when the command is finished.
+     * @param exitCode command exit code
+     * @param stdErr command stderr
+     * @throws OperationSystemException if the exit code is not zero
+     * @throws RuntimeException if the output is not parsable or the visitor has failed
+     */
+    synchronized void complete(final int exitCode, final List<String> stdErr) {
+        if (exitCode != 0) {
+            LOGGER.error("The {} exit status is not zero [{}]", command, exitCode);
+            stdErr.forEach(line -> LOGGER.error("The {} stderr: {}", command, line));
+            throw new OperationSystemException("Fail to run " + command + " command");
+        }
+        if (failure != null) {
+            stdErr.forEach(line -> LOGGER.error("The {} stderr: {}", command, line));
+            throw failure;
+        }
+        if (!headerParsed) {
+            LOGGER.debug("The {} command output is empty", command);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.platformlib.os.core.osi;
+
+import com.platformlib.os.api.osi.OsProcess;
+import com.platformlib.os.api.osi.OsProcessTree;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Primitive based {@link OsProcessTree} implementation.
+ * The parent to children adjacency is stored as compressed rows: children of the process with index i are {@code children[offsets[i]..offsets[i + 1])}.
+ * The index is built in linear time and the descendants lookup is linear to the number of found descendants, no recursion is used.
+ */
+public final class ProcessTreeIndex implements OsProcessTree {
+    private static final int NOT_FOUND = -1;
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+    private static final int HASH_SHIFT = 16;
+    private static final int[] EMPTY = new int[0];
+
+    private final int[] pids;
+    private final int[] offsets;
+    private final int[] children;
+    private final int[] slotKeys;
+    private final int[] slotIndexes;
+
+    private ProcessTreeIndex(final int[] pids, final int[] ppids) {
+        final int size = pids.length;
+        this.pids = pids;
+        //Load factor is not greater than 0.5
+        final int capacity = Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1;
+        slotKeys = new int[capacity];
+        slotIndexes = new int[capacity];
+        for (int i = 0; i < size; i++) {
+            put(pids[i], i);
+        }
+        final int[] parentIndexes = new int[size];
+        offsets = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            final int parentIndex = pids[i] == ppids[i] ? NOT_FOUND : indexOf(ppids[i]);
+            parentIndexes[i] = parentIndex;
+            if (parentIndex != NOT_FOUND) {
+                offsets[parentIndex + 1]++;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        children = new int[offsets[size]];
+        final int[] fill = Arrays.copyOf(offsets, size);
+        for (int i = 0; i < size; i++) {
+            if (parentIndexes[i] != NOT_FOUND) {
+                children[fill[parentIndexes[i]]++] = i;
+            }
+        }
+    }
+
+    /**
+     * Create index from pid/ppid pairs.
+     * @param pids process ids
+     * @param ppids parent process ids, the same size as pids
+     * @return Returns created index
+     */
+    public static ProcessTreeIndex of(final int[] pids, final int[] ppids) {
+        if (pids.length != ppids.length) {
+            throw new IllegalArgumentException("The pids and ppids have different sizes " + pids.length + " and " + ppids.length);
+        }
+        return new ProcessTreeIndex(pids.clone(), ppids);
+    }
+
+    /**
+     * Create index from OS processes.
+     * @param osProcesses OS processes
+     * @return Returns created index
+     */
+    public static ProcessTreeIndex of(final Collection<OsProcess> osProcesses) {
+        final int[] pids = new int[osProcesses.size()];
+        final int[] ppids = new int[osProcesses.size()];
+        int i = 0;
+        for (final OsProcess osProcess : osProcesses) {
+            pids[i] = osProcess.getProcessId();
+            ppids[i] = osProcess.getParentProcessId().orElse(osProcess.getProcessId());
+            i++;
+        }
+        return new ProcessTreeIndex(pids, ppids);
+    }
+
+    @Override
+    public int size() {
+        return pids.length;
+    }
+
+    @Override
+    public boolean contains(final int pid) {
+        return indexOf(pid) != NOT_FOUND;
+    }
+
+    @Override
+    public int[] descendantsOf(final int pid) {
+        final int index = indexOf(pid);
+        if (index == NOT_FOUND || offsets[index] == offsets[index + 1]) {
+            return EMPTY;
+        }
+        //Every process has one parent only, the visited marks protect against pid reuse cycles
+        final boolean[] visited = new boolean[pids.length];
+        visited[index] = true;
+        final int[] queue = new int[pids.length];
+        int tail = 0;
+        for (int c = offsets[index]; c < offsets[index + 1]; c++) {
+            visited[children[c]] = true;
+            queue[tail++] = children[c];
+        }
+        for (int head = 0; head < tail; head++) {
+            final int current = queue[head];
+            for (int c = offsets[current]; c < offsets[current + 1]; c++) {
+                if (!visited[children[c]]) {
+                    visited[children[c]] = true;
+                    queue[tail++] = children[c];
+                }
+            }
+        }
+        final int[] descendants = new int[tail];
+        for (int i = 0; i < tail; i++) {
+            descendants[i] = pids[queue[i]];
+        }
+        return descendants;
+    }
+
+    private int slotOf(final int pid) {
+        int hash = pid * HASH_MULTIPLIER;
+        hash ^= hash >>> HASH_SHIFT;
+        return hash & (slotKeys.length - 1);
+    }
+
+    private void put(final int pid, final int index) {
+        int slot = slotOf(pid);
+        while (slotIndexes[slot] != 0) {
+            if (slotKeys[slot] == pid) {
+                return;
+            }
+            slot = (slot + 1) & (slotKeys.length - 1);
+        }
+        slotKeys[slot] = pid;
+        slotIndexes[slot] = index + 1;
+    }
+
+    /**
+     * Find the process in the index.
+     * @param pid process id
+     * @return Returns position of the process in the pids the index has been created of, -1 if the process is not found
+     */
+    int indexOf(final int pid) {
+        int slot = slotOf(pid);
+        while (slotIndexes[slot] != 0) {
+            if (slotKeys[slot] == pid) {
+                return slotIndexes[slot] - 1;
+            }
+            slot = (slot + 1) & (slotKeys.length - 1);
+        }
+        return NOT_FOUND;
+    }
+}
@@ -0,0 +1,132 @@
+package com.platformlib.os.core.osi;
+
+import com.platformlib.os.api.exception.OperationSystemException;
+import com.platformlib.os.api.osi.OsProcessTermination;
+import com.platformlib.os.api.osi.OsProcessTerminationPolicy;
+import com.platformlib.os.api.osi.OsProcessTree;
+import com.platformlib.os.core.bean.OsProcessTerminationBean;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Terminator of OS process trees which escalates from the graceful termination to kill.
+ * The targets are taken from one process tree snapshot, every phase signals all running targets by one {@link Signaller} call
+ * and every check of the running targets is one {@link ProcessExitPoller.AliveSampler} call.
+ */
+final class ProcessTreeTerminator {
+    /**
+     * Number of poll intervals to wait for the exit of the killed processes.
+     */
+    private static final int KILL_CONFIRMATION_POLLS = 10;
+
+    private final Signaller terminateSignaller;
+    private final Signaller killSignaller;
+    private final ProcessExitPoller.AliveSampler aliveSampler;
+
+    /**
+     * Sender of a signal to the processes.
+     */
+    @FunctionalInterface
+    interface Signaller {
+        /**
+         * Signal the processes by one OS call, the processes which are gone in the meantime are ignored.
+         * @param pids process ids
+         * @param count number of process ids in the array
+         */
+        void signal(int[] pids, int count);
+    }
+
+    /**
+     * Default constructor.
+     * @param terminateSignaller sender of graceful termination request
+     * @param killSignaller sender of kill
+     * @param aliveSampler sampler of the running processes
+     */
+    ProcessTreeTerminator(final Signaller terminateSignaller, final Signaller killSignaller, final ProcessExitPoller.AliveSampler aliveSampler) {
+        this.terminateSignaller = terminateSignaller;
+        this.killSignaller = killSignaller;
+        this.aliveSampler = aliveSampler;
+    }
+
+    /**
+     * Terminate the processes, the call blocks till the processes are gone or the policy timeouts are over.
+     * @param osProcessTree process tree snapshot
+     * @param rootPids process ids to terminate
+     * @param policy termination policy
+     * @return Returns outcome of every process
+     */
+    OsProcessTermination terminate(final OsProcessTree osProcessTree, final Collection<Integer> rootPids, final OsProcessTerminationPolicy policy) {
+        final long startNanos = System.nanoTime();
+        final Map<Integer, OsProcessTermination.Outcome> outcomes = new LinkedHashMap<>();
+        int[] targets = new int[rootPids.size()];
+        int count = 0;
+        for (final int rootPid : rootPids) {
+            if (!osProcessTree.contains(rootPid)) {
+                outcomes.putIfAbsent(rootPid, OsProcessTermination.Outcome.NOT_FOUND);
+            } else if (outcomes.putIfAbsent(rootPid, OsProcessTermination.Outcome.SURVIVED) == null) {
+                targets[count++] = rootPid;
+            }
+        }
+        if (policy.isDescendants()) {
+            final int roots = count;
+            for (int i = 0; i < roots; i++) {
+                for (final int descendant : osProcessTree.descendantsOf(targets[i])) {
+                    if (outcomes.putIfAbsent(descendant, OsProcessTermination.Outcome.SURVIVED) == null) {
+                        if (count == targets.length) {
+                            targets = Arrays.copyOf(targets, targets.length * 2 + 1);
+                        }
+                        targets[count++] = descendant;
+                    }
+                }
+            }
+        }
+        if (count > 0 && !policy.getGracePeriod().isZero()) {
+            terminateSignaller.signal(targets, count);
+            count = awaitExit(targets, count, policy.getGracePeriod(), policy.getPollInterval(), outcomes, OsProcessTermination.Outcome.TERMINATED);
+        }
+        if (count > 0 && policy.isKillSurvivors()) {
+            killSignaller.signal(targets, count);
+            awaitExit(targets, count, policy.getPollInterval().multipliedBy(KILL_CONFIRMATION_POLLS), policy.getPollInterval(), outcomes, OsProcessTermination.Outcome.KILLED);
+        }
+        return new OsProcessTerminationBean(outcomes, Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+
+    /**
+     * Check the running processes till they are gone or the timeout is over.
+     * @return Returns number of running processes which are moved to the beginning of the array
+     */
+    private int awaitExit(final int[] pids, final int count, final Duration timeout, final Duration pollInterval,
+                          final Map<Integer, OsProcessTermination.Outcome> outcomes, final OsProcessTermination.Outcome exitOutcome) {
+        final long deadlineNanos = System.nanoTime() + timeout.toNanos();
+        final PidStartTimeMap aliveProcesses = new PidStartTimeMap();
+        int running = count;
+        while (true) {
+            aliveProcesses.clear();
+            aliveSampler.sample(pids, running, aliveProcesses);
+            int stillRunning = 0;
+            for (int i = 0; i < running; i++) {
+                if (aliveProcesses.get(pids[i]) == PidStartTimeMap.MISSING) {
+                    outcomes.put(pids[i], exitOutcome);
+                } else {
+                    pids[stillRunning++] = pids[i];
+                }
+            }
+            running = stillRunning;
+            final long remainingNanos = deadlineNanos - System.nanoTime();
+            if (running == 0 || remainingNanos <= 0) {
+                return running;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(Math.min(remainingNanos, pollInterval.toNanos()));
+            } catch (final InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+                throw new OperationSystemException(interruptedException);
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.platformlib.os.core.osi;
+
+import com.platformlib.os.api.exception.OperationSystemException;
+import com.platformlib.os.core.AbstractOsPlatform;
+import com.platformlib.os.core.util.OsUtilities;
+import com.platformlib.process.api.ProcessInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * {@link ProcessExitPoller.AliveSampler} which runs one ps call per poll.
+ * Up to {@link #MAX_PID_LIST_SIZE} processes are selected by ps -p, the larger samples list all processes, so the command line stays short.
+ * The zombie processes are considered exited if the OS ps reports the process state.
+ * The concurrent samples are run one by one.
+ */
+final class PsAliveSampler implements ProcessExitPoller.AliveSampler, Consumer<String> {
+    static final int MAX_PID_LIST_SIZE = 1000;
+    private static final int DECIMAL_RADIX = 10;
+
+    private final AbstractOsPlatform osPlatform;
+    private final String stateKeyword;
+    private final List<String> stdErr = new ArrayList<>();
+    private final Object sampleLock = new Object();
+    private PidStartTimeMap aliveProcesses;
+    private RuntimeException failure;
+
+    /**
+     * Default constructor.
+     * @param osPlatform OS platform
+     * @param stateKeyword ps keyword of process state, null if the OS ps doesn't report it
+     */
+    PsAliveSampler(final AbstractOsPlatform osPlatform, final String stateKeyword) {
+        this.osPlatform = osPlatform;
+        this.stateKeyword = stateKeyword;
+    }
+
+    /**
+     * Get ps command and arguments.
+     * @param stateKeyword ps keyword of process state, null if the OS ps doesn't report it
+     * @param pids waited process ids
+     * @param count number of waited process ids in the array
+     * @return Returns ps command
+     */
+    static List<String> getCommand(final String stateKeyword, final int[] pids, final int count) {
+        final List<String> command = new ArrayList<>();
+        command.add("ps");
+        command.add("-o");
+        command.add("pid=");
+        if (stateKeyword != null) {
+            command.add("-o");
+            command.add(stateKeyword + '=');
+        }
+        if (count > MAX_PID_LIST_SIZE) {
+            command.add("-A");
+        } else {
+            final StringBuilder pidList = new StringBuilder();
+            for (int i = 0; i < count; i++) {
+                pidList.append(i == 0 ? "" : ",").append(pids[i]);
+            }
+            command.add("-p");
+            command.add(pidList.toString());
+        }
+        return command;
+    }
+
+    @Override
+    public void sample(final int[] pids, final int count, final PidStartTimeMap processesSample) {
+        synchronized (sampleLock) {
+            sampleExclusively(pids, count, processesSample);
+        }
+    }
+
+    private void sampleExclusively(final int[] pids, final int count, final PidStartTimeMap processesSample) {
+        synchronized (this) {
+            aliveProcesses = processesSample;
+            failure = null;
+            stdErr.clear();
+        }
+        final ProcessInstance processInstance = OsUtilities.join(osPlatform
+                .newProcessBuilder()
+                .stdErrConsumer(this::addStdErr)
+                .stdOutConsumer(this)
+                .build()
+                .execute(getCommand(stateKeyword, pids, count).toArray()));
+        synchronized (this) {
+            aliveProcesses = null;
+            //The ps exit code 1 without error means no selected process is running
+            if (processInstance.getExitCode() != 0 && (processInstance.getExitCode() != 1 || !stdErr.isEmpty())) {
+                throw new OperationSystemException("Fail to run ps command, the exit code is " + processInstance.getExitCode() + ", stderr: " + stdErr);
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    private synchronized void addStdErr(final String line) {
+        stdErr.add(line);
+    }
+
+    @Override
+    public synchronized void accept(final String line) {
+        if (failure != null || aliveProcesses == null) {
+            return;
+        }
+        int position = skipSpaces(line, 0);
+        if (position == line.length()) {
+            return;
+        }
+        int pid = 0;
+        final int pidStart = position;
+        for (; position < line.length() && line.charAt(position) >= '0' && line.charAt(position) <= '9'; position++) {
+            pid = pid * DECIMAL_RADIX + line.charAt(position) - '0';
+        }
+        final int statePosition = skipSpaces(line, position);
+        if (position == pidStart || statePosition == position && position < line.length()) {
+            failure = new OperationSystemException("Fail to parse ps stdout: " + line);
+            return;
+        }
+        if (statePosition == line.length() || line.charAt(statePosition) != 'Z') {
+            aliveProcesses.put(pid, -1);
+        }
+    }
+
+    private static int skipSpaces(final String line, final int from) {
+        int position = from;
+        while (position < line.length() && Character.isWhitespace(line.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+}
@@ -0,0 +1,211 @@
+package com.platformlib.os.core.osi;
+
+import com.platformlib.os.api.exception.OperationSystemException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Stdout consumer of wide ps call which adds every line to {@link ProcessMetricsTable} as soon as it's read.
+ * The columns are pid, ppid, the optional state, thread count and user CPU time, the CPU time, rss and vsz in kilobytes, the elapsed time and the command line.
+ * The columns are requested with empty headers, so ps prints no header line.
+ */
+final class PsMetricsParser implements Consumer<String> {
+    private static final int KB_MULTIPLIER = 1024;
+    private static final int SECONDS_PER_MINUTE = 60;
+    private static final long MILLIS_PER_SECOND = 1000;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final int FRACTION_DIGITS = 3;
+    private static final int DECIMAL_RADIX = 10;
+
+    private final String stateKeyword;
+    private final String threadCountKeyword;
+    private final String userCpuTimeKeyword;
+    private final ProcessMetricsTable.Builder builder;
+    private final long snapshotMillis;
+    private RuntimeException failure;
+
+    /**
+     * Default constructor.
+     * @param extendedKeywords ps keywords of state, thread count and user CPU time, null for the column which is not supported
+     * @param time snapshot time
+     */
+    PsMetricsParser(final String[] extendedKeywords, final Instant time) {
+        this.stateKeyword = extendedKeywords[0];
+        this.threadCountKeyword = extendedKeywords[1];
+        this.userCpuTimeKeyword = extendedKeywords[2];
+        this.builder = ProcessMetricsTable.builder(time);
+        this.snapshotMillis = time.toEpochMilli();
+    }
+
+    /**
+     * Get ps command and arguments.
+     * @return Returns ps command with one -o option per column
+     */
+    List<String> getCommand() {
+        final List<String> command = new ArrayList<>();
+        command.add("ps");
+        command.add("-A");
+        addColumn(command, "pid");
+        addColumn(command, "ppid");
+        addColumn(command, stateKeyword);
+        addColumn(command, threadCountKeyword);
+        addColumn(command, userCpuTimeKeyword);
+        addColumn(command, "time");
+        addColumn(command, "rss");
+        addColumn(command, "vsz");
+        addColumn(command, "etime");
+        addColumn(command, "args");
+        return command;
+    }
+
+    private static void addColumn(final List<String> command, final String keyword) {
+        if (keyword != null) {
+            command.add("-o");
+            command.add(keyword + '=');
+        }
+    }
+
+    @Override
+    public synchronized void accept(final String line) {
+        if (failure != null || line.trim().isEmpty()) {
+            return;
+        }
+        try {
+            final LineScanner scanner = new LineScanner(line);
+            builder.addProcess(Integer.parseInt(scanner.next()), (int) parseNumber(scanner.next()));
+            builder.state(stateKeyword == null ? '?' : scanner.next().charAt(0), threadCountKeyword == null ? -1 : (int) parseNumber(scanner.next()));
+            final long userCpuTime = userCpuTimeKeyword == null ? -1 : parseDurationMillis(scanner.next());
+            final long cpuTime = parseDurationMillis(scanner.next());
+            builder.cpuTime(userCpuTime, userCpuTime == -1 ? -1 : cpuTime - userCpuTime, cpuTime);
+            final long residentSetSize = parseNumber(scanner.next());
+            final long virtualSize = parseNumber(scanner.next());
+            builder.memory(residentSetSize == -1 ? -1 : residentSetSize * KB_MULTIPLIER, virtualSize == -1 ? -1 : virtualSize * KB_MULTIPLIER);
+            builder.start(toStartTimeMillis(snapshotMillis, parseDurationMillis(scanner.next())), scanner.rest());
+        } catch (final RuntimeException runtimeException) {
+            failure = new OperationSystemException("Fail to parse ps stdout: " + line);
+            failure.initCause(runtimeException);
+        }
+    }
+
+    /**
+     * Build the snapshot when ps is finished.
+     * @param exitCode ps exit code
+     * @return Returns processes metrics
+     * @throws OperationSystemException if the exit code is not zero or a line is not parsable
+     */
+    synchronized ProcessMetricsTable build(final int exitCode) {
+        if (exitCode != 0) {
+            throw new OperationSystemException("Fail to run ps command, the exit code is " + exitCode);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return builder.build();
+    }
+
+    private static long parseNumber(final String value) {
+        return "-".equals(value) ? -1 : Long.parseLong(value);
+    }
+
+    /**
+     * Get process start time by elapsed time.
+     * The procps ps prints an overflowed elapsed time for the process which is started after its clock reading, such process is considered started at the snapshot time.
+     * @param snapshotMillis snapshot time in milliseconds since the epoch
+     * @param elapsedTimeMillis process elapsed time
+     * @return Returns start time in milliseconds since the epoch
+     */
+    static long toStartTimeMillis(final long snapshotMillis, final long elapsedTimeMillis) {
+        return elapsedTimeMillis > snapshotMillis ? snapshotMillis : snapshotMillis - elapsedTimeMillis;
+    }
+
+    /**
+     * Parse ps duration.
+     * @param value duration as [[dd-]hh:]mm:ss with optional fraction of seconds, for example 1-02:03:04 or 0:00.25
+     * @return Returns duration in milliseconds
+     */
+    static long parseDurationMillis(final String value) {
+        return parseDurationMillis(value, 0, value.length());
+    }
+
+    /**
+     * Parse ps duration in the range of characters without creating substrings.
+     * @param value characters with duration as [[dd-]hh:]mm:ss with optional fraction of seconds
+     * @param start start index of duration, inclusive
+     * @param end end index of duration, exclusive
+     * @return Returns duration in milliseconds
+     * @throws NumberFormatException if the duration is not parsable
+     */
+    static long parseDurationMillis(final CharSequence value, final int start, final int end) {
+        if (start == end) {
+            throw new NumberFormatException("Empty duration");
+        }
+        long days = 0;
+        long seconds = 0;
+        long part = 0;
+        long millis = 0;
+        int fractionDigits = -1;
+        for (int i = start; i < end; i++) {
+            final char character = value.charAt(i);
+            if (character >= '0' && character <= '9') {
+                if (fractionDigits == -1) {
+                    part = part * DECIMAL_RADIX + character - '0';
+                } else if (fractionDigits < FRACTION_DIGITS) {
+                    millis = millis * DECIMAL_RADIX + character - '0';
+                    fractionDigits++;
+                }
+            } else if (character == '-' && days == 0 && seconds == 0) {
+                days = part;
+                part = 0;
+            } else if (character == ':' && fractionDigits == -1) {
+                seconds = seconds * SECONDS_PER_MINUTE + part;
+                part = 0;
+            } else if (character == '.' && fractionDigits == -1) {
+                fractionDigits = 0;
+            } else {
+                throw new NumberFormatException("Not parsable duration " + value.subSequence(start, end));
+            }
+        }
+        for (; fractionDigits > 0 && fractionDigits < FRACTION_DIGITS; fractionDigits++) {
+            millis *= DECIMAL_RADIX;
+        }
+        return days * MILLIS_PER_DAY + (seconds * SECONDS_PER_MINUTE + part) * MILLIS_PER_SECOND + millis;
+    }
+
+    /**
+     * Whitespace separated tokens of the line, the rest of the line is the last column which could contain whitespaces.
+     */
+    private static final class LineScanner {
+        private final String line;
+        private int position;
+
+        LineScanner(final String line) {
+            this.line = line;
+        }
+
+        String next() {
+            skipWhitespaces();
+            final int start = position;
+            while (position < line.length() && !Character.isWhitespace(line.charAt(position))) {
+                position++;
+            }
+            if (start == position) {
+                throw new IllegalArgumentException("No column at " + start);
+            }
+            return line.substring(start, position);
+        }
+
+        String rest() {
+            skipWhitespaces();
+            return line.substring(position).trim();
+        }
+
+        private void skipWhitespaces() {
+            while (position < line.length() && Character.isWhitespace(line.charAt(position))) {
+                position++;
+            }
+        }
+    }
+}
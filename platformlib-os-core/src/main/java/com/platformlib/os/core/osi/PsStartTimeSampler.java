@@ -0,0 +1,107 @@
+package com.platformlib.os.core.osi;
+
+import com.platformlib.os.api.exception.OperationSystemException;
+import com.platformlib.os.core.AbstractOsPlatform;
+import com.platformlib.os.core.util.OsUtilities;
+import com.platformlib.process.api.ProcessInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.Consumer;
+
+/**
+ * {@link PollingOsProcessWatcher.Sampler} which runs ps with pid and elapsed time columns, the start time is the sample time minus the elapsed time.
+ * The ps elapsed time has seconds precision and the sample time includes the ps start latency, so the start times of the same process differ between samples.
+ * The ps is executed by sh which prints its pid first, so the sampled ps process itself is not reported as started.
+ * The lines are parsed in place, the sampler is the stdout consumer of every ps call.
+ */
+final class PsStartTimeSampler implements PollingOsProcessWatcher.Sampler, Consumer<String> {
+    /**
+     * Maximum difference of start times of the same process in two samples.
+     */
+    static final long START_TIME_TOLERANCE_MILLIS = 2000;
+    private static final Logger LOGGER = LoggerFactory.getLogger(PsStartTimeSampler.class);
+    private static final int DECIMAL_RADIX = 10;
+
+    private final AbstractOsPlatform osPlatform;
+    private PidStartTimeMap sample;
+    private long sampleTimeMillis;
+    private int psPid;
+    private RuntimeException failure;
+
+    PsStartTimeSampler(final AbstractOsPlatform osPlatform) {
+        this.osPlatform = osPlatform;
+    }
+
+    @Override
+    public void sample(final PidStartTimeMap knownProcesses, final PidStartTimeMap processesSample) {
+        synchronized (this) {
+            sample = processesSample;
+            sampleTimeMillis = System.currentTimeMillis();
+            psPid = -1;
+            failure = null;
+        }
+        final ProcessInstance processInstance = OsUtilities.join(osPlatform
+                .newProcessBuilder()
+                .stdErrConsumer(line -> LOGGER.debug("The ps stderr: {}", line))
+                .stdOutConsumer(this)
+                .rawExecution()
+                .build()
+                .execute("/bin/sh", "-c", "echo $$; exec ps -A -o pid= -o etime="));
+        synchronized (this) {
+            sample = null;
+            if (processInstance.getExitCode() != 0) {
+                throw new OperationSystemException("Fail to run ps command, the exit code is " + processInstance.getExitCode());
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void accept(final String line) {
+        if (failure != null || sample == null) {
+            return;
+        }
+        final int length = line.length();
+        int position = skipSpaces(line, 0);
+        int pid = 0;
+        final int pidStart = position;
+        for (; position < length && line.charAt(position) >= '0' && line.charAt(position) <= '9'; position++) {
+            pid = pid * DECIMAL_RADIX + line.charAt(position) - '0';
+        }
+        if (pidStart == length) {
+            return;
+        }
+        if (psPid == -1 && position > pidStart) {
+            psPid = pid;
+            return;
+        }
+        if (pid == psPid) {
+            return;
+        }
+        final int elapsedTimeStart = skipSpaces(line, position);
+        int elapsedTimeEnd = length;
+        while (elapsedTimeEnd > elapsedTimeStart && Character.isWhitespace(line.charAt(elapsedTimeEnd - 1))) {
+            elapsedTimeEnd--;
+        }
+        try {
+            if (position == pidStart || elapsedTimeStart == position) {
+                throw new NumberFormatException("No pid or elapsed time");
+            }
+            sample.put(pid, PsMetricsParser.toStartTimeMillis(sampleTimeMillis, PsMetricsParser.parseDurationMillis(line, elapsedTimeStart, elapsedTimeEnd)));
+        } catch (final NumberFormatException numberFormatException) {
+            failure = new OperationSystemException("Fail to parse ps stdout: " + line);
+            failure.initCause(numberFormatException);
+        }
+    }
+
+    private static int skipSpaces(final String line, final int from) {
+        int position = from;
+        while (position < line.length() && Character.isWhitespace(line.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+}
@@ -13,6 +13,7 @@ import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletionStage;
 
 public class SolarisOsInterfaceImpl extends PosixOsInterfaceImpl {
     private static final Logger LOGGER = LoggerFactory.getLogger(SolarisOsInterfaceImpl.class);
@@ -22,19 +23,37 @@ public class SolarisOsInterfaceImpl extends PosixOsInterfaceImpl {
     }
 
     @Override
-    public final OsVersion getOsVersion() {
+    protected OsVersion readOsVersion() {
         try (InputStream is = Files.newInputStream(getOsPlatform().getFileSystem().getPath("/etc/release"), StandardOpenOption.READ)) {
             final String releaseFileContent = new String(OsUtilities.readInputStream(is), Charset.defaultCharset());
             LOGGER.trace("Release file content is {}", releaseFileContent);
-            final String[] solarisVersionParts = releaseFileContent.trim().split("\\s+");
-            return new OsVersionBean(solarisVersionParts.length > 2 ? OsUtilities.parseVersionDigits(solarisVersionParts[2]).orElse(-1) : -1, null);
+            return parseOsVersion(releaseFileContent);
         } catch (final IOException ioException) {
             throw new UnsupportedOperationSystemException(ioException);
         }
     }
 
+    /**
+     * Parse /etc/release file content.
+     * @param releaseFileContent release file content
+     * @return Returns OS version
+     */
+    public static OsVersion parseOsVersion(final String releaseFileContent) {
+        final String[] solarisVersionParts = releaseFileContent.trim().split("\\s+");
+        return new OsVersionBean(solarisVersionParts.length > 2 ? OsUtilities.parseVersionDigits(solarisVersionParts[2]).orElse(-1) : -1, null);
+    }
+
+    @Override
+    public CompletionStage<Integer> killAsync(final int pid) {
+        return OsUtilities.failedFuture(new IllegalStateException("Not implemented"));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The Solaris ps doesn't report user CPU time.
+     */
     @Override
-    public int kill(int pid) {
-        throw new IllegalStateException("Not implemented");
+    protected String[] getPsExtendedMetricsKeywords() {
+        return new String[]{"s", "nlwp", null};
     }
 }
@@ -1,8 +1,18 @@
 package com.platformlib.os.core.osi;
 
+import com.platformlib.os.api.exception.OperationSystemException;
 import com.platformlib.os.api.exception.UnsupportedOperationSystemException;
+import com.platformlib.os.api.osi.AsyncOsInterface;
 import com.platformlib.os.api.osi.DiskSpaceInfo;
 import com.platformlib.os.api.osi.OsProcess;
+import com.platformlib.os.api.osi.OsProcessListener;
+import com.platformlib.os.api.osi.OsProcessQuery;
+import com.platformlib.os.api.osi.OsProcessTermination;
+import com.platformlib.os.api.osi.OsProcessTerminationPolicy;
+import com.platformlib.os.api.osi.OsProcessTree;
+import com.platformlib.os.api.osi.OsProcessVisitor;
+import com.platformlib.os.api.osi.OsProcessWatcher;
+import com.platformlib.os.api.osi.OsUser;
 import com.platformlib.os.api.osi.OsVersion;
 import com.platformlib.os.api.osi.windows.WindowsOsInterface;
 import com.platformlib.os.api.osi.windows.WindowsOsUser;
@@ -16,23 +26,50 @@ import com.platformlib.process.api.ProcessInstance;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
-public class WindowsOsInterfaceImpl implements WindowsOsInterface {
+/**
+ * Windows OS interface, the blocking methods wait for the asynchronous ones.
+ */
+public class WindowsOsInterfaceImpl implements WindowsOsInterface, AsyncOsInterface {
     private static final Logger LOGGER = LoggerFactory.getLogger(PosixOsInterfaceImpl.class);
+    private static final Pattern WMIC_HEADER_PATTERN = Pattern.compile("(?i)ParentProcessId\\s+ProcessId");
+    private static final Pattern WMIC_QUERY_HEADER_PATTERN = Pattern.compile("(?i)Name\\s+ParentProcessId\\s+ProcessId");
+    private static final Pattern WMIC_QUERY_LINE_PATTERN = Pattern.compile("(.*?)\\s+(\\d+)\\s+(\\d+)");
     private final AbstractOsPlatform osPlatform;
+    private final ProcessExitPoller processExitPoller = new ProcessExitPoller(this::sampleAliveProcesses);
+    private final ProcessTreeTerminator processTreeTerminator = new ProcessTreeTerminator(
+            (pids, count) -> taskkill(false, pids, count), (pids, count) -> taskkill(true, pids, count), this::sampleAliveProcesses);
 
     public WindowsOsInterfaceImpl(final AbstractOsPlatform osPlatform) {
         this.osPlatform = osPlatform;
     }
 
+    /**
+     * {@inheritDoc}
+     * Returns the version known by the platform if any, parses systeminfo command output otherwise.
+     */
     @Override
     public final OsVersion getOsVersion() {
-        final String systemInfoCommandOutput = osPlatform.osCommand("systeminfo", "/FO", "CSV");
+        return OsUtilities.join(getOsVersionAsync());
+    }
+
+    @Override
+    public final CompletionStage<OsVersion> getOsVersionAsync() {
+        return osPlatform.getKnownOsVersion().<CompletionStage<OsVersion>>map(CompletableFuture::completedFuture)
+                .orElseGet(() -> osPlatform.osCommandAsync("systeminfo", "/FO", "CSV").thenApply(WindowsOsInterfaceImpl::parseSystemInfoOutput));
+    }
+
+    private static OsVersion parseSystemInfoOutput(final String systemInfoCommandOutput) {
         final String[] lines = systemInfoCommandOutput.split("\\r?\\n");
         final String[] headers = lines[0].split(",\"");
         final String[] data = lines[1].split(",\"");
@@ -48,50 +85,206 @@ public class WindowsOsInterfaceImpl implements WindowsOsInterface {
 
     @Override
     public Collection<OsProcess> getOsProcesses() {
+        return OsUtilities.join(getOsProcessesAsync());
+    }
+
+    @Override
+    public CompletionStage<Collection<OsProcess>> getOsProcessesAsync() {
+        final List<OsProcess> processes = new ArrayList<>();
+        return visitOsProcessesAsync(processes::add).thenApply(done -> Collections.unmodifiableCollection(processes));
+    }
+
+    @Override
+    public void visitOsProcesses(final OsProcessVisitor visitor) {
+        OsUtilities.join(visitOsProcessesAsync(visitor));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Every wmic output line is delivered as soon as it's read, the rest of the output is skipped once the visitor stops the enumeration.
+     */
+    @Override
+    public CompletionStage<Void> visitOsProcessesAsync(final OsProcessVisitor visitor) {
+        final ProcessOutputVisitor wmicOutputVisitor = new ProcessOutputVisitor("wmic", WMIC_HEADER_PATTERN, WindowsOsInterfaceImpl::parseWmicProcessLine, visitor);
+        final List<String> stdErr = new ArrayList<>();
+        return osPlatform.newProcessBuilder()
+                .logger(conf -> conf.logger(LOGGER))
+                .stdErrConsumer(stdErr::add)
+                .stdOutConsumer(wmicOutputVisitor)
+                .build()
+                .execute(OsUtilities.getOsCommand("wmic"), "process", "get", "processid,parentprocessid")
+                .thenAccept(processInstance -> wmicOutputVisitor.complete(processInstance.getExitCode(), stdErr));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The query is run on the OS side, see {@link #getOsProcessesAsync(OsProcessQuery)}.
+     */
+    @Override
+    public Collection<OsProcess> getOsProcesses(final OsProcessQuery query) {
+        return OsUtilities.join(getOsProcessesAsync(query));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The command name and parent criteria are translated to wmic where clause, the returned processes have command name.
+     * The owner criterion is not supported because wmic doesn't list process owners.
+     */
+    @Override
+    public CompletionStage<Collection<OsProcess>> getOsProcessesAsync(final OsProcessQuery query) {
+        if (query.getUsername().isPresent()) {
+            return OsUtilities.failedFuture(new UnsupportedOperationSystemException("The process owner query is not supported on Windows"));
+        }
+        final List<String> conditions = new ArrayList<>();
+        query.getParentProcessId().ifPresent(parentProcessId -> conditions.add("ParentProcessId=" + parentProcessId));
+        query.getCommandName().ifPresent(commandName -> conditions.add("Name='" + commandName.replace("\\", "\\\\").replace("'", "\\'") + "'"));
+        final List<Object> commandAndArguments = new ArrayList<>(Arrays.asList(OsUtilities.getOsCommand("wmic"), "process"));
+        if (!conditions.isEmpty()) {
+            commandAndArguments.add("where");
+            commandAndArguments.add(String.join(" and ", conditions));
+        }
+        commandAndArguments.addAll(Arrays.asList("get", "name,parentprocessid,processid"));
         final List<OsProcess> processes = new ArrayList<>();
-        final String stdOut = osPlatform.osCommand("wmic", "process", "get", "processid,parentprocessid");
-        if (stdOut.isEmpty()) {
-            LOGGER.warn("The wmic command output is empty");
-            return Collections.emptyList();
+        final ProcessOutputVisitor wmicOutputVisitor = new ProcessOutputVisitor("wmic", WMIC_QUERY_HEADER_PATTERN, WindowsOsInterfaceImpl::parseWmicQueryLine, processes::add);
+        final List<String> stdErr = new ArrayList<>();
+        return osPlatform.newProcessBuilder()
+                .logger(conf -> conf.logger(LOGGER))
+                .stdErrConsumer(stdErr::add)
+                .stdOutConsumer(wmicOutputVisitor)
+                .build()
+                .execute(commandAndArguments.toArray())
+                .thenApply(processInstance -> {
+                    wmicOutputVisitor.complete(processInstance.getExitCode(), stdErr);
+                    return Collections.unmodifiableCollection(processes);
+                });
+    }
+
+    private static OsProcess parseWmicQueryLine(final String line) {
+        final Matcher matcher = WMIC_QUERY_LINE_PATTERN.matcher(line.trim());
+        if (!matcher.matches()) {
+            throw new OperationSystemException("Fail to parse wmic stdout: " + line);
         }
-        final String[] lines = stdOut.split("\\r?\\n");
-        if (!lines[0].trim().matches("(?i)ParentProcessId\\s+ProcessId")) {
-            LOGGER.error("Non standard wmic header: {}", stdOut);
-            throw new RuntimeException("Fail to run wmic command");
+        return new OsProcessBean(null, Integer.parseInt(matcher.group(3)), Integer.parseInt(matcher.group(2)), matcher.group(1));
+    }
+
+    private static OsProcess parseWmicProcessLine(final String line) {
+        final String[] psParts = line.trim().split("\\s+", 2);
+        if (psParts.length != 2) {
+            throw new OperationSystemException("Fail to parse wmic stdout: " + line);
         }
-        for (int i = 1; i < lines.length; i++) {
-            final String line = lines[0];
-            if (!line.trim().isEmpty()) {
-                final String[] psParts = line.trim().split("\\s+", 2);
-                if (psParts.length != 2) {
-                    if (!LOGGER.isDebugEnabled()) {
-                        LOGGER.error("The wmic stdout: {}", stdOut);
-                    }
-                    throw new RuntimeException("Fail to parse wmic stdout: " + line);
-                }
-                processes.add(new OsProcessBean(null, Integer.parseInt(psParts[1]), Integer.parseInt(psParts[0])));
-            }
+        return new OsProcessBean(null, Integer.parseInt(psParts[1]), Integer.parseInt(psParts[0]));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Every poll enumerates the processes by {@link #visitOsProcesses(OsProcessVisitor)}, the start time is not reported.
+     */
+    @Override
+    public OsProcessWatcher watchOsProcesses(final Duration pollInterval, final OsProcessListener listener) {
+        return new PollingOsProcessWatcher(pollInterval, listener, 0, (knownProcesses, sample) -> visitOsProcesses(osProcess -> {
+            sample.put(osProcess.getProcessId(), -1);
+            return true;
+        }));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The waits share one poller which enumerates the processes once per poll.
+     */
+    @Override
+    public CompletionStage<Void> waitForExit(final int pid) {
+        return processExitPoller.waitForExit(pid);
+    }
+
+    private void sampleAliveProcesses(final int[] pids, final int count, final PidStartTimeMap aliveProcesses) {
+        visitOsProcesses(osProcess -> {
+            aliveProcesses.put(osProcess.getProcessId(), -1);
+            return true;
+        });
+    }
+
+    @Override
+    public OsProcessTermination terminate(final Collection<Integer> rootPids, final OsProcessTerminationPolicy policy) {
+        return OsUtilities.join(terminateAsync(rootPids, policy));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The processes are asked to terminate by taskkill without /F, which works for the processes with windows only, and the survivors are killed by taskkill /F.
+     * The grace period is waited by the platform executor.
+     */
+    @Override
+    public CompletionStage<OsProcessTermination> terminateAsync(final Collection<Integer> rootPids, final OsProcessTerminationPolicy policy) {
+        final List<Integer> roots = new ArrayList<>(rootPids);
+        return getOsProcessTreeAsync().thenCompose(osProcessTree -> CompletableFuture.supplyAsync(() -> processTreeTerminator.terminate(osProcessTree, roots, policy), osPlatform.getAsyncExecutor()));
+    }
+
+    private void taskkill(final boolean force, final int[] pids, final int count) {
+        final List<String> taskkillCommandAndArguments = new ArrayList<>(count * 2 + 2);
+        taskkillCommandAndArguments.add("taskkill");
+        if (force) {
+            taskkillCommandAndArguments.add("/F");
         }
-        return Collections.unmodifiableCollection(processes);
+        for (int i = 0; i < count; i++) {
+            taskkillCommandAndArguments.add("/PID");
+            taskkillCommandAndArguments.add(String.valueOf(pids[i]));
+        }
+        final int exitCode = OsUtilities.join(osPlatform.newProcessBuilder()
+                .logger(conf -> conf.logger(LOGGER))
+                .build().execute(taskkillCommandAndArguments.toArray())
+                .thenApply(ProcessInstance::getExitCode));
+        if (exitCode != 0) {
+            //Some processes could have gone or could refuse to terminate, the following checks tell the outcome
+            LOGGER.debug("The taskkill exit code is {}", exitCode);
+        }
+    }
+
+    @Override
+    public OsProcessTree getOsProcessTree() {
+        return OsUtilities.join(getOsProcessTreeAsync());
+    }
+
+    @Override
+    public CompletionStage<OsProcessTree> getOsProcessTreeAsync() {
+        return getOsProcessesAsync().thenApply(ProcessTreeIndex::of);
     }
 
     @Override
     public int kill(final int pid) {
-        final ProcessInstance processInstance = osPlatform.newProcessBuilder()
+        return OsUtilities.join(killAsync(pid));
+    }
+
+    @Override
+    public CompletionStage<Integer> killAsync(final int pid) {
+        return osPlatform.newProcessBuilder()
                 .logger(conf -> conf.logger(LOGGER))
                 .build().execute("taskkill", "/PID", String.valueOf(pid), "/F", "/T")
-                .toCompletableFuture()
-                .join();
-        if (processInstance.getExitCode() != 0 && !LOGGER.isDebugEnabled()) {
-            LOGGER.error("The taskkill stdout: {}", processInstance.getStdOut());
-            LOGGER.error("The taskkill stderr: {}", processInstance.getStdErr());
-        }
-        return processInstance.getExitCode();
+                .thenApply(processInstance -> {
+                    if (processInstance.getExitCode() != 0 && !LOGGER.isDebugEnabled()) {
+                        LOGGER.error("The taskkill stdout: {}", processInstance.getStdOut());
+                        LOGGER.error("The taskkill stderr: {}", processInstance.getStdErr());
+                    }
+                    return processInstance.getExitCode();
+                });
     }
 
     @Override
     public DiskSpaceInfo getDiskSpaceInfo(final String file) {
-        final String stdOut = osPlatform.osCommand("wmic", "logicaldisk", "get", "size,freespace,caption");
+        return OsUtilities.join(getDiskSpaceInfoAsync(file));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The file system API is asked first, the wmic command is run if the file system doesn't provide disk space info.
+     */
+    @Override
+    public CompletionStage<DiskSpaceInfo> getDiskSpaceInfoAsync(final String file) {
+        return osPlatform.getFileSystemDiskSpaceInfoAsync(file)
+                .thenCompose(diskSpaceInfo -> diskSpaceInfo.<CompletionStage<DiskSpaceInfo>>map(CompletableFuture::completedFuture)
+                        .orElseGet(() -> osPlatform.osCommandAsync("wmic", "logicaldisk", "get", "size,freespace,caption").thenApply(stdOut -> parseWmicDiskSpaceOutput(file, stdOut))));
+    }
+
+    private static DiskSpaceInfo parseWmicDiskSpaceOutput(final String file, final String stdOut) {
         final String letter = file.substring(0, 1);
         final String fileSystemLine = Arrays.stream(stdOut.split("\\r?\\n")).filter(line -> line.startsWith(letter + ":")).findAny().orElseThrow(() -> {
             LOGGER.error("Letter '{}', wmci output {}", letter, stdOut);
@@ -105,7 +298,15 @@ public class WindowsOsInterfaceImpl implements WindowsOsInterface {
 
     @Override
     public WindowsOsUser getCurrentUser() {
-        final String usernameAndDomain = osPlatform.osCommand("echo", "%USERNAME% # %USERDOMAIN%");
+        return (WindowsOsUser) OsUtilities.join(getCurrentUserAsync());
+    }
+
+    @Override
+    public CompletionStage<OsUser> getCurrentUserAsync() {
+        return osPlatform.osCommandAsync("echo", "%USERNAME% # %USERDOMAIN%").thenApply(WindowsOsInterfaceImpl::parseCurrentUser);
+    }
+
+    private static WindowsOsUser parseCurrentUser(final String usernameAndDomain) {
         final String[] parts = usernameAndDomain.split("#", 2);
         final String username = parts[0].trim();
         final String domain = parts.length > 1 ? parts[1].trim() : null;
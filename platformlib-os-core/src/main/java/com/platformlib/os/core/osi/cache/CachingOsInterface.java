@@ -0,0 +1,331 @@
+package com.platformlib.os.core.osi.cache;
+
+import com.platformlib.os.api.exception.UnsupportedOperationSystemException;
+import com.platformlib.os.api.osi.AsyncOsInterface;
+import com.platformlib.os.api.osi.DiskSpaceInfo;
+import com.platformlib.os.api.osi.OsInterface;
+import com.platformlib.os.api.osi.OsProcess;
+import com.platformlib.os.api.osi.OsProcessListener;
+import com.platformlib.os.api.osi.OsProcessMetrics;
+import com.platformlib.os.api.osi.OsProcessQuery;
+import com.platformlib.os.api.osi.OsProcessTermination;
+import com.platformlib.os.api.osi.OsProcessTerminationPolicy;
+import com.platformlib.os.api.osi.OsProcessTree;
+import com.platformlib.os.api.osi.OsProcessVisitor;
+import com.platformlib.os.api.osi.OsProcessWatcher;
+import com.platformlib.os.api.osi.OsUser;
+import com.platformlib.os.api.osi.OsVersion;
+import com.platformlib.os.api.osi.SystemMetrics;
+import com.platformlib.os.api.osi.posix.PosixOsInterface;
+import com.platformlib.os.api.osi.posix.PosixOsUser;
+import com.platformlib.os.api.osi.windows.WindowsOsInterface;
+import com.platformlib.os.api.osi.windows.WindowsOsUser;
+import com.platformlib.os.core.util.OsUtilities;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Memoizing {@link OsInterface} decorator.
+ * OS version and current user are cached forever. OS processes, processes tree and disk space info are cached for configured time to live.
+ * Concurrent callers of a missing value share one in-flight call of the decorated OS interface.
+ * {@link #kill(int)} and {@link #terminate(Collection, OsProcessTerminationPolicy)} drop cached processes.
+ * The asynchronous methods share the cache and in-flight calls with the blocking ones, they are supported if the decorated OS interface is {@link AsyncOsInterface},
+ * otherwise their stages are completed with {@link UnsupportedOperationSystemException}.
+ */
+public class CachingOsInterface implements OsInterface, AsyncOsInterface {
+    private static final Object SINGLE_KEY = new Object();
+
+    private final OsInterface osInterface;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final SingleFlightCache<Object, OsVersion> osVersionCache = new SingleFlightCache<>(null, hits, misses);
+    private final SingleFlightCache<Object, OsUser> currentUserCache = new SingleFlightCache<>(null, hits, misses);
+    private final SingleFlightCache<Object, Collection<OsProcess>> osProcessesCache;
+    private final SingleFlightCache<Object, OsProcessTree> osProcessTreeCache;
+    private final SingleFlightCache<String, DiskSpaceInfo> diskSpaceInfoCache;
+
+    protected CachingOsInterface(final OsInterface osInterface, final OsInterfaceCacheConfiguration configuration) {
+        this.osInterface = osInterface;
+        this.osProcessesCache = new SingleFlightCache<>(configuration.getProcessesTtl(), hits, misses);
+        this.osProcessTreeCache = new SingleFlightCache<>(configuration.getProcessesTtl(), hits, misses);
+        this.diskSpaceInfoCache = new SingleFlightCache<>(configuration.getDiskSpaceInfoTtl(), hits, misses);
+    }
+
+    /**
+     * Decorate OS interface.
+     * The decorator implements the same typed interface ({@link PosixOsInterface} or {@link WindowsOsInterface}) as the decorated one.
+     * @param osInterface OS interface to decorate
+     * @param configuration cache configuration
+     * @return Returns caching OS interface
+     */
+    public static CachingOsInterface of(final OsInterface osInterface, final OsInterfaceCacheConfiguration configuration) {
+        if (osInterface instanceof PosixOsInterface) {
+            return new Posix((PosixOsInterface) osInterface, configuration);
+        }
+        if (osInterface instanceof WindowsOsInterface) {
+            return new Windows((WindowsOsInterface) osInterface, configuration);
+        }
+        return new CachingOsInterface(osInterface, configuration);
+    }
+
+    /**
+     * Get decorated OS interface.
+     * @return Returns decorated OS interface
+     */
+    public OsInterface getOsInterface() {
+        return osInterface;
+    }
+
+    /**
+     * Get number of calls served from the cache or by sharing in-flight call.
+     * @return Returns hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Get number of calls passed to the decorated OS interface.
+     * @return Returns miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Drop all cached values.
+     */
+    public void invalidate() {
+        osVersionCache.invalidate();
+        currentUserCache.invalidate();
+        invalidateProcesses();
+        diskSpaceInfoCache.invalidate();
+    }
+
+    private void invalidateProcesses() {
+        osProcessesCache.invalidate();
+        osProcessTreeCache.invalidate();
+    }
+
+    @Override
+    public OsVersion getOsVersion() {
+        return osVersionCache.get(SINGLE_KEY, key -> osInterface.getOsVersion());
+    }
+
+    /**
+     * {@inheritDoc}
+     * Returns a copy of cached collection, so the caller is free to modify it.
+     */
+    @Override
+    public Collection<OsProcess> getOsProcesses() {
+        return new ArrayList<>(osProcessesCache.get(SINGLE_KEY, key -> osInterface.getOsProcesses()));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The query is not cached, it's run by the decorated OS interface.
+     */
+    @Override
+    public Collection<OsProcess> getOsProcesses(final OsProcessQuery query) {
+        return osInterface.getOsProcesses(query);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The cached processes are visited, so the enumeration is a snapshot of the time to live.
+     */
+    @Override
+    public void visitOsProcesses(final OsProcessVisitor visitor) {
+        visit(osProcessesCache.get(SINGLE_KEY, key -> osInterface.getOsProcesses()), visitor);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The watcher of the decorated interface polls the OS, the polls don't use the cache.
+     */
+    @Override
+    public OsProcessWatcher watchOsProcesses(final Duration pollInterval, final OsProcessListener listener) {
+        return osInterface.watchOsProcesses(pollInterval, listener);
+    }
+
+    @Override
+    public CompletionStage<Void> waitForExit(final int pid) {
+        return osInterface.waitForExit(pid);
+    }
+
+    @Override
+    public OsProcessTree getOsProcessTree() {
+        return osProcessTreeCache.get(SINGLE_KEY, key -> osInterface.getOsProcessTree());
+    }
+
+    /**
+     * {@inheritDoc}
+     * The metrics are not cached, the CPU percentages are computed between calls of the decorated OS interface.
+     */
+    @Override
+    public SystemMetrics getSystemMetrics() {
+        return osInterface.getSystemMetrics();
+    }
+
+    @Override
+    public int kill(final int pid) {
+        try {
+            return osInterface.kill(pid);
+        } finally {
+            invalidateProcesses();
+        }
+    }
+
+    @Override
+    public OsProcessTermination terminate(final Collection<Integer> rootPids, final OsProcessTerminationPolicy policy) {
+        try {
+            return osInterface.terminate(rootPids, policy);
+        } finally {
+            invalidateProcesses();
+        }
+    }
+
+    @Override
+    public DiskSpaceInfo getDiskSpaceInfo(final String file) {
+        return diskSpaceInfoCache.get(file, osInterface::getDiskSpaceInfo);
+    }
+
+    @Override
+    public OsUser getCurrentUser() {
+        return currentUserCache.get(SINGLE_KEY, key -> osInterface.getCurrentUser());
+    }
+
+    private AsyncOsInterface getAsyncOsInterface() {
+        if (osInterface instanceof AsyncOsInterface) {
+            return (AsyncOsInterface) osInterface;
+        }
+        throw new UnsupportedOperationSystemException("The decorated OS interface is not asynchronous [" + osInterface.getClass() + "]");
+    }
+
+    private <T> CompletionStage<T> callAsync(final Function<AsyncOsInterface, CompletionStage<T>> call) {
+        final AsyncOsInterface asyncOsInterface;
+        try {
+            asyncOsInterface = getAsyncOsInterface();
+        } catch (final UnsupportedOperationSystemException unsupportedOperationSystemException) {
+            return OsUtilities.failedFuture(unsupportedOperationSystemException);
+        }
+        return call.apply(asyncOsInterface);
+    }
+
+    @Override
+    public CompletionStage<OsVersion> getOsVersionAsync() {
+        return osVersionCache.getAsync(SINGLE_KEY, key -> getAsyncOsInterface().getOsVersionAsync());
+    }
+
+    /**
+     * {@inheritDoc}
+     * Returns a copy of cached collection, so the caller is free to modify it.
+     */
+    @Override
+    public CompletionStage<Collection<OsProcess>> getOsProcessesAsync() {
+        return osProcessesCache.getAsync(SINGLE_KEY, key -> getAsyncOsInterface().getOsProcessesAsync()).thenApply(ArrayList::new);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The query is not cached, it's run by the decorated OS interface.
+     */
+    @Override
+    public CompletionStage<Collection<OsProcess>> getOsProcessesAsync(final OsProcessQuery query) {
+        return callAsync(asyncOsInterface -> asyncOsInterface.getOsProcessesAsync(query));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The cached processes are visited, so the enumeration is a snapshot of the time to live.
+     */
+    @Override
+    public CompletionStage<Void> visitOsProcessesAsync(final OsProcessVisitor visitor) {
+        return osProcessesCache.getAsync(SINGLE_KEY, key -> getAsyncOsInterface().getOsProcessesAsync()).thenAccept(osProcesses -> visit(osProcesses, visitor));
+    }
+
+    private static void visit(final Collection<OsProcess> osProcesses, final OsProcessVisitor visitor) {
+        for (final OsProcess osProcess : osProcesses) {
+            if (!visitor.visit(osProcess)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public CompletionStage<OsProcessTree> getOsProcessTreeAsync() {
+        return osProcessTreeCache.getAsync(SINGLE_KEY, key -> getAsyncOsInterface().getOsProcessTreeAsync());
+    }
+
+    @Override
+    public CompletionStage<SystemMetrics> getSystemMetricsAsync() {
+        return callAsync(AsyncOsInterface::getSystemMetricsAsync);
+    }
+
+    @Override
+    public CompletionStage<Integer> killAsync(final int pid) {
+        return callAsync(asyncOsInterface -> asyncOsInterface.killAsync(pid)).whenComplete((exitCode, throwable) -> invalidateProcesses());
+    }
+
+    @Override
+    public CompletionStage<OsProcessTermination> terminateAsync(final Collection<Integer> rootPids, final OsProcessTerminationPolicy policy) {
+        return callAsync(asyncOsInterface -> asyncOsInterface.terminateAsync(rootPids, policy)).whenComplete((termination, throwable) -> invalidateProcesses());
+    }
+
+    @Override
+    public CompletionStage<DiskSpaceInfo> getDiskSpaceInfoAsync(final String file) {
+        return diskSpaceInfoCache.getAsync(file, key -> getAsyncOsInterface().getDiskSpaceInfoAsync(key));
+    }
+
+    @Override
+    public CompletionStage<OsUser> getCurrentUserAsync() {
+        return currentUserCache.getAsync(SINGLE_KEY, key -> getAsyncOsInterface().getCurrentUserAsync());
+    }
+
+    @Override
+    public String toString() {
+        return "CachingOsInterface{" + osInterface + ", hits=" + getHitCount() + ", misses=" + getMissCount() + '}';
+    }
+
+    /**
+     * Memoizing {@link PosixOsInterface} decorator.
+     */
+    public static final class Posix extends CachingOsInterface implements PosixOsInterface {
+        Posix(final PosixOsInterface osInterface, final OsInterfaceCacheConfiguration configuration) {
+            super(osInterface, configuration);
+        }
+
+        @Override
+        public PosixOsUser getCurrentUser() {
+            return (PosixOsUser) super.getCurrentUser();
+        }
+
+        /**
+         * {@inheritDoc}
+         * The metrics are sampled on every call, they are not cached.
+         */
+        @Override
+        public OsProcessMetrics getOsProcessMetrics() {
+            return ((PosixOsInterface) getOsInterface()).getOsProcessMetrics();
+        }
+    }
+
+    /**
+     * Memoizing {@link WindowsOsInterface} decorator.
+     */
+    public static final class Windows extends CachingOsInterface implements WindowsOsInterface {
+        Windows(final WindowsOsInterface osInterface, final OsInterfaceCacheConfiguration configuration) {
+            super(osInterface, configuration);
+        }
+
+        @Override
+        public WindowsOsUser getCurrentUser() {
+            return (WindowsOsUser) super.getCurrentUser();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.platformlib.os.core.osi.cache;
+
+import com.platformlib.os.core.util.OsUtilities;
+
+import java.time.Duration;
+
+/**
+ * {@link CachingOsInterface} configuration.
+ * OS version and current user are cached forever, volatile data is cached for the configured time to live.
+ * The default values could be set via com.platformlib.os.osi-cache.* system properties or environment variables in ISO-8601 duration format.
+ */
+public class OsInterfaceCacheConfiguration {
+    private static final Duration DEFAULT_PROCESSES_TTL = Duration.ofSeconds(1);
+    private static final Duration DEFAULT_DISK_SPACE_INFO_TTL = Duration.ofSeconds(5);
+
+    private Duration processesTtl;
+    private Duration diskSpaceInfoTtl;
+
+    /**
+     * Default constructor.
+     * The processes time to live is set by com.platformlib.os.osi-cache.processes-ttl property, one second by default.
+     * The disk space info time to live is set by com.platformlib.os.osi-cache.disk-space-ttl property, five seconds by default.
+     */
+    public OsInterfaceCacheConfiguration() {
+        processesTtl = OsUtilities.getOsProperty("osi-cache.processes-ttl").map(Duration::parse).orElse(DEFAULT_PROCESSES_TTL);
+        diskSpaceInfoTtl = OsUtilities.getOsProperty("osi-cache.disk-space-ttl").map(Duration::parse).orElse(DEFAULT_DISK_SPACE_INFO_TTL);
+    }
+
+    /**
+     * Check if OS interface cache is enabled by com.platformlib.os.osi-cache property.
+     * @return Returns true if enabled
+     */
+    public static boolean isEnabledByDefault() {
+        return OsUtilities.getOsProperty("osi-cache").map(Boolean::parseBoolean).orElse(false);
+    }
+
+    /**
+     * Get time to live of OS processes list and processes tree.
+     * @return Returns time to live
+     */
+    public Duration getProcessesTtl() {
+        return processesTtl;
+    }
+
+    /**
+     * Set time to live of OS processes list and processes tree.
+     * @param processesTtl time to live, {@link Duration#ZERO} to share in-flight calls only
+     */
+    public void setProcessesTtl(final Duration processesTtl) {
+        this.processesTtl = processesTtl;
+    }
+
+    /**
+     * Get time to live of disk space info.
+     * @return Returns time to live
+     */
+    public Duration getDiskSpaceInfoTtl() {
+        return diskSpaceInfoTtl;
+    }
+
+    /**
+     * Set time to live of disk space info.
+     * @param diskSpaceInfoTtl time to live, {@link Duration#ZERO} to share in-flight calls only
+     */
+    public void setDiskSpaceInfoTtl(final Duration diskSpaceInfoTtl) {
+        this.diskSpaceInfoTtl = diskSpaceInfoTtl;
+    }
+}
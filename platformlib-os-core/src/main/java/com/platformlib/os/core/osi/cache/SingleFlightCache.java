@@ -0,0 +1,138 @@
+package com.platformlib.os.core.osi.cache;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Keyed cache where concurrent callers of the missing key share one in-flight load.
+ * The entry expires after time to live counted from the load completion, failed loads are not cached.
+ * @param <K> key type
+ * @param <V> value type
+ */
+final class SingleFlightCache<K, V> {
+    private final ConcurrentMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    /**
+     * Default constructor.
+     * @param ttl time to live, null to cache values forever
+     * @param hits hit counter
+     * @param misses miss counter
+     */
+    SingleFlightCache(final Duration ttl, final LongAdder hits, final LongAdder misses) {
+        this.ttlNanos = ttl == null ? Long.MAX_VALUE : ttl.toNanos();
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    /**
+     * Get cached value or load it.
+     * @param key key
+     * @param loader value loader, invoked by one caller at a time per key
+     * @return Returns cached or loaded value
+     */
+    V get(final K key, final Function<K, V> loader) {
+        final Entry<V> newEntry = new Entry<>();
+        final Entry<V> entry = entries.compute(key, (k, existing) -> existing == null || existing.isExpired(ttlNanos) ? newEntry : existing);
+        if (entry != newEntry) {
+            hits.increment();
+            return entry.join();
+        }
+        misses.increment();
+        try {
+            final V value = loader.apply(key);
+            entry.complete(value);
+            return value;
+        } catch (final Throwable throwable) {
+            //The entry is completed on any failure including errors, otherwise the callers waiting for it would be blocked forever
+            entries.remove(key, entry);
+            entry.future.completeExceptionally(throwable);
+            throw throwable;
+        }
+    }
+
+    /**
+     * Get cached value or load it asynchronously.
+     * The synchronous and asynchronous callers of the same key share one in-flight load.
+     * @param key key
+     * @param loader asynchronous value loader, invoked by one caller at a time per key
+     * @return Returns stage of cached or loaded value
+     */
+    CompletionStage<V> getAsync(final K key, final Function<K, CompletionStage<V>> loader) {
+        final Entry<V> newEntry = new Entry<>();
+        final Entry<V> entry = entries.compute(key, (k, existing) -> existing == null || existing.isExpired(ttlNanos) ? newEntry : existing);
+        if (entry != newEntry) {
+            hits.increment();
+            return entry.stage();
+        }
+        misses.increment();
+        final CompletionStage<V> stage;
+        try {
+            stage = loader.apply(key);
+        } catch (final Throwable throwable) {
+            entries.remove(key, entry);
+            entry.future.completeExceptionally(throwable);
+            return entry.stage();
+        }
+        stage.whenComplete((value, throwable) -> {
+            if (throwable == null) {
+                entry.complete(value);
+            } else {
+                entries.remove(key, entry);
+                entry.future.completeExceptionally(throwable);
+            }
+        });
+        return entry.stage();
+    }
+
+    /**
+     * Drop all cached values. In-flight loads are not interrupted.
+     */
+    void invalidate() {
+        entries.clear();
+    }
+
+    private static final class Entry<V> {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private volatile long loadedAt;
+
+        void complete(final V value) {
+            loadedAt = System.nanoTime();
+            future.complete(value);
+        }
+
+        boolean isExpired(final long ttlNanos) {
+            return future.isDone() && (future.isCompletedExceptionally() || System.nanoTime() - loadedAt >= ttlNanos);
+        }
+
+        /**
+         * Get dependent stage, so the callers can't complete the shared future.
+         * @return Returns stage of the value
+         */
+        CompletionStage<V> stage() {
+            return future.thenApply(Function.identity());
+        }
+
+        V join() {
+            try {
+                return future.join();
+            } catch (final CompletionException completionException) {
+                if (completionException.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) completionException.getCause();
+                }
+                if (completionException.getCause() instanceof Error) {
+                    throw (Error) completionException.getCause();
+                }
+                throw completionException;
+            }
+        }
+    }
+}
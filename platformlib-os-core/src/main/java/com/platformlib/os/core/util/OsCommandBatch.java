@@ -0,0 +1,143 @@
+package com.platformlib.os.core.util;
+
+import com.platformlib.os.api.dto.OsCommandResult;
+import com.platformlib.os.api.exception.OperationSystemException;
+import com.platformlib.os.core.bean.OsCommandResultBean;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Script builder and output parser for running several commands in one shell invocation.
+ * Every command output is surrounded by begin and end marker lines on both stdout and stderr, the stdout end marker carries the command exit code.
+ * The command arguments are quoted, so shell operators in arguments are passed to the command as is.
+ */
+public final class OsCommandBatch {
+    private static final String BEGIN = ":begin";
+    private static final String END = ":end";
+
+    private final String marker;
+    private final boolean windows;
+
+    /**
+     * Default constructor.
+     * @param marker unique marker which is not expected in commands output
+     * @param windows true to build Windows cmd script, false to build POSIX sh script
+     */
+    public OsCommandBatch(final String marker, final boolean windows) {
+        this.marker = marker;
+        this.windows = windows;
+    }
+
+    /**
+     * Build one line script which runs commands one by one with closed stdin.
+     * The script is run by sh -c on POSIX and cmd /c on Windows. The Windows cmd still expands %VARIABLE% in quoted arguments.
+     * @param commands commands, every command is a command and its arguments
+     * @return Returns script
+     */
+    public String toScript(final List<List<String>> commands) {
+        final List<String> scriptParts = new ArrayList<>(commands.size());
+        for (int i = 0; i < commands.size(); i++) {
+            final List<String> command = commands.get(i);
+            if (command.isEmpty()) {
+                throw new IllegalArgumentException("The command #" + i + " is empty");
+            }
+            final StringBuilder commandLine = new StringBuilder(quote(OsUtilities.getOsCommand(command.get(0))));
+            for (final String argument : command.subList(1, command.size())) {
+                commandLine.append(' ').append(quote(argument));
+            }
+            final String commandMarker = marker + ':' + i;
+            if (windows) {
+                //The "call" with %^errorlevel% expands the exit code at execution time without enabling delayed expansion
+                scriptParts.add("echo " + commandMarker + BEGIN + "& (echo " + commandMarker + BEGIN + ")1>&2& "
+                        + commandLine + " <NUL& echo(& call echo " + commandMarker + END + ":%^errorlevel%& (echo(& echo " + commandMarker + END + ")1>&2");
+            } else {
+                scriptParts.add("printf '%s\\n' '" + commandMarker + BEGIN + "'; printf '%s\\n' '" + commandMarker + BEGIN + "' >&2; "
+                        + commandLine + " </dev/null; printf '\\n%s:%d\\n' '" + commandMarker + END + "' \"$?\"; printf '\\n%s\\n' '" + commandMarker + END + "' >&2");
+            }
+        }
+        return String.join(windows ? " & " : "; ", scriptParts);
+    }
+
+    /**
+     * Quote command argument.
+     * POSIX arguments are single quoted. Windows arguments with spaces or cmd special chars are double quoted with escaped inner quotes.
+     * @param argument argument
+     * @return Returns quoted argument
+     */
+    public String quote(final String argument) {
+        return quote(argument, windows);
+    }
+
+    /**
+     * Quote command argument, see {@link #quote(String)}.
+     * @param argument argument
+     * @param windows true to quote for Windows cmd, false to quote for POSIX sh
+     * @return Returns quoted argument
+     */
+    public static String quote(final String argument, final boolean windows) {
+        if (windows) {
+            if (!argument.isEmpty() && argument.chars().noneMatch(c -> Character.isWhitespace(c) || "\"&|<>^()%!,;=".indexOf(c) >= 0)) {
+                return argument;
+            }
+            return '"' + argument.replace("\"", "\\\"") + '"';
+        }
+        return '\'' + argument.replace("'", "'\\''") + '\'';
+    }
+
+    /**
+     * Parse script output.
+     * @param commandCount number of commands in the script
+     * @param stdOut script stdout lines
+     * @param stdErr script stderr lines
+     * @return Returns results in the same order as commands
+     * @throws OperationSystemException if the output of any command is not found, for example if the shell has been terminated
+     */
+    public List<OsCommandResult> parse(final int commandCount, final Iterable<String> stdOut, final Iterable<String> stdErr) {
+        final List<String> stdOuts = new ArrayList<>(Collections.nCopies(commandCount, null));
+        final List<String> stdErrs = new ArrayList<>(Collections.nCopies(commandCount, null));
+        final int[] exitCodes = new int[commandCount];
+        parseSections(stdOut, stdOuts, exitCodes);
+        parseSections(stdErr, stdErrs, null);
+        final List<OsCommandResult> results = new ArrayList<>(commandCount);
+        for (int i = 0; i < commandCount; i++) {
+            if (stdOuts.get(i) == null) {
+                throw new OperationSystemException("No output of the batch command #" + i);
+            }
+            results.add(new OsCommandResultBean(exitCodes[i], stdOuts.get(i), stdErrs.get(i) == null ? "" : stdErrs.get(i)));
+        }
+        return results;
+    }
+
+    private void parseSections(final Iterable<String> lines, final List<String> outputs, final int[] exitCodes) {
+        final String markerPrefix = marker + ':';
+        List<String> section = null;
+        int sectionIndex = -1;
+        for (final String line : lines) {
+            final String trimmedLine = line.trim();
+            if (!trimmedLine.startsWith(markerPrefix)) {
+                if (section != null) {
+                    section.add(line);
+                }
+                continue;
+            }
+            final String[] markerParts = trimmedLine.substring(markerPrefix.length()).split(":");
+            final int index = Integer.parseInt(markerParts[0]);
+            if (BEGIN.equals(':' + markerParts[1])) {
+                section = new ArrayList<>();
+                sectionIndex = index;
+            } else if (section != null && index == sectionIndex) {
+                //The last line is the new line printed before the end marker if the command output is terminated by new line
+                if (!section.isEmpty() && (section.get(section.size() - 1).isEmpty() || "\r".equals(section.get(section.size() - 1)))) {
+                    section.remove(section.size() - 1);
+                }
+                outputs.set(index, String.join("\n", section));
+                if (exitCodes != null) {
+                    exitCodes[index] = Integer.parseInt(markerParts[2]);
+                }
+                section = null;
+            }
+        }
+    }
+}
@@ -1,15 +1,25 @@
 package com.platformlib.os.core.util;
 
+import com.platformlib.os.api.exception.OperationSystemException;
+
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
 /**
  * OS utility class.
  */
 public final class OsUtilities {
-    private static final String OS_COMMAND_PROPERTY_PREFIX = "com.platformlib.os.command.";
+    private static final String OS_PROPERTY_PREFIX = "com.platformlib.os.";
+    private static final String OS_COMMAND_PROPERTY_PREFIX = "command.";
     private static final int BUFFER_SIZE = 512;
 
     /**
@@ -25,9 +35,18 @@ public final class OsUtilities {
      * @return Returns command to use
      */
     public static String getOsCommand(final String command) {
-        final String osCommandProperty = OS_COMMAND_PROPERTY_PREFIX + command;
-        final String osCommandPropertyValue = System.getProperty(osCommandProperty, System.getenv(osCommandProperty));
-        return osCommandPropertyValue == null ? command : osCommandPropertyValue;
+        return getOsProperty(OS_COMMAND_PROPERTY_PREFIX + command).orElse(command);
+    }
+
+    /**
+     * Get OS library property.
+     * The property is looked up as system property first and as environment variable then, both prefixed by "com.platformlib.os.".
+     * @param property property name without prefix
+     * @return Returns property value if set, {@link Optional#empty()} otherwise
+     */
+    public static Optional<String> getOsProperty(final String property) {
+        final String osProperty = OS_PROPERTY_PREFIX + property;
+        return Optional.ofNullable(System.getProperty(osProperty, System.getenv(osProperty)));
     }
 
     /**
@@ -81,4 +100,77 @@ public final class OsUtilities {
         return outputStream.toByteArray();
     }
 
+    /**
+     * Parse environment variables printed by {@code env -0}: NAME=value entries separated by NUL char.
+     * @param envOutput env -0 output
+     * @return Returns immutable map of environment variables
+     */
+    public static Map<String, String> parseNullSeparatedEnvironment(final String envOutput) {
+        final Map<String, String> environment = new HashMap<>();
+        for (final String entry : envOutput.split("\u0000")) {
+            //The name could start with '=', e.g. Windows hidden per-drive variables
+            final int separatorIndex = entry.indexOf('=', 1);
+            if (separatorIndex > 0) {
+                environment.put(entry.substring(0, separatorIndex), entry.substring(separatorIndex + 1));
+            }
+        }
+        return Collections.unmodifiableMap(environment);
+    }
+
+    /**
+     * Parse environment variables printed line by line as NAME=value by {@code env} or Windows {@code set}.
+     * A line without '=' continues multi-line value of the previous variable.
+     * @param envOutput env or set output
+     * @param caseInsensitive true if variable names are case insensitive as on Windows
+     * @return Returns immutable map of environment variables
+     */
+    public static Map<String, String> parseEnvironment(final String envOutput, final boolean caseInsensitive) {
+        final Map<String, String> environment = caseInsensitive ? new TreeMap<>(String.CASE_INSENSITIVE_ORDER) : new HashMap<>();
+        String name = null;
+        for (final String line : envOutput.split("\r?\n")) {
+            final int separatorIndex = line.indexOf('=', 1);
+            if (separatorIndex > 0) {
+                name = line.substring(0, separatorIndex);
+                environment.put(name, line.substring(separatorIndex + 1));
+            } else if (name != null) {
+                environment.put(name, environment.get(name) + '\n' + line);
+            }
+        }
+        return Collections.unmodifiableMap(environment);
+    }
+
+    /**
+     * Wait for completion stage result.
+     * The runtime exception the stage is completed with is thrown as is, so blocking callers get the same exceptions as asynchronous ones.
+     * @param completionStage completion stage
+     * @param <T> result type
+     * @return Returns completion stage result
+     * @throws OperationSystemException if the stage is completed with checked exception
+     */
+    public static <T> T join(final CompletionStage<T> completionStage) {
+        try {
+            return completionStage.toCompletableFuture().join();
+        } catch (final CompletionException completionException) {
+            final Throwable cause = completionException.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new OperationSystemException(cause);
+        }
+    }
+
+    /**
+     * Create exceptionally completed future.
+     * @param throwable exception
+     * @param <T> result type
+     * @return Returns future completed with the exception
+     */
+    public static <T> CompletableFuture<T> failedFuture(final Throwable throwable) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(throwable);
+        return future;
+    }
 }
@@ -0,0 +1,187 @@
+package com.platformlib.os.core.osi;
+
+import com.platformlib.os.api.osi.OsProcess;
+import com.platformlib.os.api.osi.OsProcessVisitor;
+import com.platformlib.os.api.osi.posix.PosixOsUser;
+import com.platformlib.os.core.AbstractOsPlatform;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.Charset;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.when;
+
+class LinuxOsInterfaceTest {
+    private static final String PROC_STATUS = "Name:\tjava\nUmask:\t0022\nState:\tS (sleeping)\nTgid:\t4242\nNgid:\t0\nPid:\t4242\nPPid:\t4200\nTracerPid:\t0\nUid:\t1000\t1001\t1000\t1000\nGid:\t100\t100\t100\t100\n";
+
+    /**
+     * Test {@link LinuxOsInterfaceImpl#parseStatusField(String, String, int)}.
+     */
+    @Test
+    void testParseStatusField() {
+        assertEquals(4200, LinuxOsInterfaceImpl.parseStatusField(PROC_STATUS, "PPid:"));
+        assertEquals(4242, LinuxOsInterfaceImpl.parseStatusField(PROC_STATUS, "Pid:"));
+        assertEquals(1000, LinuxOsInterfaceImpl.parseStatusField(PROC_STATUS, "Uid:"));
+        assertEquals(1001, LinuxOsInterfaceImpl.parseStatusField(PROC_STATUS, "Uid:", 1));
+        assertEquals(100, LinuxOsInterfaceImpl.parseStatusField(PROC_STATUS, "Gid:"));
+        assertEquals("java", LinuxOsInterfaceImpl.parseStatusText(PROC_STATUS, "Name:"));
+        assertEquals("S (sleeping)", LinuxOsInterfaceImpl.parseStatusText(PROC_STATUS, "State:"));
+    }
+
+    /**
+     * Test {@link LinuxOsInterfaceImpl#readIdNames(Path)}.
+     */
+    @Test
+    void testReadIdNames(@TempDir final Path tempDir) throws IOException {
+        final Path passwd = tempDir.resolve("passwd");
+        Files.write(passwd, ("# comment\nroot:x:0:0:root:/root:/bin/bash\nuser:x:1000:1000::/home/user:/bin/sh\ntoor:x:0:0:root:/root:/bin/sh\nbroken line\n").getBytes(Charset.defaultCharset()));
+        final Map<Integer, String> idNames = LinuxOsInterfaceImpl.readIdNames(passwd);
+        assertThat(idNames).hasSize(2).containsEntry(0, "root").containsEntry(1000, "user");
+        assertThat(LinuxOsInterfaceImpl.readIdNames(tempDir.resolve("group"))).isEmpty();
+    }
+
+    /**
+     * Test {@link LinuxOsInterfaceImpl#getCurrentUser()} resolves the same uid and gid as /proc/self/status.
+     */
+    @Test
+    void testGetCurrentUserFromProcFs() throws IOException {
+        final Path procSelfStatus = Paths.get("/proc/self/status");
+        assumeTrue(Files.isRegularFile(procSelfStatus));
+        final String status = new String(Files.readAllBytes(procSelfStatus), Charset.defaultCharset());
+        final int uid = LinuxOsInterfaceImpl.parseStatusField(status, "Uid:");
+        final int gid = LinuxOsInterfaceImpl.parseStatusField(status, "Gid:");
+        final AbstractOsPlatform abstractOsPlatform = Mockito.mock(AbstractOsPlatform.class);
+        when(abstractOsPlatform.getFileSystem()).thenReturn(FileSystems.getDefault());
+        when(abstractOsPlatform.getKnownCurrentUser()).thenReturn(Optional.empty());
+        //The id command is the fallback for users which are not in /etc/passwd
+        when(abstractOsPlatform.osCommandAsync("id")).thenReturn(CompletableFuture.completedFuture("uid=" + uid + "(user) gid=" + gid + "(group)"));
+        final PosixOsUser posixOsUser = new LinuxOsInterfaceImpl(abstractOsPlatform).getCurrentUser();
+        assertEquals(uid, posixOsUser.getUser().getId());
+        assertEquals(gid, posixOsUser.getPrimaryGroup().getId());
+    }
+
+    /**
+     * Test {@link LinuxOsInterfaceImpl#visitOsProcesses(OsProcessVisitor)} reads procfs till the visitor stops the enumeration.
+     */
+    @Test
+    void testVisitOsProcessesFromProcFs() {
+        assumeTrue(Files.isDirectory(Paths.get("/proc/self")));
+        final AbstractOsPlatform abstractOsPlatform = Mockito.mock(AbstractOsPlatform.class);
+        when(abstractOsPlatform.getFileSystem()).thenReturn(FileSystems.getDefault());
+        final LinuxOsInterfaceImpl linuxOsInterface = new LinuxOsInterfaceImpl(abstractOsPlatform);
+        final List<OsProcess> visitedProcesses = new ArrayList<>();
+        linuxOsInterface.visitOsProcesses(osProcess -> {
+            visitedProcesses.add(osProcess);
+            return false;
+        });
+        assertThat(visitedProcesses).hasSize(1);
+        final int currentPid = Integer.parseInt(ManagementFactory.getRuntimeMXBean().getName().split("@")[0]);
+        final AtomicBoolean currentProcessFound = new AtomicBoolean();
+        linuxOsInterface.visitOsProcesses(osProcess -> {
+            currentProcessFound.set(osProcess.getProcessId() == currentPid);
+            return !currentProcessFound.get();
+        });
+        assertTrue(currentProcessFound.get());
+    }
+
+    /**
+     * Test {@link LinuxOsInterfaceImpl#visitProcFsProcesses(Path, Map, OsProcessVisitor)} reports the effective uid and skips the processes which status can't be read.
+     */
+    @Test
+    void testVisitProcFsProcessesSkipsGoneProcesses(@TempDir final Path procDirectory) throws IOException {
+        writeProcStatus(procDirectory, 4242, PROC_STATUS);
+        //The process exited before its status has been read
+        Files.createDirectory(procDirectory.resolve("4243"));
+        //The read of status fails with other than NoSuchFileException error
+        Files.createDirectories(procDirectory.resolve("4244").resolve("status"));
+        Files.createDirectory(procDirectory.resolve("self"));
+        final List<OsProcess> visitedProcesses = new ArrayList<>();
+        LinuxOsInterfaceImpl.visitProcFsProcesses(procDirectory, Collections.singletonMap(1001, "effective"), visitedProcesses::add);
+        assertThat(visitedProcesses).hasSize(1);
+        final OsProcess osProcess = visitedProcesses.get(0);
+        assertEquals(4242, osProcess.getProcessId());
+        assertThat(osProcess.getParentProcessId()).contains(4200);
+        assertEquals("effective", osProcess.getUsername());
+        assertEquals("java", osProcess.getCommandName().orElse(null));
+    }
+
+    /**
+     * Test {@link LinuxOsInterfaceImpl#visitProcFsProcesses(Path, Map, OsProcessVisitor)} of several thousand processes is faster than fork of ps.
+     */
+    @Test
+    void testProcFsScanIsFasterThanPs(@TempDir final Path procDirectory) throws IOException, InterruptedException {
+        assumeTrue(Files.isDirectory(Paths.get("/proc/self")));
+        final int processCount = 3000;
+        for (int pid = 1; pid <= processCount; pid++) {
+            writeProcStatus(procDirectory, pid, PROC_STATUS.replace("4242", String.valueOf(pid)));
+        }
+        final Path realProcDirectory = Paths.get("/proc");
+        final AtomicInteger visitedCount = new AtomicInteger();
+        long syntheticScanNanos = Long.MAX_VALUE;
+        long procFsScanNanos = Long.MAX_VALUE;
+        long psNanos = Long.MAX_VALUE;
+        for (int attempt = 0; attempt < 3; attempt++) {
+            visitedCount.set(0);
+            long startNanos = System.nanoTime();
+            LinuxOsInterfaceImpl.visitProcFsProcesses(procDirectory, Collections.emptyMap(), osProcess -> visitedCount.incrementAndGet() > 0);
+            syntheticScanNanos = Math.min(syntheticScanNanos, System.nanoTime() - startNanos);
+            assertEquals(processCount, visitedCount.get());
+            startNanos = System.nanoTime();
+            LinuxOsInterfaceImpl.visitProcFsProcesses(realProcDirectory, Collections.emptyMap(), osProcess -> true);
+            procFsScanNanos = Math.min(procFsScanNanos, System.nanoTime() - startNanos);
+            startNanos = System.nanoTime();
+            final Integer psLineCount = runPs();
+            assumeTrue(psLineCount != null, "ps is not available");
+            psNanos = Math.min(psNanos, System.nanoTime() - startNanos);
+        }
+        final String timings = "Scan of " + processCount + " synthetic processes " + Duration.ofNanos(syntheticScanNanos).toMillis() + " ms, scan of /proc " + Duration.ofNanos(procFsScanNanos).toMillis() + " ms, ps " + Duration.ofNanos(psNanos).toMillis() + " ms";
+        //The same processes are listed by the scan of /proc and by ps
+        assertTrue(procFsScanNanos < psNanos, timings);
+        assertThat(Duration.ofNanos(syntheticScanNanos)).as(timings).isLessThan(Duration.ofSeconds(10));
+    }
+
+    private static void writeProcStatus(final Path procDirectory, final int pid, final String status) throws IOException {
+        final Path processDirectory = Files.createDirectory(procDirectory.resolve(String.valueOf(pid)));
+        Files.write(processDirectory.resolve("status"), status.getBytes(Charset.defaultCharset()));
+    }
+
+    private static Integer runPs() throws InterruptedException {
+        final Process process;
+        try {
+            process = new ProcessBuilder("ps", "-e", "-o", "user=,pid=,ppid=,comm=").redirectErrorStream(true).start();
+        } catch (final IOException ioException) {
+            return null;
+        }
+        int lineCount = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), Charset.defaultCharset()))) {
+            while (reader.readLine() != null) {
+                lineCount++;
+            }
+        } catch (final IOException ioException) {
+            return null;
+        }
+        return process.waitFor() == 0 ? lineCount : null;
+    }
+}
@@ -0,0 +1,25 @@
+package com.platformlib.os.core.osi;
+
+import com.platformlib.os.api.osi.OsProcessQuery;
+import com.platformlib.os.core.bean.OsProcessBean;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OsProcessQueryTest {
+    /**
+     * Test {@link OsProcessQuery#matches(com.platformlib.os.api.osi.OsProcess)} combines the criteria by AND.
+     */
+    @Test
+    void testMatches() {
+        final OsProcessBean javaProcess = new OsProcessBean("user", 42, 1, "java");
+        assertTrue(OsProcessQuery.all().matches(javaProcess));
+        assertTrue(OsProcessQuery.all().withUsername("user").withCommandName("java").withParentProcessId(1).matches(javaProcess));
+        assertFalse(OsProcessQuery.all().withUsername("user").withCommandName("bash").matches(javaProcess));
+        assertFalse(OsProcessQuery.all().withParentProcessId(2).matches(javaProcess));
+        assertFalse(OsProcessQuery.all().withUsername("root").matches(javaProcess));
+        assertFalse(OsProcessQuery.all().withCommandName("java").matches(new OsProcessBean("user", 42, 1)));
+        assertFalse(OsProcessQuery.all().withParentProcessId(1).matches(new OsProcessBean("user", 42, null, "java")));
+    }
+}
@@ -0,0 +1,38 @@
+package com.platformlib.os.core.osi;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PidStartTimeMapTest {
+    /**
+     * Test the map keeps the entries while it grows and it's empty after clear.
+     */
+    @Test
+    void testPutGetClear() {
+        final PidStartTimeMap pidStartTimeMap = new PidStartTimeMap();
+        final int processes = 50_000;
+        for (int pid = 0; pid < processes; pid++) {
+            pidStartTimeMap.put(pid * 7, pid);
+        }
+        pidStartTimeMap.put(7, -1);
+        assertEquals(processes, pidStartTimeMap.size());
+        assertEquals(0L, pidStartTimeMap.get(0));
+        assertEquals(-1L, pidStartTimeMap.get(7));
+        assertEquals(processes - 1L, pidStartTimeMap.get((processes - 1) * 7));
+        assertEquals(PidStartTimeMap.MISSING, pidStartTimeMap.get(8));
+        int occupiedSlots = 0;
+        for (int slot = 0; slot < pidStartTimeMap.capacity(); slot++) {
+            if (pidStartTimeMap.pidAt(slot) >= 0) {
+                assertEquals(pidStartTimeMap.get(pidStartTimeMap.pidAt(slot)), pidStartTimeMap.startTimeAt(slot));
+                occupiedSlots++;
+            }
+        }
+        assertEquals(processes, occupiedSlots);
+        final int capacity = pidStartTimeMap.capacity();
+        pidStartTimeMap.clear();
+        assertEquals(0, pidStartTimeMap.size());
+        assertEquals(capacity, pidStartTimeMap.capacity());
+        assertEquals(PidStartTimeMap.MISSING, pidStartTimeMap.get(0));
+    }
+}
@@ -0,0 +1,115 @@
+package com.platformlib.os.core.osi;
+
+import com.platformlib.os.api.exception.OperationSystemException;
+import com.platformlib.os.api.osi.OsProcessListener;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PollingOsProcessWatcherTest {
+    private static final Duration MANUAL_POLL_INTERVAL = Duration.ofHours(1);
+
+    private static final class RecordingListener implements OsProcessListener {
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onProcessStarted(final int pid, final long startTimeMillis) {
+            events.add("started " + pid + "@" + startTimeMillis);
+        }
+
+        @Override
+        public void onProcessExited(final int pid, final long startTimeMillis) {
+            events.add("exited " + pid + "@" + startTimeMillis);
+        }
+
+        @Override
+        public void onPollFailure(final RuntimeException exception) {
+            events.add("failed " + exception.getMessage());
+        }
+
+        private List<String> takeEvents() {
+            final List<String> takenEvents = new ArrayList<>(events);
+            events.clear();
+            return takenEvents;
+        }
+    }
+
+    /**
+     * Test the baseline processes are not reported and every poll reports only the started and exited processes.
+     */
+    @Test
+    void testStartedAndExitedEvents() {
+        final long[][] samples = {
+                {1, 100, 2, 200, 3, 300},
+                {1, 100, 3, 300, 4, 400},
+                {1, 100, 3, 1300, 4, 400},
+                {1, 100, 3, 1300, 4, 400},
+        };
+        final int[] sampleIndex = {0};
+        final RecordingListener listener = new RecordingListener();
+        try (PollingOsProcessWatcher watcher = new PollingOsProcessWatcher(MANUAL_POLL_INTERVAL, listener, 500, (knownProcesses, sample) -> {
+            final long[] processes = samples[sampleIndex[0]++];
+            for (int i = 0; i < processes.length; i += 2) {
+                sample.put((int) processes[i], processes[i + 1]);
+            }
+        })) {
+            assertEquals(3, watcher.getProcessCount());
+            assertEquals(1, watcher.getPollCount());
+            assertThat(listener.takeEvents()).isEmpty();
+            watcher.poll();
+            assertThat(listener.takeEvents()).containsExactly("exited 2@200", "started 4@400");
+            watcher.poll();
+            assertThat(listener.takeEvents()).containsExactly("exited 3@300", "started 3@1300");
+            watcher.poll();
+            assertThat(listener.takeEvents()).isEmpty();
+            assertEquals(3, watcher.getProcessCount());
+            assertEquals(4, watcher.getPollCount());
+        }
+    }
+
+    /**
+     * Test the imprecise start times within tolerance don't drift the known start time.
+     */
+    @Test
+    void testStartTimeTolerance() {
+        final long[] startTimes = {1000, 1400, 1800, 1400};
+        final int[] sampleIndex = {0};
+        final RecordingListener listener = new RecordingListener();
+        try (PollingOsProcessWatcher watcher = new PollingOsProcessWatcher(MANUAL_POLL_INTERVAL, listener, 500, (knownProcesses, sample) -> sample.put(10, startTimes[sampleIndex[0]++]))) {
+            watcher.poll();
+            assertThat(listener.takeEvents()).isEmpty();
+            watcher.poll();
+            assertThat(listener.takeEvents()).containsExactly("exited 10@1000", "started 10@1800");
+            watcher.poll();
+            assertThat(listener.takeEvents()).isEmpty();
+        }
+    }
+
+    /**
+     * Test the failed poll keeps the known processes.
+     */
+    @Test
+    void testPollFailure() {
+        final int[] sampleIndex = {0};
+        final RecordingListener listener = new RecordingListener();
+        try (PollingOsProcessWatcher watcher = new PollingOsProcessWatcher(MANUAL_POLL_INTERVAL, listener, 0, (knownProcesses, sample) -> {
+            if (sampleIndex[0]++ == 1) {
+                sample.put(2, -1);
+                throw new OperationSystemException("ps failed");
+            }
+            sample.put(1, -1);
+        })) {
+            watcher.poll();
+            assertThat(listener.takeEvents()).containsExactly("failed ps failed");
+            assertEquals(1, watcher.getProcessCount());
+            watcher.poll();
+            assertThat(listener.takeEvents()).isEmpty();
+            assertEquals(2, watcher.getPollCount());
+        }
+    }
+}
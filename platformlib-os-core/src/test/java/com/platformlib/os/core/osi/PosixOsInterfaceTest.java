@@ -9,6 +9,7 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.Mockito;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -27,7 +28,7 @@ class PosixOsInterfaceTest {
         final PosixOsInterfaceImpl posixOsInterface = Mockito.mock(PosixOsInterfaceImpl.class, Mockito.CALLS_REAL_METHODS);
         final AbstractOsPlatform abstractOsPlatform = Mockito.mock(AbstractOsPlatform.class);
         when(posixOsInterface.getOsPlatform()).thenReturn(abstractOsPlatform);
-        when(abstractOsPlatform.osCommand("id")).thenReturn(idOutput);
+        when(abstractOsPlatform.osCommandAsync("id")).thenReturn(CompletableFuture.completedFuture(idOutput));
         final PosixOsUser posixOsUser = posixOsInterface.getCurrentUser();
         assertEquals(userId, posixOsUser.getUser().getId());
         assertEquals(username, posixOsUser.getUser().getName());
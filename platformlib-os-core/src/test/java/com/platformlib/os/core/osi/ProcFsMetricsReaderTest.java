@@ -0,0 +1,88 @@
+package com.platformlib.os.core.osi;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.Charset;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ProcFsMetricsReaderTest {
+    private static final String PROC_STAT = "4242 (a b) c) S 4200 4242 4200 0 -1 4194560 1500 0 0 0 250 130 0 0 20 0 17 0 123456 3702939648 10710 18446744073709551615 1 1 0 0 0 0 0 0 0 0 0 0";
+
+    private static int read(final ProcFsMetricsReader procFsMetricsReader, final byte[] content) throws IOException {
+        return procFsMetricsReader.readFully(new ByteArrayInputStream(content));
+    }
+
+    /**
+     * Test {@link ProcFsMetricsReader#parseStat(int)} parses the fields after the command name with spaces and parentheses.
+     */
+    @Test
+    void testParseStat() throws IOException {
+        final ProcFsMetricsReader procFsMetricsReader = new ProcFsMetricsReader(FileSystems.getDefault(), 4096, 100);
+        assertTrue(procFsMetricsReader.parseStat(read(procFsMetricsReader, PROC_STAT.getBytes(Charset.defaultCharset()))));
+        assertEquals('S', procFsMetricsReader.getStatField(3));
+        assertEquals(4200, procFsMetricsReader.getStatField(4));
+        assertEquals(250, procFsMetricsReader.getStatField(14));
+        assertEquals(130, procFsMetricsReader.getStatField(15));
+        assertEquals(17, procFsMetricsReader.getStatField(20));
+        assertEquals(123456, procFsMetricsReader.getStatField(22));
+        assertEquals(3702939648L, procFsMetricsReader.getStatField(23));
+        assertEquals(10710, procFsMetricsReader.getStatField(24));
+        assertFalse(procFsMetricsReader.parseStat(read(procFsMetricsReader, "4242 (java) S 4200 4242".getBytes(Charset.defaultCharset()))));
+    }
+
+    /**
+     * Test {@link ProcFsMetricsReader#toCommandLine(int)} and the buffer growth.
+     */
+    @Test
+    void testToCommandLine() throws IOException {
+        final ProcFsMetricsReader procFsMetricsReader = new ProcFsMetricsReader(FileSystems.getDefault(), 4096, 100);
+        assertEquals("java -jar app.jar", procFsMetricsReader.toCommandLine(read(procFsMetricsReader, "java\0-jar\0app.jar\0".getBytes(Charset.defaultCharset()))));
+        assertEquals("", procFsMetricsReader.toCommandLine(read(procFsMetricsReader, new byte[0])));
+        final StringBuilder longArgument = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            longArgument.append('a');
+        }
+        assertEquals("echo " + longArgument, procFsMetricsReader.toCommandLine(read(procFsMetricsReader, ("echo\0" + longArgument + '\0').getBytes(Charset.defaultCharset()))));
+    }
+
+    /**
+     * Test {@link ProcFsMetricsReader#read()} contains the current process.
+     */
+    @Test
+    void testRead() {
+        assumeTrue(Files.isDirectory(Paths.get("/proc/self")));
+        final ProcessMetricsTable processMetricsTable = new ProcFsMetricsReader(FileSystems.getDefault(), 4096, 100).read();
+        final int currentPid = Integer.parseInt(ManagementFactory.getRuntimeMXBean().getName().split("@")[0]);
+        final int index = processMetricsTable.indexOf(currentPid);
+        assertTrue(index >= 0);
+        assertTrue(processMetricsTable.getThreadCount(index) > 1);
+        assertTrue(processMetricsTable.getVirtualSize(index) > 0);
+        assertTrue(processMetricsTable.getCommandLine(index).contains("java"));
+        assertTrue(processMetricsTable.getStartTimeMillis(index) <= System.currentTimeMillis());
+    }
+
+    /**
+     * Test {@link ProcFsMetricsReader#sampleAlive(int[], int, PidStartTimeMap)} skips the processes which are gone.
+     */
+    @Test
+    void testSampleAlive() {
+        assumeTrue(Files.isDirectory(Paths.get("/proc/self")));
+        final int currentPid = Integer.parseInt(ManagementFactory.getRuntimeMXBean().getName().split("@")[0]);
+        final int gonePid = 999_999_999;
+        final PidStartTimeMap aliveProcesses = new PidStartTimeMap();
+        new ProcFsMetricsReader(FileSystems.getDefault(), 4096, 100).sampleAlive(new int[] {currentPid, gonePid}, 2, aliveProcesses);
+        assertEquals(1, aliveProcesses.size());
+        assertEquals(PidStartTimeMap.MISSING, aliveProcesses.get(gonePid));
+        assertTrue(aliveProcesses.get(currentPid) != PidStartTimeMap.MISSING);
+    }
+}
@@ -0,0 +1,133 @@
+package com.platformlib.os.core.osi;
+
+import com.platformlib.os.api.osi.SystemMetrics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ProcFsSystemMetricsParserTest {
+    private static final long BOOT_TIME = 1_700_000_000;
+    private static final String MEMINFO = "MemTotal:       16318412 kB\nMemFree:         1201044 kB\nMemAvailable:    9812200 kB\nBuffers:          402112 kB\n"
+            + "Cached:          7800300 kB\nSwapCached:         1024 kB\nSwapTotal:       2097148 kB\nSwapFree:        2096124 kB\nHugePages_Total:       0\n";
+
+    private static String stat(final long user, final long system, final long idle, final long ioWait) {
+        return "cpu  " + user + " 0 " + system + " " + idle + " " + ioWait + " 0 0 0 0 0\n"
+                + "cpu0 1 0 1 1 0 0 0 0 0 0\ncpu1 1 0 1 1 0 0 0 0 0 0\n"
+                + "intr 12345 0 0\nctxt 987654\nbtime " + BOOT_TIME + "\nprocesses 4242\nprocs_running 2\nprocs_blocked 0\n";
+    }
+
+    private static void write(final Path file, final String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Test the CPU percentages are computed from deltas of consecutive reads and the memory and load fields are parsed.
+     */
+    @Test
+    void testRead(@TempDir final Path procDirectory) throws IOException {
+        write(procDirectory.resolve("stat"), stat(1000, 500, 8000, 500));
+        write(procDirectory.resolve("meminfo"), MEMINFO);
+        write(procDirectory.resolve("loadavg"), "0.52 1.05 12.5 3/1234 56789\n");
+        final ProcFsSystemMetricsParser procFsSystemMetricsParser = new ProcFsSystemMetricsParser();
+
+        final SystemMetrics sinceBoot = procFsSystemMetricsParser.read(procDirectory);
+        assertEquals(2, sinceBoot.getCpuCount());
+        assertEquals(Duration.between(Instant.ofEpochSecond(BOOT_TIME), sinceBoot.getTime()), sinceBoot.getCpuInterval());
+        assertEquals(10, sinceBoot.getUserCpuPercent(), 1e-9);
+        assertEquals(5, sinceBoot.getSystemCpuPercent(), 1e-9);
+        assertEquals(80, sinceBoot.getIdleCpuPercent(), 1e-9);
+        assertEquals(15, sinceBoot.getCpuUsagePercent(), 1e-9);
+        assertEquals(16318412L * 1024, sinceBoot.getTotalMemory());
+        assertEquals(1201044L * 1024, sinceBoot.getFreeMemory());
+        assertEquals(9812200L * 1024, sinceBoot.getAvailableMemory());
+        assertEquals(7800300L * 1024, sinceBoot.getCachedMemory());
+        assertEquals(2097148L * 1024, sinceBoot.getTotalSwap());
+        assertEquals(2096124L * 1024, sinceBoot.getFreeSwap());
+        assertEquals(0.52, sinceBoot.getLoadAverage1(), 1e-9);
+        assertEquals(1.05, sinceBoot.getLoadAverage5(), 1e-9);
+        assertEquals(12.5, sinceBoot.getLoadAverage15(), 1e-9);
+        assertEquals(3, sinceBoot.getRunnableTaskCount());
+        assertEquals(1234, sinceBoot.getTaskCount());
+
+        write(procDirectory.resolve("stat"), stat(1150, 550, 8200, 450));
+        final SystemMetrics delta = procFsSystemMetricsParser.read(procDirectory);
+        assertEquals(Duration.between(sinceBoot.getTime(), delta.getTime()), delta.getCpuInterval());
+        assertEquals(37.5, delta.getUserCpuPercent(), 1e-9);
+        assertEquals(12.5, delta.getSystemCpuPercent(), 1e-9);
+        assertEquals(0, delta.getIoWaitCpuPercent(), 1e-9);
+        assertEquals(50, delta.getCpuUsagePercent(), 1e-9);
+
+        final SystemMetrics noTicks = procFsSystemMetricsParser.read(procDirectory);
+        assertEquals(-1, noTicks.getCpuUsagePercent(), 1e-9);
+        assertEquals(-1, noTicks.getUserCpuPercent(), 1e-9);
+        write(procDirectory.resolve("stat"), stat(1250, 550, 8300, 450));
+        final SystemMetrics afterNoTicks = procFsSystemMetricsParser.read(procDirectory);
+        assertEquals(Duration.between(delta.getTime(), afterNoTicks.getTime()), afterNoTicks.getCpuInterval());
+        assertEquals(50, afterNoTicks.getCpuUsagePercent(), 1e-9);
+    }
+
+    /**
+     * Test the fields which are absent in /proc/meminfo and /proc/loadavg of old kernels are unknown.
+     */
+    @Test
+    void testAbsentFields(@TempDir final Path procDirectory) throws IOException {
+        write(procDirectory.resolve("stat"), "cpu  10 0 10 80\ncpu0 10 0 10 80\nbtime " + BOOT_TIME + "\n");
+        write(procDirectory.resolve("meminfo"), "MemTotal:       1024 kB\nMemFree:         512 kB\nCached:           256 kB\n");
+        write(procDirectory.resolve("loadavg"), "0.00 0.01 0.05\n");
+        final SystemMetrics systemMetrics = new ProcFsSystemMetricsParser().read(procDirectory);
+        assertEquals(1, systemMetrics.getCpuCount());
+        assertEquals(80, systemMetrics.getIdleCpuPercent(), 1e-9);
+        assertEquals(0, systemMetrics.getStealCpuPercent(), 1e-9);
+        assertEquals(-1, systemMetrics.getAvailableMemory());
+        assertEquals(-1, systemMetrics.getTotalSwap());
+        assertEquals(256 * 1024, systemMetrics.getCachedMemory());
+        assertEquals(0.05, systemMetrics.getLoadAverage15(), 1e-9);
+        assertEquals(-1, systemMetrics.getTaskCount());
+    }
+
+    /**
+     * Test the frame filtered on the host is parsed and its time is taken from the host boot time and uptime.
+     */
+    @Test
+    void testParseFrame() throws IOException {
+        final ProcFsSystemMetricsParser procFsSystemMetricsParser = new ProcFsSystemMetricsParser();
+        final String frame = "0.10 0.20 0.30 1/99 100\nuptime 3600.25\ncpu 100 0 100 800 0 0 0 0 0 0\ncpu0\ncpu1\ncpu2\nbtime " + BOOT_TIME
+                + "\nMemTotal: 2048 kB\nMemFree: 1024 kB\n";
+        final SystemMetrics systemMetrics = procFsSystemMetricsParser.parse(new ByteArrayInputStream(frame.getBytes(StandardCharsets.US_ASCII)), null);
+        assertEquals(Instant.ofEpochSecond(BOOT_TIME).plusMillis(3_600_250), systemMetrics.getTime());
+        assertEquals(Duration.ofMillis(3_600_250), systemMetrics.getCpuInterval());
+        assertEquals(3, systemMetrics.getCpuCount());
+        assertEquals(20, systemMetrics.getCpuUsagePercent(), 1e-9);
+        assertEquals(2048 * 1024, systemMetrics.getTotalMemory());
+        assertEquals(99, systemMetrics.getTaskCount());
+    }
+
+    /**
+     * Test the metrics of the current host are consistent.
+     */
+    @Test
+    void testReadCurrentHost() {
+        assumeTrue(Files.isRegularFile(Paths.get("/proc/stat")));
+        final ProcFsSystemMetricsParser procFsSystemMetricsParser = new ProcFsSystemMetricsParser();
+        procFsSystemMetricsParser.read(Paths.get("/proc"));
+        final SystemMetrics systemMetrics = procFsSystemMetricsParser.read(Paths.get("/proc"));
+        assertTrue(systemMetrics.getCpuCount() > 0);
+        assertTrue(systemMetrics.getTotalMemory() >= systemMetrics.getFreeMemory());
+        assertTrue(systemMetrics.getFreeMemory() > 0);
+        assertTrue(systemMetrics.getLoadAverage1() >= 0);
+        assertTrue(systemMetrics.getTaskCount() > 0);
+        assertTrue(systemMetrics.getCpuUsagePercent() <= 100);
+    }
+}
@@ -0,0 +1,81 @@
+package com.platformlib.os.core.osi;
+
+import com.platformlib.os.api.exception.OperationSystemException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProcessExitPollerTest {
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    /**
+     * Test the waits are completed when their processes are not sampled and every poll samples all waited processes at once.
+     */
+    @Test
+    void testWaitForExit() throws Exception {
+        final Set<Integer> runningProcesses = ConcurrentHashMap.newKeySet();
+        runningProcesses.addAll(Arrays.asList(1, 2, 3));
+        final AtomicInteger maxSampledCount = new AtomicInteger();
+        final ProcessExitPoller processExitPoller = new ProcessExitPoller(POLL_INTERVAL, (pids, count, aliveProcesses) -> {
+            maxSampledCount.accumulateAndGet(count, Math::max);
+            for (int i = 0; i < count; i++) {
+                if (runningProcesses.contains(pids[i])) {
+                    aliveProcesses.put(pids[i], -1);
+                }
+            }
+        });
+        final CompletableFuture<Void> exitOf1 = processExitPoller.waitForExit(1).toCompletableFuture();
+        final CompletableFuture<Void> exitOf2 = processExitPoller.waitForExit(2).toCompletableFuture();
+        final CompletableFuture<Void> secondExitOf2 = processExitPoller.waitForExit(2).toCompletableFuture();
+        final CompletableFuture<Void> exitOf3 = processExitPoller.waitForExit(3).toCompletableFuture();
+        processExitPoller.waitForExit(4).toCompletableFuture().get(1, TimeUnit.MINUTES);
+        assertFalse(exitOf1.isDone() || exitOf2.isDone() || exitOf3.isDone());
+        runningProcesses.remove(2);
+        exitOf2.get(1, TimeUnit.MINUTES);
+        secondExitOf2.get(1, TimeUnit.MINUTES);
+        assertFalse(exitOf1.isDone() || exitOf3.isDone());
+        runningProcesses.clear();
+        CompletableFuture.allOf(exitOf1, exitOf3).get(1, TimeUnit.MINUTES);
+        assertEquals(0, processExitPoller.getWaitedCount());
+        assertThat(maxSampledCount.get()).isBetween(3, 4);
+    }
+
+    /**
+     * Test the waits fail when the polls fail several times in a row and the poller is restarted by the next wait.
+     */
+    @Test
+    void testPollFailures() throws Exception {
+        final AtomicInteger polls = new AtomicInteger();
+        final ProcessExitPoller processExitPoller = new ProcessExitPoller(POLL_INTERVAL, (pids, count, aliveProcesses) -> {
+            if (polls.incrementAndGet() <= 3) {
+                throw new IllegalStateException("Connection is lost");
+            }
+        });
+        final CompletableFuture<Void> exit = processExitPoller.waitForExit(1).toCompletableFuture();
+        final ExecutionException executionException = assertThrows(ExecutionException.class, () -> exit.get(1, TimeUnit.MINUTES));
+        assertThat(executionException.getCause()).isInstanceOf(OperationSystemException.class).hasRootCauseInstanceOf(IllegalStateException.class);
+        assertEquals(3, polls.get());
+        processExitPoller.waitForExit(1).toCompletableFuture().get(1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Test {@link PsAliveSampler#getCommand(String, int[], int)} lists all processes if there are too many waited ones.
+     */
+    @Test
+    void testPsAliveSamplerCommand() {
+        assertThat(PsAliveSampler.getCommand("s", new int[]{10, 20, 30}, 2)).containsExactly("ps", "-o", "pid=", "-o", "s=", "-p", "10,20");
+        assertThat(PsAliveSampler.getCommand(null, new int[PsAliveSampler.MAX_PID_LIST_SIZE + 1], PsAliveSampler.MAX_PID_LIST_SIZE + 1)).containsExactly("ps", "-o", "pid=", "-A");
+    }
+}
@@ -0,0 +1,86 @@
+package com.platformlib.os.core.osi;
+
+import com.platformlib.os.api.exception.OperationSystemException;
+import com.platformlib.os.api.osi.OsProcess;
+import com.platformlib.os.core.bean.OsProcessBean;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProcessOutputVisitorTest {
+    private static final Pattern HEADER_PATTERN = Pattern.compile("PID\\s+PPID");
+
+    private static OsProcess parseLine(final String line) {
+        final String[] parts = line.trim().split("\\s+");
+        return new OsProcessBean(null, Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+    }
+
+    /**
+     * Test every line is delivered as parsed process and the blank lines are skipped.
+     */
+    @Test
+    void testVisit() {
+        final List<OsProcess> processes = new ArrayList<>();
+        final ProcessOutputVisitor processOutputVisitor = new ProcessOutputVisitor("ps", HEADER_PATTERN, ProcessOutputVisitorTest::parseLine, processes::add);
+        processOutputVisitor.accept("");
+        processOutputVisitor.accept("  PID  PPID");
+        processOutputVisitor.accept("    1     0");
+        processOutputVisitor.accept("\r");
+        processOutputVisitor.accept("   42     1");
+        processOutputVisitor.complete(0, Collections.emptyList());
+        assertThat(processes).extracting(OsProcess::getProcessId).containsExactly(1, 42);
+        assertThat(processes.get(1).getParentProcessId()).contains(1);
+    }
+
+    /**
+     * Test the lines are not parsed once the visitor stops the enumeration.
+     */
+    @Test
+    void testEarlyStop() {
+        final List<String> parsedLines = new ArrayList<>();
+        final ProcessOutputVisitor processOutputVisitor = new ProcessOutputVisitor("ps", HEADER_PATTERN, line -> {
+            parsedLines.add(line);
+            return parseLine(line);
+        }, osProcess -> osProcess.getProcessId() != 2);
+        processOutputVisitor.accept("PID PPID");
+        for (int pid = 1; pid < 10; pid++) {
+            processOutputVisitor.accept(pid + " 0");
+        }
+        processOutputVisitor.complete(0, Collections.emptyList());
+        assertThat(parsedLines).containsExactly("1 0", "2 0");
+    }
+
+    /**
+     * Test the empty output is an empty enumeration and the failures are thrown on completion.
+     */
+    @Test
+    void testFailures() {
+        final List<OsProcess> processes = new ArrayList<>();
+        new ProcessOutputVisitor("ps", HEADER_PATTERN, ProcessOutputVisitorTest::parseLine, processes::add).complete(0, Collections.emptyList());
+        assertThat(processes).isEmpty();
+
+        final ProcessOutputVisitor nonZeroExitCode = new ProcessOutputVisitor("ps", HEADER_PATTERN, ProcessOutputVisitorTest::parseLine, processes::add);
+        assertThrows(OperationSystemException.class, () -> nonZeroExitCode.complete(1, Collections.singletonList("ps: error")));
+
+        final ProcessOutputVisitor nonStandardHeader = new ProcessOutputVisitor("ps", HEADER_PATTERN, ProcessOutputVisitorTest::parseLine, processes::add);
+        nonStandardHeader.accept("USER PID");
+        nonStandardHeader.accept("1 0");
+        assertThrows(OperationSystemException.class, () -> nonStandardHeader.complete(0, Collections.emptyList()));
+
+        final ProcessOutputVisitor failedVisitor = new ProcessOutputVisitor("ps", HEADER_PATTERN, ProcessOutputVisitorTest::parseLine, osProcess -> {
+            throw new IllegalStateException("Visitor failure");
+        });
+        failedVisitor.accept("PID PPID");
+        failedVisitor.accept("1 0");
+        failedVisitor.accept("2 0");
+        assertEquals("Visitor failure", assertThrows(IllegalStateException.class, () -> failedVisitor.complete(0, Collections.emptyList())).getMessage());
+        assertThat(processes).isEmpty();
+    }
+}
@@ -0,0 +1,57 @@
+package com.platformlib.os.core.osi;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProcessTreeIndexTest {
+    /**
+     * Test {@link ProcessTreeIndex#descendantsOf(int)}.
+     */
+    @Test
+    void testDescendantsOf() {
+        final ProcessTreeIndex processTreeIndex = ProcessTreeIndex.of(new int[]{1, 10, 11, 12, 20, 21, 30}, new int[]{0, 1, 10, 10, 1, 20, 30});
+        assertEquals(7, processTreeIndex.size());
+        assertTrue(processTreeIndex.contains(21));
+        assertFalse(processTreeIndex.contains(0));
+        assertThat(processTreeIndex.descendantsOf(1)).containsExactly(10, 20, 11, 12, 21);
+        assertThat(processTreeIndex.descendantsOf(10)).containsExactly(11, 12);
+        assertThat(processTreeIndex.descendantsOf(12)).isEmpty();
+        assertThat(processTreeIndex.descendantsOf(30)).isEmpty();
+        assertThat(processTreeIndex.descendantsOf(999)).isEmpty();
+    }
+
+    /**
+     * Test {@link ProcessTreeIndex#descendantsOf(int)} doesn't fail on deep trees.
+     */
+    @Test
+    void testDeepTree() {
+        final int depth = 500_000;
+        final int[] pids = new int[depth];
+        final int[] ppids = new int[depth];
+        for (int i = 0; i < depth; i++) {
+            pids[i] = i + 1;
+            ppids[i] = i;
+        }
+        final int[] descendants = ProcessTreeIndex.of(pids, ppids).descendantsOf(1);
+        assertEquals(depth - 1, descendants.length);
+        assertEquals(depth, descendants[depth - 2]);
+    }
+
+    /**
+     * Test {@link ProcessTreeIndex#descendantsOf(int)} for the cycle caused by pid reuse.
+     */
+    @Test
+    void testCycle() {
+        assertThat(ProcessTreeIndex.of(new int[]{5, 6, 7}, new int[]{7, 5, 6}).descendantsOf(5)).containsExactly(6, 7);
+    }
+
+    @Test
+    void testDifferentSizes() {
+        assertThrows(IllegalArgumentException.class, () -> ProcessTreeIndex.of(new int[]{1}, new int[0]));
+    }
+}
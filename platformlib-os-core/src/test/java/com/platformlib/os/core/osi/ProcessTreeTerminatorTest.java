@@ -0,0 +1,100 @@
+package com.platformlib.os.core.osi;
+
+import com.platformlib.os.api.osi.OsProcessTermination;
+import com.platformlib.os.api.osi.OsProcessTerminationPolicy;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProcessTreeTerminatorTest {
+    private static final ProcessTreeIndex PROCESS_TREE = ProcessTreeIndex.of(new int[]{1, 10, 11, 12, 20, 21, 30}, new int[]{0, 1, 10, 10, 1, 20, 1});
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    /**
+     * Emulation of processes which exit on terminate unless they ignore it and exit on kill unless they are not permitted to be killed.
+     */
+    private static final class EmulatedProcesses {
+        private final Set<Integer> running = new HashSet<>(Arrays.asList(1, 10, 11, 12, 20, 21, 30));
+        private final Set<Integer> ignoringTerminate = new HashSet<>();
+        private final Set<Integer> notPermitted = new HashSet<>();
+        private final List<String> calls = new ArrayList<>();
+
+        private ProcessTreeTerminator terminator() {
+            return new ProcessTreeTerminator((pids, count) -> signal("TERM", pids, count, ignoringTerminate), (pids, count) -> signal("KILL", pids, count, notPermitted),
+                    (pids, count, aliveProcesses) -> {
+                        calls.add("sample " + count);
+                        for (int i = 0; i < count; i++) {
+                            if (running.contains(pids[i])) {
+                                aliveProcesses.put(pids[i], -1);
+                            }
+                        }
+                    });
+        }
+
+        private void signal(final String signal, final int[] pids, final int count, final Set<Integer> survivors) {
+            calls.add(signal + " " + Arrays.toString(Arrays.copyOf(pids, count)));
+            for (int i = 0; i < count; i++) {
+                if (!survivors.contains(pids[i])) {
+                    running.remove(pids[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Test the survivors of the graceful termination are killed and every phase is one signal call for all processes.
+     */
+    @Test
+    void testGracefulTermination() {
+        final EmulatedProcesses emulatedProcesses = new EmulatedProcesses();
+        emulatedProcesses.ignoringTerminate.addAll(Arrays.asList(11, 21));
+        emulatedProcesses.notPermitted.add(21);
+        final OsProcessTermination termination = emulatedProcesses.terminator().terminate(PROCESS_TREE, Arrays.asList(10, 20, 10, 99),
+                OsProcessTerminationPolicy.graceful(Duration.ofMillis(100)).withPollInterval(POLL_INTERVAL));
+        assertThat(termination.getOutcomes().keySet()).containsExactly(10, 20, 99, 11, 12, 21);
+        assertThat(termination.getProcessIds(OsProcessTermination.Outcome.TERMINATED)).containsExactly(10, 20, 12);
+        assertThat(termination.getProcessIds(OsProcessTermination.Outcome.KILLED)).containsExactly(11);
+        assertThat(termination.getProcessIds(OsProcessTermination.Outcome.SURVIVED)).containsExactly(21);
+        assertThat(termination.getProcessIds(OsProcessTermination.Outcome.NOT_FOUND)).containsExactly(99);
+        assertThat(termination.getDuration()).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+        assertThat(emulatedProcesses.calls).startsWith("TERM [10, 20, 11, 12, 21]", "sample 5", "sample 2").contains("KILL [11, 21]").endsWith("sample 1");
+        assertThat(emulatedProcesses.running).containsExactlyInAnyOrder(1, 21, 30);
+    }
+
+    /**
+     * Test the immediate termination of roots only doesn't ask the processes to terminate.
+     */
+    @Test
+    void testImmediateTerminationOfRoots() {
+        final EmulatedProcesses emulatedProcesses = new EmulatedProcesses();
+        final OsProcessTermination termination = emulatedProcesses.terminator().terminate(PROCESS_TREE, Arrays.asList(10, 30),
+                OsProcessTerminationPolicy.immediate().withDescendants(false));
+        assertThat(termination.getProcessIds(OsProcessTermination.Outcome.KILLED)).containsExactly(10, 30);
+        assertThat(emulatedProcesses.calls).containsExactly("KILL [10, 30]", "sample 2");
+    }
+
+    /**
+     * Test the survivors are left running if the policy doesn't kill them.
+     */
+    @Test
+    void testSurvivorsNotKilled() {
+        final EmulatedProcesses emulatedProcesses = new EmulatedProcesses();
+        emulatedProcesses.ignoringTerminate.add(1);
+        final OsProcessTermination termination = emulatedProcesses.terminator().terminate(PROCESS_TREE, Arrays.asList(1),
+                OsProcessTerminationPolicy.graceful(Duration.ofMillis(50)).withPollInterval(POLL_INTERVAL).withKillSurvivors(false));
+        assertEquals(OsProcessTermination.Outcome.SURVIVED, termination.getOutcomes().get(1));
+        assertThat(termination.getProcessIds(OsProcessTermination.Outcome.TERMINATED)).containsExactly(10, 20, 30, 11, 12, 21);
+        assertThat(emulatedProcesses.calls).noneMatch(call -> call.startsWith("KILL"));
+        assertThrows(IllegalArgumentException.class, () -> OsProcessTerminationPolicy.graceful(Duration.ofSeconds(-1)));
+        assertThrows(IllegalArgumentException.class, () -> OsProcessTerminationPolicy.immediate().withPollInterval(Duration.ZERO));
+    }
+}
@@ -0,0 +1,105 @@
+package com.platformlib.os.core.osi;
+
+import com.platformlib.os.api.exception.OperationSystemException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PsMetricsParserTest {
+    private static final Instant SNAPSHOT_TIME = Instant.parse("2024-01-02T03:04:05Z");
+
+    /**
+     * Test {@link PsMetricsParser#parseDurationMillis(String)}.
+     */
+    @Test
+    void testParseDurationMillis() {
+        assertEquals(5_000L, PsMetricsParser.parseDurationMillis("00:05"));
+        assertEquals(250L, PsMetricsParser.parseDurationMillis("0:00.25"));
+        assertEquals(3_723_000L, PsMetricsParser.parseDurationMillis("01:02:03"));
+        assertEquals(93_784_000L, PsMetricsParser.parseDurationMillis("1-02:03:04"));
+        assertEquals(61_120L, PsMetricsParser.parseDurationMillis("1:01.12"));
+    }
+
+    /**
+     * Test {@link PsMetricsParser#parseDurationMillis(CharSequence, int, int)}.
+     */
+    @Test
+    void testParseDurationRange() {
+        final String line = "  4242    02:03:04 ";
+        assertEquals(7_384_000L, PsMetricsParser.parseDurationMillis(line, 10, 18));
+        assertThrows(NumberFormatException.class, () -> PsMetricsParser.parseDurationMillis(line, 0, 18));
+        assertThrows(NumberFormatException.class, () -> PsMetricsParser.parseDurationMillis(line, 10, 10));
+    }
+
+    /**
+     * Test {@link PsMetricsParser#toStartTimeMillis(long, long)} of overflowed elapsed time.
+     */
+    @Test
+    void testOverflowedElapsedTime() {
+        final long snapshotMillis = SNAPSHOT_TIME.toEpochMilli();
+        assertEquals(snapshotMillis - 1000, PsMetricsParser.toStartTimeMillis(snapshotMillis, 1000));
+        assertEquals(snapshotMillis, PsMetricsParser.toStartTimeMillis(snapshotMillis, PsMetricsParser.parseDurationMillis("441077234-00:18:40")));
+    }
+
+    /**
+     * Test ps lines with all columns are added to the table.
+     */
+    @Test
+    void testParseLines() {
+        final PsMetricsParser psMetricsParser = new PsMetricsParser(new String[]{"s", "nlwp", null}, SNAPSHOT_TIME);
+        assertThat(psMetricsParser.getCommand()).containsExactly("ps", "-A", "-o", "pid=", "-o", "ppid=", "-o", "s=", "-o", "nlwp=", "-o", "time=",
+                "-o", "rss=", "-o", "vsz=", "-o", "etime=", "-o", "args=");
+        psMetricsParser.accept("    1     0 S    1 00:00:02  1024  2048 1-00:00:00 /sbin/init splash");
+        psMetricsParser.accept("");
+        psMetricsParser.accept("  42     1 R   12 01:02:03     -     - 00:10 java -jar  app.jar");
+        final ProcessMetricsTable processMetricsTable = psMetricsParser.build(0);
+        assertEquals(SNAPSHOT_TIME, processMetricsTable.getTime());
+        assertEquals(2, processMetricsTable.size());
+        final int index = processMetricsTable.indexOf(1);
+        assertEquals(0, processMetricsTable.getParentProcessId(index));
+        assertEquals('S', processMetricsTable.getState(index));
+        assertEquals(1, processMetricsTable.getThreadCount(index));
+        assertEquals(-1, processMetricsTable.getUserCpuTimeMillis(index));
+        assertEquals(-1, processMetricsTable.getSystemCpuTimeMillis(index));
+        assertEquals(2_000L, processMetricsTable.getCpuTimeMillis(index));
+        assertEquals(1024L * 1024, processMetricsTable.getResidentSetSize(index));
+        assertEquals(2048L * 1024, processMetricsTable.getVirtualSize(index));
+        assertEquals(SNAPSHOT_TIME.minusSeconds(86_400).toEpochMilli(), processMetricsTable.getStartTimeMillis(index));
+        assertEquals("/sbin/init splash", processMetricsTable.getCommandLine(index));
+        final int javaIndex = processMetricsTable.indexOf(42);
+        assertEquals(1, processMetricsTable.getParentProcessId(javaIndex));
+        assertEquals(3_723_000L, processMetricsTable.getCpuTimeMillis(javaIndex));
+        assertEquals(-1, processMetricsTable.getResidentSetSize(javaIndex));
+        assertEquals("java -jar  app.jar", processMetricsTable.getCommandLine(javaIndex));
+        assertEquals(-1, processMetricsTable.indexOf(2));
+    }
+
+    /**
+     * Test the user CPU time column gives the system CPU time.
+     */
+    @Test
+    void testUserCpuTime() {
+        final PsMetricsParser psMetricsParser = new PsMetricsParser(new String[]{"state", null, "utime"}, SNAPSHOT_TIME);
+        psMetricsParser.accept("  7  1 Ss 0:01.50 0:02.00  16  32 00:01 /usr/sbin/syslogd");
+        final ProcessMetricsTable processMetricsTable = psMetricsParser.build(0);
+        assertEquals(-1, processMetricsTable.getThreadCount(0));
+        assertEquals(1_500L, processMetricsTable.getUserCpuTimeMillis(0));
+        assertEquals(500L, processMetricsTable.getSystemCpuTimeMillis(0));
+        assertEquals(2_000L, processMetricsTable.getCpuTimeMillis(0));
+    }
+
+    /**
+     * Test the unparsable line and the ps failure are reported on build.
+     */
+    @Test
+    void testFailure() {
+        final PsMetricsParser psMetricsParser = new PsMetricsParser(new String[3], SNAPSHOT_TIME);
+        psMetricsParser.accept("pid ppid");
+        assertThat(assertThrows(OperationSystemException.class, () -> psMetricsParser.build(0))).hasMessageContaining("pid ppid");
+        assertThrows(OperationSystemException.class, () -> new PsMetricsParser(new String[3], SNAPSHOT_TIME).build(1));
+    }
+}
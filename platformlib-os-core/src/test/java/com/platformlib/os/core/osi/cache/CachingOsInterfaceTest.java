@@ -0,0 +1,175 @@
+package com.platformlib.os.core.osi.cache;
+
+import com.platformlib.os.api.exception.OperationSystemException;
+import com.platformlib.os.api.exception.UnsupportedOperationSystemException;
+import com.platformlib.os.api.osi.AsyncOsInterface;
+import com.platformlib.os.api.osi.DiskSpaceInfo;
+import com.platformlib.os.api.osi.OsProcess;
+import com.platformlib.os.api.osi.OsProcessQuery;
+import com.platformlib.os.api.osi.posix.PosixOsInterface;
+import com.platformlib.os.core.bean.DiskSpaceInfoBean;
+import com.platformlib.os.core.bean.OsVersionBean;
+import com.platformlib.os.core.util.OsUtilities;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingOsInterfaceTest {
+    private static OsInterfaceCacheConfiguration configuration(final Duration ttl) {
+        final OsInterfaceCacheConfiguration configuration = new OsInterfaceCacheConfiguration();
+        configuration.setProcessesTtl(ttl);
+        configuration.setDiskSpaceInfoTtl(ttl);
+        return configuration;
+    }
+
+    /**
+     * Test {@link CachingOsInterface#getOsVersion()} is cached forever.
+     */
+    @Test
+    void testOsVersionIsCached() {
+        final PosixOsInterface posixOsInterface = Mockito.mock(PosixOsInterface.class);
+        when(posixOsInterface.getOsVersion()).thenReturn(new OsVersionBean(7, 9));
+        final CachingOsInterface cachingOsInterface = CachingOsInterface.of(posixOsInterface, configuration(Duration.ZERO));
+        assertThat(cachingOsInterface).isInstanceOf(PosixOsInterface.class);
+        assertEquals(7, cachingOsInterface.getOsVersion().getMajor());
+        assertEquals(7, cachingOsInterface.getOsVersion().getMajor());
+        verify(posixOsInterface, times(1)).getOsVersion();
+        assertEquals(1, cachingOsInterface.getHitCount());
+        assertEquals(1, cachingOsInterface.getMissCount());
+    }
+
+    /**
+     * Test {@link CachingOsInterface#getDiskSpaceInfo(String)} is cached per file for time to live.
+     */
+    @Test
+    void testDiskSpaceInfoTtl() throws InterruptedException {
+        final PosixOsInterface posixOsInterface = Mockito.mock(PosixOsInterface.class);
+        final DiskSpaceInfo diskSpaceInfo = new DiskSpaceInfoBean(2, 1);
+        when(posixOsInterface.getDiskSpaceInfo(Mockito.anyString())).thenReturn(diskSpaceInfo);
+        final CachingOsInterface cachingOsInterface = CachingOsInterface.of(posixOsInterface, configuration(Duration.ofMillis(200)));
+        assertSame(diskSpaceInfo, cachingOsInterface.getDiskSpaceInfo("/"));
+        assertSame(diskSpaceInfo, cachingOsInterface.getDiskSpaceInfo("/"));
+        cachingOsInterface.getDiskSpaceInfo("/tmp");
+        verify(posixOsInterface, times(1)).getDiskSpaceInfo("/");
+        verify(posixOsInterface, times(1)).getDiskSpaceInfo("/tmp");
+        TimeUnit.MILLISECONDS.sleep(300);
+        cachingOsInterface.getDiskSpaceInfo("/");
+        verify(posixOsInterface, times(2)).getDiskSpaceInfo("/");
+    }
+
+    /**
+     * Test the asynchronous methods are not supported if the decorated OS interface is not asynchronous.
+     */
+    @Test
+    void testAsyncIsNotSupported() {
+        final CachingOsInterface cachingOsInterface = CachingOsInterface.of(Mockito.mock(PosixOsInterface.class), configuration(Duration.ZERO));
+        assertThrows(UnsupportedOperationSystemException.class, () -> OsUtilities.join(cachingOsInterface.getOsVersionAsync()));
+        assertThrows(UnsupportedOperationSystemException.class, () -> OsUtilities.join(cachingOsInterface.getOsProcessesAsync(OsProcessQuery.all())));
+        assertThrows(UnsupportedOperationSystemException.class, () -> OsUtilities.join(cachingOsInterface.getSystemMetricsAsync()));
+        assertThrows(UnsupportedOperationSystemException.class, () -> OsUtilities.join(cachingOsInterface.killAsync(1)));
+    }
+
+    /**
+     * Test concurrent {@link CachingOsInterface#getOsProcesses()} callers share one in-flight call.
+     */
+    @Test
+    void testSingleFlight() throws Exception {
+        final int callers = 8;
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final PosixOsInterface posixOsInterface = Mockito.mock(PosixOsInterface.class);
+        when(posixOsInterface.getOsProcesses()).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return Collections.<OsProcess>emptyList();
+        });
+        final CachingOsInterface cachingOsInterface = CachingOsInterface.of(posixOsInterface, configuration(Duration.ZERO));
+        final ExecutorService executorService = Executors.newFixedThreadPool(callers);
+        try {
+            final List<Future<Collection<OsProcess>>> futures = new ArrayList<>();
+            futures.add(executorService.submit(() -> cachingOsInterface.getOsProcesses()));
+            started.await();
+            for (int i = 1; i < callers; i++) {
+                futures.add(executorService.submit(() -> cachingOsInterface.getOsProcesses()));
+            }
+            while (cachingOsInterface.getHitCount() < callers - 1) {
+                TimeUnit.MILLISECONDS.sleep(1);
+            }
+            release.countDown();
+            for (final Future<Collection<OsProcess>> future : futures) {
+                assertThat(future.get()).isEmpty();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        verify(posixOsInterface, times(1)).getOsProcesses();
+        //Zero time to live shares in-flight calls only
+        cachingOsInterface.getOsProcesses();
+        verify(posixOsInterface, times(2)).getOsProcesses();
+    }
+
+    /**
+     * Test failures are not cached and kill drops cached processes.
+     */
+    @Test
+    void testInvalidation() {
+        final PosixOsInterface posixOsInterface = Mockito.mock(PosixOsInterface.class);
+        when(posixOsInterface.getOsProcesses()).thenThrow(new OperationSystemException("ps failed")).thenReturn(Collections.emptyList());
+        final CachingOsInterface cachingOsInterface = CachingOsInterface.of(posixOsInterface, configuration(Duration.ofHours(1)));
+        assertThrows(OperationSystemException.class, cachingOsInterface::getOsProcesses);
+        cachingOsInterface.getOsProcesses();
+        cachingOsInterface.getOsProcesses();
+        verify(posixOsInterface, times(2)).getOsProcesses();
+        cachingOsInterface.kill(1);
+        cachingOsInterface.getOsProcesses();
+        verify(posixOsInterface, times(3)).getOsProcesses();
+    }
+
+    /**
+     * Test asynchronous and blocking callers share the in-flight call and the cached value, failed stages are not cached.
+     */
+    @Test
+    void testAsync() {
+        final PosixOsInterface posixOsInterface = Mockito.mock(PosixOsInterface.class, Mockito.withSettings().extraInterfaces(AsyncOsInterface.class));
+        final AsyncOsInterface asyncOsInterface = (AsyncOsInterface) posixOsInterface;
+        final CompletableFuture<Collection<OsProcess>> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new OperationSystemException("ps failed"));
+        final CompletableFuture<Collection<OsProcess>> inFlight = new CompletableFuture<>();
+        when(asyncOsInterface.getOsProcessesAsync()).thenReturn(failed, inFlight);
+        final CachingOsInterface cachingOsInterface = CachingOsInterface.of(posixOsInterface, configuration(Duration.ofHours(1)));
+        assertThrows(OperationSystemException.class, () -> OsUtilities.join(cachingOsInterface.getOsProcessesAsync()));
+        final CompletionStage<Collection<OsProcess>> first = cachingOsInterface.getOsProcessesAsync();
+        final CompletionStage<Collection<OsProcess>> second = cachingOsInterface.getOsProcessesAsync();
+        assertThat(first.toCompletableFuture()).isNotDone();
+        inFlight.complete(Collections.emptyList());
+        assertThat(first.toCompletableFuture().join()).isEmpty();
+        assertThat(second.toCompletableFuture().join()).isEmpty();
+        assertThat(cachingOsInterface.getOsProcesses()).isEmpty();
+        verify(asyncOsInterface, times(2)).getOsProcessesAsync();
+        verify(posixOsInterface, times(0)).getOsProcesses();
+        when(asyncOsInterface.killAsync(1)).thenReturn(CompletableFuture.completedFuture(0));
+        assertEquals(0, cachingOsInterface.killAsync(1).toCompletableFuture().join().intValue());
+        cachingOsInterface.getOsProcessesAsync();
+        verify(asyncOsInterface, times(3)).getOsProcessesAsync();
+    }
+}
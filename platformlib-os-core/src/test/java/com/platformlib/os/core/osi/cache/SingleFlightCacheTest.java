@@ -0,0 +1,63 @@
+package com.platformlib.os.core.osi.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightCacheTest {
+    private static void awaitCount(final LongAdder counter, final long count) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (counter.sum() != count && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(count, counter.sum());
+    }
+
+    /**
+     * Test the loader error is rethrown to the waiting callers and is not cached.
+     */
+    @Test
+    void testLoaderError() throws Exception {
+        final LongAdder hits = new LongAdder();
+        final SingleFlightCache<String, String> singleFlightCache = new SingleFlightCache<>(null, hits, new LongAdder());
+        final CountDownLatch loadStarted = new CountDownLatch(1);
+        final CountDownLatch loadFailure = new CountDownLatch(1);
+        final CompletableFuture<String> loader = CompletableFuture.supplyAsync(() -> singleFlightCache.get("key", key -> {
+            loadStarted.countDown();
+            try {
+                loadFailure.await();
+            } catch (final InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new AssertionError("Load failure");
+        }));
+        assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+        final CompletableFuture<String> waiter = CompletableFuture.supplyAsync(() -> singleFlightCache.get("key", key -> "unexpected load"));
+        awaitCount(hits, 1);
+        loadFailure.countDown();
+        assertTrue(assertThrows(ExecutionException.class, () -> loader.get(5, TimeUnit.SECONDS)).getCause() instanceof AssertionError);
+        assertTrue(assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS)).getCause() instanceof AssertionError);
+        assertEquals("value", singleFlightCache.get("key", key -> "value"));
+    }
+
+    /**
+     * Test the asynchronous loader error fails the stage and is not cached.
+     */
+    @Test
+    void testAsyncLoaderError() {
+        final SingleFlightCache<String, String> singleFlightCache = new SingleFlightCache<>(null, new LongAdder(), new LongAdder());
+        final CompletableFuture<String> failed = singleFlightCache.getAsync("key", key -> {
+            throw new AssertionError("Load failure");
+        }).toCompletableFuture();
+        assertTrue(assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS)).getCause() instanceof AssertionError);
+        assertEquals("value", singleFlightCache.getAsync("key", key -> CompletableFuture.completedFuture("value")).toCompletableFuture().join());
+    }
+}
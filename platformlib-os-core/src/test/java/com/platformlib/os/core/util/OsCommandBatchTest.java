@@ -0,0 +1,89 @@
+package com.platformlib.os.core.util;
+
+import com.platformlib.os.api.dto.OsCommandResult;
+import com.platformlib.os.api.exception.OperationSystemException;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class OsCommandBatchTest {
+    private static final String MARKER = "__marker__";
+
+    /**
+     * Test {@link OsCommandBatch#quote(String)}.
+     */
+    @Test
+    void testQuote() {
+        assertEquals("'it'\\''s $HOME'", new OsCommandBatch(MARKER, false).quote("it's $HOME"));
+        assertEquals("C:\\Windows", new OsCommandBatch(MARKER, true).quote("C:\\Windows"));
+        assertEquals("\"a & \\\"b\\\"\"", new OsCommandBatch(MARKER, true).quote("a & \"b\""));
+        assertEquals("\"\"", new OsCommandBatch(MARKER, true).quote(""));
+    }
+
+    /**
+     * Test {@link OsCommandBatch#parse(int, Iterable, Iterable)} for Windows cmd output.
+     */
+    @Test
+    void testParseWindowsOutput() {
+        final List<OsCommandResult> results = new OsCommandBatch(MARKER, true).parse(2,
+                Arrays.asList(MARKER + ":0:begin\r", "Microsoft Windows [Version 10.0.19045.3803]\r", "\r", MARKER + ":0:end:0\r", MARKER + ":1:begin\r", "\r", MARKER + ":1:end:1\r"),
+                Arrays.asList(MARKER + ":0:begin\r", "\r", MARKER + ":0:end\r", MARKER + ":1:begin\r", "Access is denied.\r", "\r", MARKER + ":1:end\r"));
+        assertEquals("Microsoft Windows [Version 10.0.19045.3803]\r", results.get(0).getStdOut());
+        assertEquals(0, results.get(0).getExitCode());
+        assertEquals("", results.get(1).getStdOut());
+        assertEquals("Access is denied.\r", results.get(1).getStdErr());
+        assertEquals(1, results.get(1).getExitCode());
+    }
+
+    /**
+     * Test {@link OsCommandBatch#parse(int, Iterable, Iterable)} fails if the shell is terminated.
+     */
+    @Test
+    void testParseTruncatedOutput() {
+        assertThrows(OperationSystemException.class, () -> new OsCommandBatch(MARKER, false).parse(2, Arrays.asList(MARKER + ":0:begin", "x", "", MARKER + ":0:end:0", MARKER + ":1:begin"), Collections.emptyList()));
+    }
+
+    /**
+     * Test {@link OsCommandBatch#toScript(List)} run by sh.
+     */
+    @Test
+    void testPosixScript() throws IOException, InterruptedException {
+        assumeTrue(Files.isExecutable(Paths.get("/bin/sh")));
+        final OsCommandBatch osCommandBatch = new OsCommandBatch(MARKER, false);
+        final List<List<String>> commands = Arrays.asList(
+                Arrays.asList("printf", "it's $HOME; `x`"),
+                Arrays.asList("sh", "-c", "echo out; echo err >&2; exit 7"),
+                Arrays.asList("printf", "a\\n\\n"),
+                Collections.singletonList("cat"));
+        final Process process = new ProcessBuilder("/bin/sh", "-c", osCommandBatch.toScript(commands)).start();
+        final List<String> stdOut;
+        final List<String> stdErr;
+        try (BufferedReader stdOutReader = new BufferedReader(new InputStreamReader(process.getInputStream(), Charset.defaultCharset()));
+             BufferedReader stdErrReader = new BufferedReader(new InputStreamReader(process.getErrorStream(), Charset.defaultCharset()))) {
+            stdOut = stdOutReader.lines().collect(Collectors.toList());
+            stdErr = stdErrReader.lines().collect(Collectors.toList());
+        }
+        process.waitFor();
+        final List<OsCommandResult> results = osCommandBatch.parse(commands.size(), stdOut, stdErr);
+        assertEquals("it's $HOME; `x`", results.get(0).getStdOut());
+        assertEquals(7, results.get(1).getExitCode());
+        assertEquals("out", results.get(1).getStdOut());
+        assertEquals("err", results.get(1).getStdErr());
+        assertEquals("a\n", results.get(2).getStdOut());
+        assertEquals("", results.get(3).getStdOut());
+        assertEquals(0, results.get(3).getExitCode());
+    }
+}
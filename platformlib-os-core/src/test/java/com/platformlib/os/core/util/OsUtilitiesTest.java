@@ -0,0 +1,45 @@
+package com.platformlib.os.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OsUtilitiesTest {
+    /**
+     * Test {@link OsUtilities#parseNullSeparatedEnvironment(String)}.
+     */
+    @Test
+    void testParseNullSeparatedEnvironment() {
+        final Map<String, String> environment = OsUtilities.parseNullSeparatedEnvironment("HOME=/home/user\u0000MULTI=line1\nline2=x\u0000EMPTY=\u0000");
+        assertEquals("/home/user", environment.get("HOME"));
+        assertEquals("line1\nline2=x", environment.get("MULTI"));
+        assertEquals("", environment.get("EMPTY"));
+        assertThat(environment).hasSize(3);
+        assertThrows(UnsupportedOperationException.class, () -> environment.put("A", "B"));
+    }
+
+    /**
+     * Test {@link OsUtilities#parseEnvironment(String, boolean)} for Windows set output.
+     */
+    @Test
+    void testParseWindowsEnvironment() {
+        final Map<String, String> environment = OsUtilities.parseEnvironment("ComSpec=C:\\Windows\\system32\\cmd.exe\r\nPath=C:\\Windows;C:\\Tools\r\n", true);
+        assertEquals("C:\\Windows;C:\\Tools", environment.get("PATH"));
+        assertEquals("C:\\Windows\\system32\\cmd.exe", environment.get("comspec"));
+    }
+
+    /**
+     * Test {@link OsUtilities#parseEnvironment(String, boolean)} for env output with multi-line value.
+     */
+    @Test
+    void testParsePosixEnvironment() {
+        final Map<String, String> environment = OsUtilities.parseEnvironment("A=1\nMULTI=line1\nline2\nB=2", false);
+        assertEquals("line1\nline2", environment.get("MULTI"));
+        assertEquals("2", environment.get("B"));
+        assertThat(environment.get("b")).isNull();
+    }
+}
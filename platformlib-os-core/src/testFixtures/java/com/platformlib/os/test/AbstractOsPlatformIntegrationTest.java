@@ -3,13 +3,20 @@ package com.platformlib.os.test;
 import com.platformlib.os.api.OsPlatform;
 import com.platformlib.os.api.enums.OperationSystem;
 import com.platformlib.os.api.enums.OsFamily;
+import com.platformlib.os.api.osi.DiskSpaceInfo;
+import com.platformlib.os.api.osi.OsProcess;
+import com.platformlib.os.api.osi.OsProcessQuery;
+import com.platformlib.process.api.ProcessInstance;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public abstract class AbstractOsPlatformIntegrationTest {
     abstract protected OsPlatform getOsPlatform();
@@ -71,4 +78,43 @@ public abstract class AbstractOsPlatformIntegrationTest {
     public void testGetEnvVariable() {
         osPlatformTest(osPlatform -> assertThat(osPlatform.getEnvVariable("PATH")).hasValue(System.getenv("PATH")));
     }
+
+    /**
+     * Test {@link com.platformlib.os.api.osi.OsInterface#getDiskSpaceInfo(String)}.
+     */
+    @Test
+    public void testGetDiskSpaceInfo() {
+        final DiskSpaceInfo diskSpaceInfo = osPlatformCall(osPlatform -> osPlatform.getOsInterface().getDiskSpaceInfo(System.getProperty("java.io.tmpdir")));
+        assertThat(diskSpaceInfo.getUsed()).isPositive();
+        assertThat(diskSpaceInfo.getAvailable()).isPositive();
+    }
+
+    /**
+     * Test {@link com.platformlib.os.api.osi.OsInterface#getOsProcesses(OsProcessQuery)} finds the process started by the platform by its parent and command name.
+     */
+    @Test
+    public void testGetOsProcessesByQuery() {
+        osPlatformTest(osPlatform -> {
+            assumeTrue(OsFamily.UNIX == osPlatform.getOsFamily());
+            final CompletableFuture<Integer> pidFuture = new CompletableFuture<>();
+            final CompletionStage<ProcessInstance> execution = osPlatform
+                    .newProcessBuilder()
+                    .stdOutConsumer(line -> pidFuture.complete(Integer.parseInt(line.trim())))
+                    .rawExecution()
+                    .build()
+                    .execute("/bin/sh", "-c", "echo $$; exec sleep 60");
+            execution.whenComplete((processInstance, throwable) -> pidFuture.completeExceptionally(new IllegalStateException("The sleep process has exited")));
+            final int pid = pidFuture.join();
+            try {
+                final OsProcess sleepProcess = osPlatform.getOsInterface().getOsProcesses().stream().filter(osProcess -> osProcess.getProcessId() == pid).findFirst().orElseThrow(IllegalStateException::new);
+                final OsProcessQuery query = OsProcessQuery.all()
+                        .withParentProcessId(sleepProcess.getParentProcessId().orElseThrow(IllegalStateException::new))
+                        .withCommandName("sleep");
+                assertThat(osPlatform.getOsInterface().getOsProcesses(query)).extracting(OsProcess::getProcessId).contains(pid);
+                assertThat(osPlatform.getOsInterface().getOsProcesses(OsProcessQuery.all().withCommandName("no-such-command"))).isEmpty();
+            } finally {
+                osPlatform.getOsInterface().kill(pid);
+            }
+        });
+    }
 }
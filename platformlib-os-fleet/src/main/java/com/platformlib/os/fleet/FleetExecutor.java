@@ -0,0 +1,313 @@
+package com.platformlib.os.fleet;
+
+import com.platformlib.os.api.OsPlatform;
+import com.platformlib.os.api.factory.OsPlatforms;
+import com.platformlib.os.fleet.configuration.FleetExecutorConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Executor of {@link FleetQuery} against many hosts.
+ * The queries are run with bounded global and per host parallelism, the hosts with pending queries are served round-robin, so a host with many queries doesn't hold back the others.
+ * The executor is shared by the submitted runs, so the bounds apply to all of them.
+ * Every query gets its own {@link OsPlatform} which is closed when the query is done, so the pooled SSH platforms are returned to the pool.
+ * The query running longer than timeout is completed as timed out, its slot is released, the query thread is interrupted and its platform is closed.
+ * The running query is reported as straggler when it runs longer than straggler factor times the median latency of the run, once at least half of the run is completed.
+ */
+public final class FleetExecutor implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FleetExecutor.class);
+    private static final long STRAGGLER_CHECK_INTERVAL_MILLIS = 100;
+
+    private final FleetExecutorConfiguration configuration;
+    private final Function<Object, ? extends OsPlatform> osPlatformFactory;
+    private final ExecutorService queryExecutor;
+    private final ScheduledExecutorService supervisor;
+    private final Map<String, Deque<Task<?>>> pendingTasks = new LinkedHashMap<>();
+    private final Map<String, Integer> hostRunningCounts = new HashMap<>();
+    private final Set<Task<?>> runningTasks = new LinkedHashSet<>();
+    private boolean closed;
+
+    /**
+     * Create fleet executor which creates OS platforms by {@link OsPlatforms#newOsPlatform(Object)}.
+     * @param configuration fleet executor configuration
+     */
+    public FleetExecutor(final FleetExecutorConfiguration configuration) {
+        this(configuration, OsPlatforms::newOsPlatform);
+    }
+
+    /**
+     * Default constructor.
+     * @param configuration fleet executor configuration
+     * @param osPlatformFactory OS platform factory of host specification
+     */
+    public FleetExecutor(final FleetExecutorConfiguration configuration, final Function<Object, ? extends OsPlatform> osPlatformFactory) {
+        if (configuration.getParallelism() < 1 || configuration.getHostParallelism() < 1 || configuration.getStragglerFactor() <= 1) {
+            throw new IllegalArgumentException("The parallelism and host parallelism should be positive and the straggler factor should be greater than 1");
+        }
+        this.configuration = configuration;
+        this.osPlatformFactory = osPlatformFactory;
+        final AtomicInteger threadCounter = new AtomicInteger();
+        //The threads of timed out queries could be blocked for a while, so the query threads are not limited by the pool
+        this.queryExecutor = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "fleet-query-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.supervisor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "fleet-supervisor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        supervisor.scheduleWithFixedDelay(this::detectStragglers, STRAGGLER_CHECK_INTERVAL_MILLIS, STRAGGLER_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Submit query against the hosts.
+     * @param hosts hosts to query, the hosts with the same name share per host parallelism
+     * @param query query
+     * @param <T> query result type
+     * @return Returns run of the query
+     */
+    public <T> FleetRun<T> submit(final Collection<FleetHost> hosts, final FleetQuery<T> query) {
+        final FleetRun<T> fleetRun = new FleetRun<>(this, hosts.size());
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("The fleet executor is closed");
+            }
+            for (final FleetHost host : hosts) {
+                pendingTasks.computeIfAbsent(host.getName(), name -> new ArrayDeque<>()).add(new Task<>(host, fleetRun, query));
+            }
+            dispatch();
+        }
+        return fleetRun;
+    }
+
+    /**
+     * Get number of running queries.
+     * @return Returns running query count
+     */
+    public synchronized int getRunningCount() {
+        return runningTasks.size();
+    }
+
+    /**
+     * Get number of queries waiting for a slot.
+     * @return Returns pending query count
+     */
+    public synchronized int getPendingCount() {
+        return pendingTasks.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    /**
+     * Cancel all runs and stop the executor.
+     */
+    @Override
+    public void close() {
+        final Set<FleetRun<?>> fleetRuns = new LinkedHashSet<>();
+        synchronized (this) {
+            closed = true;
+            runningTasks.forEach(task -> fleetRuns.add(task.fleetRun));
+            pendingTasks.values().forEach(tasks -> tasks.forEach(task -> fleetRuns.add(task.fleetRun)));
+        }
+        fleetRuns.forEach(this::cancel);
+        supervisor.shutdownNow();
+        queryExecutor.shutdownNow();
+    }
+
+    void cancel(final FleetRun<?> fleetRun) {
+        final List<Task<?>> cancelledTasks = new ArrayList<>();
+        synchronized (this) {
+            collectTasks(fleetRun, cancelledTasks);
+            cancelledTasks.removeIf(task -> !finish(task, FleetResult.Status.CANCELLED, null, null));
+        }
+        cancelledTasks.forEach(Task::abort);
+    }
+
+    private void collectTasks(final FleetRun<?> fleetRun, final List<Task<?>> tasksOfRun) {
+        for (final Iterator<Deque<Task<?>>> iterator = pendingTasks.values().iterator(); iterator.hasNext();) {
+            final Deque<Task<?>> tasks = iterator.next();
+            for (final Iterator<Task<?>> taskIterator = tasks.iterator(); taskIterator.hasNext();) {
+                final Task<?> task = taskIterator.next();
+                if (task.fleetRun == fleetRun) {
+                    taskIterator.remove();
+                    tasksOfRun.add(task);
+                }
+            }
+            if (tasks.isEmpty()) {
+                iterator.remove();
+            }
+        }
+        runningTasks.stream().filter(task -> task.fleetRun == fleetRun).forEach(tasksOfRun::add);
+    }
+
+    /**
+     * Start pending queries while there are free slots.
+     * The host which query is started is moved to the end of pending hosts.
+     */
+    private void dispatch() {
+        final int parallelism = configuration.getParallelism();
+        final List<Deque<Task<?>>> servedHosts = new ArrayList<>();
+        boolean started = true;
+        while (started && runningTasks.size() < parallelism && !pendingTasks.isEmpty()) {
+            started = false;
+            for (final Iterator<Map.Entry<String, Deque<Task<?>>>> iterator = pendingTasks.entrySet().iterator(); iterator.hasNext() && runningTasks.size() < parallelism;) {
+                final Map.Entry<String, Deque<Task<?>>> hostTasks = iterator.next();
+                if (hostRunningCounts.getOrDefault(hostTasks.getKey(), 0) >= configuration.getHostParallelism()) {
+                    continue;
+                }
+                start(hostTasks.getValue().poll());
+                started = true;
+                iterator.remove();
+                if (!hostTasks.getValue().isEmpty()) {
+                    servedHosts.add(hostTasks.getValue());
+                }
+            }
+            servedHosts.forEach(tasks -> pendingTasks.put(tasks.peek().host.getName(), tasks));
+            servedHosts.clear();
+        }
+    }
+
+    private void start(final Task<?> task) {
+        runningTasks.add(task);
+        hostRunningCounts.merge(task.host.getName(), 1, Integer::sum);
+        task.startNanos = System.nanoTime();
+        task.future = queryExecutor.submit(task);
+        task.timeout = supervisor.schedule(() -> timeout(task), configuration.getTimeout().toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Complete the query once and release its slot if it's running.
+     * @return Returns true if the query is completed by this call
+     */
+    private synchronized <T> boolean finish(final Task<T> task, final FleetResult.Status status, final T value, final Throwable error) {
+        if (task.done) {
+            return false;
+        }
+        task.done = true;
+        final Duration duration;
+        if (runningTasks.remove(task)) {
+            hostRunningCounts.computeIfPresent(task.host.getName(), (name, count) -> count == 1 ? null : count - 1);
+            task.timeout.cancel(false);
+            duration = Duration.ofNanos(System.nanoTime() - task.startNanos);
+        } else {
+            duration = Duration.ZERO;
+        }
+        task.fleetRun.onResult(new FleetResult<>(task.host, status, value, error, duration, task.straggler));
+        if (!closed) {
+            dispatch();
+        }
+        return true;
+    }
+
+    private void timeout(final Task<?> task) {
+        if (finish(task, FleetResult.Status.TIMED_OUT, null, new TimeoutException("The query is not completed in " + configuration.getTimeout()))) {
+            LOGGER.warn("The query of {} host is timed out after {}", task.host.getName(), configuration.getTimeout());
+            task.abort();
+        }
+    }
+
+    private synchronized void detectStragglers() {
+        final long now = System.nanoTime();
+        for (final Task<?> task : runningTasks) {
+            if (task.straggler) {
+                continue;
+            }
+            final long medianLatencyNanos = task.fleetRun.getMedianLatencyNanos();
+            if (medianLatencyNanos >= 0 && now - task.startNanos > medianLatencyNanos * configuration.getStragglerFactor()) {
+                task.straggler = true;
+                task.fleetRun.onStraggler(task.host);
+                LOGGER.warn("The query of {} host is a straggler, it has been running for {} ms, the median latency is {} ms",
+                        task.host.getName(), TimeUnit.NANOSECONDS.toMillis(now - task.startNanos), TimeUnit.NANOSECONDS.toMillis(medianLatencyNanos));
+            }
+        }
+    }
+
+    /**
+     * Query of one host. The fields except platform are guarded by the executor.
+     * @param <T> query result type
+     */
+    private final class Task<T> implements Runnable {
+        private final FleetHost host;
+        private final FleetRun<T> fleetRun;
+        private final FleetQuery<T> query;
+        private final AtomicBoolean platformClosed = new AtomicBoolean();
+        private volatile OsPlatform osPlatform;
+        private volatile boolean aborted;
+        private long startNanos;
+        private Future<?> future;
+        private ScheduledFuture<?> timeout;
+        private boolean done;
+        private boolean straggler;
+
+        Task(final FleetHost host, final FleetRun<T> fleetRun, final FleetQuery<T> query) {
+            this.host = host;
+            this.fleetRun = fleetRun;
+            this.query = query;
+        }
+
+        @Override
+        public void run() {
+            T value = null;
+            Throwable error = null;
+            try {
+                osPlatform = osPlatformFactory.apply(host.getSpecification());
+                if (aborted) {
+                    return;
+                }
+                value = query.query(osPlatform);
+            } catch (final Throwable throwable) {
+                LOGGER.debug("The query of {} host failed", host.getName(), throwable);
+                error = throwable;
+            } finally {
+                closePlatform();
+            }
+            finish(this, error == null ? FleetResult.Status.SUCCEEDED : FleetResult.Status.FAILED, value, error);
+        }
+
+        /**
+         * Interrupt the completed query and close its platform to unblock the query.
+         */
+        void abort() {
+            aborted = true;
+            if (future != null) {
+                future.cancel(true);
+            }
+            closePlatform();
+        }
+
+        private void closePlatform() {
+            final OsPlatform platform = osPlatform;
+            if (platform != null && platformClosed.compareAndSet(false, true)) {
+                try {
+                    platform.close();
+                } catch (final Exception exception) {
+                    LOGGER.debug("Fail to close OS platform of {} host", host.getName(), exception);
+                }
+            }
+        }
+    }
+}
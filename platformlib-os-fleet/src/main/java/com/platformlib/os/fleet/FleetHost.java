@@ -0,0 +1,48 @@
+package com.platformlib.os.fleet;
+
+import java.util.Objects;
+
+/**
+ * Host of the fleet.
+ * The host name is the key of per host parallelism, the specification is passed to the OS platform factory, for example {@link com.platformlib.os.api.factory.OsPlatforms#newOsPlatform(Object)}.
+ */
+public final class FleetHost {
+    private final String name;
+    private final Object specification;
+
+    private FleetHost(final String name, final Object specification) {
+        this.name = Objects.requireNonNull(name, "Host name is required");
+        this.specification = specification;
+    }
+
+    /**
+     * Create fleet host.
+     * @param name host name
+     * @param specification OS platform specification, for example SSH connection
+     * @return Returns fleet host
+     */
+    public static FleetHost of(final String name, final Object specification) {
+        return new FleetHost(name, specification);
+    }
+
+    /**
+     * Get host name.
+     * @return Returns host name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get OS platform specification.
+     * @return Returns specification
+     */
+    public Object getSpecification() {
+        return specification;
+    }
+
+    @Override
+    public String toString() {
+        return "FleetHost{" + name + '}';
+    }
+}
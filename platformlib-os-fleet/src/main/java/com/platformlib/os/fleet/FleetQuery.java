@@ -0,0 +1,31 @@
+package com.platformlib.os.fleet;
+
+import com.platformlib.os.api.OsPlatform;
+import com.platformlib.os.api.osi.OsInterface;
+
+import java.util.function.Function;
+
+/**
+ * Query which is run against every host of the fleet.
+ * @param <T> query result type
+ */
+@FunctionalInterface
+public interface FleetQuery<T> {
+
+    /**
+     * Run query.
+     * @param osPlatform OS platform of the host, it's closed by the fleet executor when the query is done
+     * @return Returns query result
+     */
+    T query(OsPlatform osPlatform);
+
+    /**
+     * Create query of OS interface, for example {@code FleetQuery.ofOsInterface(osi -> osi.getDiskSpaceInfo("/data"))}.
+     * @param function OS interface function
+     * @param <T> query result type
+     * @return Returns fleet query
+     */
+    static <T> FleetQuery<T> ofOsInterface(final Function<? super OsInterface, ? extends T> function) {
+        return osPlatform -> function.apply(osPlatform.getOsInterface());
+    }
+}
@@ -0,0 +1,60 @@
+package com.platformlib.os.fleet;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Report of the completed fleet run.
+ * @param <T> query result type
+ */
+public final class FleetReport<T> {
+    private final List<FleetResult<T>> results;
+    private final Duration duration;
+
+    FleetReport(final List<FleetResult<T>> results, final Duration duration) {
+        this.results = Collections.unmodifiableList(results);
+        this.duration = duration;
+    }
+
+    /**
+     * Get results of all hosts.
+     * @return Returns results in completion order
+     */
+    public List<FleetResult<T>> getResults() {
+        return results;
+    }
+
+    /**
+     * Get results of the given status.
+     * @param status completion status
+     * @return Returns results in completion order
+     */
+    public List<FleetResult<T>> getResults(final FleetResult.Status status) {
+        return results.stream().filter(result -> result.getStatus() == status).collect(Collectors.toList());
+    }
+
+    /**
+     * Get results of the queries which have been reported as stragglers.
+     * @return Returns straggler results in completion order
+     */
+    public List<FleetResult<T>> getStragglers() {
+        return results.stream().filter(FleetResult::isStraggler).collect(Collectors.toList());
+    }
+
+    /**
+     * Get time from the run submission to the last completion.
+     * @return Returns run duration
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    @Override
+    public String toString() {
+        return "FleetReport{hosts=" + results.size() + ", succeeded=" + getResults(FleetResult.Status.SUCCEEDED).size() + ", failed=" + getResults(FleetResult.Status.FAILED).size()
+                + ", timedOut=" + getResults(FleetResult.Status.TIMED_OUT).size() + ", cancelled=" + getResults(FleetResult.Status.CANCELLED).size()
+                + ", stragglers=" + getStragglers().size() + ", duration=" + duration + '}';
+    }
+}
@@ -0,0 +1,102 @@
+package com.platformlib.os.fleet;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Result of the query of one host.
+ * @param <T> query result type
+ */
+public final class FleetResult<T> {
+    /**
+     * Query completion status.
+     */
+    public enum Status {
+        /**
+         * The query returned value.
+         */
+        SUCCEEDED,
+        /**
+         * The query or OS platform creation failed.
+         */
+        FAILED,
+        /**
+         * The query has been running longer than timeout.
+         */
+        TIMED_OUT,
+        /**
+         * The run has been cancelled before the query completion.
+         */
+        CANCELLED
+    }
+
+    private final FleetHost host;
+    private final Status status;
+    private final T value;
+    private final Throwable error;
+    private final Duration duration;
+    private final boolean straggler;
+
+    FleetResult(final FleetHost host, final Status status, final T value, final Throwable error, final Duration duration, final boolean straggler) {
+        this.host = host;
+        this.status = status;
+        this.value = value;
+        this.error = error;
+        this.duration = duration;
+        this.straggler = straggler;
+    }
+
+    /**
+     * Get queried host.
+     * @return Returns host
+     */
+    public FleetHost getHost() {
+        return host;
+    }
+
+    /**
+     * Get completion status.
+     * @return Returns status
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Get query result.
+     * @return Returns query result if succeeded and not null
+     */
+    public Optional<T> getValue() {
+        return Optional.ofNullable(value);
+    }
+
+    /**
+     * Get query failure.
+     * @return Returns failure if failed
+     */
+    public Optional<Throwable> getError() {
+        return Optional.ofNullable(error);
+    }
+
+    /**
+     * Get time from the query start to its completion.
+     * @return Returns duration, zero if the query has not been started
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * Check if the query has been reported as straggler before its completion.
+     * @return Returns true if straggler
+     */
+    public boolean isStraggler() {
+        return straggler;
+    }
+
+    @Override
+    public String toString() {
+        return "FleetResult{host=" + host.getName() + ", status=" + status + ", duration=" + duration + (straggler ? ", straggler" : "")
+                + (error == null ? "" : ", error=" + error) + '}';
+    }
+}
@@ -0,0 +1,138 @@
+package com.platformlib.os.fleet;
+
+import com.platformlib.os.api.exception.OperationSystemException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Submitted fleet query run.
+ * The results are streamed in completion order, the report is completed when every host has the result.
+ * @param <T> query result type
+ */
+public final class FleetRun<T> {
+    private final FleetExecutor fleetExecutor;
+    private final int hostCount;
+    private final long startNanos = System.nanoTime();
+    private final BlockingQueue<FleetResult<T>> completedResults = new LinkedBlockingQueue<>();
+    private final AtomicInteger handedOutResults = new AtomicInteger();
+    private final CompletableFuture<FleetReport<T>> report = new CompletableFuture<>();
+    private final List<FleetResult<T>> results = new ArrayList<>();
+    private final List<FleetHost> stragglers = new ArrayList<>();
+    private final long[] latencies;
+    private int latencyCount;
+    private int medianLatencyOf;
+    private long medianLatencyNanos;
+
+    FleetRun(final FleetExecutor fleetExecutor, final int hostCount) {
+        this.fleetExecutor = fleetExecutor;
+        this.hostCount = hostCount;
+        this.latencies = new long[hostCount];
+        if (hostCount == 0) {
+            report.complete(new FleetReport<>(new ArrayList<>(), Duration.ZERO));
+        }
+    }
+
+    /**
+     * Get number of queried hosts.
+     * @return Returns host count
+     */
+    public int getHostCount() {
+        return hostCount;
+    }
+
+    /**
+     * Stream results in completion order, the stream blocks till the next result is available.
+     * Every result is handed out once, so the concurrent streams share the results.
+     * @return Returns stream of results
+     */
+    public Stream<FleetResult<T>> results() {
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<FleetResult<T>>(hostCount, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(final Consumer<? super FleetResult<T>> action) {
+                if (handedOutResults.getAndIncrement() >= hostCount) {
+                    return false;
+                }
+                try {
+                    action.accept(completedResults.take());
+                    return true;
+                } catch (final InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                    throw new OperationSystemException(interruptedException);
+                }
+            }
+        }, false);
+    }
+
+    /**
+     * Get run report.
+     * @return Returns stage of the report which is completed when every host has the result
+     */
+    public CompletionStage<FleetReport<T>> getReport() {
+        return report.thenApply(Function.identity());
+    }
+
+    /**
+     * Get hosts which queries have been reported as stragglers so far.
+     * @return Returns straggler hosts in detection order
+     */
+    public synchronized List<FleetHost> getStragglers() {
+        return new ArrayList<>(stragglers);
+    }
+
+    /**
+     * Cancel the run. The pending queries are not started, the running ones are interrupted and their platforms are closed.
+     */
+    public void cancel() {
+        fleetExecutor.cancel(this);
+    }
+
+    synchronized void onResult(final FleetResult<T> result) {
+        results.add(result);
+        if (result.getStatus() == FleetResult.Status.SUCCEEDED || result.getStatus() == FleetResult.Status.FAILED) {
+            latencies[latencyCount++] = result.getDuration().toNanos();
+        }
+        completedResults.add(result);
+        if (results.size() == hostCount) {
+            report.complete(new FleetReport<>(new ArrayList<>(results), Duration.ofNanos(System.nanoTime() - startNanos)));
+        }
+    }
+
+    synchronized void onStraggler(final FleetHost host) {
+        stragglers.add(host);
+    }
+
+    /**
+     * Get median latency of the completed queries.
+     * @return Returns median latency in nanoseconds, -1 if less than half of queries are completed
+     */
+    synchronized long getMedianLatencyNanos() {
+        if (latencyCount == 0 || latencyCount * 2 < hostCount) {
+            return -1;
+        }
+        if (medianLatencyOf != latencyCount) {
+            final long[] sortedLatencies = Arrays.copyOf(latencies, latencyCount);
+            Arrays.sort(sortedLatencies);
+            medianLatencyNanos = sortedLatencies[latencyCount / 2];
+            medianLatencyOf = latencyCount;
+        }
+        return medianLatencyNanos;
+    }
+
+    synchronized boolean isDone() {
+        return results.size() == hostCount;
+    }
+}
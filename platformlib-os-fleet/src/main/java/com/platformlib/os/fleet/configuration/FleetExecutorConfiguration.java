@@ -0,0 +1,98 @@
+package com.platformlib.os.fleet.configuration;
+
+import com.platformlib.os.core.util.OsUtilities;
+
+import java.time.Duration;
+
+/**
+ * Fleet executor configuration.
+ * The default values could be set via com.platformlib.os.fleet.* system properties or environment variables, the durations are in ISO-8601 format.
+ */
+public class FleetExecutorConfiguration {
+    private static final int DEFAULT_PARALLELISM = 32;
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(5);
+    private static final double DEFAULT_STRAGGLER_FACTOR = 3.0;
+
+    private int parallelism;
+    private int hostParallelism;
+    private Duration timeout;
+    private double stragglerFactor;
+
+    /**
+     * Default constructor.
+     * The parallelism is set by com.platformlib.os.fleet.parallelism property, 32 by default.
+     * The host parallelism is set by com.platformlib.os.fleet.host-parallelism property, 1 by default.
+     * The timeout is set by com.platformlib.os.fleet.timeout property, five minutes by default.
+     * The straggler factor is set by com.platformlib.os.fleet.straggler-factor property, 3.0 by default.
+     */
+    public FleetExecutorConfiguration() {
+        parallelism = OsUtilities.getOsProperty("fleet.parallelism").map(Integer::parseInt).orElse(DEFAULT_PARALLELISM);
+        hostParallelism = OsUtilities.getOsProperty("fleet.host-parallelism").map(Integer::parseInt).orElse(1);
+        timeout = OsUtilities.getOsProperty("fleet.timeout").map(Duration::parse).orElse(DEFAULT_TIMEOUT);
+        stragglerFactor = OsUtilities.getOsProperty("fleet.straggler-factor").map(Double::parseDouble).orElse(DEFAULT_STRAGGLER_FACTOR);
+    }
+
+    /**
+     * Get max number of queries running at the same time across all hosts.
+     * @return Returns parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Set max number of queries running at the same time across all hosts.
+     * @param parallelism parallelism
+     */
+    public void setParallelism(final int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Get max number of queries running against one host at the same time.
+     * @return Returns host parallelism
+     */
+    public int getHostParallelism() {
+        return hostParallelism;
+    }
+
+    /**
+     * Set max number of queries running against one host at the same time.
+     * @param hostParallelism host parallelism
+     */
+    public void setHostParallelism(final int hostParallelism) {
+        this.hostParallelism = hostParallelism;
+    }
+
+    /**
+     * Get time after which the running query is completed as timed out.
+     * @return Returns timeout
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Set time after which the running query is completed as timed out.
+     * @param timeout timeout
+     */
+    public void setTimeout(final Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Get ratio of the query running time to the median latency of the run above which the query is reported as straggler.
+     * @return Returns straggler factor
+     */
+    public double getStragglerFactor() {
+        return stragglerFactor;
+    }
+
+    /**
+     * Set ratio of the query running time to the median latency of the run above which the query is reported as straggler.
+     * @param stragglerFactor straggler factor, greater than 1
+     */
+    public void setStragglerFactor(final double stragglerFactor) {
+        this.stragglerFactor = stragglerFactor;
+    }
+}
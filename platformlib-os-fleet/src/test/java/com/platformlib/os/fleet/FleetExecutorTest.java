@@ -0,0 +1,161 @@
+package com.platformlib.os.fleet;
+
+import com.platformlib.os.api.OsPlatform;
+import com.platformlib.os.fleet.configuration.FleetExecutorConfiguration;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+
+class FleetExecutorTest {
+    private static FleetExecutorConfiguration configuration(final int parallelism, final int hostParallelism) {
+        final FleetExecutorConfiguration configuration = new FleetExecutorConfiguration();
+        configuration.setParallelism(parallelism);
+        configuration.setHostParallelism(hostParallelism);
+        return configuration;
+    }
+
+    private static List<FleetHost> hosts(final int count, final int queriesPerHost) {
+        final List<FleetHost> hosts = new ArrayList<>();
+        for (int i = 0; i < count * queriesPerHost; i++) {
+            hosts.add(FleetHost.of("host-" + i % count, i));
+        }
+        return hosts;
+    }
+
+    /**
+     * Test the global parallelism is not exceeded, the results are streamed and every platform is closed.
+     */
+    @Test
+    void testParallelismBounds() throws IOException {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final List<OsPlatform> osPlatforms = new ArrayList<>();
+        try (FleetExecutor fleetExecutor = new FleetExecutor(configuration(4, 2), specification -> {
+            final OsPlatform osPlatform = Mockito.mock(OsPlatform.class);
+            synchronized (osPlatforms) {
+                osPlatforms.add(osPlatform);
+            }
+            return osPlatform;
+        })) {
+            final FleetRun<Integer> fleetRun = fleetExecutor.submit(hosts(3, 4), osPlatform -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(20);
+                } catch (final InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                return running.decrementAndGet();
+            });
+            final List<FleetResult<Integer>> results = fleetRun.results().collect(Collectors.toList());
+            assertThat(results).hasSize(12).allMatch(result -> result.getStatus() == FleetResult.Status.SUCCEEDED && result.getValue().isPresent());
+            final Map<String, Long> resultsPerHost = results.stream().collect(Collectors.groupingBy(result -> result.getHost().getName(), Collectors.counting()));
+            assertThat(resultsPerHost).containsOnlyKeys("host-0", "host-1", "host-2").allSatisfy((host, count) -> assertEquals(4L, count));
+            assertEquals(12, fleetRun.getReport().toCompletableFuture().join().getResults(FleetResult.Status.SUCCEEDED).size());
+        }
+        assertThat(maxRunning.get()).isBetween(1, 4);
+        assertThat(osPlatforms).hasSize(12);
+        for (final OsPlatform osPlatform : osPlatforms) {
+            verify(osPlatform).close();
+        }
+    }
+
+    /**
+     * Test the host parallelism is not exceeded when all queries are against one host.
+     */
+    @Test
+    void testHostParallelism() {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        try (FleetExecutor fleetExecutor = new FleetExecutor(configuration(8, 2), specification -> Mockito.mock(OsPlatform.class))) {
+            final FleetReport<Integer> fleetReport = fleetExecutor.submit(hosts(1, 6), osPlatform -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(20);
+                } catch (final InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                return running.decrementAndGet();
+            }).getReport().toCompletableFuture().join();
+            assertEquals(6, fleetReport.getResults(FleetResult.Status.SUCCEEDED).size());
+        }
+        assertEquals(2, maxRunning.get());
+    }
+
+    /**
+     * Test the query running longer than timeout is completed as timed out, reported as straggler and its platform is closed.
+     */
+    @Test
+    void testTimeoutAndStraggler() throws IOException {
+        final FleetExecutorConfiguration configuration = configuration(8, 1);
+        configuration.setTimeout(Duration.ofMillis(500));
+        configuration.setStragglerFactor(2);
+        final OsPlatform slowOsPlatform = Mockito.mock(OsPlatform.class);
+        try (FleetExecutor fleetExecutor = new FleetExecutor(configuration, specification -> (Integer) specification == 0 ? slowOsPlatform : Mockito.mock(OsPlatform.class))) {
+            final FleetRun<String> fleetRun = fleetExecutor.submit(hosts(4, 1), osPlatform -> {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(osPlatform == slowOsPlatform ? TimeUnit.MINUTES.toMillis(1) : 50);
+                } catch (final InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                return "done";
+            });
+            final FleetReport<String> fleetReport = fleetRun.getReport().toCompletableFuture().join();
+            assertEquals(3, fleetReport.getResults(FleetResult.Status.SUCCEEDED).size());
+            final List<FleetResult<String>> timedOut = fleetReport.getResults(FleetResult.Status.TIMED_OUT);
+            assertThat(timedOut).hasSize(1);
+            assertEquals("host-0", timedOut.get(0).getHost().getName());
+            assertTrue(timedOut.get(0).isStraggler());
+            assertThat(timedOut.get(0).getError()).isPresent();
+            assertThat(fleetRun.getStragglers()).extracting(FleetHost::getName).containsExactly("host-0");
+            assertThat(fleetReport.getDuration()).isLessThan(Duration.ofSeconds(30));
+            assertEquals(0, fleetExecutor.getRunningCount());
+        }
+        verify(slowOsPlatform).close();
+    }
+
+    /**
+     * Test the cancelled run completes running and pending queries as cancelled and the failed platform creation is reported.
+     */
+    @Test
+    void testCancelAndFailure() {
+        try (FleetExecutor fleetExecutor = new FleetExecutor(configuration(1, 1), specification -> {
+            if ((Integer) specification < 0) {
+                throw new IllegalStateException("Unreachable host");
+            }
+            return Mockito.mock(OsPlatform.class);
+        })) {
+            final FleetReport<String> failedReport = fleetExecutor.submit(Collections.singletonList(FleetHost.of("unreachable", -1)), osPlatform -> "done").getReport().toCompletableFuture().join();
+            assertEquals(FleetResult.Status.FAILED, failedReport.getResults().get(0).getStatus());
+            assertThat(failedReport.getResults().get(0).getError()).containsInstanceOf(IllegalStateException.class);
+
+            final FleetRun<String> fleetRun = fleetExecutor.submit(hosts(3, 1), osPlatform -> {
+                try {
+                    TimeUnit.MINUTES.sleep(1);
+                } catch (final InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                return "done";
+            });
+            assertEquals(2, fleetExecutor.getPendingCount());
+            fleetRun.cancel();
+            final FleetReport<String> fleetReport = fleetRun.getReport().toCompletableFuture().join();
+            assertEquals(3, fleetReport.getResults(FleetResult.Status.CANCELLED).size());
+            assertEquals(0, fleetExecutor.getPendingCount());
+            assertEquals(0, fleetExecutor.getRunningCount());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.platformlib.os.fleet;
+
+import com.platformlib.os.api.osi.OsInterface;
+import com.platformlib.os.api.osi.OsUser;
+import com.platformlib.os.fleet.configuration.FleetExecutorConfiguration;
+import com.platformlib.process.core.MaskedPassword;
+import com.platformlib.process.ssh.SshConnection;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+import org.apache.sshd.server.shell.ProcessShellFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Query fleet of hosts which are emulated by local SSH servers on several ports, every command is delayed to emulate remote host latency.
+ */
+@DisabledOnOs(OS.WINDOWS)
+public class FleetSshIntegrationTest {
+    private static final int FIRST_LOCAL_SSH_PORT = 50040;
+    private static final int LOCAL_SSH_SERVERS = 4;
+    private static final int HOSTS = 16;
+    private static final String LOCAL_SSH_RANDOM_USERNAME = UUID.randomUUID().toString();
+    private static final String LOCAL_SSH_RANDOM_PASSWORD = UUID.randomUUID().toString();
+    private static final List<SshServer> SSH_SERVERS = new ArrayList<>();
+    @TempDir
+    static Path tempDir;
+
+    @BeforeAll
+    public static void startupLocalShhServers() throws IOException {
+        final Path hostKeyPath = tempDir.resolve("local-ssh-localhost.ser");
+        for (int i = 0; i < LOCAL_SSH_SERVERS; i++) {
+            final SshServer sshd = SshServer.setUpDefaultServer();
+            sshd.setPort(FIRST_LOCAL_SSH_PORT + i);
+            sshd.setPasswordAuthenticator((username, password, session) -> LOCAL_SSH_RANDOM_USERNAME.equals(username) && LOCAL_SSH_RANDOM_PASSWORD.equals(password));
+            sshd.setKeyPairProvider(new SimpleGeneratorHostKeyProvider(hostKeyPath));
+            sshd.setCommandFactory((channel, command) -> new ProcessShellFactory("/bin/bash", "/bin/bash", "-c", "sleep 0.1; " + command).createShell(channel));
+            sshd.start();
+            SSH_SERVERS.add(sshd);
+        }
+    }
+
+    @AfterAll
+    public static void shutdownLocalShhServers() throws IOException {
+        for (final SshServer sshd : SSH_SERVERS) {
+            sshd.stop();
+        }
+    }
+
+    private static FleetReport<OsUser> queryCurrentUser(final int parallelism) {
+        final List<FleetHost> hosts = new ArrayList<>();
+        for (int i = 0; i < HOSTS; i++) {
+            final SshConnection sshConnection = new SshConnection("localhost", LOCAL_SSH_RANDOM_USERNAME);
+            sshConnection.setPort(FIRST_LOCAL_SSH_PORT + i % LOCAL_SSH_SERVERS);
+            sshConnection.setUserPassword(MaskedPassword.of(LOCAL_SSH_RANDOM_PASSWORD));
+            hosts.add(FleetHost.of("host-" + i, sshConnection));
+        }
+        final FleetExecutorConfiguration configuration = new FleetExecutorConfiguration();
+        configuration.setParallelism(parallelism);
+        try (FleetExecutor fleetExecutor = new FleetExecutor(configuration)) {
+            return fleetExecutor.submit(hosts, FleetQuery.ofOsInterface(OsInterface::getCurrentUser)).getReport().toCompletableFuture().join();
+        }
+    }
+
+    /**
+     * Test the fleet query time goes down with parallelism.
+     */
+    @Test
+    void testScaling() {
+        final FleetReport<OsUser> sequentialReport = queryCurrentUser(1);
+        final FleetReport<OsUser> parallelReport = queryCurrentUser(HOSTS / 2);
+        assertEquals(HOSTS, sequentialReport.getResults(FleetResult.Status.SUCCEEDED).size(), sequentialReport::toString);
+        assertEquals(HOSTS, parallelReport.getResults(FleetResult.Status.SUCCEEDED).size(), parallelReport::toString);
+        final Duration parallelDuration = parallelReport.getDuration();
+        assertTrue(parallelDuration.multipliedBy(2).compareTo(sequentialReport.getDuration()) < 0, () -> "Sequential " + sequentialReport + ", parallel " + parallelReport);
+    }
+}
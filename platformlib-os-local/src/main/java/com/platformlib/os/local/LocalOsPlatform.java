@@ -3,16 +3,26 @@ package com.platformlib.os.local;
 import com.platformlib.os.api.OsPlatform;
 import com.platformlib.os.api.enums.OperationSystem;
 import com.platformlib.os.api.enums.OsFamily;
+import com.platformlib.os.api.exception.OperationSystemException;
+import com.platformlib.os.api.osi.DiskSpaceInfo;
 import com.platformlib.os.core.AbstractOsPlatform;
+import com.platformlib.os.core.bean.DiskSpaceInfoBean;
+import com.platformlib.os.core.util.OsUtilities;
 import com.platformlib.process.local.builder.LocalProcessBuilder;
 import com.platformlib.process.local.factory.LocalProcessBuilderFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.FileStore;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
+import java.nio.file.Files;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Operation system service.
@@ -77,13 +87,44 @@ public final class LocalOsPlatform extends AbstractOsPlatform implements OsPlatf
         return LocalProcessBuilderFactory.newLocalProcessBuilder();
     }
 
+    /**
+     * {@inheritDoc}
+     * The local disk space usage is always taken from {@link FileStore}, no df/wmic process is started.
+     */
+    @Override
+    public Optional<DiskSpaceInfo> getFileSystemDiskSpaceInfo(final String file) {
+        try {
+            final FileStore fileStore = Files.getFileStore(LOCAL_FILE_SYSTEM.getPath(file));
+            return Optional.of(new DiskSpaceInfoBean(fileStore.getTotalSpace() - fileStore.getUnallocatedSpace(), fileStore.getUsableSpace()));
+        } catch (final IOException ioException) {
+            throw new OperationSystemException(ioException);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The local {@link FileStore} is asked by the calling thread, the returned stage is already completed.
+     */
+    @Override
+    public CompletionStage<Optional<DiskSpaceInfo>> getFileSystemDiskSpaceInfoAsync(final String file) {
+        try {
+            return CompletableFuture.completedFuture(getFileSystemDiskSpaceInfo(file));
+        } catch (final OperationSystemException operationSystemException) {
+            return OsUtilities.failedFuture(operationSystemException);
+        }
+    }
+
     @Override
     public void close() {
         //Nothing to do
     }
 
+    /**
+     * {@inheritDoc}
+     * The local environment is taken from {@link System#getenv()}, no process is started.
+     */
     @Override
-    public Optional<String> getEnvVariable(final String osEnvVariable) {
-        return Optional.ofNullable(System.getenv(osEnvVariable));
+    protected Map<String, String> readEnvironment() {
+        return System.getenv();
     }
 }
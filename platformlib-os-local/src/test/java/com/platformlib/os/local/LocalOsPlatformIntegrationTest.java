@@ -1,8 +1,16 @@
 package com.platformlib.os.local;
 
 import com.platformlib.os.api.OsPlatform;
+import com.platformlib.os.api.enums.OsFamily;
 import com.platformlib.os.api.factory.OsPlatforms;
 import com.platformlib.os.test.AbstractOsPlatformIntegrationTest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public class LocalOsPlatformIntegrationTest extends AbstractOsPlatformIntegrationTest {
     @Override
@@ -10,4 +18,27 @@ public class LocalOsPlatformIntegrationTest extends AbstractOsPlatformIntegratio
         return OsPlatforms.getDefaultOsPlatform();
     }
 
+    /**
+     * Test {@link LocalOsPlatform#getFileSystemDiskSpaceInfo(String)} is faster than the df command and the asynchronous call is completed by the calling thread.
+     */
+    @Test
+    void testFileSystemDiskSpaceInfoIsFasterThanDf() {
+        final LocalOsPlatform localOsPlatform = OsPlatforms.getDefaultOsPlatform();
+        assumeTrue(OsFamily.UNIX == localOsPlatform.getOsFamily());
+        final String directory = System.getProperty("java.io.tmpdir");
+        assertTrue(localOsPlatform.getFileSystemDiskSpaceInfoAsync(directory).toCompletableFuture().isDone());
+        assertTrue(localOsPlatform.getAsyncOsInterface().getDiskSpaceInfoAsync(directory).toCompletableFuture().isDone());
+        final int callCount = 20;
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < callCount; i++) {
+            assertThat(localOsPlatform.getFileSystemDiskSpaceInfo(directory)).isPresent();
+        }
+        final long fileStoreNanos = System.nanoTime() - startNanos;
+        startNanos = System.nanoTime();
+        for (int i = 0; i < callCount; i++) {
+            assertThat(localOsPlatform.osCommand("df", "-k", "-P", directory)).isNotEmpty();
+        }
+        final long dfNanos = System.nanoTime() - startNanos;
+        assertTrue(fileStoreNanos < dfNanos, () -> "FileStore " + Duration.ofNanos(fileStoreNanos).toMillis() + " ms, df " + Duration.ofNanos(dfNanos).toMillis() + " ms of " + callCount + " calls");
+    }
 }
@@ -0,0 +1,146 @@
+package com.platformlib.os.ssh;
+
+import com.platformlib.os.ssh.configuration.SshAdaptiveLimitConfiguration;
+
+/**
+ * Additive increase, multiplicative decrease concurrency limit driven by command latency.
+ * The baseline latency follows the lowest smoothed latency, so a single fast command doesn't make the baseline. It slowly drifts up to the current one only if the limit is not saturated or it's the min limit,
+ * so the latency of a loaded host doesn't become a baseline while a changed command mix is still learned.
+ * The limit is increased by one after a limit worth of saturated samples while the smoothed latency stays within tolerance of the baseline,
+ * and it's multiplied by the backoff ratio when the smoothed latency rises or the server refuses a channel.
+ * Samples started before the last decrease don't decrease the limit again, so one overload burst is one backoff.
+ */
+public final class AdaptiveConcurrencyLimit {
+    private static final int BASELINE_DRIFT = 64;
+    private static final int SMOOTHING = 4;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private final double backoffRatio;
+    private int limit;
+    private int increaseCredit;
+    private long baselineLatencyNanos;
+    private long smoothedLatencyNanos;
+    private long lastDecreaseNanos;
+    private boolean decreased;
+    private long increaseCount;
+    private long decreaseCount;
+
+    /**
+     * Default constructor.
+     * @param configuration adaptive limit configuration
+     * @param maxChannels the server channel limit which caps the configured max limit, 0 if not known
+     */
+    public AdaptiveConcurrencyLimit(final SshAdaptiveLimitConfiguration configuration, final int maxChannels) {
+        if (configuration.getLatencyTolerance() <= 1 || configuration.getBackoffRatio() <= 0 || configuration.getBackoffRatio() >= 1) {
+            throw new IllegalArgumentException("The latency tolerance should be greater than 1 and the backoff ratio should be between 0 and 1");
+        }
+        this.maxLimit = Math.max(1, maxChannels > 0 ? Math.min(maxChannels, configuration.getMaxLimit()) : configuration.getMaxLimit());
+        this.minLimit = Math.max(1, Math.min(configuration.getMinLimit(), maxLimit));
+        this.latencyTolerance = configuration.getLatencyTolerance();
+        this.backoffRatio = configuration.getBackoffRatio();
+        this.limit = Math.max(minLimit, Math.min(configuration.getInitialLimit(), maxLimit));
+    }
+
+    /**
+     * Take command latency into account.
+     * @param startNanos {@link System#nanoTime()} of the command start
+     * @param latencyNanos command latency
+     * @param saturated true if the limit was reached while the command was running, the limit is not increased otherwise
+     * @return Returns new limit
+     */
+    public synchronized int onSample(final long startNanos, final long latencyNanos, final boolean saturated) {
+        smoothedLatencyNanos = smoothedLatencyNanos == 0 ? latencyNanos : smoothedLatencyNanos + (latencyNanos - smoothedLatencyNanos) / SMOOTHING;
+        if (baselineLatencyNanos == 0 || smoothedLatencyNanos < baselineLatencyNanos) {
+            baselineLatencyNanos = Math.max(1, smoothedLatencyNanos);
+        } else if (!saturated || limit == minLimit) {
+            baselineLatencyNanos += (smoothedLatencyNanos - baselineLatencyNanos) / BASELINE_DRIFT;
+        }
+        if (smoothedLatencyNanos > baselineLatencyNanos * latencyTolerance) {
+            if (!decreased || startNanos - lastDecreaseNanos > 0) {
+                decrease(startNanos + latencyNanos);
+            }
+        } else if (saturated && limit < maxLimit && ++increaseCredit >= limit) {
+            increaseCredit = 0;
+            limit++;
+            increaseCount++;
+        }
+        return limit;
+    }
+
+    /**
+     * Take the server refusal to open a channel into account.
+     * The refusals within the smoothed latency after the last decrease are considered as the same overload.
+     * @param nowNanos {@link System#nanoTime()} of the refusal
+     * @return Returns new limit
+     */
+    public synchronized int onOverload(final long nowNanos) {
+        if (!decreased || nowNanos - lastDecreaseNanos >= smoothedLatencyNanos) {
+            decrease(nowNanos);
+        }
+        return limit;
+    }
+
+    private void decrease(final long nowNanos) {
+        limit = Math.max(minLimit, (int) (limit * backoffRatio));
+        increaseCredit = 0;
+        lastDecreaseNanos = nowNanos;
+        decreased = true;
+        decreaseCount++;
+    }
+
+    /**
+     * Get current limit.
+     * @return Returns limit
+     */
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Get the highest limit.
+     * @return Returns max limit
+     */
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    /**
+     * Get baseline latency.
+     * @return Returns baseline latency in nanoseconds, 0 if there are no samples
+     */
+    public synchronized long getBaselineLatencyNanos() {
+        return baselineLatencyNanos;
+    }
+
+    /**
+     * Get smoothed latency.
+     * @return Returns smoothed latency in nanoseconds, 0 if there are no samples
+     */
+    public synchronized long getSmoothedLatencyNanos() {
+        return smoothedLatencyNanos;
+    }
+
+    /**
+     * Get number of limit increases.
+     * @return Returns increase count
+     */
+    public synchronized long getIncreaseCount() {
+        return increaseCount;
+    }
+
+    /**
+     * Get number of limit decreases.
+     * @return Returns decrease count
+     */
+    public synchronized long getDecreaseCount() {
+        return decreaseCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "AdaptiveConcurrencyLimit{limit=" + limit + ", baselineLatencyNanos=" + baselineLatencyNanos + ", smoothedLatencyNanos=" + smoothedLatencyNanos
+                + ", increases=" + increaseCount + ", decreases=" + decreaseCount + '}';
+    }
+}
@@ -0,0 +1,289 @@
+package com.platformlib.os.ssh;
+
+import com.platformlib.os.api.exception.OperationSystemException;
+import org.apache.sshd.client.channel.ChannelExec;
+import org.apache.sshd.client.channel.ChannelSubsystem;
+import org.apache.sshd.client.channel.ClientChannel;
+import org.apache.sshd.client.session.ClientSession;
+import org.apache.sshd.common.AttributeRepository;
+import org.apache.sshd.common.channel.Channel;
+import org.apache.sshd.common.channel.ChannelListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limiter of concurrently open client channels of one SSH session.
+ * The exec, shell and SFTP channel requests beyond the limit wait in FIFO order when the channel is initialized, before it's opened on the server,
+ * so a shared platform doesn't fail on the server MaxSessions limit.
+ * The permit is returned when the channel is closed. The long-lived channels, which are the exec channels marked by {@link #LONG_LIVED_CHANNEL} and the SFTP subsystem channels,
+ * return the permit as soon as they're opened, otherwise they would hold the permits of the command channels for the session lifetime.
+ * The channel request which doesn't get the permit within the wait timeout fails with {@link OperationSystemException}.
+ * The limit is driven by {@link AdaptiveConcurrencyLimit} if it's set: the exec channel lifetime after the permit is granted is taken as command latency
+ * and the server refusal to open a channel is taken as overload.
+ */
+public final class SshChannelLimiter implements ChannelListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SshChannelLimiter.class);
+    //The command waits for stdin which is never sent, so the probe channel stays open
+    private static final String PROBE_COMMAND = "cat";
+    private static final Duration DEFAULT_WAIT_TIMEOUT = Duration.ofMinutes(1);
+    /**
+     * Marker of long-lived exec channel which doesn't hold a permit once it's opened, the marker should be set before the channel is opened.
+     */
+    static final AttributeRepository.AttributeKey<Boolean> LONG_LIVED_CHANNEL = new AttributeRepository.AttributeKey<>();
+
+    private final ResizableSemaphore semaphore;
+    private final Map<Channel, Long> acquiredChannels = new ConcurrentHashMap<>();
+    private final AdaptiveConcurrencyLimit adaptiveLimit;
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder waitCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private volatile int limit;
+    private volatile Duration waitTimeout = DEFAULT_WAIT_TIMEOUT;
+
+    /**
+     * Default constructor.
+     * @param limit max number of concurrently open channels
+     */
+    public SshChannelLimiter(final int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("The channel limit should be positive: " + limit);
+        }
+        this.limit = limit;
+        this.semaphore = new ResizableSemaphore(limit);
+        this.adaptiveLimit = null;
+    }
+
+    /**
+     * Constructor of adaptive limiter.
+     * @param adaptiveLimit adaptive limit which drives max number of concurrently open channels
+     */
+    public SshChannelLimiter(final AdaptiveConcurrencyLimit adaptiveLimit) {
+        this.limit = adaptiveLimit.getLimit();
+        this.semaphore = new ResizableSemaphore(limit);
+        this.adaptiveLimit = adaptiveLimit;
+    }
+
+    /**
+     * Discover how many session channels the server allows by opening idle exec channels until the server refuses.
+     * All opened channels are closed before return, so the probe should be done before the limiter is installed to the session.
+     * @param clientSession client session
+     * @param maxProbe max number of channels to open
+     * @return Returns number of successfully opened channels, at least one
+     */
+    public static int probeMaxChannels(final ClientSession clientSession, final int maxProbe) {
+        final List<ClientChannel> channels = new ArrayList<>();
+        try {
+            while (channels.size() < maxProbe) {
+                final ClientChannel channel = clientSession.createExecChannel(PROBE_COMMAND);
+                try {
+                    channel.open().verify();
+                } catch (final IOException ioException) {
+                    LOGGER.debug("The server refuses {} channel", channels.size() + 1, ioException);
+                    break;
+                }
+                channels.add(channel);
+            }
+        } catch (final IOException ioException) {
+            LOGGER.debug("Fail to create probe channel", ioException);
+        } finally {
+            channels.forEach(channel -> channel.close(true));
+        }
+        LOGGER.debug("The server allows at least {} channels", channels.size());
+        return Math.max(1, channels.size());
+    }
+
+    @Override
+    public void channelInitialized(final Channel channel) {
+        if (!(channel instanceof ClientChannel)) {
+            return;
+        }
+        final long startTime = System.nanoTime();
+        //The timed acquire honors the fairness, so the channel doesn't jump ahead of the waiting ones
+        if (!tryAcquire(0)) {
+            waitCount.increment();
+            final Duration timeout = waitTimeout;
+            if (!tryAcquire(timeout.toNanos())) {
+                throw new OperationSystemException("No channel permit within " + timeout + ", " + this);
+            }
+            final long waitNanos = System.nanoTime() - startTime;
+            totalWaitNanos.add(waitNanos);
+            maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        }
+        acquireCount.increment();
+        acquiredChannels.put(channel, System.nanoTime());
+    }
+
+    private boolean tryAcquire(final long timeoutNanos) {
+        try {
+            return semaphore.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (final InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new OperationSystemException(interruptedException);
+        }
+    }
+
+    @Override
+    public void channelOpenSuccess(final Channel channel) {
+        if ((channel instanceof ChannelSubsystem || Boolean.TRUE.equals(channel.getAttribute(LONG_LIVED_CHANNEL))) && acquiredChannels.remove(channel) != null) {
+            LOGGER.debug("The long-lived channel {} returns the permit", channel);
+            semaphore.release();
+        }
+    }
+
+    @Override
+    public void channelOpenFailure(final Channel channel, final Throwable reason) {
+        if (adaptiveLimit != null && acquiredChannels.containsKey(channel)) {
+            LOGGER.debug("The server refuses to open channel with {} channels in flight", getInFlight());
+            setLimit(adaptiveLimit.onOverload(System.nanoTime()));
+        }
+    }
+
+    @Override
+    public void channelClosed(final Channel channel, final Throwable reason) {
+        final Long acquiredAt = acquiredChannels.remove(channel);
+        if (acquiredAt == null) {
+            return;
+        }
+        final boolean saturated = acquiredChannels.size() + 1 + semaphore.getQueueLength() >= limit;
+        semaphore.release();
+        if (adaptiveLimit != null && reason == null && channel instanceof ChannelExec) {
+            setLimit(adaptiveLimit.onSample(acquiredAt, System.nanoTime() - acquiredAt, saturated));
+        }
+    }
+
+    /**
+     * Change max number of concurrently open channels. The decreased limit is applied when the open channels are closed.
+     * @param newLimit new limit
+     */
+    public synchronized void setLimit(final int newLimit) {
+        if (newLimit == limit) {
+            return;
+        }
+        if (newLimit < 1) {
+            throw new IllegalArgumentException("The channel limit should be positive: " + newLimit);
+        }
+        if (newLimit > limit) {
+            semaphore.release(newLimit - limit);
+        } else {
+            semaphore.reducePermits(limit - newLimit);
+        }
+        limit = newLimit;
+    }
+
+    /**
+     * Get max time the channel request waits for permit.
+     * @return Returns wait timeout
+     */
+    public Duration getWaitTimeout() {
+        return waitTimeout;
+    }
+
+    /**
+     * Set max time the channel request waits for permit.
+     * @param waitTimeout wait timeout
+     */
+    public void setWaitTimeout(final Duration waitTimeout) {
+        if (waitTimeout.isNegative()) {
+            throw new IllegalArgumentException("The wait timeout should not be negative: " + waitTimeout);
+        }
+        this.waitTimeout = waitTimeout;
+    }
+
+    /**
+     * Get max number of concurrently open channels.
+     * @return Returns limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Get adaptive limit.
+     * @return Returns adaptive limit if the limit is adaptive
+     */
+    public Optional<AdaptiveConcurrencyLimit> getAdaptiveLimit() {
+        return Optional.ofNullable(adaptiveLimit);
+    }
+
+    /**
+     * Get number of currently open limited channels.
+     * @return Returns number of channels holding permit
+     */
+    public int getInFlight() {
+        return acquiredChannels.size();
+    }
+
+    /**
+     * Get number of channel requests waiting for permit.
+     * @return Returns queue length
+     */
+    public int getQueueLength() {
+        return semaphore.getQueueLength();
+    }
+
+    /**
+     * Get number of granted permits.
+     * @return Returns acquire count
+     */
+    public long getAcquireCount() {
+        return acquireCount.sum();
+    }
+
+    /**
+     * Get number of channel requests which have waited for permit.
+     * @return Returns wait count
+     */
+    public long getWaitCount() {
+        return waitCount.sum();
+    }
+
+    /**
+     * Get total time spent by channel requests waiting for permit.
+     * @return Returns total wait time in nanoseconds
+     */
+    public long getTotalWaitNanos() {
+        return totalWaitNanos.sum();
+    }
+
+    /**
+     * Get max time spent by a channel request waiting for permit.
+     * @return Returns max wait time in nanoseconds
+     */
+    public long getMaxWaitNanos() {
+        return maxWaitNanos.get();
+    }
+
+    @Override
+    public String toString() {
+        return "SshChannelLimiter{limit=" + limit + ", inFlight=" + getInFlight() + ", queue=" + getQueueLength() + ", acquired=" + getAcquireCount() + ", waited=" + getWaitCount() + '}';
+    }
+
+    /**
+     * Fair semaphore which permits could be reduced.
+     */
+    private static final class ResizableSemaphore extends Semaphore {
+        private static final long serialVersionUID = 1L;
+
+        ResizableSemaphore(final int permits) {
+            super(permits, true);
+        }
+
+        @Override
+        protected void reducePermits(final int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+}
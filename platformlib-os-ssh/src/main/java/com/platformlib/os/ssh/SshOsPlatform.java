@@ -4,17 +4,41 @@ import com.platformlib.os.api.OsPlatform;
 import com.platformlib.os.api.enums.OperationSystem;
 import com.platformlib.os.api.enums.OsFamily;
 import com.platformlib.os.api.exception.OperationSystemException;
+import com.platformlib.os.api.exception.UnsupportedOperationSystemException;
+import com.platformlib.os.api.osi.DiskSpaceInfo;
+import com.platformlib.os.api.osi.SystemMetricsSubscriber;
+import com.platformlib.os.api.osi.SystemMetricsSubscription;
 import com.platformlib.os.core.AbstractOsPlatform;
+import com.platformlib.os.core.bean.DiskSpaceInfoBean;
+import com.platformlib.os.core.util.OsUtilities;
+import com.platformlib.os.ssh.cache.SshHostFactCache;
+import com.platformlib.os.ssh.cache.SshHostFacts;
+import com.platformlib.os.ssh.configuration.SshOsPlatformConfiguration;
 import com.platformlib.os.ssh.specification.LazySshOsSpec;
 import com.platformlib.process.ssh.builder.SshProcessBuilder;
 import com.platformlib.process.ssh.factory.SshProcessBuilderFactory;
 import com.platformlib.process.ssh.impl.SshClientSession;
+import org.apache.sshd.client.session.ClientSession;
+import org.apache.sshd.common.config.keys.KeyUtils;
+import org.apache.sshd.common.util.net.SshdSocketAddress;
+import org.apache.sshd.sftp.client.SftpClient;
 import org.apache.sshd.sftp.client.SftpClientFactory;
+import org.apache.sshd.sftp.client.extensions.openssh.OpenSSHStatExtensionInfo;
+import org.apache.sshd.sftp.client.extensions.openssh.OpenSSHStatPathExtension;
+import org.apache.sshd.sftp.client.fs.SftpFileSystem;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.nio.file.FileSystem;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
 
 /**
  * SSH based implementation {@link OsPlatform}.
@@ -22,41 +46,66 @@ import java.nio.file.FileSystem;
 @SuppressWarnings({"unchecked", "PMD.LawOfDemeter"})
 public final class SshOsPlatform extends AbstractOsPlatform implements OsPlatform {
     private static final Logger LOGGER = LoggerFactory.getLogger(SshOsPlatform.class);
+    private static final int MAX_PROBED_CHANNELS = 64;
+    private static final int STALL_INTERVALS = 3;
+    private static final Duration MIN_STALL_TIMEOUT = Duration.ofSeconds(5);
 
     private OperationSystem operationSystem;
     private OsFamily osFamily;
     private final SshClientSession sshClientSession;
+    private final SshOsPlatformConfiguration configuration;
+    private SftpFileSystem sftpFileSystem;
     private NonCloseableFileSystem sshFileSystem;
+    private SshShellChannel shellChannel;
+    private boolean shellChannelTimedOut;
+    private final SshChannelLimiter channelLimiter;
+    private volatile Consumer<SshOsPlatform> closeHandler;
 
     public SshOsPlatform(final SshClientSession sshClientSession) {
+        this(sshClientSession, new SshOsPlatformConfiguration());
+    }
+
+    public SshOsPlatform(final SshClientSession sshClientSession, final SshOsPlatformConfiguration configuration) {
         super();
         this.sshClientSession = sshClientSession;
+        this.configuration = configuration;
+        this.channelLimiter = createChannelLimiter();
+    }
+
+    private SshChannelLimiter createChannelLimiter() {
+        int maxChannels = configuration.getMaxChannels();
+        if (configuration.isProbeMaxChannels()) {
+            maxChannels = SshChannelLimiter.probeMaxChannels(sshClientSession.getClientSession(), maxChannels > 0 ? maxChannels : MAX_PROBED_CHANNELS);
+            LOGGER.debug("The probed channel limit is {}", maxChannels);
+        }
+        final SshChannelLimiter limiter;
+        if (configuration.getAdaptiveLimitConfiguration() != null) {
+            limiter = new SshChannelLimiter(new AdaptiveConcurrencyLimit(configuration.getAdaptiveLimitConfiguration(), maxChannels));
+        } else if (maxChannels > 0) {
+            limiter = new SshChannelLimiter(maxChannels);
+        } else {
+            return null;
+        }
+        limiter.setWaitTimeout(configuration.getChannelWaitTimeout());
+        sshClientSession.getClientSession().addChannelListener(limiter);
+        return limiter;
+    }
+
+    /**
+     * Get limiter of concurrently open channels of the SSH session.
+     * @return Returns channel limiter if {@link SshOsPlatformConfiguration#getMaxChannels()}, {@link SshOsPlatformConfiguration#isProbeMaxChannels()} or {@link SshOsPlatformConfiguration#getAdaptiveLimitConfiguration()} is set
+     */
+    public Optional<SshChannelLimiter> getChannelLimiter() {
+        return Optional.ofNullable(channelLimiter);
     }
 
     @Override
     public synchronized OperationSystem getOsSystem() {
         if (operationSystem == null) {
-            if (OsFamily.WINDOWS == getOsFamily()) {
-                operationSystem = OperationSystem.WINDOWS;
-            } else {
-                final String uname = osCommand("uname");
-                switch (uname) {
-                    case "AIX":
-                        operationSystem = OperationSystem.AIX;
-                        break;
-                    case "Linux":
-                        operationSystem = OperationSystem.LINUX;
-                        break;
-                    case "SunOS":
-                        operationSystem = OperationSystem.SOLARIS;
-                        break;
-                    case "Darwin":
-                        operationSystem = OperationSystem.MAC;
-                        break;
-                    default:
-                        LOGGER.warn("Unknown operating system: " + uname);
-                        operationSystem = OperationSystem.UNKNOWN;
-                }
+            //The OS family detection probes operation system as well
+            final OsFamily family = getOsFamily();
+            if (operationSystem == null) {
+                operationSystem = OsFamily.WINDOWS == family ? OperationSystem.WINDOWS : SshOsProbe.toOperationSystem(osCommand("uname"));
             }
         }
         return operationSystem;
@@ -65,22 +114,203 @@ public final class SshOsPlatform extends AbstractOsPlatform implements OsPlatfor
     @Override
     public synchronized OsFamily getOsFamily() {
         if (osFamily == null) {
-            osFamily = osCommand("echo %PATH% $PATH").contains("$PATH") ? OsFamily.WINDOWS : OsFamily.UNIX;
-            LOGGER.debug("OS family {}", osFamily);
+            final Optional<SshHostFacts> hostFacts = getCachedHostFacts();
+            if (hostFacts.isPresent()) {
+                osFamily = hostFacts.get().getOsFamily();
+                operationSystem = hostFacts.get().getOperationSystem();
+                hostFacts.get().getOsVersion().ifPresent(this::setKnownOsVersion);
+                LOGGER.debug("OS facts are taken from cache {}", hostFacts.get());
+            } else {
+                probe();
+                if (operationSystem != null) {
+                    cacheHostFacts(new SshHostFacts(osFamily, operationSystem, getKnownOsVersion().orElse(null)));
+                }
+            }
         }
         return osFamily;
     }
 
+    private Optional<SshHostFacts> getCachedHostFacts() {
+        final SshHostFactCache hostFactCache = configuration.getHostFactCache();
+        if (hostFactCache == null) {
+            return Optional.empty();
+        }
+        final ClientSession clientSession = sshClientSession.getClientSession();
+        return hostFactCache.get(getHost(clientSession.getConnectAddress()), getPort(clientSession.getConnectAddress()), KeyUtils.getFingerPrint(clientSession.getServerKey()));
+    }
+
+    private void cacheHostFacts(final SshHostFacts hostFacts) {
+        final SshHostFactCache hostFactCache = configuration.getHostFactCache();
+        if (hostFactCache != null) {
+            final ClientSession clientSession = sshClientSession.getClientSession();
+            hostFactCache.put(getHost(clientSession.getConnectAddress()), getPort(clientSession.getConnectAddress()), KeyUtils.getFingerPrint(clientSession.getServerKey()), hostFacts);
+        }
+    }
+
+    private static String getHost(final SocketAddress socketAddress) {
+        if (socketAddress instanceof InetSocketAddress) {
+            return ((InetSocketAddress) socketAddress).getHostString();
+        }
+        if (socketAddress instanceof SshdSocketAddress) {
+            return ((SshdSocketAddress) socketAddress).getHostName();
+        }
+        return String.valueOf(socketAddress);
+    }
+
+    private static int getPort(final SocketAddress socketAddress) {
+        if (socketAddress instanceof InetSocketAddress) {
+            return ((InetSocketAddress) socketAddress).getPort();
+        }
+        if (socketAddress instanceof SshdSocketAddress) {
+            return ((SshdSocketAddress) socketAddress).getPort();
+        }
+        return -1;
+    }
+
+    /**
+     * Collect OS family, operation system, OS version and current user in one round-trip.
+     */
+    private void probe() {
+        final SshOsProbe sshOsProbe = SshOsProbe.parse(osCommand(SshOsProbe.PROBE_COMMAND));
+        osFamily = sshOsProbe.getOsFamily();
+        sshOsProbe.getOperationSystem().ifPresent(probedOperationSystem -> operationSystem = probedOperationSystem);
+        sshOsProbe.getOsVersion().ifPresent(this::setKnownOsVersion);
+        sshOsProbe.getCurrentUser().ifPresent(this::setKnownCurrentUser);
+        LOGGER.debug("OS family {}, operation system {}", osFamily, operationSystem);
+    }
+
     @Override
     public synchronized FileSystem getFileSystem() {
         if (sshFileSystem == null) {
+            sshFileSystem = new NonCloseableFileSystem(getSftpFileSystem());
+        }
+        return sshFileSystem;
+    }
+
+    private synchronized SftpFileSystem getSftpFileSystem() {
+        if (sftpFileSystem == null) {
             try {
-                sshFileSystem = new NonCloseableFileSystem(SftpClientFactory.instance().createSftpFileSystem(sshClientSession.getClientSession()));
+                sftpFileSystem = SftpClientFactory.instance().createSftpFileSystem(sshClientSession.getClientSession());
             } catch (final IOException ioException) {
                 throw new OperationSystemException(ioException);
             }
         }
-        return sshFileSystem;
+        return sftpFileSystem;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The disk space usage is taken in one round-trip via statvfs@openssh.com SFTP extension if the server supports it.
+     */
+    @Override
+    public Optional<DiskSpaceInfo> getFileSystemDiskSpaceInfo(final String file) {
+        if (OsFamily.UNIX != getOsFamily()) {
+            return Optional.empty();
+        }
+        try (SftpClient sftpClient = getSftpFileSystem().getClient()) {
+            final OpenSSHStatPathExtension statPathExtension = sftpClient.getExtension(OpenSSHStatPathExtension.class);
+            if (!statPathExtension.isSupported()) {
+                LOGGER.debug("The SFTP server doesn't support {} extension", statPathExtension.getName());
+                return Optional.empty();
+            }
+            final OpenSSHStatExtensionInfo statVfs = statPathExtension.stat(file);
+            final long fragmentSize = statVfs.f_frsize == 0 ? statVfs.f_bsize : statVfs.f_frsize;
+            return Optional.of(new DiskSpaceInfoBean((statVfs.f_blocks - statVfs.f_bfree) * fragmentSize, statVfs.f_bavail * fragmentSize));
+        } catch (final IOException ioException) {
+            throw new OperationSystemException(ioException);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The command is written to the long-lived sh channel of POSIX host if {@link SshOsPlatformConfiguration#isShellChannel()} is enabled, a new exec channel is opened otherwise.
+     * The shell channel is closed and the exec channels are used from then on if a command doesn't finish within {@link SshOsPlatformConfiguration#getShellChannelTimeout()}.
+     */
+    @Override
+    public String osCommand(final String... commandAndArguments) {
+        final SshShellChannel shell = getShellChannel();
+        if (shell == null) {
+            return super.osCommand(commandAndArguments);
+        }
+        final StringBuilder command = new StringBuilder(OsUtilities.getOsCommand(commandAndArguments[0]));
+        for (int i = 1; i < commandAndArguments.length; i++) {
+            command.append(' ').append(commandAndArguments[i]);
+        }
+        final SshShellChannel.Result result = shell.execute(command.toString());
+        if (result == null) {
+            //The channel has been broken while the command waited for it
+            return super.osCommand(commandAndArguments);
+        }
+        if (result.getExitCode() != 0) {
+            LOGGER.error("The command execution failed {} because of exit code {}", commandAndArguments, result.getExitCode());
+            LOGGER.error("stdOut: {}", result.getStdOut());
+            LOGGER.error("stdErr: {}", result.getStdErr());
+            throw new OperationSystemException("Fail to execute command " + Arrays.toString(commandAndArguments));
+        }
+        return result.getStdOut();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The command written to the long-lived sh channel is run by the platform executor because the channel serves one command at a time.
+     */
+    @Override
+    public CompletionStage<String> osCommandAsync(final String... commandAndArguments) {
+        if (!isShellChannelEnabled()) {
+            return super.osCommandAsync(commandAndArguments);
+        }
+        return CompletableFuture.supplyAsync(() -> osCommand(commandAndArguments), getAsyncExecutor());
+    }
+
+    private synchronized boolean isShellChannelEnabled() {
+        return configuration.isShellChannel() && !shellChannelTimedOut && OsFamily.UNIX == osFamily;
+    }
+
+    /**
+     * Get opened shell channel, the broken channel is replaced by a new one.
+     * The shell channel is not used until the OS family is detected as UNIX by the regular exec channel, and after a command has timed out in it.
+     * @return Returns shell channel if enabled and available, null otherwise
+     */
+    private synchronized SshShellChannel getShellChannel() {
+        if (shellChannel != null && shellChannel.isTimedOut()) {
+            LOGGER.warn("The shell channel command has timed out, the commands are run in exec channels");
+            shellChannelTimedOut = true;
+            shellChannel.close();
+            shellChannel = null;
+        }
+        if (!isShellChannelEnabled()) {
+            return null;
+        }
+        if (shellChannel == null || shellChannel.isBroken()) {
+            if (shellChannel != null) {
+                LOGGER.debug("The shell channel is broken, open a new one");
+                shellChannel.close();
+            }
+            try {
+                shellChannel = SshShellChannel.open(sshClientSession.getClientSession(), configuration.getShellChannelTimeout());
+            } catch (final IOException ioException) {
+                throw new OperationSystemException(ioException);
+            }
+        }
+        return shellChannel;
+    }
+
+    /**
+     * Subscribe to host-wide system metrics of Linux host which are streamed over one long-lived exec channel.
+     * The channel runs sh loop which reads /proc files by builtins and writes a compact frame at the interval, so a snapshot doesn't cost a round-trip as reading /proc files via SFTP does.
+     * The loop is restarted if no frame arrives for the stall timeout, it's set by com.platformlib.os.ssh.metrics-stall-timeout property (ISO-8601 duration), 3 intervals but at least 5 seconds by default.
+     * @param interval sampling interval
+     * @param subscriber subscriber, it gets no snapshot until it requests them
+     * @return Returns subscription, it should be closed when it's no longer needed
+     * @throws UnsupportedOperationSystemException if the host is not Linux
+     */
+    public SystemMetricsSubscription subscribeSystemMetrics(final Duration interval, final SystemMetricsSubscriber subscriber) {
+        if (OperationSystem.LINUX != getOsSystem()) {
+            throw new UnsupportedOperationSystemException("System metrics streaming is supported for Linux hosts only, the host is " + getOsSystem());
+        }
+        final Duration defaultStallTimeout = interval.multipliedBy(STALL_INTERVALS).compareTo(MIN_STALL_TIMEOUT) < 0 ? MIN_STALL_TIMEOUT : interval.multipliedBy(STALL_INTERVALS);
+        final Duration stallTimeout = OsUtilities.getOsProperty("ssh.metrics-stall-timeout").map(Duration::parse).orElse(defaultStallTimeout);
+        return new SshSystemMetricsStream(interval, stallTimeout, subscriber, SshSystemMetricsStream.exec(sshClientSession.getClientSession(), interval));
     }
 
     @Override
@@ -88,8 +318,46 @@ public final class SshOsPlatform extends AbstractOsPlatform implements OsPlatfor
         return SshProcessBuilderFactory.newSshProcessBuilder(sshClientSession).sshOsSpecification(new LazySshOsSpec(this));
     }
 
+    /**
+     * Set handler which is called by {@link #close()} instead of closing the session, for example to return the platform to the pool.
+     * @param closeHandler close handler
+     */
+    void setCloseHandler(final Consumer<SshOsPlatform> closeHandler) {
+        this.closeHandler = closeHandler;
+    }
+
+    /**
+     * Check if the SSH session is open and authenticated.
+     * @return Returns true if the session could be used
+     */
+    boolean isSessionOpen() {
+        final ClientSession clientSession = sshClientSession.getClientSession();
+        return clientSession.isOpen() && clientSession.isAuthenticated();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The pooled platform is returned to {@link SshOsPlatformPool}.
+     */
     @Override
     public void close() {
+        final Consumer<SshOsPlatform> handler = closeHandler;
+        if (handler == null) {
+            closeSession();
+        } else {
+            handler.accept(this);
+        }
+    }
+
+    /**
+     * Release all resources and close the SSH session.
+     */
+    void closeSession() {
+        synchronized (this) {
+            if (shellChannel != null) {
+                shellChannel.close();
+            }
+        }
         sshClientSession.close();
     }
 }
@@ -0,0 +1,300 @@
+package com.platformlib.os.ssh;
+
+import com.platformlib.os.api.exception.OperationSystemException;
+import com.platformlib.os.ssh.configuration.SshOsPlatformPoolConfiguration;
+import com.platformlib.process.ssh.SshConnection;
+import com.platformlib.process.ssh.builder.SshClientSessionBuilder;
+import com.platformlib.process.ssh.impl.SshClientSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Pool of shared {@link SshOsPlatform} instances.
+ * The platforms are keyed by specification equality: the leases of equal keys share one reference-counted platform and SSH session.
+ * {@link SshOsPlatform#close()} of the leased platform returns the lease to the pool, so it should be called once per lease.
+ * The platform is checked to have an open authenticated session on lease, platforms older than max age are not leased anymore,
+ * not leased platforms are closed after idle timeout.
+ */
+public final class SshOsPlatformPool implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SshOsPlatformPool.class);
+    private static final long MAX_EVICTION_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static SshOsPlatformPool defaultPool;
+
+    private final SshOsPlatformPoolConfiguration configuration;
+    private final Map<Object, Entry> entries = new HashMap<>();
+    private final Map<SshOsPlatform, Entry> pooledPlatforms = new IdentityHashMap<>();
+    private final ScheduledExecutorService evictionExecutor;
+    private boolean closed;
+    private long leaseCount;
+    private long reuseCount;
+    private long createCount;
+    private long evictCount;
+    private long healthCheckFailureCount;
+
+    /**
+     * Default constructor.
+     * @param configuration pool configuration
+     */
+    public SshOsPlatformPool(final SshOsPlatformPoolConfiguration configuration) {
+        this.configuration = configuration;
+        this.evictionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "ssh-os-platform-pool-eviction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final long evictionIntervalMillis = Math.max(1, Math.min(MAX_EVICTION_INTERVAL_MILLIS, configuration.getIdleTimeout().toMillis() / 2));
+        evictionExecutor.scheduleWithFixedDelay(this::evict, evictionIntervalMillis, evictionIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get default pool which is used by the SSH OS platform provider in pooled mode.
+     * @return Returns default pool
+     */
+    public static synchronized SshOsPlatformPool getDefault() {
+        if (defaultPool == null) {
+            defaultPool = new SshOsPlatformPool(new SshOsPlatformPoolConfiguration());
+        }
+        return defaultPool;
+    }
+
+    /**
+     * Lease platform for SSH connection.
+     * @param sshConnection SSH connection, equal connections share the platform
+     * @return Returns leased platform
+     */
+    public SshOsPlatform lease(final SshConnection sshConnection) {
+        return lease(sshConnection, () -> SshClientSessionBuilder.defaultClient(sshConnection).build());
+    }
+
+    /**
+     * Lease platform for SSH client session builder.
+     * @param sshClientSessionBuilder SSH client session builder, equal builders share the platform
+     * @return Returns leased platform
+     */
+    public SshOsPlatform lease(final SshClientSessionBuilder sshClientSessionBuilder) {
+        return lease(sshClientSessionBuilder, sshClientSessionBuilder::build);
+    }
+
+    /**
+     * Lease platform.
+     * @param key connection identity
+     * @param sshClientSessionFactory factory of a new SSH session if there is no healthy platform for the key
+     * @return Returns leased platform
+     */
+    public SshOsPlatform lease(final Object key, final Supplier<SshClientSession> sshClientSessionFactory) {
+        final List<SshOsPlatform> platformsToClose = new ArrayList<>();
+        try {
+            synchronized (this) {
+                final SshOsPlatform pooledPlatform = leasePooled(key, platformsToClose);
+                if (pooledPlatform != null) {
+                    return pooledPlatform;
+                }
+            }
+            //The session is created outside of the lock because of key exchange and authentication round-trips
+            final SshOsPlatform sshOsPlatform = new SshOsPlatform(sshClientSessionFactory.get(), configuration.getPlatformConfiguration());
+            synchronized (this) {
+                if (closed) {
+                    platformsToClose.add(sshOsPlatform);
+                    throw new OperationSystemException("The pool is closed");
+                }
+                final SshOsPlatform pooledPlatform = leasePooled(key, platformsToClose);
+                if (pooledPlatform != null) {
+                    //Concurrent lease has created the platform already
+                    platformsToClose.add(sshOsPlatform);
+                    return pooledPlatform;
+                }
+                final Entry entry = new Entry(key, sshOsPlatform);
+                entry.references = 1;
+                entries.put(key, entry);
+                pooledPlatforms.put(sshOsPlatform, entry);
+                sshOsPlatform.setCloseHandler(this::release);
+                leaseCount++;
+                createCount++;
+                LOGGER.debug("New pooled SSH OS platform is created for {}", key);
+                return sshOsPlatform;
+            }
+        } finally {
+            platformsToClose.forEach(SshOsPlatform::closeSession);
+        }
+    }
+
+    private SshOsPlatform leasePooled(final Object key, final List<SshOsPlatform> platformsToClose) {
+        if (closed) {
+            throw new OperationSystemException("The pool is closed");
+        }
+        final Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.platform.isSessionOpen()) {
+            LOGGER.debug("The pooled SSH session of {} is closed, create a new one", key);
+            healthCheckFailureCount++;
+            retire(entry, platformsToClose);
+            return null;
+        }
+        if (System.nanoTime() - entry.createdAt >= configuration.getMaxAge().toNanos()) {
+            LOGGER.debug("The pooled SSH session of {} has reached max age, create a new one", key);
+            evictCount++;
+            retire(entry, platformsToClose);
+            return null;
+        }
+        entry.references++;
+        leaseCount++;
+        reuseCount++;
+        return entry.platform;
+    }
+
+    private void retire(final Entry entry, final List<SshOsPlatform> platformsToClose) {
+        entries.remove(entry.key, entry);
+        entry.retired = true;
+        if (entry.references == 0) {
+            pooledPlatforms.remove(entry.platform);
+            platformsToClose.add(entry.platform);
+        }
+    }
+
+    private void release(final SshOsPlatform sshOsPlatform) {
+        final List<SshOsPlatform> platformsToClose = new ArrayList<>();
+        synchronized (this) {
+            final Entry entry = pooledPlatforms.get(sshOsPlatform);
+            if (entry == null || entry.references == 0) {
+                LOGGER.warn("The SSH OS platform is not leased from the pool or already returned {}", sshOsPlatform);
+                return;
+            }
+            entry.references--;
+            if (entry.references == 0) {
+                entry.idleSince = System.nanoTime();
+                if (entry.retired) {
+                    pooledPlatforms.remove(sshOsPlatform);
+                    platformsToClose.add(sshOsPlatform);
+                }
+            }
+        }
+        platformsToClose.forEach(SshOsPlatform::closeSession);
+    }
+
+    private void evict() {
+        final List<SshOsPlatform> platformsToClose = new ArrayList<>();
+        synchronized (this) {
+            final long now = System.nanoTime();
+            for (final Entry entry : new ArrayList<>(entries.values())) {
+                final boolean idle = entry.references == 0 && now - entry.idleSince >= configuration.getIdleTimeout().toNanos();
+                if (idle || now - entry.createdAt >= configuration.getMaxAge().toNanos()) {
+                    evictCount++;
+                    retire(entry, platformsToClose);
+                }
+            }
+        }
+        platformsToClose.forEach(SshOsPlatform::closeSession);
+    }
+
+    /**
+     * Get number of leases.
+     * @return Returns lease count
+     */
+    public synchronized long getLeaseCount() {
+        return leaseCount;
+    }
+
+    /**
+     * Get number of leases served by already opened platform.
+     * @return Returns reuse count
+     */
+    public synchronized long getReuseCount() {
+        return reuseCount;
+    }
+
+    /**
+     * Get number of created platforms.
+     * @return Returns create count
+     */
+    public synchronized long getCreateCount() {
+        return createCount;
+    }
+
+    /**
+     * Get number of platforms removed from the pool because of idle timeout or max age.
+     * @return Returns evict count
+     */
+    public synchronized long getEvictCount() {
+        return evictCount;
+    }
+
+    /**
+     * Get number of platforms removed from the pool because of closed session.
+     * @return Returns health check failure count
+     */
+    public synchronized long getHealthCheckFailureCount() {
+        return healthCheckFailureCount;
+    }
+
+    /**
+     * Get number of pooled platforms.
+     * @return Returns pool size
+     */
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    /**
+     * Get number of not returned leases.
+     * @return Returns active lease count
+     */
+    public synchronized int getActiveLeaseCount() {
+        return pooledPlatforms.values().stream().mapToInt(entry -> entry.references).sum();
+    }
+
+    /**
+     * Get current channel limits of pooled platforms, for example to watch the adaptive limits of hosts.
+     * @return Returns channel limits by keys of platforms which channels are limited
+     */
+    public synchronized Map<Object, Integer> getChannelLimits() {
+        final Map<Object, Integer> channelLimits = new HashMap<>();
+        entries.forEach((key, entry) -> entry.platform.getChannelLimiter().ifPresent(channelLimiter -> channelLimits.put(key, channelLimiter.getLimit())));
+        return channelLimits;
+    }
+
+    /**
+     * Close the pool. Not leased platforms are closed immediately, leased platforms are closed when returned.
+     */
+    @Override
+    public void close() {
+        final List<SshOsPlatform> platformsToClose = new ArrayList<>();
+        synchronized (this) {
+            closed = true;
+            new ArrayList<>(entries.values()).forEach(entry -> retire(entry, platformsToClose));
+        }
+        evictionExecutor.shutdownNow();
+        platformsToClose.forEach(SshOsPlatform::closeSession);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "SshOsPlatformPool{size=" + entries.size() + ", leases=" + leaseCount + ", reuses=" + reuseCount + ", created=" + createCount + ", evicted=" + evictCount + '}';
+    }
+
+    private static final class Entry {
+        private final Object key;
+        private final SshOsPlatform platform;
+        private final long createdAt = System.nanoTime();
+        private long idleSince = createdAt;
+        private int references;
+        private boolean retired;
+
+        Entry(final Object key, final SshOsPlatform platform) {
+            this.key = key;
+            this.platform = platform;
+        }
+    }
+}
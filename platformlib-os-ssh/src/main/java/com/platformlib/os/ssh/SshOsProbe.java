@@ -0,0 +1,162 @@
+package com.platformlib.os.ssh;
+
+import com.platformlib.os.api.enums.OperationSystem;
+import com.platformlib.os.api.enums.OsFamily;
+import com.platformlib.os.api.osi.OsUser;
+import com.platformlib.os.api.osi.OsVersion;
+import com.platformlib.os.core.osi.AixOsInterfaceImpl;
+import com.platformlib.os.core.osi.LinuxOsInterfaceImpl;
+import com.platformlib.os.core.osi.MacOsInterfaceImpl;
+import com.platformlib.os.core.osi.PosixOsInterfaceImpl;
+import com.platformlib.os.core.osi.SolarisOsInterfaceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Remote OS fingerprint collected in one exec channel.
+ * The probe command is a single line which works for POSIX shells and Windows cmd: cmd prints the whole line by echo so the OS family is detected as for {@code echo %PATH% $PATH},
+ * POSIX shells run all section commands and every section output is prefixed by ::section:: marker line.
+ */
+final class SshOsProbe {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SshOsProbe.class);
+    private static final String FAMILY_SECTION = "family";
+    private static final String UNAME_SECTION = "uname";
+    private static final String ID_SECTION = "id";
+    private static final String OS_RELEASE_SECTION = "os-release";
+    private static final String RELEASE_SECTION = "release";
+    private static final String OSLEVEL_SECTION = "oslevel";
+    private static final String SW_VERS_SECTION = "sw_vers";
+    private static final String SECTION_MARKER = "::";
+
+    static final String PROBE_COMMAND = String.join("; ", Arrays.asList(
+            "echo ::" + FAMILY_SECTION + ":: %PATH% $PATH",
+            "echo ::" + UNAME_SECTION + "::", "uname",
+            "echo ::" + ID_SECTION + "::", "id",
+            "echo ::" + OS_RELEASE_SECTION + "::", "cat /etc/os-release || cat /etc/system-release || cat /etc/redhat-release",
+            "echo ::" + RELEASE_SECTION + "::", "cat /etc/release",
+            "echo ::" + OSLEVEL_SECTION + "::", "oslevel",
+            "echo ::" + SW_VERS_SECTION + "::", "sw_vers -productVersion",
+            "echo ::end::"));
+
+    private final OsFamily osFamily;
+    private final OperationSystem operationSystem;
+    private final OsVersion osVersion;
+    private final OsUser currentUser;
+
+    private SshOsProbe(final OsFamily osFamily, final OperationSystem operationSystem, final OsVersion osVersion, final OsUser currentUser) {
+        this.osFamily = osFamily;
+        this.operationSystem = operationSystem;
+        this.osVersion = osVersion;
+        this.currentUser = currentUser;
+    }
+
+    /**
+     * Parse probe command output.
+     * The sections which could not be parsed are skipped, so the corresponding facts are retrieved in the regular way.
+     * @param probeOutput probe command stdout
+     * @return Returns parsed probe
+     */
+    static SshOsProbe parse(final String probeOutput) {
+        if (probeOutput.contains("$PATH")) {
+            return new SshOsProbe(OsFamily.WINDOWS, OperationSystem.WINDOWS, null, null);
+        }
+        final Map<String, List<String>> sections = new HashMap<>();
+        List<String> sectionLines = new ArrayList<>();
+        for (final String line : probeOutput.split("\\r?\\n")) {
+            if (line.startsWith(SECTION_MARKER) && line.indexOf(SECTION_MARKER, SECTION_MARKER.length()) > 0) {
+                sectionLines = new ArrayList<>();
+                sections.put(line.substring(SECTION_MARKER.length(), line.indexOf(SECTION_MARKER, SECTION_MARKER.length())), sectionLines);
+            } else if (!line.trim().isEmpty()) {
+                sectionLines.add(line);
+            }
+        }
+        final List<String> uname = sections.getOrDefault(UNAME_SECTION, Collections.emptyList());
+        final OperationSystem operationSystem = uname.isEmpty() ? null : toOperationSystem(uname.get(0).trim());
+        return new SshOsProbe(OsFamily.UNIX, operationSystem, parseOsVersion(operationSystem, sections), parseCurrentUser(sections));
+    }
+
+    /**
+     * Map uname output to operation system.
+     * @param uname uname output
+     * @return Returns operation system
+     */
+    static OperationSystem toOperationSystem(final String uname) {
+        switch (uname) {
+            case "AIX":
+                return OperationSystem.AIX;
+            case "Linux":
+                return OperationSystem.LINUX;
+            case "SunOS":
+                return OperationSystem.SOLARIS;
+            case "Darwin":
+                return OperationSystem.MAC;
+            default:
+                LOGGER.warn("Unknown operating system: " + uname);
+                return OperationSystem.UNKNOWN;
+        }
+    }
+
+    private static OsVersion parseOsVersion(final OperationSystem operationSystem, final Map<String, List<String>> sections) {
+        if (operationSystem == null) {
+            return null;
+        }
+        try {
+            switch (operationSystem) {
+                case LINUX:
+                    return sections.containsKey(OS_RELEASE_SECTION) ? LinuxOsInterfaceImpl.parseOsVersion(sections.get(OS_RELEASE_SECTION)) : null;
+                case AIX:
+                    return getSectionContent(sections, OSLEVEL_SECTION).map(AixOsInterfaceImpl::parseOsVersion).orElse(null);
+                case SOLARIS:
+                    return getSectionContent(sections, RELEASE_SECTION).map(SolarisOsInterfaceImpl::parseOsVersion).orElse(null);
+                case MAC:
+                    return getSectionContent(sections, SW_VERS_SECTION).map(MacOsInterfaceImpl::parseOsVersion).orElse(null);
+                default:
+                    return null;
+            }
+        } catch (final RuntimeException runtimeException) {
+            LOGGER.debug("Fail to parse OS version from probe output", runtimeException);
+            return null;
+        }
+    }
+
+    private static OsUser parseCurrentUser(final Map<String, List<String>> sections) {
+        try {
+            return getSectionContent(sections, ID_SECTION).map(PosixOsInterfaceImpl::parseCurrentUser).orElse(null);
+        } catch (final RuntimeException runtimeException) {
+            LOGGER.debug("Fail to parse current user from probe output", runtimeException);
+            return null;
+        }
+    }
+
+    private static Optional<String> getSectionContent(final Map<String, List<String>> sections, final String section) {
+        final List<String> lines = sections.get(section);
+        if (lines == null || lines.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(String.join("\n", lines));
+    }
+
+    OsFamily getOsFamily() {
+        return osFamily;
+    }
+
+    Optional<OperationSystem> getOperationSystem() {
+        return Optional.ofNullable(operationSystem);
+    }
+
+    Optional<OsVersion> getOsVersion() {
+        return Optional.ofNullable(osVersion);
+    }
+
+    Optional<OsUser> getCurrentUser() {
+        return Optional.ofNullable(currentUser);
+    }
+}
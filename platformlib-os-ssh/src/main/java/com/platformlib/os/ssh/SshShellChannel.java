@@ -0,0 +1,261 @@
+package com.platformlib.os.ssh;
+
+import com.platformlib.os.api.exception.OperationSystemException;
+import org.apache.sshd.client.channel.ChannelExec;
+import org.apache.sshd.client.session.ClientSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Long-lived POSIX sh exec channel which runs commands one by one.
+ * Every command is passed quoted to sh -c with closed stdin, so a malformed command fails alone and doesn't change the shell state,
+ * and it is followed by stdout and stderr end markers, the stdout marker carries the command exit code.
+ * Commands are serialized, the channel is broken and should be replaced if the shell exits.
+ * The command which doesn't finish within the command timeout closes the channel, so neither it nor the commands waiting for the channel block forever.
+ */
+final class SshShellChannel implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SshShellChannel.class);
+    private static final int END_OF_LINE = '\n';
+    private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "ssh-shell-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ChannelExec channelExec;
+    private final Duration commandTimeout;
+    private final OutputStream stdIn;
+    private final InputStream stdOut;
+    private final String marker = "__platformlib_os_" + UUID.randomUUID().toString().replace("-", "") + "__";
+    private final Object stdErrLock = new Object();
+    private CompletableFuture<String> stdErrFuture;
+    private long commandCount;
+    private volatile boolean broken;
+    private volatile boolean timedOut;
+
+    private SshShellChannel(final ChannelExec channelExec, final Duration commandTimeout) {
+        this.channelExec = channelExec;
+        this.commandTimeout = commandTimeout;
+        this.stdIn = channelExec.getInvertedIn();
+        this.stdOut = new BufferedInputStream(channelExec.getInvertedOut());
+        final Thread stdErrReader = new Thread(this::readStdErr, "ssh-shell-stderr-" + channelExec.getSession().getRemoteAddress());
+        stdErrReader.setDaemon(true);
+        stdErrReader.start();
+    }
+
+    /**
+     * Open sh exec channel.
+     * @param clientSession client session
+     * @param commandTimeout max time to wait for command result
+     * @return Returns opened shell channel
+     * @throws IOException if the channel could not be opened
+     */
+    static SshShellChannel open(final ClientSession clientSession, final Duration commandTimeout) throws IOException {
+        final ChannelExec channelExec = clientSession.createExecChannel("sh");
+        channelExec.setAttribute(SshChannelLimiter.LONG_LIVED_CHANNEL, Boolean.TRUE);
+        channelExec.open().verify();
+        return new SshShellChannel(channelExec, commandTimeout);
+    }
+
+    /**
+     * Check if the shell is not able to run commands anymore.
+     * @return Returns true if the shell has exited or the channel is closed
+     */
+    boolean isBroken() {
+        return broken || !channelExec.isOpen();
+    }
+
+    /**
+     * Check if the channel is closed because a command has not finished within the command timeout.
+     * @return Returns true if a command has timed out
+     */
+    boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * Run command.
+     * @param command command line
+     * @return Returns command result, null if the channel is broken before the command is written, so the command is not run
+     * @throws OperationSystemException if the shell has exited or the command has not finished within the command timeout
+     */
+    synchronized Result execute(final String command) {
+        if (isBroken()) {
+            return null;
+        }
+        final String commandMarker = marker + (++commandCount);
+        final CompletableFuture<String> stdErr = new CompletableFuture<>();
+        synchronized (stdErrLock) {
+            stdErrFuture = stdErr;
+        }
+        final AtomicBoolean finished = new AtomicBoolean();
+        //Closing the channel ends the blocked stdout and stderr reads
+        final ScheduledFuture<?> watchdog = WATCHDOG.schedule(() -> {
+            if (finished.compareAndSet(false, true)) {
+                timedOut = true;
+                broken = true;
+                channelExec.close(true);
+            }
+        }, commandTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        try {
+            final String framedCommand = "sh -c '" + command.replace("'", "'\\''") + "' </dev/null\n"
+                    + "printf '\\n%s %d\\n' '" + commandMarker + "' \"$?\"\n"
+                    + "printf '\\n%s\\n' '" + commandMarker + "' >&2\n";
+            stdIn.write(framedCommand.getBytes(Charset.defaultCharset()));
+            stdIn.flush();
+            final byte[] endMarker = (commandMarker + ' ').getBytes(Charset.defaultCharset());
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            final ByteArrayOutputStream line = new ByteArrayOutputStream();
+            while (true) {
+                if (!readLine(stdOut, line)) {
+                    throw new IOException("The shell has exited");
+                }
+                if (startsWith(line, endMarker)) {
+                    final int exitCode = Integer.parseInt(new String(line.toByteArray(), endMarker.length, line.size() - endMarker.length, Charset.defaultCharset()).trim());
+                    return new Result(exitCode, trimMarkerNewLine(output), trimMarkerNewLine(stdErr.get()));
+                }
+                line.writeTo(output);
+                output.write(END_OF_LINE);
+            }
+        } catch (final IOException | ExecutionException | RuntimeException exception) {
+            broken = true;
+            if (timedOut) {
+                LOGGER.error("The command {} has not finished in shell channel within {}", command, commandTimeout);
+                throw new OperationSystemException("The command has not finished within " + commandTimeout + ": " + command);
+            }
+            LOGGER.error("Fail to execute command {} in shell channel", command);
+            throw new OperationSystemException(exception);
+        } catch (final InterruptedException interruptedException) {
+            broken = true;
+            Thread.currentThread().interrupt();
+            throw new OperationSystemException(interruptedException);
+        } finally {
+            if (finished.compareAndSet(false, true)) {
+                watchdog.cancel(false);
+            }
+        }
+    }
+
+    private void readStdErr() {
+        try (InputStream stdErr = new BufferedInputStream(channelExec.getInvertedErr())) {
+            final byte[] markerBytes = marker.getBytes(Charset.defaultCharset());
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            final ByteArrayOutputStream line = new ByteArrayOutputStream();
+            while (readLine(stdErr, line)) {
+                if (startsWith(line, markerBytes)) {
+                    final String stdErrOutput = new String(output.toByteArray(), Charset.defaultCharset());
+                    output.reset();
+                    synchronized (stdErrLock) {
+                        if (stdErrFuture != null) {
+                            stdErrFuture.complete(stdErrOutput);
+                        }
+                    }
+                } else {
+                    line.writeTo(output);
+                    output.write(END_OF_LINE);
+                }
+            }
+        } catch (final IOException ioException) {
+            LOGGER.debug("Fail to read shell channel stderr", ioException);
+        } finally {
+            broken = true;
+            synchronized (stdErrLock) {
+                if (stdErrFuture != null) {
+                    stdErrFuture.completeExceptionally(new IOException("The shell has exited"));
+                }
+            }
+        }
+    }
+
+    private static boolean readLine(final InputStream is, final ByteArrayOutputStream line) throws IOException {
+        line.reset();
+        int b;
+        while ((b = is.read()) != -1) {
+            if (b == END_OF_LINE) {
+                return true;
+            }
+            line.write(b);
+        }
+        return false;
+    }
+
+    private static boolean startsWith(final ByteArrayOutputStream line, final byte[] prefix) {
+        if (line.size() < prefix.length) {
+            return false;
+        }
+        final byte[] lineBytes = line.toByteArray();
+        for (int i = 0; i < prefix.length; i++) {
+            if (lineBytes[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Remove the new line printed before the marker and the trailing new line of the output.
+     */
+    private static String trimMarkerNewLine(final ByteArrayOutputStream output) {
+        return trimMarkerNewLine(new String(output.toByteArray(), Charset.defaultCharset()));
+    }
+
+    private static String trimMarkerNewLine(final String output) {
+        String result = output.endsWith("\n") ? output.substring(0, output.length() - 1) : output;
+        result = result.endsWith("\n") ? result.substring(0, result.length() - 1) : result;
+        return result;
+    }
+
+    @Override
+    public void close() {
+        broken = true;
+        try {
+            channelExec.close();
+        } catch (final IOException ioException) {
+            LOGGER.debug("Fail to close shell channel", ioException);
+        }
+    }
+
+    /**
+     * Shell command result.
+     */
+    static final class Result {
+        private final int exitCode;
+        private final String stdOut;
+        private final String stdErr;
+
+        Result(final int exitCode, final String stdOut, final String stdErr) {
+            this.exitCode = exitCode;
+            this.stdOut = stdOut;
+            this.stdErr = stdErr;
+        }
+
+        int getExitCode() {
+            return exitCode;
+        }
+
+        String getStdOut() {
+            return stdOut;
+        }
+
+        String getStdErr() {
+            return stdErr;
+        }
+    }
+}
@@ -0,0 +1,416 @@
+package com.platformlib.os.ssh;
+
+import com.platformlib.os.api.exception.OperationSystemException;
+import com.platformlib.os.api.osi.SystemMetrics;
+import com.platformlib.os.api.osi.SystemMetricsSubscriber;
+import com.platformlib.os.api.osi.SystemMetricsSubscription;
+import com.platformlib.os.core.osi.ProcFsSystemMetricsParser;
+import org.apache.sshd.client.channel.ChannelExec;
+import org.apache.sshd.client.session.ClientSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link SystemMetricsSubscription} which reads frames of a sampling loop running on the host in one long-lived exec channel.
+ * The loop reads /proc files by sh builtins and writes the needed lines as one frame ended by RS (\036) character, so a snapshot costs one write and one sleep fork on the host.
+ * The frames are parsed as they arrive by the stream thread, the frame which is not delivered is skipped without parsing,
+ * so the CPU percentages of the delivered snapshot cover the time since the previously delivered one.
+ * The loop is restarted in a new channel if no frame arrives for the stall timeout or the channel ends, the stream fails after {@link #MAX_CONSECUTIVE_FAILURES} restarts in a row without a frame.
+ * The stall is detected by a watchdog which closes the stalled stream, so it doesn't depend on read timeout support of the stream.
+ */
+final class SshSystemMetricsStream implements SystemMetricsSubscription {
+    static final int MAX_CONSECUTIVE_FAILURES = 3;
+    private static final Logger LOGGER = LoggerFactory.getLogger(SshSystemMetricsStream.class);
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    private static final int FRAME_END = 0x1E;
+    private static final int MILLIS_SCALE = 3;
+    private static final int STALL_CHECKS_PER_TIMEOUT = 4;
+    private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "ssh-metrics-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Duration interval;
+    private final Duration stallTimeout;
+    private final SystemMetricsSubscriber subscriber;
+    private final FrameSource frameSource;
+    private final ProcFsSystemMetricsParser parser = new ProcFsSystemMetricsParser();
+    private final ExecutorService deliveryExecutor;
+    private final Thread streamThread;
+    private final ScheduledFuture<?> watchdog;
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicBoolean delivering = new AtomicBoolean();
+    private final AtomicLong receivedCount = new AtomicLong();
+    private final AtomicLong deliveredCount = new AtomicLong();
+    private volatile int restartCount;
+    private volatile boolean closed;
+    private volatile long lastActivityNanos;
+    private volatile boolean stalled;
+    private InputStream frames;
+
+    /**
+     * Source of frames, for example the exec channel running the sampling loop.
+     */
+    @FunctionalInterface
+    interface FrameSource {
+        /**
+         * Start the sampling loop.
+         * @param stallTimeout max time to wait for the loop start, the read of the returned stream may fail with {@link SocketTimeoutException} if no data arrives for it
+         * @return Returns stream of frames, closing the stream stops the loop and ends the blocked read
+         * @throws IOException if the loop could not be started
+         */
+        InputStream open(Duration stallTimeout) throws IOException;
+    }
+
+    /**
+     * Start the stream, the subscriber gets no snapshot until it requests them.
+     * @param interval sampling interval
+     * @param stallTimeout max time without a frame before the loop is restarted
+     * @param subscriber subscriber
+     * @param frameSource source of frames
+     */
+    SshSystemMetricsStream(final Duration interval, final Duration stallTimeout, final SystemMetricsSubscriber subscriber, final FrameSource frameSource) {
+        if (interval.isNegative() || interval.isZero() || stallTimeout.isNegative() || stallTimeout.isZero()) {
+            throw new IllegalArgumentException("The interval and stall timeout should be positive");
+        }
+        this.interval = interval;
+        this.stallTimeout = stallTimeout;
+        this.subscriber = subscriber;
+        this.frameSource = frameSource;
+        final int streamNumber = THREAD_COUNTER.incrementAndGet();
+        this.deliveryExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "ssh-metrics-delivery-" + streamNumber);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.streamThread = new Thread(this::run, "ssh-metrics-stream-" + streamNumber);
+        streamThread.setDaemon(true);
+        lastActivityNanos = System.nanoTime();
+        final long stallCheckPeriod = Math.max(stallTimeout.toNanos() / STALL_CHECKS_PER_TIMEOUT, 1);
+        this.watchdog = WATCHDOG.scheduleWithFixedDelay(this::checkStall, stallCheckPeriod, stallCheckPeriod, TimeUnit.NANOSECONDS);
+        streamThread.start();
+    }
+
+    /**
+     * Create source of frames which runs the sampling loop in a new exec channel of the session.
+     * The channel is marked by {@link SshChannelLimiter#LONG_LIVED_CHANNEL}, so it holds a channel limiter permit only while it's being opened.
+     * @param clientSession SSH client session
+     * @param interval sampling interval
+     * @return Returns frame source
+     */
+    static FrameSource exec(final ClientSession clientSession, final Duration interval) {
+        final String command = getCommand(interval);
+        return stallTimeout -> {
+            final ChannelExec channelExec = clientSession.createExecChannel(command);
+            channelExec.setAttribute(SshChannelLimiter.LONG_LIVED_CHANNEL, Boolean.TRUE);
+            try {
+                channelExec.open().verify(stallTimeout);
+            } catch (final IOException | RuntimeException exception) {
+                channelExec.close(true);
+                throw exception;
+            }
+            return new FilterInputStream(channelExec.getInvertedOut()) {
+                @Override
+                public void close() {
+                    channelExec.close(true);
+                }
+            };
+        };
+    }
+
+    /**
+     * Get command of the sampling loop.
+     * The loop writes /proc/loadavg line, uptime, the cpu and cpuN keys and btime of /proc/stat and the parsed /proc/meminfo fields, see {@link ProcFsSystemMetricsParser}.
+     * The /proc/stat lines after btime are not read. The sleep should support fractional seconds if the interval is not whole seconds.
+     * @param interval sampling interval
+     * @return Returns command line
+     */
+    static String getCommand(final Duration interval) {
+        final String sleepSeconds = BigDecimal.valueOf(interval.toMillis(), MILLIS_SCALE).stripTrailingZeros().toPlainString();
+        return "exec sh -c '"
+                + "exec 2>/dev/null\n"
+                + "n=\"\n\"\n"
+                + "while :; do\n"
+                + "read -r l < /proc/loadavg; read -r u i < /proc/uptime; f=\"$l${n}uptime $u\"\n"
+                + "while read -r k v; do case $k in cpu) f=\"$f${n}cpu $v\";; cpu*) f=\"$f$n$k\";; btime) f=\"$f${n}btime $v\"; break;; esac; done < /proc/stat\n"
+                + "while read -r k v; do case $k in MemTotal:|MemFree:|MemAvailable:|Cached:|SwapTotal:|SwapFree:) f=\"$f$n$k $v\";; esac; done < /proc/meminfo\n"
+                + "printf \"%s\\n\\036\" \"$f\" || exit\n"
+                + "sleep " + sleepSeconds + " || exit\n"
+                + "done'";
+    }
+
+    @Override
+    public Duration getInterval() {
+        return interval;
+    }
+
+    @Override
+    public void request(final long count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("The requested count should be positive");
+        }
+        demand.accumulateAndGet(count, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+    }
+
+    @Override
+    public long getReceivedCount() {
+        return receivedCount.get();
+    }
+
+    @Override
+    public long getDeliveredCount() {
+        return deliveredCount.get();
+    }
+
+    @Override
+    public int getRestartCount() {
+        return restartCount;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        watchdog.cancel(false);
+        closeFrames();
+        streamThread.interrupt();
+        deliveryExecutor.shutdown();
+    }
+
+    /**
+     * Close the open stream if no frame has arrived for the stall timeout since the last frame or the stream open, it's called by the watchdog.
+     */
+    private void checkStall() {
+        if (System.nanoTime() - lastActivityNanos < stallTimeout.toNanos()) {
+            return;
+        }
+        synchronized (this) {
+            if (frames == null) {
+                return;
+            }
+            stalled = true;
+        }
+        closeFrames();
+    }
+
+    private void run() {
+        int failures = 0;
+        long lastFrameNanos = System.nanoTime();
+        while (!closed) {
+            boolean received = false;
+            try {
+                final FrameInputStream frame = new FrameInputStream(new BufferedInputStream(openFrames()));
+                while (frame.next()) {
+                    received = true;
+                    failures = 0;
+                    lastFrameNanos = System.nanoTime();
+                    lastActivityNanos = lastFrameNanos;
+                    receivedCount.incrementAndGet();
+                    handle(frame);
+                }
+                LOGGER.debug("The system metrics stream has ended");
+            } catch (final SocketTimeoutException socketTimeoutException) {
+                stalled = true;
+            } catch (final IOException ioException) {
+                if (!stalled) {
+                    LOGGER.debug("The system metrics stream has failed", ioException);
+                }
+            } catch (final RuntimeException runtimeException) {
+                fail(runtimeException);
+                return;
+            } finally {
+                closeFrames();
+            }
+            if (stalled && !closed) {
+                final Duration silence = Duration.ofNanos(System.nanoTime() - lastFrameNanos);
+                LOGGER.debug("No system metrics frame has arrived for {}", silence);
+                deliver(() -> subscriber.onStall(silence));
+            }
+            stalled = false;
+            if (!received && ++failures >= MAX_CONSECUTIVE_FAILURES) {
+                fail(new OperationSystemException("The system metrics stream has failed " + failures + " times in a row"));
+                return;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(interval.toNanos());
+            } catch (final InterruptedException interruptedException) {
+                return;
+            }
+            if (!closed) {
+                restartCount++;
+            }
+        }
+    }
+
+    private void handle(final FrameInputStream frame) throws IOException {
+        if (demand.get() == 0 || !delivering.compareAndSet(false, true)) {
+            frame.skipFrame();
+            return;
+        }
+        final SystemMetrics systemMetrics;
+        try {
+            systemMetrics = parser.parse(frame, null);
+        } catch (final IOException | RuntimeException exception) {
+            delivering.set(false);
+            throw exception;
+        }
+        demand.getAndUpdate(current -> current == Long.MAX_VALUE ? current : current - 1);
+        deliver(() -> {
+            try {
+                deliveredCount.incrementAndGet();
+                subscriber.onNext(systemMetrics);
+            } finally {
+                delivering.set(false);
+            }
+        });
+    }
+
+    private void deliver(final Runnable notification) {
+        try {
+            deliveryExecutor.execute(() -> {
+                if (closed) {
+                    return;
+                }
+                try {
+                    notification.run();
+                } catch (final RuntimeException runtimeException) {
+                    LOGGER.warn("The system metrics subscriber failed", runtimeException);
+                }
+            });
+        } catch (final RuntimeException rejectedException) {
+            LOGGER.debug("The system metrics stream is closed, the notification is dropped", rejectedException);
+            delivering.set(false);
+        }
+    }
+
+    private void fail(final RuntimeException exception) {
+        LOGGER.debug("The system metrics stream is closed because of failure", exception);
+        //The error is delivered after the queued notifications, so it's delivered regardless of the closed flag
+        if (!closed) {
+            try {
+                deliveryExecutor.execute(() -> {
+                    try {
+                        subscriber.onError(exception);
+                    } catch (final RuntimeException runtimeException) {
+                        LOGGER.warn("The system metrics subscriber failed on error", runtimeException);
+                    }
+                });
+            } catch (final RuntimeException rejectedException) {
+                LOGGER.debug("The system metrics stream is closed, the error is dropped", rejectedException);
+            }
+        }
+        closed = true;
+        watchdog.cancel(false);
+        deliveryExecutor.shutdown();
+    }
+
+    private InputStream openFrames() throws IOException {
+        final InputStream opened = frameSource.open(stallTimeout);
+        synchronized (this) {
+            lastActivityNanos = System.nanoTime();
+            frames = opened;
+        }
+        if (closed) {
+            throw new EOFException("The system metrics stream is closed");
+        }
+        return opened;
+    }
+
+    private synchronized void closeFrames() {
+        if (frames != null) {
+            try {
+                frames.close();
+            } catch (final IOException ioException) {
+                LOGGER.debug("Fail to close system metrics stream", ioException);
+            }
+            frames = null;
+        }
+    }
+
+    /**
+     * View of one frame of the stream, the end of frame is the end of stream.
+     */
+    private static final class FrameInputStream extends InputStream {
+        private final InputStream stream;
+        private int pending = -1;
+        private boolean frameEnded = true;
+
+        FrameInputStream(final InputStream stream) {
+            this.stream = stream;
+        }
+
+        /**
+         * Wait for the next frame.
+         * @return Returns true if the frame has started, false if the stream has ended
+         */
+        boolean next() throws IOException {
+            final int first = stream.read();
+            if (first == -1) {
+                return false;
+            }
+            frameEnded = first == FRAME_END;
+            pending = frameEnded ? -1 : first;
+            return true;
+        }
+
+        void skipFrame() throws IOException {
+            while (read() != -1) {
+                //Skip till the end of frame
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (pending != -1) {
+                final int first = pending;
+                pending = -1;
+                return first;
+            }
+            if (frameEnded) {
+                return -1;
+            }
+            final int next = stream.read();
+            if (next == -1) {
+                throw new EOFException("The system metrics frame is truncated");
+            }
+            if (next == FRAME_END) {
+                frameEnded = true;
+                return -1;
+            }
+            return next;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            int count = 0;
+            while (count < length) {
+                final int next = read();
+                if (next == -1) {
+                    break;
+                }
+                bytes[offset + count++] = (byte) next;
+            }
+            return count == 0 ? -1 : count;
+        }
+    }
+}
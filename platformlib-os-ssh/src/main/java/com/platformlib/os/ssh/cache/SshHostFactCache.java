@@ -0,0 +1,178 @@
+package com.platformlib.os.ssh.cache;
+
+import com.platformlib.os.api.enums.OperationSystem;
+import com.platformlib.os.api.enums.OsFamily;
+import com.platformlib.os.api.osi.OsVersion;
+import com.platformlib.os.core.bean.OsVersionBean;
+import com.platformlib.os.core.util.OsUtilities;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Persistent cache of rarely changed host facts: OS family, operation system and OS version.
+ * The facts are keyed by host, port and server public key fingerprint, so a reinstalled host with a new host key is probed again.
+ * The cache is a properties file, an entry value is "timestamp,family,operation system,major,minor".
+ * The cache never fails the platform: I/O errors are logged and the facts are probed from the host.
+ */
+public final class SshHostFactCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SshHostFactCache.class);
+    private static final String CACHE_FILE_NAME = "ssh-host-facts.properties";
+    private static final Duration DEFAULT_TTL = Duration.ofDays(1);
+    private static final int TIMESTAMP_INDEX = 0;
+    private static final int FAMILY_INDEX = 1;
+    private static final int SYSTEM_INDEX = 2;
+    private static final int MAJOR_INDEX = 3;
+    private static final int MINOR_INDEX = 4;
+    private static final int VALUE_PARTS = 5;
+    private static SshHostFactCache defaultCache;
+
+    private final Path cacheFile;
+    private final Duration ttl;
+    private final Properties entries = new Properties();
+    private long loadedModificationTime = -1;
+
+    /**
+     * Default constructor.
+     * @param cacheFile cache file
+     * @param ttl time to live of cached facts
+     */
+    public SshHostFactCache(final Path cacheFile, final Duration ttl) {
+        this.cacheFile = cacheFile;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Get default cache instance.
+     * The cache file is ssh-host-facts.properties in com.platformlib.os.ssh.fact-cache.dir directory, $XDG_CACHE_HOME/platformlib-os or ~/.cache/platformlib-os by default.
+     * The time to live is set by com.platformlib.os.ssh.fact-cache.ttl property in ISO-8601 duration format, one day by default.
+     * @return Returns default cache
+     */
+    public static synchronized SshHostFactCache getDefault() {
+        if (defaultCache == null) {
+            final Path cacheDirectory = OsUtilities.getOsProperty("ssh.fact-cache.dir").map(Paths::get).orElseGet(() -> {
+                final String xdgCacheHome = System.getenv("XDG_CACHE_HOME");
+                final Path userCacheDirectory = xdgCacheHome == null || xdgCacheHome.isEmpty() ? Paths.get(System.getProperty("user.home"), ".cache") : Paths.get(xdgCacheHome);
+                return userCacheDirectory.resolve("platformlib-os");
+            });
+            final Duration ttl = OsUtilities.getOsProperty("ssh.fact-cache.ttl").map(Duration::parse).orElse(DEFAULT_TTL);
+            defaultCache = new SshHostFactCache(cacheDirectory.resolve(CACHE_FILE_NAME), ttl);
+        }
+        return defaultCache;
+    }
+
+    /**
+     * Get cached host facts.
+     * @param host host
+     * @param port port
+     * @param fingerprint server public key fingerprint
+     * @return Returns cached host facts if present and not expired, {@link Optional#empty()} otherwise
+     */
+    public synchronized Optional<SshHostFacts> get(final String host, final int port, final String fingerprint) {
+        reloadIfModified();
+        final String value = entries.getProperty(toKey(host, port, fingerprint));
+        if (value == null) {
+            return Optional.empty();
+        }
+        final String[] parts = value.split(",", -1);
+        try {
+            if (parts.length != VALUE_PARTS || System.currentTimeMillis() - Long.parseLong(parts[TIMESTAMP_INDEX]) > ttl.toMillis()) {
+                return Optional.empty();
+            }
+            final OsVersion osVersion = parts[MAJOR_INDEX].isEmpty() ? null : new OsVersionBean(Integer.parseInt(parts[MAJOR_INDEX]), parts[MINOR_INDEX].isEmpty() ? null : Integer.valueOf(parts[MINOR_INDEX]));
+            return Optional.of(new SshHostFacts(OsFamily.valueOf(parts[FAMILY_INDEX]), OperationSystem.valueOf(parts[SYSTEM_INDEX]), osVersion));
+        } catch (final IllegalArgumentException illegalArgumentException) {
+            LOGGER.warn("Skip not parsable host facts entry {}", value);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Put host facts into the cache.
+     * @param host host
+     * @param port port
+     * @param fingerprint server public key fingerprint
+     * @param hostFacts host facts
+     */
+    public synchronized void put(final String host, final int port, final String fingerprint, final SshHostFacts hostFacts) {
+        final Optional<OsVersion> osVersion = hostFacts.getOsVersion();
+        final String value = String.join(",",
+                String.valueOf(System.currentTimeMillis()),
+                hostFacts.getOsFamily().name(),
+                hostFacts.getOperationSystem().name(),
+                osVersion.map(version -> String.valueOf(version.getMajor())).orElse(""),
+                osVersion.flatMap(OsVersion::getMinor).map(String::valueOf).orElse(""));
+        //Merge with changes done by other processes
+        reloadIfModified();
+        entries.setProperty(toKey(host, port, fingerprint), value);
+        store();
+    }
+
+    /**
+     * Invalidate all cached facts of the host.
+     * @param host host
+     * @param port port
+     */
+    public synchronized void invalidate(final String host, final int port) {
+        reloadIfModified();
+        final String keyPrefix = toKey(host, port, "");
+        if (entries.keySet().removeIf(key -> key.toString().startsWith(keyPrefix))) {
+            store();
+        }
+    }
+
+    /**
+     * Invalidate all cached facts.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        store();
+    }
+
+    private static String toKey(final String host, final int port, final String fingerprint) {
+        return host + ':' + port + '/' + fingerprint;
+    }
+
+    private void reloadIfModified() {
+        try {
+            final long modificationTime = Files.getLastModifiedTime(cacheFile).toMillis();
+            if (modificationTime == loadedModificationTime) {
+                return;
+            }
+            try (InputStream is = Files.newInputStream(cacheFile)) {
+                entries.clear();
+                entries.load(is);
+            }
+            loadedModificationTime = modificationTime;
+        } catch (final NoSuchFileException noSuchFileException) {
+            LOGGER.trace("The host facts cache file {} doesn't exist", cacheFile);
+        } catch (final IOException ioException) {
+            LOGGER.warn("Fail to read host facts cache file {}", cacheFile, ioException);
+        }
+    }
+
+    private void store() {
+        try {
+            Files.createDirectories(cacheFile.toAbsolutePath().getParent());
+            final Path tempFile = Files.createTempFile(cacheFile.toAbsolutePath().getParent(), CACHE_FILE_NAME, ".tmp");
+            try (OutputStream os = Files.newOutputStream(tempFile)) {
+                entries.store(os, "platformlib-os SSH host facts");
+            }
+            Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            loadedModificationTime = Files.getLastModifiedTime(cacheFile).toMillis();
+        } catch (final IOException ioException) {
+            LOGGER.warn("Fail to write host facts cache file {}", cacheFile, ioException);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.platformlib.os.ssh.cache;
+
+import com.platformlib.os.api.enums.OperationSystem;
+import com.platformlib.os.api.enums.OsFamily;
+import com.platformlib.os.api.osi.OsVersion;
+
+import java.util.Optional;
+
+/**
+ * Rarely changed host facts.
+ */
+public final class SshHostFacts {
+    private final OsFamily osFamily;
+    private final OperationSystem operationSystem;
+    private final OsVersion osVersion;
+
+    /**
+     * Default constructor.
+     * @param osFamily OS family
+     * @param operationSystem operation system
+     * @param osVersion OS version, null if unknown
+     */
+    public SshHostFacts(final OsFamily osFamily, final OperationSystem operationSystem, final OsVersion osVersion) {
+        this.osFamily = osFamily;
+        this.operationSystem = operationSystem;
+        this.osVersion = osVersion;
+    }
+
+    public OsFamily getOsFamily() {
+        return osFamily;
+    }
+
+    public OperationSystem getOperationSystem() {
+        return operationSystem;
+    }
+
+    public Optional<OsVersion> getOsVersion() {
+        return Optional.ofNullable(osVersion);
+    }
+
+    @Override
+    public String toString() {
+        return "SshHostFacts{" +
+                "osFamily=" + osFamily +
+                ", operationSystem=" + operationSystem +
+                ", osVersion=" + osVersion +
+                '}';
+    }
+}
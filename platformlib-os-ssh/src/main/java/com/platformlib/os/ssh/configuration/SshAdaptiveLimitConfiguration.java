@@ -0,0 +1,114 @@
+package com.platformlib.os.ssh.configuration;
+
+import com.platformlib.os.core.util.OsUtilities;
+
+/**
+ * Configuration of adaptive channel limit of SSH session.
+ * The default values could be set via com.platformlib.os.ssh.adaptive-limit.* system properties or environment variables.
+ */
+public class SshAdaptiveLimitConfiguration {
+    private static final int DEFAULT_MAX_LIMIT = 64;
+    private static final int DEFAULT_INITIAL_LIMIT = 4;
+    private static final double DEFAULT_LATENCY_TOLERANCE = 2.0;
+    private static final double DEFAULT_BACKOFF_RATIO = 0.5;
+
+    private int minLimit;
+    private int maxLimit;
+    private int initialLimit;
+    private double latencyTolerance;
+    private double backoffRatio;
+
+    /**
+     * Default constructor.
+     * The limit bounds are set by com.platformlib.os.ssh.adaptive-limit.min, max and initial properties, 1, 64 and 4 by default.
+     * The latency tolerance is set by com.platformlib.os.ssh.adaptive-limit.latency-tolerance property, 2.0 by default.
+     * The backoff ratio is set by com.platformlib.os.ssh.adaptive-limit.backoff-ratio property, 0.5 by default.
+     */
+    public SshAdaptiveLimitConfiguration() {
+        minLimit = OsUtilities.getOsProperty("ssh.adaptive-limit.min").map(Integer::parseInt).orElse(1);
+        maxLimit = OsUtilities.getOsProperty("ssh.adaptive-limit.max").map(Integer::parseInt).orElse(DEFAULT_MAX_LIMIT);
+        initialLimit = OsUtilities.getOsProperty("ssh.adaptive-limit.initial").map(Integer::parseInt).orElse(DEFAULT_INITIAL_LIMIT);
+        latencyTolerance = OsUtilities.getOsProperty("ssh.adaptive-limit.latency-tolerance").map(Double::parseDouble).orElse(DEFAULT_LATENCY_TOLERANCE);
+        backoffRatio = OsUtilities.getOsProperty("ssh.adaptive-limit.backoff-ratio").map(Double::parseDouble).orElse(DEFAULT_BACKOFF_RATIO);
+    }
+
+    /**
+     * Get the lowest limit the backoff goes to.
+     * @return Returns min limit
+     */
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    /**
+     * Set the lowest limit the backoff goes to.
+     * @param minLimit min limit
+     */
+    public void setMinLimit(final int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    /**
+     * Get the highest limit the increase goes to.
+     * @return Returns max limit
+     */
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    /**
+     * Set the highest limit the increase goes to.
+     * @param maxLimit max limit
+     */
+    public void setMaxLimit(final int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Get the limit of a new session.
+     * @return Returns initial limit
+     */
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    /**
+     * Set the limit of a new session.
+     * @param initialLimit initial limit
+     */
+    public void setInitialLimit(final int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    /**
+     * Get the ratio of smoothed command latency to baseline latency above which the limit is decreased.
+     * @return Returns latency tolerance
+     */
+    public double getLatencyTolerance() {
+        return latencyTolerance;
+    }
+
+    /**
+     * Set the ratio of smoothed command latency to baseline latency above which the limit is decreased.
+     * @param latencyTolerance latency tolerance, greater than 1
+     */
+    public void setLatencyTolerance(final double latencyTolerance) {
+        this.latencyTolerance = latencyTolerance;
+    }
+
+    /**
+     * Get the multiplier of the limit on latency rise or channel open failure.
+     * @return Returns backoff ratio
+     */
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    /**
+     * Set the multiplier of the limit on latency rise or channel open failure.
+     * @param backoffRatio backoff ratio, between 0 and 1
+     */
+    public void setBackoffRatio(final double backoffRatio) {
+        this.backoffRatio = backoffRatio;
+    }
+}
@@ -0,0 +1,168 @@
+package com.platformlib.os.ssh.configuration;
+
+import com.platformlib.os.core.util.OsUtilities;
+import com.platformlib.os.ssh.cache.SshHostFactCache;
+
+import java.time.Duration;
+
+/**
+ * SSH OS platform configuration.
+ * The default values could be set via com.platformlib.os.ssh.* system properties or environment variables.
+ */
+public class SshOsPlatformConfiguration {
+    private static final Duration DEFAULT_CHANNEL_WAIT_TIMEOUT = Duration.ofMinutes(1);
+    private static final Duration DEFAULT_SHELL_CHANNEL_TIMEOUT = Duration.ofMinutes(1);
+
+    private SshHostFactCache hostFactCache;
+    private boolean shellChannel;
+    private Duration shellChannelTimeout;
+    private int maxChannels;
+    private boolean probeMaxChannels;
+    private Duration channelWaitTimeout;
+    private SshAdaptiveLimitConfiguration adaptiveLimitConfiguration;
+
+    /**
+     * Default constructor.
+     * The host fact cache is enabled by com.platformlib.os.ssh.fact-cache property.
+     * The shell channel is enabled by com.platformlib.os.ssh.shell-channel property, its command timeout is set by com.platformlib.os.ssh.shell-channel.timeout property, 1 minute by default.
+     * The channel limit is set by com.platformlib.os.ssh.max-channels property, the number of channels or "auto" to probe the server.
+     * The max wait for a channel permit is set by com.platformlib.os.ssh.channel-wait-timeout property, 1 minute by default.
+     * The adaptive channel limit is enabled by com.platformlib.os.ssh.adaptive-limit property.
+     */
+    public SshOsPlatformConfiguration() {
+        if (OsUtilities.getOsProperty("ssh.fact-cache").map(Boolean::parseBoolean).orElse(false)) {
+            hostFactCache = SshHostFactCache.getDefault();
+        }
+        shellChannel = OsUtilities.getOsProperty("ssh.shell-channel").map(Boolean::parseBoolean).orElse(false);
+        shellChannelTimeout = OsUtilities.getOsProperty("ssh.shell-channel.timeout").map(Duration::parse).orElse(DEFAULT_SHELL_CHANNEL_TIMEOUT);
+        OsUtilities.getOsProperty("ssh.max-channels").ifPresent(maxChannelsValue -> {
+            if ("auto".equalsIgnoreCase(maxChannelsValue.trim())) {
+                probeMaxChannels = true;
+            } else {
+                maxChannels = Integer.parseInt(maxChannelsValue.trim());
+            }
+        });
+        channelWaitTimeout = OsUtilities.getOsProperty("ssh.channel-wait-timeout").map(Duration::parse).orElse(DEFAULT_CHANNEL_WAIT_TIMEOUT);
+        if (OsUtilities.getOsProperty("ssh.adaptive-limit").map(Boolean::parseBoolean).orElse(false)) {
+            adaptiveLimitConfiguration = new SshAdaptiveLimitConfiguration();
+        }
+    }
+
+    /**
+     * Get host fact cache.
+     * @return Returns host fact cache, null if the cache is disabled
+     */
+    public SshHostFactCache getHostFactCache() {
+        return hostFactCache;
+    }
+
+    /**
+     * Set host fact cache.
+     * @param hostFactCache host fact cache, null to disable the cache
+     */
+    public void setHostFactCache(final SshHostFactCache hostFactCache) {
+        this.hostFactCache = hostFactCache;
+    }
+
+    /**
+     * Check if OS commands of POSIX hosts are run in one long-lived sh channel instead of an exec channel per command.
+     * @return Returns true if the shell channel is enabled
+     */
+    public boolean isShellChannel() {
+        return shellChannel;
+    }
+
+    /**
+     * Enable or disable running OS commands of POSIX hosts in one long-lived sh channel.
+     * The commands are run in a subshell one by one, so concurrent calls wait for each other.
+     * @param shellChannel true to enable the shell channel
+     */
+    public void setShellChannel(final boolean shellChannel) {
+        this.shellChannel = shellChannel;
+    }
+
+    /**
+     * Get max time to wait for the result of a command run in the shell channel.
+     * The command which doesn't finish in time fails, the shell channel is closed and the later commands are run in exec channels.
+     * @return Returns shell channel command timeout
+     */
+    public Duration getShellChannelTimeout() {
+        return shellChannelTimeout;
+    }
+
+    /**
+     * Set max time to wait for the result of a command run in the shell channel.
+     * @param shellChannelTimeout shell channel command timeout
+     */
+    public void setShellChannelTimeout(final Duration shellChannelTimeout) {
+        this.shellChannelTimeout = shellChannelTimeout;
+    }
+
+    /**
+     * Get max number of concurrently open exec, shell and SFTP channels of the SSH session.
+     * The channel requests beyond the limit wait in FIFO order for a closed channel, see {@link #getChannelWaitTimeout()}.
+     * The long-lived shell, SFTP and system metrics channels are not counted once they're opened.
+     * @return Returns max number of channels, 0 if the channels are not limited
+     */
+    public int getMaxChannels() {
+        return maxChannels;
+    }
+
+    /**
+     * Set max number of concurrently open channels of the SSH session.
+     * @param maxChannels max number of channels, 0 to not limit the channels
+     */
+    public void setMaxChannels(final int maxChannels) {
+        this.maxChannels = maxChannels;
+    }
+
+    /**
+     * Get max time the channel request beyond the channel limit waits for a closed channel before it fails.
+     * @return Returns channel wait timeout
+     */
+    public Duration getChannelWaitTimeout() {
+        return channelWaitTimeout;
+    }
+
+    /**
+     * Set max time the channel request beyond the channel limit waits for a closed channel.
+     * @param channelWaitTimeout channel wait timeout
+     */
+    public void setChannelWaitTimeout(final Duration channelWaitTimeout) {
+        this.channelWaitTimeout = channelWaitTimeout;
+    }
+
+    /**
+     * Check if the max number of channels is discovered by opening channels until the server refuses when the platform is created.
+     * The max channels value is used as upper bound of the probe if it's set.
+     * @return Returns true if the max number of channels is probed
+     */
+    public boolean isProbeMaxChannels() {
+        return probeMaxChannels;
+    }
+
+    /**
+     * Enable or disable probing the max number of channels.
+     * @param probeMaxChannels true to probe the server
+     */
+    public void setProbeMaxChannels(final boolean probeMaxChannels) {
+        this.probeMaxChannels = probeMaxChannels;
+    }
+
+    /**
+     * Get adaptive channel limit configuration.
+     * The channel limit follows command latency and channel open failures between the configured bounds, the max channels value caps the upper bound if it's set or probed.
+     * @return Returns adaptive limit configuration, null if the adaptive limit is disabled
+     */
+    public SshAdaptiveLimitConfiguration getAdaptiveLimitConfiguration() {
+        return adaptiveLimitConfiguration;
+    }
+
+    /**
+     * Set adaptive channel limit configuration.
+     * @param adaptiveLimitConfiguration adaptive limit configuration, null to disable the adaptive limit
+     */
+    public void setAdaptiveLimitConfiguration(final SshAdaptiveLimitConfiguration adaptiveLimitConfiguration) {
+        this.adaptiveLimitConfiguration = adaptiveLimitConfiguration;
+    }
+}
@@ -0,0 +1,76 @@
+package com.platformlib.os.ssh.configuration;
+
+import com.platformlib.os.core.util.OsUtilities;
+
+import java.time.Duration;
+
+/**
+ * SSH OS platform pool configuration.
+ * The default values could be set via com.platformlib.os.ssh.pool.* system properties or environment variables in ISO-8601 duration format.
+ */
+public class SshOsPlatformPoolConfiguration {
+    private static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(5);
+    private static final Duration DEFAULT_MAX_AGE = Duration.ofHours(1);
+
+    private Duration idleTimeout;
+    private Duration maxAge;
+    private SshOsPlatformConfiguration platformConfiguration = new SshOsPlatformConfiguration();
+
+    /**
+     * Default constructor.
+     * The idle timeout is set by com.platformlib.os.ssh.pool.idle-timeout property, five minutes by default.
+     * The max age is set by com.platformlib.os.ssh.pool.max-age property, one hour by default.
+     */
+    public SshOsPlatformPoolConfiguration() {
+        idleTimeout = OsUtilities.getOsProperty("ssh.pool.idle-timeout").map(Duration::parse).orElse(DEFAULT_IDLE_TIMEOUT);
+        maxAge = OsUtilities.getOsProperty("ssh.pool.max-age").map(Duration::parse).orElse(DEFAULT_MAX_AGE);
+    }
+
+    /**
+     * Get time after which not leased platform is closed.
+     * @return Returns idle timeout
+     */
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Set time after which not leased platform is closed.
+     * @param idleTimeout idle timeout
+     */
+    public void setIdleTimeout(final Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Get time after which the platform is not leased anymore and closed when all leases are returned.
+     * @return Returns max age
+     */
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    /**
+     * Set time after which the platform is not leased anymore and closed when all leases are returned.
+     * @param maxAge max age
+     */
+    public void setMaxAge(final Duration maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Get configuration of pooled platforms.
+     * @return Returns platform configuration
+     */
+    public SshOsPlatformConfiguration getPlatformConfiguration() {
+        return platformConfiguration;
+    }
+
+    /**
+     * Set configuration of pooled platforms.
+     * @param platformConfiguration platform configuration
+     */
+    public void setPlatformConfiguration(final SshOsPlatformConfiguration platformConfiguration) {
+        this.platformConfiguration = platformConfiguration;
+    }
+}
@@ -2,13 +2,17 @@ package com.platformlib.os.ssh.provider;
 
 import com.platformlib.os.api.exception.OperationSystemException;
 import com.platformlib.os.api.provider.OsPlatformFactoryProvider;
+import com.platformlib.os.core.util.OsUtilities;
 import com.platformlib.os.ssh.SshOsPlatform;
+import com.platformlib.os.ssh.SshOsPlatformPool;
 import com.platformlib.process.ssh.SshConnection;
 import com.platformlib.process.ssh.builder.SshClientSessionBuilder;
 import com.platformlib.process.ssh.impl.SshClientSession;
 
 /**
  * SSH OS platform provider.
+ * The platforms for {@link SshConnection} and {@link SshClientSessionBuilder} specifications are leased from {@link SshOsPlatformPool#getDefault()}
+ * if com.platformlib.os.ssh.pool property is true.
  */
 public class SshOsPlatformProvider implements OsPlatformFactoryProvider<SshOsPlatform> {
     @Override
@@ -21,10 +25,17 @@ public class SshOsPlatformProvider implements OsPlatformFactoryProvider<SshOsPla
         if (specification instanceof SshClientSession) {
             return new SshOsPlatform((SshClientSession) specification);
         }
+        final boolean pooled = OsUtilities.getOsProperty("ssh.pool").map(Boolean::parseBoolean).orElse(false);
         if (specification instanceof SshClientSessionBuilder) {
+            if (pooled) {
+                return SshOsPlatformPool.getDefault().lease((SshClientSessionBuilder) specification);
+            }
             return new SshOsPlatform(((SshClientSessionBuilder) specification).build());
         }
         if (specification instanceof SshConnection) {
+            if (pooled) {
+                return SshOsPlatformPool.getDefault().lease((SshConnection) specification);
+            }
             return new SshOsPlatform(SshClientSessionBuilder.defaultClient((SshConnection) specification).build());
         }
         throw new OperationSystemException("Unsupported specification " + specification);
@@ -0,0 +1,102 @@
+package com.platformlib.os.ssh;
+
+import com.platformlib.os.ssh.configuration.SshAdaptiveLimitConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AdaptiveConcurrencyLimitTest {
+    private static final long FLAT_LATENCY = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long SLOW_LATENCY = TimeUnit.SECONDS.toNanos(1);
+
+    private static AdaptiveConcurrencyLimit newAdaptiveConcurrencyLimit(final int maxChannels) {
+        final SshAdaptiveLimitConfiguration configuration = new SshAdaptiveLimitConfiguration();
+        configuration.setMinLimit(1);
+        configuration.setMaxLimit(8);
+        configuration.setInitialLimit(2);
+        configuration.setLatencyTolerance(2.0);
+        configuration.setBackoffRatio(0.5);
+        return new AdaptiveConcurrencyLimit(configuration, maxChannels);
+    }
+
+    /**
+     * Test the limit is increased by one per limit worth of saturated samples while the latency is flat.
+     */
+    @Test
+    void testAdditiveIncrease() {
+        final AdaptiveConcurrencyLimit adaptiveConcurrencyLimit = newAdaptiveConcurrencyLimit(0);
+        long time = 0;
+        assertEquals(2, adaptiveConcurrencyLimit.onSample(time, FLAT_LATENCY, true));
+        assertEquals(3, adaptiveConcurrencyLimit.onSample(time += FLAT_LATENCY, FLAT_LATENCY, true));
+        for (int i = 0; i < 3; i++) {
+            adaptiveConcurrencyLimit.onSample(time += FLAT_LATENCY, FLAT_LATENCY, false);
+        }
+        assertEquals(3, adaptiveConcurrencyLimit.getLimit(), "Not saturated limit is not increased");
+        for (int i = 0; i < 3; i++) {
+            adaptiveConcurrencyLimit.onSample(time += FLAT_LATENCY, FLAT_LATENCY, true);
+        }
+        assertEquals(4, adaptiveConcurrencyLimit.getLimit());
+        for (int i = 0; i < 100; i++) {
+            adaptiveConcurrencyLimit.onSample(time += FLAT_LATENCY, FLAT_LATENCY, true);
+        }
+        assertEquals(8, adaptiveConcurrencyLimit.getLimit(), "The limit is capped by configured max limit");
+        assertEquals(0, adaptiveConcurrencyLimit.getDecreaseCount());
+        assertEquals(4, newAdaptiveConcurrencyLimit(4).getMaxLimit(), "The limit is capped by server channel limit");
+    }
+
+    /**
+     * Test the limit is decreased multiplicatively once per latency rise.
+     */
+    @Test
+    void testMultiplicativeDecrease() {
+        final AdaptiveConcurrencyLimit adaptiveConcurrencyLimit = newAdaptiveConcurrencyLimit(0);
+        long time = 0;
+        for (int i = 0; i < 100; i++) {
+            adaptiveConcurrencyLimit.onSample(time += FLAT_LATENCY, FLAT_LATENCY, true);
+        }
+        assertEquals(8, adaptiveConcurrencyLimit.getLimit());
+        final long slowStart = time += FLAT_LATENCY;
+        assertEquals(4, adaptiveConcurrencyLimit.onSample(slowStart, SLOW_LATENCY, true));
+        //The commands started before the decrease have been run with the old limit
+        assertEquals(4, adaptiveConcurrencyLimit.onSample(slowStart + 1, SLOW_LATENCY, true));
+        assertEquals(2, adaptiveConcurrencyLimit.onSample(slowStart + SLOW_LATENCY * 2, SLOW_LATENCY, true));
+        assertEquals(2, adaptiveConcurrencyLimit.getDecreaseCount());
+        time = slowStart + SLOW_LATENCY * 4;
+        for (int i = 0; i < 3; i++) {
+            adaptiveConcurrencyLimit.onSample(time += SLOW_LATENCY * 2, SLOW_LATENCY, true);
+        }
+        assertEquals(1, adaptiveConcurrencyLimit.getLimit(), "The limit doesn't go below min limit");
+        for (int i = 0; i < 100; i++) {
+            adaptiveConcurrencyLimit.onSample(time += FLAT_LATENCY, FLAT_LATENCY, true);
+        }
+        assertEquals(8, adaptiveConcurrencyLimit.getLimit(), "The limit is increased again after recovery");
+    }
+
+    /**
+     * Test the channel open refusal decreases the limit once per smoothed latency.
+     */
+    @Test
+    void testOverload() {
+        final AdaptiveConcurrencyLimit adaptiveConcurrencyLimit = newAdaptiveConcurrencyLimit(0);
+        long time = 0;
+        for (int i = 0; i < 100; i++) {
+            adaptiveConcurrencyLimit.onSample(time += FLAT_LATENCY, FLAT_LATENCY, true);
+        }
+        assertEquals(4, adaptiveConcurrencyLimit.onOverload(time));
+        assertEquals(4, adaptiveConcurrencyLimit.onOverload(time + 1));
+        assertEquals(2, adaptiveConcurrencyLimit.onOverload(time + FLAT_LATENCY));
+    }
+
+    /**
+     * Test invalid configuration is rejected.
+     */
+    @Test
+    void testInvalidConfiguration() {
+        final SshAdaptiveLimitConfiguration configuration = new SshAdaptiveLimitConfiguration();
+        configuration.setBackoffRatio(1.0);
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit(configuration, 0));
+    }
+}
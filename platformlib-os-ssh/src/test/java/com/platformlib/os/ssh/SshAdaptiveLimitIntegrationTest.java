@@ -0,0 +1,107 @@
+package com.platformlib.os.ssh;
+
+import com.platformlib.os.ssh.configuration.SshAdaptiveLimitConfiguration;
+import com.platformlib.os.ssh.configuration.SshOsPlatformConfiguration;
+import com.platformlib.process.core.MaskedPassword;
+import com.platformlib.process.ssh.SshConnection;
+import com.platformlib.process.ssh.builder.SshClientSessionBuilder;
+import org.apache.sshd.common.channel.Channel;
+import org.apache.sshd.common.channel.ChannelListener;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+import org.apache.sshd.server.shell.ProcessShellFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Run commands against a local SSH server which command latency grows with the number of open channels above the knee.
+ */
+@DisabledOnOs(OS.WINDOWS)
+public class SshAdaptiveLimitIntegrationTest {
+    private static final int LOCAL_SSH_PORT = 50023;
+    private static final String LOCAL_SSH_RANDOM_USERNAME = UUID.randomUUID().toString();
+    private static final String LOCAL_SSH_RANDOM_PASSWORD = UUID.randomUUID().toString();
+    private static final int KNEE = 4;
+    private static final long DELAY_PER_CHANNEL_MILLIS = 50;
+    private static final AtomicInteger OPEN_CHANNELS = new AtomicInteger();
+    private static final AtomicInteger MAX_OPEN_CHANNELS = new AtomicInteger();
+    private static SshServer sshd;
+
+    @BeforeAll
+    public static void startupLocalShhServer() throws IOException, URISyntaxException {
+        final Path hostKeyPath = Paths.get(SshAdaptiveLimitIntegrationTest.class.getResource("/com/platformlib/os/ssh/README.MD").toURI()).getParent().resolve("local-ssh-localhost.ser");
+        sshd = SshServer.setUpDefaultServer();
+        sshd.setPort(LOCAL_SSH_PORT);
+        sshd.setPasswordAuthenticator((username, password, session) -> LOCAL_SSH_RANDOM_USERNAME.equals(username) && LOCAL_SSH_RANDOM_PASSWORD.equals(password));
+        sshd.setKeyPairProvider(new SimpleGeneratorHostKeyProvider(hostKeyPath));
+        sshd.setCommandFactory((channel, command) -> {
+            final long delayMillis = DELAY_PER_CHANNEL_MILLIS * Math.max(0, OPEN_CHANNELS.get() - KNEE);
+            return new ProcessShellFactory("/bin/bash", "/bin/bash", "-c", "sleep " + delayMillis / 1000.0 + "; " + command).createShell(channel);
+        });
+        sshd.addChannelListener(new ChannelListener() {
+            @Override
+            public void channelOpenSuccess(final Channel channel) {
+                MAX_OPEN_CHANNELS.accumulateAndGet(OPEN_CHANNELS.incrementAndGet(), Math::max);
+            }
+
+            @Override
+            public void channelClosed(final Channel channel, final Throwable reason) {
+                OPEN_CHANNELS.decrementAndGet();
+            }
+        });
+        sshd.start();
+    }
+
+    @AfterAll
+    public static void shutdownLocalShhServer() throws IOException {
+        sshd.stop();
+    }
+
+    /**
+     * Test the adaptive limit backs off when the command latency grows with concurrency.
+     */
+    @Test
+    void testBackoff() throws Exception {
+        final SshConnection sshConnection = new SshConnection("localhost", LOCAL_SSH_RANDOM_USERNAME);
+        sshConnection.setPort(LOCAL_SSH_PORT);
+        sshConnection.setUserPassword(MaskedPassword.of(LOCAL_SSH_RANDOM_PASSWORD));
+        final SshOsPlatformConfiguration configuration = new SshOsPlatformConfiguration();
+        configuration.setAdaptiveLimitConfiguration(new SshAdaptiveLimitConfiguration());
+        configuration.setMaxChannels(32);
+        final ExecutorService executorService = Executors.newFixedThreadPool(32);
+        try (SshOsPlatform sshOsPlatform = new SshOsPlatform(SshClientSessionBuilder.defaultClient(sshConnection).build(), configuration)) {
+            final List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 300; i++) {
+                results.add(executorService.submit(() -> sshOsPlatform.osCommand("echo", "ok")));
+            }
+            for (final Future<String> result : results) {
+                result.get();
+            }
+            final SshChannelLimiter sshChannelLimiter = sshOsPlatform.getChannelLimiter().orElseThrow(IllegalStateException::new);
+            final AdaptiveConcurrencyLimit adaptiveConcurrencyLimit = sshChannelLimiter.getAdaptiveLimit().orElseThrow(IllegalStateException::new);
+            assertTrue(adaptiveConcurrencyLimit.getIncreaseCount() > 0, "The limit is increased while the latency is flat");
+            assertTrue(adaptiveConcurrencyLimit.getDecreaseCount() > 0, "The limit is decreased when the latency grows");
+            assertTrue(MAX_OPEN_CHANNELS.get() < 32, "The server is not flooded with channels");
+            assertTrue(sshChannelLimiter.getLimit() < 32);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.platformlib.os.ssh;
+
+import com.platformlib.os.api.exception.OperationSystemException;
+import org.apache.sshd.client.channel.ClientChannel;
+import org.apache.sshd.common.channel.Channel;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SshChannelLimiterTest {
+    private static void awaitQueueLength(final SshChannelLimiter sshChannelLimiter, final int queueLength) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (sshChannelLimiter.getQueueLength() != queueLength && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(queueLength, sshChannelLimiter.getQueueLength());
+    }
+
+    /**
+     * Test the channel beyond the limit waits for a closed channel.
+     */
+    @Test
+    void testChannelWaitsForPermit() throws Exception {
+        final SshChannelLimiter sshChannelLimiter = new SshChannelLimiter(1);
+        final ClientChannel first = Mockito.mock(ClientChannel.class);
+        final ClientChannel second = Mockito.mock(ClientChannel.class);
+        sshChannelLimiter.channelInitialized(first);
+        assertEquals(1, sshChannelLimiter.getInFlight());
+        final CompletableFuture<Void> secondInitialized = CompletableFuture.runAsync(() -> sshChannelLimiter.channelInitialized(second));
+        awaitQueueLength(sshChannelLimiter, 1);
+        assertFalse(secondInitialized.isDone());
+        sshChannelLimiter.channelClosed(first, null);
+        secondInitialized.get(5, TimeUnit.SECONDS);
+        assertEquals(1, sshChannelLimiter.getInFlight());
+        assertEquals(2, sshChannelLimiter.getAcquireCount());
+        assertEquals(1, sshChannelLimiter.getWaitCount());
+        assertTrue(sshChannelLimiter.getMaxWaitNanos() > 0);
+        assertTrue(sshChannelLimiter.getTotalWaitNanos() >= sshChannelLimiter.getMaxWaitNanos());
+        //The repeated close notification doesn't return the permit twice
+        sshChannelLimiter.channelClosed(first, null);
+        sshChannelLimiter.channelClosed(second, null);
+        sshChannelLimiter.channelClosed(second, null);
+        assertEquals(0, sshChannelLimiter.getInFlight());
+        sshChannelLimiter.channelInitialized(first);
+        assertEquals(1, sshChannelLimiter.getWaitCount());
+    }
+
+    /**
+     * Test server side channels are not limited.
+     */
+    @Test
+    void testNotClientChannelIsNotLimited() {
+        final SshChannelLimiter sshChannelLimiter = new SshChannelLimiter(1);
+        sshChannelLimiter.channelInitialized(Mockito.mock(Channel.class));
+        sshChannelLimiter.channelInitialized(Mockito.mock(Channel.class));
+        assertEquals(0, sshChannelLimiter.getInFlight());
+        assertEquals(0, sshChannelLimiter.getAcquireCount());
+    }
+
+    /**
+     * Test the increased limit releases waiting channels and the decreased limit is applied when channels are closed.
+     */
+    @Test
+    void testSetLimit() throws Exception {
+        final SshChannelLimiter sshChannelLimiter = new SshChannelLimiter(1);
+        final ClientChannel first = Mockito.mock(ClientChannel.class);
+        final ClientChannel second = Mockito.mock(ClientChannel.class);
+        final ClientChannel third = Mockito.mock(ClientChannel.class);
+        sshChannelLimiter.channelInitialized(first);
+        final CompletableFuture<Void> secondInitialized = CompletableFuture.runAsync(() -> sshChannelLimiter.channelInitialized(second));
+        awaitQueueLength(sshChannelLimiter, 1);
+        sshChannelLimiter.setLimit(2);
+        secondInitialized.get(5, TimeUnit.SECONDS);
+        assertEquals(2, sshChannelLimiter.getInFlight());
+        sshChannelLimiter.setLimit(1);
+        sshChannelLimiter.channelClosed(first, null);
+        final CompletableFuture<Void> thirdInitialized = CompletableFuture.runAsync(() -> sshChannelLimiter.channelInitialized(third));
+        awaitQueueLength(sshChannelLimiter, 1);
+        sshChannelLimiter.channelClosed(second, null);
+        thirdInitialized.get(5, TimeUnit.SECONDS);
+        assertEquals(1, sshChannelLimiter.getInFlight());
+        assertThrows(IllegalArgumentException.class, () -> sshChannelLimiter.setLimit(0));
+    }
+
+    /**
+     * Test the channel which doesn't get permit within the wait timeout or is interrupted fails and doesn't hold permit.
+     */
+    @Test
+    void testChannelWaitTimeout() {
+        final SshChannelLimiter sshChannelLimiter = new SshChannelLimiter(1);
+        sshChannelLimiter.setWaitTimeout(Duration.ofMillis(50));
+        final ClientChannel first = Mockito.mock(ClientChannel.class);
+        final ClientChannel second = Mockito.mock(ClientChannel.class);
+        sshChannelLimiter.channelInitialized(first);
+        assertThrows(OperationSystemException.class, () -> sshChannelLimiter.channelInitialized(second));
+        assertEquals(1, sshChannelLimiter.getWaitCount());
+        assertEquals(1, sshChannelLimiter.getAcquireCount());
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(OperationSystemException.class, () -> sshChannelLimiter.channelInitialized(second));
+            assertTrue(Thread.interrupted());
+        } finally {
+            Thread.interrupted();
+        }
+        assertEquals(1, sshChannelLimiter.getInFlight());
+        assertEquals(0, sshChannelLimiter.getQueueLength());
+        sshChannelLimiter.channelClosed(second, null);
+        assertEquals(1, sshChannelLimiter.getInFlight());
+        assertThrows(IllegalArgumentException.class, () -> sshChannelLimiter.setWaitTimeout(Duration.ofSeconds(-1)));
+    }
+
+    /**
+     * Test the long-lived channel returns the permit when it's opened.
+     */
+    @Test
+    void testLongLivedChannelReturnsPermit() {
+        final SshChannelLimiter sshChannelLimiter = new SshChannelLimiter(1);
+        sshChannelLimiter.setWaitTimeout(Duration.ZERO);
+        final ClientChannel longLived = Mockito.mock(ClientChannel.class);
+        final ClientChannel command = Mockito.mock(ClientChannel.class);
+        Mockito.when(longLived.getAttribute(SshChannelLimiter.LONG_LIVED_CHANNEL)).thenReturn(Boolean.TRUE);
+        sshChannelLimiter.channelInitialized(longLived);
+        sshChannelLimiter.channelOpenSuccess(longLived);
+        assertEquals(0, sshChannelLimiter.getInFlight());
+        sshChannelLimiter.channelInitialized(command);
+        sshChannelLimiter.channelOpenSuccess(command);
+        assertEquals(1, sshChannelLimiter.getInFlight());
+        assertThrows(OperationSystemException.class, () -> sshChannelLimiter.channelInitialized(longLived));
+        sshChannelLimiter.channelClosed(longLived, null);
+        sshChannelLimiter.channelClosed(command, null);
+        assertEquals(0, sshChannelLimiter.getInFlight());
+        assertEquals(2, sshChannelLimiter.getAcquireCount());
+    }
+}
@@ -51,10 +51,14 @@ public class SshOsPlatformIntegrationTest extends AbstractOsPlatformIntegrationT
 
     @Override
     protected OsPlatform getOsPlatform() {
+        return OsPlatforms.newOsPlatform(getSshConnection());
+    }
+
+    protected SshConnection getSshConnection() {
         final SshConnection sshConnection = new SshConnection("localhost", LOCAL_SSH_RANDOM_USERNAME);
         sshConnection.setPort(LOCAL_SSH_PORT);
         sshConnection.setUserPassword(MaskedPassword.of(LOCAL_SSH_RANDOM_PASSWORD));
-        return OsPlatforms.newOsPlatform(sshConnection);
+        return sshConnection;
     }
 
 }
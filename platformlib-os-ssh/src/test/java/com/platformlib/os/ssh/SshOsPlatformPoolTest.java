@@ -0,0 +1,95 @@
+package com.platformlib.os.ssh;
+
+import com.platformlib.os.ssh.configuration.SshOsPlatformPoolConfiguration;
+import com.platformlib.process.ssh.impl.SshClientSession;
+import org.apache.sshd.client.session.ClientSession;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SshOsPlatformPoolTest {
+    private static SshClientSession newSshClientSession() {
+        final ClientSession clientSession = Mockito.mock(ClientSession.class);
+        when(clientSession.isOpen()).thenReturn(true);
+        when(clientSession.isAuthenticated()).thenReturn(true);
+        final SshClientSession sshClientSession = Mockito.mock(SshClientSession.class);
+        when(sshClientSession.getClientSession()).thenReturn(clientSession);
+        return sshClientSession;
+    }
+
+    private static SshOsPlatformPoolConfiguration configuration(final Duration idleTimeout, final Duration maxAge) {
+        final SshOsPlatformPoolConfiguration configuration = new SshOsPlatformPoolConfiguration();
+        configuration.setIdleTimeout(idleTimeout);
+        configuration.setMaxAge(maxAge);
+        return configuration;
+    }
+
+    /**
+     * Test leases of equal keys share one reference-counted platform.
+     */
+    @Test
+    void testLeaseSharing() {
+        final SshClientSession sshClientSession = newSshClientSession();
+        try (SshOsPlatformPool sshOsPlatformPool = new SshOsPlatformPool(configuration(Duration.ofHours(1), Duration.ofHours(1)))) {
+            final SshOsPlatform first = sshOsPlatformPool.lease("host", () -> sshClientSession);
+            final SshOsPlatform second = sshOsPlatformPool.lease("host", SshOsPlatformPoolTest::newSshClientSession);
+            assertSame(first, second);
+            assertNotSame(first, sshOsPlatformPool.lease("other-host", SshOsPlatformPoolTest::newSshClientSession));
+            assertEquals(3, sshOsPlatformPool.getActiveLeaseCount());
+            first.close();
+            second.close();
+            verify(sshClientSession, never()).close();
+            assertEquals(1, sshOsPlatformPool.getActiveLeaseCount());
+            assertSame(first, sshOsPlatformPool.lease("host", SshOsPlatformPoolTest::newSshClientSession));
+            assertEquals(2, sshOsPlatformPool.getCreateCount());
+            assertEquals(2, sshOsPlatformPool.getReuseCount());
+        }
+        verify(sshClientSession, times(1)).close();
+    }
+
+    /**
+     * Test the platform with closed session is replaced on lease.
+     */
+    @Test
+    void testHealthCheck() {
+        final SshClientSession sshClientSession = newSshClientSession();
+        try (SshOsPlatformPool sshOsPlatformPool = new SshOsPlatformPool(configuration(Duration.ofHours(1), Duration.ofHours(1)))) {
+            final SshOsPlatform first = sshOsPlatformPool.lease("host", () -> sshClientSession);
+            first.close();
+            when(sshClientSession.getClientSession().isOpen()).thenReturn(false);
+            assertNotSame(first, sshOsPlatformPool.lease("host", SshOsPlatformPoolTest::newSshClientSession));
+            assertEquals(1, sshOsPlatformPool.getHealthCheckFailureCount());
+            verify(sshClientSession, times(1)).close();
+        }
+    }
+
+    /**
+     * Test idle platform is closed and expired platform is closed when the last lease is returned.
+     */
+    @Test
+    void testEviction() throws InterruptedException {
+        final SshClientSession idleSshClientSession = newSshClientSession();
+        final SshClientSession expiredSshClientSession = newSshClientSession();
+        try (SshOsPlatformPool sshOsPlatformPool = new SshOsPlatformPool(configuration(Duration.ofMillis(100), Duration.ofMillis(300)))) {
+            sshOsPlatformPool.lease("idle", () -> idleSshClientSession).close();
+            verify(idleSshClientSession, timeout(TimeUnit.SECONDS.toMillis(5))).close();
+            final SshOsPlatform expired = sshOsPlatformPool.lease("expired", () -> expiredSshClientSession);
+            TimeUnit.MILLISECONDS.sleep(500);
+            verify(expiredSshClientSession, never()).close();
+            assertNotSame(expired, sshOsPlatformPool.lease("expired", SshOsPlatformPoolTest::newSshClientSession));
+            expired.close();
+            verify(expiredSshClientSession, times(1)).close();
+        }
+    }
+}
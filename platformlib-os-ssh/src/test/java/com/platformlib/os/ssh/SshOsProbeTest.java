@@ -0,0 +1,56 @@
+package com.platformlib.os.ssh;
+
+import com.platformlib.os.api.enums.OperationSystem;
+import com.platformlib.os.api.enums.OsFamily;
+import com.platformlib.os.api.osi.posix.PosixOsUser;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SshOsProbeTest {
+    /**
+     * Test {@link SshOsProbe#parse(String)} for Linux.
+     */
+    @Test
+    void testParseLinux() {
+        final SshOsProbe sshOsProbe = SshOsProbe.parse(String.join("\n",
+                "::family:: %PATH% /usr/local/bin:/usr/bin:/bin",
+                "::uname::", "Linux",
+                "::id::", "uid=1000(user) gid=1001(staff) groups=1001(staff),999(docker)",
+                "::os-release::", "NAME=\"CentOS Linux\"", "VERSION=\"7 (Core)\"", "VERSION_ID=\"7.9\"",
+                "::release::",
+                "::oslevel::",
+                "::sw_vers::",
+                "::end::"));
+        assertEquals(OsFamily.UNIX, sshOsProbe.getOsFamily());
+        assertThat(sshOsProbe.getOperationSystem()).hasValue(OperationSystem.LINUX);
+        assertEquals(7, sshOsProbe.getOsVersion().orElseThrow(IllegalStateException::new).getMajor());
+        assertThat(sshOsProbe.getOsVersion().orElseThrow(IllegalStateException::new).getMinor()).hasValue(9);
+        final PosixOsUser posixOsUser = (PosixOsUser) sshOsProbe.getCurrentUser().orElseThrow(IllegalStateException::new);
+        assertEquals(1000, posixOsUser.getUser().getId());
+        assertEquals("staff", posixOsUser.getPrimaryGroup().getName());
+    }
+
+    /**
+     * Test {@link SshOsProbe#parse(String)} for AIX.
+     */
+    @Test
+    void testParseAix() {
+        final SshOsProbe sshOsProbe = SshOsProbe.parse(String.join("\n", "::family:: %PATH% /usr/bin", "::uname::", "AIX", "::id::", "::os-release::", "::release::", "::oslevel::", "7.2.0.0", "::sw_vers::", "::end::"));
+        assertThat(sshOsProbe.getOperationSystem()).hasValue(OperationSystem.AIX);
+        assertEquals(7, sshOsProbe.getOsVersion().orElseThrow(IllegalStateException::new).getMajor());
+        assertThat(sshOsProbe.getCurrentUser()).isEmpty();
+    }
+
+    /**
+     * Test {@link SshOsProbe#parse(String)} for Windows cmd which echoes the whole probe command.
+     */
+    @Test
+    void testParseWindows() {
+        final SshOsProbe sshOsProbe = SshOsProbe.parse("::family:: C:\\Windows\\system32;C:\\Windows $PATH; echo ::uname::; uname; echo ::id::; id; echo ::os-release::; cat /etc/os-release");
+        assertEquals(OsFamily.WINDOWS, sshOsProbe.getOsFamily());
+        assertThat(sshOsProbe.getOperationSystem()).hasValue(OperationSystem.WINDOWS);
+        assertThat(sshOsProbe.getOsVersion()).isEmpty();
+    }
+}
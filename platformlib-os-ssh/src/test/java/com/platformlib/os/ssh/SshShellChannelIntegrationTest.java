@@ -0,0 +1,90 @@
+package com.platformlib.os.ssh;
+
+import com.platformlib.os.api.OsPlatform;
+import com.platformlib.os.api.enums.OsFamily;
+import com.platformlib.os.api.exception.OperationSystemException;
+import com.platformlib.os.ssh.configuration.SshOsPlatformConfiguration;
+import com.platformlib.process.ssh.builder.SshClientSessionBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Run OS platform integration tests with OS commands written to the long-lived shell channel.
+ */
+public class SshShellChannelIntegrationTest extends SshOsPlatformIntegrationTest {
+    @Override
+    protected OsPlatform getOsPlatform() {
+        final SshOsPlatformConfiguration configuration = new SshOsPlatformConfiguration();
+        configuration.setShellChannel(true);
+        return new SshOsPlatform(SshClientSessionBuilder.defaultClient(getSshConnection()).build(), configuration);
+    }
+
+    /**
+     * Test {@link SshOsPlatform#osCommand(String...)} keeps the shell channel usable after failed and malformed commands.
+     */
+    @Test
+    void testOsCommand() {
+        try (SshOsPlatform sshOsPlatform = (SshOsPlatform) getOsPlatform()) {
+            assumeTrue(OsFamily.UNIX == sshOsPlatform.getOsFamily());
+            assertEquals("line1\nline2", sshOsPlatform.osCommand("printf", "'line1\\nline2'"));
+            assertThrows(OperationSystemException.class, () -> sshOsPlatform.osCommand("sh", "-c", "'echo error >&2; exit 3'"));
+            assertThrows(OperationSystemException.class, () -> sshOsPlatform.osCommand("echo", "'unbalanced"));
+            assertEquals("", sshOsPlatform.osCommand("cd", "/"));
+            assertEquals("alive", sshOsPlatform.osCommand("echo", "alive"));
+        }
+    }
+
+    /**
+     * Test the command which doesn't finish within the shell channel timeout fails and the later commands are run in exec channels.
+     */
+    @Test
+    void testShellChannelTimeout() {
+        final SshOsPlatformConfiguration configuration = new SshOsPlatformConfiguration();
+        configuration.setShellChannel(true);
+        configuration.setShellChannelTimeout(Duration.ofSeconds(1));
+        try (SshOsPlatform sshOsPlatform = new SshOsPlatform(SshClientSessionBuilder.defaultClient(getSshConnection()).build(), configuration)) {
+            assumeTrue(OsFamily.UNIX == sshOsPlatform.getOsFamily());
+            assertEquals("before", sshOsPlatform.osCommand("echo", "before"));
+            assertThrows(OperationSystemException.class, () -> sshOsPlatform.osCommand("sleep", "10"));
+            assertEquals("after", sshOsPlatform.osCommand("echo", "after"));
+        }
+    }
+
+    /**
+     * Test the sequential OS commands written to the shell channel are run faster than the commands run in exec channels.
+     */
+    @Test
+    void testShellChannelThroughput() {
+        final int commandCount = 20;
+        final long execChannelNanos;
+        try (SshOsPlatform sshOsPlatform = new SshOsPlatform(SshClientSessionBuilder.defaultClient(getSshConnection()).build(), new SshOsPlatformConfiguration())) {
+            assumeTrue(OsFamily.UNIX == sshOsPlatform.getOsFamily());
+            execChannelNanos = runEchoCommands(sshOsPlatform, commandCount);
+        }
+        final long shellChannelNanos;
+        try (SshOsPlatform sshOsPlatform = (SshOsPlatform) getOsPlatform()) {
+            shellChannelNanos = runEchoCommands(sshOsPlatform, commandCount);
+        }
+        assertTrue(shellChannelNanos < execChannelNanos, () -> "Exec channel " + commandsPerSecond(commandCount, execChannelNanos) + " commands per second, shell channel " + commandsPerSecond(commandCount, shellChannelNanos) + " commands per second");
+    }
+
+    private static long runEchoCommands(final SshOsPlatform sshOsPlatform, final int commandCount) {
+        //The session is established and the shell channel is opened before the measurement
+        assertEquals("warmup", sshOsPlatform.osCommand("echo", "warmup"));
+        final long startNanos = System.nanoTime();
+        for (int i = 0; i < commandCount; i++) {
+            assertEquals(String.valueOf(i), sshOsPlatform.osCommand("echo", String.valueOf(i)));
+        }
+        return System.nanoTime() - startNanos;
+    }
+
+    private static long commandsPerSecond(final int commandCount, final long nanos) {
+        return commandCount * Duration.ofSeconds(1).toNanos() / nanos;
+    }
+}
@@ -0,0 +1,193 @@
+package com.platformlib.os.ssh;
+
+import com.platformlib.os.api.exception.OperationSystemException;
+import com.platformlib.os.api.osi.SystemMetrics;
+import com.platformlib.os.api.osi.SystemMetricsSubscriber;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SshSystemMetricsStreamTest {
+    private static final Duration INTERVAL = Duration.ofMillis(10);
+
+    private static byte[] frame(final long busyTicks, final long idleTicks, final String uptime) {
+        return ("0.10 0.20 0.30 1/100 1234\n"
+                + "uptime " + uptime + "\n"
+                + "cpu " + busyTicks + " 0 0 " + idleTicks + " 0 0 0 0\n"
+                + "cpu0\n"
+                + "cpu1\n"
+                + "btime 1000\n"
+                + "MemTotal: 1024 kB\n"
+                + "\036").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static void awaitReceivedCount(final SshSystemMetricsStream stream, final long receivedCount) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (stream.getReceivedCount() != receivedCount && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(receivedCount, stream.getReceivedCount());
+    }
+
+    private static final class QueueSubscriber implements SystemMetricsSubscriber {
+        private final BlockingQueue<SystemMetrics> snapshots = new LinkedBlockingQueue<>();
+        private final BlockingQueue<Duration> stalls = new LinkedBlockingQueue<>();
+        private final CompletableFuture<RuntimeException> error = new CompletableFuture<>();
+
+        @Override
+        public void onNext(final SystemMetrics systemMetrics) {
+            snapshots.add(systemMetrics);
+        }
+
+        @Override
+        public void onStall(final Duration silence) {
+            stalls.add(silence);
+        }
+
+        @Override
+        public void onError(final RuntimeException exception) {
+            error.complete(exception);
+        }
+    }
+
+    /**
+     * Test only the requested snapshots are delivered and the CPU percentages cover the time since the previously delivered snapshot.
+     */
+    @Test
+    void testRequestedSnapshotsAreDelivered() throws Exception {
+        final PipedOutputStream host = new PipedOutputStream();
+        final PipedInputStream frames = new PipedInputStream(host);
+        final QueueSubscriber subscriber = new QueueSubscriber();
+        try (SshSystemMetricsStream stream = new SshSystemMetricsStream(INTERVAL, Duration.ofMinutes(1), subscriber, stallTimeout -> frames)) {
+            host.write(frame(100, 100, "10.00"));
+            awaitReceivedCount(stream, 1);
+            stream.request(1);
+            host.write(frame(200, 200, "20.00"));
+            final SystemMetrics first = subscriber.snapshots.poll(5, TimeUnit.SECONDS);
+            assertEquals(Instant.ofEpochSecond(1020), first.getTime());
+            assertEquals(Duration.ofSeconds(20), first.getCpuInterval());
+            assertEquals(2, first.getCpuCount());
+            assertEquals(50, first.getCpuUsagePercent(), 0.001);
+            host.write(frame(300, 200, "30.00"));
+            awaitReceivedCount(stream, 3);
+            stream.request(1);
+            host.write(frame(300, 400, "40.00"));
+            final SystemMetrics second = subscriber.snapshots.poll(5, TimeUnit.SECONDS);
+            assertEquals(Instant.ofEpochSecond(1040), second.getTime());
+            assertEquals(Duration.ofSeconds(20), second.getCpuInterval());
+            assertEquals(100.0 / 3, second.getCpuUsagePercent(), 0.001);
+            host.write(frame(400, 400, "50.00"));
+            awaitReceivedCount(stream, 5);
+            assertEquals(2, stream.getDeliveredCount());
+            assertNull(subscriber.snapshots.poll(50, TimeUnit.MILLISECONDS));
+            assertEquals(0, stream.getRestartCount());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new SshSystemMetricsStream(Duration.ZERO, Duration.ofMinutes(1), subscriber, stallTimeout -> frames));
+    }
+
+    /**
+     * Test the stalled stream is restarted and keeps delivering the snapshots.
+     */
+    @Test
+    void testStalledStreamIsRestarted() throws Exception {
+        final AtomicInteger openCount = new AtomicInteger();
+        final QueueSubscriber subscriber = new QueueSubscriber();
+        try (SshSystemMetricsStream stream = new SshSystemMetricsStream(INTERVAL, Duration.ofMillis(20), subscriber, stallTimeout -> {
+            if (openCount.incrementAndGet() == 2) {
+                return new ByteArrayInputStream(frame(100, 300, "10.00"));
+            }
+            return new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    throw new SocketTimeoutException("Stall timeout " + stallTimeout);
+                }
+            };
+        })) {
+            stream.request(Long.MAX_VALUE);
+            stream.request(1);
+            final SystemMetrics systemMetrics = subscriber.snapshots.poll(5, TimeUnit.SECONDS);
+            assertEquals(25, systemMetrics.getCpuUsagePercent(), 0.001);
+            assertTrue(subscriber.stalls.poll(5, TimeUnit.SECONDS).compareTo(Duration.ZERO) >= 0);
+            assertTrue(stream.getRestartCount() >= 1);
+            assertTrue(stream.getReceivedCount() >= 1);
+        }
+    }
+
+    /**
+     * Test the stall is detected when the read of the stream doesn't time out.
+     */
+    @Test
+    void testStallWithoutReadTimeout() throws Exception {
+        final QueueSubscriber subscriber = new QueueSubscriber();
+        try (SshSystemMetricsStream stream = new SshSystemMetricsStream(INTERVAL, Duration.ofMillis(20), subscriber, stallTimeout -> new InputStream() {
+            private final CountDownLatch closed = new CountDownLatch(1);
+
+            @Override
+            public int read() throws IOException {
+                try {
+                    closed.await();
+                } catch (final InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IOException("Channel is closed");
+            }
+
+            @Override
+            public void close() {
+                closed.countDown();
+            }
+        })) {
+            assertTrue(subscriber.stalls.poll(5, TimeUnit.SECONDS).compareTo(Duration.ofMillis(20)) >= 0);
+            assertTrue(subscriber.stalls.poll(5, TimeUnit.SECONDS).compareTo(Duration.ofMillis(20)) >= 0);
+            assertTrue(stream.getRestartCount() >= 1);
+            assertEquals(0, stream.getReceivedCount());
+        }
+    }
+
+    /**
+     * Test the stream fails after the restarts in a row without a frame.
+     */
+    @Test
+    void testConsecutiveFailuresFailStream() throws Exception {
+        final AtomicInteger openCount = new AtomicInteger();
+        final QueueSubscriber subscriber = new QueueSubscriber();
+        try (SshSystemMetricsStream stream = new SshSystemMetricsStream(INTERVAL, Duration.ofMillis(20), subscriber, stallTimeout -> {
+            openCount.incrementAndGet();
+            throw new IOException("Channel is not opened");
+        })) {
+            stream.request(1);
+            assertTrue(subscriber.error.get(5, TimeUnit.SECONDS) instanceof OperationSystemException);
+            assertEquals(SshSystemMetricsStream.MAX_CONSECUTIVE_FAILURES, openCount.get());
+            assertEquals(SshSystemMetricsStream.MAX_CONSECUTIVE_FAILURES - 1, stream.getRestartCount());
+            assertEquals(0, stream.getReceivedCount());
+        }
+    }
+
+    /**
+     * Test the sleep of the sampling loop.
+     */
+    @Test
+    void testCommand() {
+        assertTrue(SshSystemMetricsStream.getCommand(Duration.ofSeconds(2)).contains("sleep 2 ||"));
+        assertTrue(SshSystemMetricsStream.getCommand(Duration.ofMillis(1500)).contains("sleep 1.5 ||"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.platformlib.os.ssh.cache;
+
+import com.platformlib.os.api.enums.OperationSystem;
+import com.platformlib.os.api.enums.OsFamily;
+import com.platformlib.os.core.bean.OsVersionBean;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SshHostFactCacheTest {
+    private static final String FINGERPRINT = "SHA256:Bf/Y/YSmpVhGQ9L0Fsa+46X+ph2j3tddMHHxQP3Kx4k";
+
+    /**
+     * Test {@link SshHostFactCache} stores facts between instances.
+     */
+    @Test
+    void testPutAndGet(@TempDir final Path tempDir) {
+        final Path cacheFile = tempDir.resolve("cache").resolve("facts.properties");
+        new SshHostFactCache(cacheFile, Duration.ofHours(1)).put("host1", 22, FINGERPRINT, new SshHostFacts(OsFamily.UNIX, OperationSystem.LINUX, new OsVersionBean(8, 4)));
+        new SshHostFactCache(cacheFile, Duration.ofHours(1)).put("host2", 2222, FINGERPRINT, new SshHostFacts(OsFamily.WINDOWS, OperationSystem.WINDOWS, null));
+        final SshHostFactCache sshHostFactCache = new SshHostFactCache(cacheFile, Duration.ofHours(1));
+        final SshHostFacts hostFacts = sshHostFactCache.get("host1", 22, FINGERPRINT).orElseThrow(IllegalStateException::new);
+        assertEquals(OsFamily.UNIX, hostFacts.getOsFamily());
+        assertEquals(OperationSystem.LINUX, hostFacts.getOperationSystem());
+        assertEquals(8, hostFacts.getOsVersion().orElseThrow(IllegalStateException::new).getMajor());
+        assertThat(hostFacts.getOsVersion().orElseThrow(IllegalStateException::new).getMinor()).hasValue(4);
+        assertThat(sshHostFactCache.get("host2", 2222, FINGERPRINT).orElseThrow(IllegalStateException::new).getOsVersion()).isEmpty();
+        assertThat(sshHostFactCache.get("host1", 22, "SHA256:changed")).isEmpty();
+        assertThat(sshHostFactCache.get("host1", 2222, FINGERPRINT)).isEmpty();
+    }
+
+    /**
+     * Test {@link SshHostFactCache#invalidate(String, int)} and {@link SshHostFactCache#invalidateAll()}.
+     */
+    @Test
+    void testInvalidate(@TempDir final Path tempDir) {
+        final SshHostFactCache sshHostFactCache = new SshHostFactCache(tempDir.resolve("facts.properties"), Duration.ofHours(1));
+        sshHostFactCache.put("host1", 22, FINGERPRINT, new SshHostFacts(OsFamily.UNIX, OperationSystem.AIX, null));
+        sshHostFactCache.put("host2", 22, FINGERPRINT, new SshHostFacts(OsFamily.UNIX, OperationSystem.MAC, null));
+        sshHostFactCache.invalidate("host1", 22);
+        assertThat(sshHostFactCache.get("host1", 22, FINGERPRINT)).isEmpty();
+        assertThat(sshHostFactCache.get("host2", 22, FINGERPRINT)).isPresent();
+        sshHostFactCache.invalidateAll();
+        assertThat(new SshHostFactCache(tempDir.resolve("facts.properties"), Duration.ofHours(1)).get("host2", 22, FINGERPRINT)).isEmpty();
+    }
+
+    /**
+     * Test {@link SshHostFactCache} doesn't return expired facts.
+     */
+    @Test
+    void testExpiration(@TempDir final Path tempDir) {
+        final SshHostFactCache sshHostFactCache = new SshHostFactCache(tempDir.resolve("facts.properties"), Duration.ofMillis(-1));
+        sshHostFactCache.put("host1", 22, FINGERPRINT, new SshHostFacts(OsFamily.UNIX, OperationSystem.SOLARIS, null));
+        assertThat(sshHostFactCache.get("host1", 22, FINGERPRINT)).isEmpty();
+    }
+}
@@ -0,0 +1,173 @@
+package com.platformlib.os.virtual;
+
+import com.platformlib.os.api.OsPlatform;
+import com.platformlib.os.api.exception.OperationSystemException;
+import com.platformlib.os.api.osi.AsyncOsInterface;
+import com.platformlib.os.core.util.OsUtilities;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Executor of blocking OS platform calls on virtual threads.
+ * Every call gets its own virtual thread, so the number of calls in flight is not limited by a thread pool but by the optional max in flight bound.
+ * The blocking steps which wait for completion stages (the process executions and {@link com.platformlib.os.api.osi.OsInterface} adapters of {@link AsyncOsInterface}) park the virtual thread and release its carrier.
+ * The calls which wait on object monitors, for example the SFTP file system of the SSH platform, pin the carrier on Java 21, so the JVM adds carriers up to jdk.virtualThreadScheduler.maxPoolSize.
+ * The executor could be set as async executor of {@link com.platformlib.os.core.AbstractOsPlatform} to run the file system based steps of the platform on virtual threads.
+ */
+public final class VirtualThreadOsExecutor implements Closeable {
+    private final ExecutorService executorService;
+    private final Semaphore inFlightPermits;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    /**
+     * Default constructor.
+     * The max number of calls in flight is set by com.platformlib.os.virtual.max-in-flight property, not bounded by default.
+     */
+    public VirtualThreadOsExecutor() {
+        this(OsUtilities.getOsProperty("virtual.max-in-flight").map(Integer::parseInt).orElse(0));
+    }
+
+    /**
+     * Create executor with bounded number of calls in flight.
+     * The calls over the bound wait for a permit on their virtual threads.
+     * @param maxInFlight max number of calls in flight, 0 is not bounded
+     */
+    public VirtualThreadOsExecutor(final int maxInFlight) {
+        if (maxInFlight < 0) {
+            throw new IllegalArgumentException("The max in flight should not be negative");
+        }
+        this.inFlightPermits = maxInFlight == 0 ? null : new Semaphore(maxInFlight);
+        this.executorService = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("os-virtual-", 0).factory());
+    }
+
+    /**
+     * Run blocking call on virtual thread.
+     * @param call blocking call
+     * @param <T> call result type
+     * @return Returns future of the call result
+     */
+    public <T> CompletableFuture<T> submit(final Supplier<? extends T> call) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        execute(() -> {
+            try {
+                result.complete(call.get());
+            } catch (final Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Run blocking call of OS platform on virtual thread.
+     * @param osPlatform OS platform
+     * @param call blocking call of the platform
+     * @param <T> call result type
+     * @return Returns future of the call result
+     */
+    public <T> CompletableFuture<T> submit(final OsPlatform osPlatform, final Function<? super OsPlatform, ? extends T> call) {
+        return submit(() -> call.apply(osPlatform));
+    }
+
+    /**
+     * Run file system call of OS platform on virtual thread.
+     * @param osPlatform OS platform
+     * @param call file system call
+     * @param <T> call result type
+     * @return Returns future of the call result, the I/O failure is wrapped by {@link OperationSystemException}
+     */
+    public <T> CompletableFuture<T> submitFileSystem(final OsPlatform osPlatform, final FileSystemCall<? extends T> call) {
+        return submit(() -> {
+            try {
+                return call.call(osPlatform.getFileSystem());
+            } catch (final IOException ioException) {
+                throw new OperationSystemException(ioException);
+            }
+        });
+    }
+
+    /**
+     * Get asynchronous OS interface which runs the blocking OS interface calls of the platform on virtual threads.
+     * It's useful for the platforms which OS interface is not asynchronous.
+     * @param osPlatform OS platform
+     * @return Returns asynchronous OS interface
+     */
+    public AsyncOsInterface getAsyncOsInterface(final OsPlatform osPlatform) {
+        return new VirtualThreadOsInterface(this, osPlatform);
+    }
+
+    /**
+     * Get executor view which runs the tasks on virtual threads within the max in flight bound.
+     * @return Returns executor
+     */
+    public Executor asExecutor() {
+        return this::execute;
+    }
+
+    /**
+     * Get number of calls in flight.
+     * @return Returns calls in flight count
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Get max number of calls which have been in flight at the same time.
+     * @return Returns max calls in flight count
+     */
+    public int getMaxInFlight() {
+        return maxInFlight.get();
+    }
+
+    /**
+     * Stop accepting calls and wait for the submitted ones.
+     */
+    @Override
+    public void close() {
+        executorService.close();
+    }
+
+    private void execute(final Runnable task) {
+        executorService.execute(() -> {
+            if (inFlightPermits != null) {
+                inFlightPermits.acquireUninterruptibly();
+            }
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                task.run();
+            } finally {
+                inFlight.decrementAndGet();
+                if (inFlightPermits != null) {
+                    inFlightPermits.release();
+                }
+            }
+        });
+    }
+
+    /**
+     * File system call.
+     * @param <T> call result type
+     */
+    @FunctionalInterface
+    public interface FileSystemCall<T> {
+        /**
+         * Call file system.
+         * @param fileSystem file system of OS platform
+         * @return Returns call result
+         * @throws IOException on I/O failure
+         */
+        T call(FileSystem fileSystem) throws IOException;
+    }
+}
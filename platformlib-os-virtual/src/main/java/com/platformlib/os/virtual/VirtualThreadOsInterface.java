@@ -0,0 +1,83 @@
+package com.platformlib.os.virtual;
+
+import com.platformlib.os.api.OsPlatform;
+import com.platformlib.os.api.osi.AsyncOsInterface;
+import com.platformlib.os.api.osi.DiskSpaceInfo;
+import com.platformlib.os.api.osi.OsProcess;
+import com.platformlib.os.api.osi.OsProcessQuery;
+import com.platformlib.os.api.osi.OsProcessTermination;
+import com.platformlib.os.api.osi.OsProcessTerminationPolicy;
+import com.platformlib.os.api.osi.OsProcessTree;
+import com.platformlib.os.api.osi.OsProcessVisitor;
+import com.platformlib.os.api.osi.OsUser;
+import com.platformlib.os.api.osi.OsVersion;
+import com.platformlib.os.api.osi.SystemMetrics;
+
+import java.util.Collection;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Asynchronous OS interface which runs the blocking OS interface calls of the platform on virtual threads.
+ */
+final class VirtualThreadOsInterface implements AsyncOsInterface {
+    private final VirtualThreadOsExecutor executor;
+    private final OsPlatform osPlatform;
+
+    VirtualThreadOsInterface(final VirtualThreadOsExecutor executor, final OsPlatform osPlatform) {
+        this.executor = executor;
+        this.osPlatform = osPlatform;
+    }
+
+    @Override
+    public CompletionStage<OsVersion> getOsVersionAsync() {
+        return executor.submit(() -> osPlatform.getOsInterface().getOsVersion());
+    }
+
+    @Override
+    public CompletionStage<Collection<OsProcess>> getOsProcessesAsync() {
+        return executor.submit(() -> osPlatform.getOsInterface().getOsProcesses());
+    }
+
+    @Override
+    public CompletionStage<Collection<OsProcess>> getOsProcessesAsync(final OsProcessQuery query) {
+        return executor.submit(() -> osPlatform.getOsInterface().getOsProcesses(query));
+    }
+
+    @Override
+    public CompletionStage<Void> visitOsProcessesAsync(final OsProcessVisitor visitor) {
+        return executor.submit(() -> {
+            osPlatform.getOsInterface().visitOsProcesses(visitor);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletionStage<OsProcessTree> getOsProcessTreeAsync() {
+        return executor.submit(() -> osPlatform.getOsInterface().getOsProcessTree());
+    }
+
+    @Override
+    public CompletionStage<SystemMetrics> getSystemMetricsAsync() {
+        return executor.submit(() -> osPlatform.getOsInterface().getSystemMetrics());
+    }
+
+    @Override
+    public CompletionStage<Integer> killAsync(final int pid) {
+        return executor.submit(() -> osPlatform.getOsInterface().kill(pid));
+    }
+
+    @Override
+    public CompletionStage<OsProcessTermination> terminateAsync(final Collection<Integer> rootPids, final OsProcessTerminationPolicy policy) {
+        return executor.submit(() -> osPlatform.getOsInterface().terminate(rootPids, policy));
+    }
+
+    @Override
+    public CompletionStage<DiskSpaceInfo> getDiskSpaceInfoAsync(final String file) {
+        return executor.submit(() -> osPlatform.getOsInterface().getDiskSpaceInfo(file));
+    }
+
+    @Override
+    public CompletionStage<OsUser> getCurrentUserAsync() {
+        return executor.submit(() -> osPlatform.getOsInterface().getCurrentUser());
+    }
+}
@@ -0,0 +1,165 @@
+package com.platformlib.os.virtual;
+
+import com.platformlib.os.api.enums.OperationSystem;
+import com.platformlib.os.api.enums.OsFamily;
+import com.platformlib.os.api.exception.OperationSystemException;
+import com.platformlib.os.api.osi.OsInterface;
+import com.platformlib.os.core.AbstractOsPlatform;
+import com.platformlib.process.builder.ProcessBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VirtualThreadOsExecutorTest {
+    private static final int REMOTE_OPERATIONS = 20_000;
+
+    /**
+     * Test tens of thousands of blocking OS commands are in flight at the same time, every command emulates remote host latency.
+     * The test task runs with a small carrier pool, see jdk.virtualThreadScheduler.parallelism of the build.
+     */
+    @Test
+    void testRemoteOperationsInFlight() {
+        final ScheduledExecutorService remoteHost = Executors.newSingleThreadScheduledExecutor();
+        final List<CompletableFuture<String>> results = new ArrayList<>();
+        final long startNanos = System.nanoTime();
+        try (RemoteOsPlatform osPlatform = new RemoteOsPlatform(remoteHost, Duration.ofSeconds(2)); VirtualThreadOsExecutor executor = new VirtualThreadOsExecutor(0)) {
+            for (int i = 0; i < REMOTE_OPERATIONS; i++) {
+                final String argument = Integer.toString(i);
+                results.add(executor.submit(osPlatform, platform -> ((AbstractOsPlatform) platform).osCommand("echo", argument)));
+            }
+            CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).join();
+            assertEquals(REMOTE_OPERATIONS, executor.getMaxInFlight());
+            assertEquals(0, executor.getInFlight());
+        } finally {
+            remoteHost.shutdownNow();
+        }
+        for (int i = 0; i < REMOTE_OPERATIONS; i++) {
+            assertEquals("echo " + i, results.get(i).join());
+        }
+        assertThat(Duration.ofNanos(System.nanoTime() - startNanos)).isLessThan(Duration.ofSeconds(30));
+    }
+
+    /**
+     * Test the max in flight bound is not exceeded.
+     */
+    @Test
+    void testMaxInFlight() {
+        final ScheduledExecutorService remoteHost = Executors.newSingleThreadScheduledExecutor();
+        try (RemoteOsPlatform osPlatform = new RemoteOsPlatform(remoteHost, Duration.ofMillis(20)); VirtualThreadOsExecutor executor = new VirtualThreadOsExecutor(8)) {
+            final List<CompletableFuture<String>> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                results.add(executor.submit(osPlatform, platform -> ((AbstractOsPlatform) platform).osCommand("id")));
+            }
+            CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).join();
+            assertEquals(8, executor.getMaxInFlight());
+        } finally {
+            remoteHost.shutdownNow();
+        }
+    }
+
+    /**
+     * Test the file system call is run on virtual thread and the I/O failure is wrapped by {@link OperationSystemException}.
+     */
+    @Test
+    void testFileSystemCall() throws IOException {
+        final Path file = Files.createTempFile("virtual", ".txt");
+        Files.write(file, "text".getBytes());
+        try (RemoteOsPlatform osPlatform = new RemoteOsPlatform(null, Duration.ZERO); VirtualThreadOsExecutor executor = new VirtualThreadOsExecutor()) {
+            assertEquals("text", executor.submitFileSystem(osPlatform, fileSystem -> Thread.currentThread().isVirtual() ? Files.readString(fileSystem.getPath(file.toString())) : null).join());
+            final CompletionException completionException = assertThrows(CompletionException.class, () -> executor.submitFileSystem(osPlatform, fileSystem -> Files.size(fileSystem.getPath(file + ".missing"))).join());
+            assertThat(completionException.getCause()).isInstanceOf(OperationSystemException.class).hasCauseInstanceOf(NoSuchFileException.class);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Test the blocking OS interface calls are run on virtual threads by the asynchronous OS interface.
+     */
+    @Test
+    void testAsyncOsInterface() {
+        try (RemoteOsPlatform osPlatform = new RemoteOsPlatform(null, Duration.ZERO); VirtualThreadOsExecutor executor = new VirtualThreadOsExecutor()) {
+            assertEquals(0, executor.getAsyncOsInterface(osPlatform).killAsync(1).toCompletableFuture().join().intValue());
+            assertTrue(executor.getAsyncOsInterface(osPlatform).getOsProcessesAsync().toCompletableFuture().join().isEmpty());
+        }
+    }
+
+    /**
+     * Platform which OS commands are completed by remote host emulation after the latency, the OS interface reports whether it's called on virtual thread.
+     */
+    private static final class RemoteOsPlatform extends AbstractOsPlatform {
+        private final ScheduledExecutorService remoteHost;
+        private final Duration latency;
+        private final OsInterface osInterface = (OsInterface) Proxy.newProxyInstance(OsInterface.class.getClassLoader(), new Class<?>[]{OsInterface.class}, (proxy, method, args) -> {
+            if ("kill".equals(method.getName())) {
+                return Thread.currentThread().isVirtual() ? 0 : 1;
+            }
+            if ("getOsProcesses".equals(method.getName()) && Thread.currentThread().isVirtual()) {
+                return List.of();
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+
+        RemoteOsPlatform(final ScheduledExecutorService remoteHost, final Duration latency) {
+            this.remoteHost = remoteHost;
+            this.latency = latency;
+        }
+
+        @Override
+        public CompletionStage<String> osCommandAsync(final String... commandAndArguments) {
+            final CompletableFuture<String> result = new CompletableFuture<>();
+            remoteHost.schedule(() -> result.complete(String.join(" ", commandAndArguments)), latency.toNanos(), TimeUnit.NANOSECONDS);
+            return result;
+        }
+
+        @Override
+        public OsInterface getOsInterface() {
+            return osInterface;
+        }
+
+        @Override
+        public OperationSystem getOsSystem() {
+            return OperationSystem.LINUX;
+        }
+
+        @Override
+        public OsFamily getOsFamily() {
+            return OsFamily.UNIX;
+        }
+
+        @Override
+        public FileSystem getFileSystem() {
+            return FileSystems.getDefault();
+        }
+
+        @Override
+        public ProcessBuilder newProcessBuilder() {
+            throw new UnsupportedOperationException("The remote host emulation doesn't run processes");
+        }
+
+        @Override
+        public void close() {
+            //Nothing to close
+        }
+    }
+}